@@ -1,6 +1,9 @@
 package org.ovirt.engine.core.aaa;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class QueryData implements Serializable {
     private static final long serialVersionUID = 995908611144010190L;
@@ -9,6 +12,7 @@ public class QueryData implements Serializable {
     private long date;
     private String authz;
     private String namespace;
+    private List<String> parameters;
 
     public QueryData() {
         // needed for json serialization
@@ -21,6 +25,11 @@ public class QueryData implements Serializable {
         this.namespace = namespace;
     }
 
+    public QueryData(String query, List<String> parameters, long date, String authz, String namespace) {
+        this(query, date, authz, namespace);
+        this.parameters = new ArrayList<>(parameters);
+    }
+
     public String getAuthz() {
         return authz;
     }
@@ -33,6 +42,13 @@ public class QueryData implements Serializable {
         return query;
     }
 
+    /**
+     * @return the values of the placeholders of the query, in their order in the query
+     */
+    public List<String> getParameters() {
+        return parameters == null ? Collections.emptyList() : parameters;
+    }
+
     public long getDate() {
         return date;
     }
@@ -21,6 +21,7 @@ import org.ovirt.engine.core.dao.AuditLogDao;
 import org.ovirt.engine.core.dao.StorageDomainDynamicDao;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.di.Injector;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
 
 public class AddExternalEventCommand<T extends AddExternalEventParameters> extends ExternalEventCommandBase<T> {
 
@@ -33,6 +34,8 @@ public class AddExternalEventCommand<T extends AddExternalEventParameters> exten
     private VdsDynamicDao vdsDynamicDao;
     @Inject
     private StorageDomainDynamicDao storageDomainDynamicDao;
+    @Inject
+    private ResourceManager resourceManager;
 
     public AddExternalEventCommand(T parameters, CommandContext cmdContext) {
         super(parameters, cmdContext);
@@ -68,16 +71,16 @@ public class AddExternalEventCommand<T extends AddExternalEventParameters> exten
 
         switch (getEvent().getSeverity()){
             case NORMAL:
-                auditLogDirector.log(event, AuditLogType.EXTERNAL_EVENT_NORMAL, message);
+                auditLogDirector.logSync(event, AuditLogType.EXTERNAL_EVENT_NORMAL, message);
                 break;
             case WARNING:
-                auditLogDirector.log(event, AuditLogType.EXTERNAL_EVENT_WARNING, message);
+                auditLogDirector.logSync(event, AuditLogType.EXTERNAL_EVENT_WARNING, message);
                 break;
             case ERROR:
-                auditLogDirector.log(event, AuditLogType.EXTERNAL_EVENT_ERROR, message);
+                auditLogDirector.logSync(event, AuditLogType.EXTERNAL_EVENT_ERROR, message);
                 break;
             case ALERT:
-                auditLogDirector.log(event, AuditLogType.EXTERNAL_ALERT, message);
+                auditLogDirector.logSync(event, AuditLogType.EXTERNAL_ALERT, message);
                 break;
         }
 
@@ -91,6 +94,7 @@ public class AddExternalEventCommand<T extends AddExternalEventParameters> exten
         // Update host external status if set
         if (hasHostExternalStatus()) {
             vdsDynamicDao.updateExternalStatus(getEvent().getVdsId(), getParameters().getExternalStatus());
+            resourceManager.invalidateCachedVds(getEvent().getVdsId());
         }
         // update storage domain external status if set
         if (hasStorageDomainExternalStatus()) {
@@ -72,9 +72,9 @@ import org.ovirt.engine.core.common.utils.customprop.VmPropertiesUtils;
 import org.ovirt.engine.core.compat.DateTime;
 import org.ovirt.engine.core.compat.WindowsJavaTimezoneMapping;
 import org.ovirt.engine.core.dal.dbbroker.DbConnectionUtil;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.EventFloodControl;
 import org.ovirt.engine.core.dal.dbbroker.generic.DBConfigUtils;
 import org.ovirt.engine.core.dal.job.ExecutionMessageDirector;
-import org.ovirt.engine.core.dal.utils.CacheManager;
 import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.VdcOptionDao;
 import org.ovirt.engine.core.dao.VdsDao;
@@ -90,6 +90,7 @@ import org.ovirt.engine.core.utils.OsRepositoryImpl;
 import org.ovirt.engine.core.utils.extensionsmgr.EngineExtensionsManager;
 import org.ovirt.engine.core.utils.osinfo.OsInfoPreferencesLoader;
 import org.ovirt.engine.core.utils.timezone.TimeZoneReader;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.monitoring.VmMigrationProgressMonitoring;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -151,6 +152,9 @@ public class Backend implements BackendInternal, BackendCommandObjectsHandler {
     @Inject
     private Instance<BackendQueryExecutor> queryExecutor;
 
+    @Inject
+    private Instance<ResourceManager> resourceManager;
+
     @Inject
     private MultipleActionsRunnersFactory multipleActionsRunnersFactory;
 
@@ -234,7 +238,7 @@ public class Backend implements BackendInternal, BackendCommandObjectsHandler {
         serviceLoader.load(PreviousHostedEngineHost.class);
 
         // initialize CDI services
-        serviceLoader.load(CacheManager.class);
+        serviceLoader.load(EventFloodControl.class);
         // initialize configuration utils to use DB
         Config.setConfigUtils(dbConfigUtils);
 
@@ -347,6 +351,8 @@ public class Backend implements BackendInternal, BackendCommandObjectsHandler {
         vds.setNonOperationalReason(reason);
         vds.setStatus(VDSStatus.NonOperational);
         vdsDynamicDao.update(vds.getDynamicData());
+        // the host monitoring may already run, so make it reload the host instead of writing its cached status back
+        resourceManager.get().invalidateCachedVds(vds.getId());
     }
 
     private void initSearchDependencies() {
@@ -6,6 +6,7 @@ import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.ovirt.engine.core.bll.context.CommandContext;
@@ -83,6 +84,15 @@ public final class CommandsFactory {
     private static ConcurrentMap<Pair<Class<?>, Class<?>[]>, Constructor<?>> constructorCache =
             new ConcurrentHashMap<>();
 
+    /**
+     * The constructors of the command classes by the ordinal of their action or query type, so creating a command
+     * looks neither its class nor its constructor up once they are resolved. see {@link ResolvedConstructor}
+     */
+    private static final AtomicReferenceArray<ResolvedConstructor> actionConstructors =
+            new AtomicReferenceArray<>(ActionType.values().length);
+    private static final AtomicReferenceArray<ResolvedConstructor> queryConstructors =
+            new AtomicReferenceArray<>(QueryType.values().length);
+
     public static <P extends ActionParametersBase> CommandBase<P> createCommand(ActionType action, P parameters) {
         return createCommand(action, parameters, null);
     }
@@ -91,8 +101,12 @@ public final class CommandsFactory {
             P parameters,
             CommandContext commandContext) {
         try {
-            Constructor<?> commandConstructor =
-                    getCommandConstructor(getCommandClass(action.name()), parameters.getClass(), CommandContext.class);
+            Constructor<?> commandConstructor = getConstructor(actionConstructors,
+                    action.ordinal(),
+                    action.name(),
+                    COMMAND_SUFFIX,
+                    parameters.getClass(),
+                    CommandContext.class);
 
             if (commandContext == null) {
                 commandContext = CommandContext.createContext(parameters.getSessionId());
@@ -149,22 +163,51 @@ public final class CommandsFactory {
     public static QueriesCommandBase<?> createQueryCommand(QueryType query,
             QueryParametersBase parameters,
             EngineContext engineContext) {
-        Class<?> type = null;
         try {
-            type = getQueryClass(query.name());
-            QueriesCommandBase<?> result =
-                    (QueriesCommandBase<?>) getCommandConstructor(type, parameters.getClass(), EngineContext.class)
-                            .newInstance(parameters, engineContext);
-            return Injector.injectMembers(result);
+            Constructor<?> constructor = getQueryConstructor(query, parameters.getClass());
+            return Injector.injectMembers((QueriesCommandBase<?>) constructor.newInstance(parameters, engineContext));
         } catch (Exception e) {
             logException(e,
                     "Command Factory: Failed to create command '{}' using reflection: {}",
-                    type,
+                    getQueryClass(query.name()),
                     e.getMessage());
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Returns the constructor of the query class of the given query type taking the given parameters class and an
+     * {@link EngineContext}, it is resolved once per query type and parameters class
+     */
+    public static Constructor<?> getQueryConstructor(QueryType query,
+            Class<? extends QueryParametersBase> parametersType) {
+        return getConstructor(queryConstructors,
+                query.ordinal(),
+                query.name(),
+                QUERY_SUFFIX,
+                parametersType,
+                EngineContext.class);
+    }
+
+    /**
+     * Returns the constructor of the command class of the given action or query type for the given parameters class,
+     * resolving it only if it is not resolved yet or was resolved for another parameters class
+     */
+    private static Constructor<?> getConstructor(AtomicReferenceArray<ResolvedConstructor> constructors,
+            int ordinal,
+            String name,
+            String suffix,
+            Class<?> parametersType,
+            Class<?> contextType) {
+        ResolvedConstructor resolved = constructors.get(ordinal);
+        if (resolved == null || resolved.parametersType != parametersType) {
+            resolved = new ResolvedConstructor(parametersType,
+                    getCommandConstructor(getCommandClass(name, suffix), parametersType, contextType));
+            constructors.set(ordinal, resolved);
+        }
+        return resolved.constructor;
+    }
+
     public static Class<?> getCommandClass(String name) {
         return getCommandClass(name, COMMAND_SUFFIX);
     }
@@ -247,4 +290,21 @@ public final class CommandsFactory {
     static long getConstructorCacheSize() {
         return constructorCache.size();
     }
+
+    static ResolvedConstructor getResolvedQueryConstructor(QueryType query) {
+        return queryConstructors.get(query.ordinal());
+    }
+
+    /**
+     * The constructor of a command class which takes the given parameters class
+     */
+    static final class ResolvedConstructor {
+        private final Class<?> parametersType;
+        private final Constructor<?> constructor;
+
+        private ResolvedConstructor(Class<?> parametersType, Constructor<?> constructor) {
+            this.parametersType = parametersType;
+            this.constructor = constructor;
+        }
+    }
 }
@@ -155,6 +155,7 @@ public class InitVdsOnUpCommand extends StorageHandlingCommandBase<HostStoragePo
         } else {
             // make sure the CPU flags are stored in the DB
             vdsDynamicDao.updateCpuFlags(getVds().getId(), getVds().getCpuFlags());
+            resourceManager.invalidateCachedVds(getVds().getId());
             clusterCpuFlagsManager.updateClusterCpuFlags(getCluster());
 
             initHostKdumpDetectionStatus();
@@ -164,6 +165,7 @@ public class InitVdsOnUpCommand extends StorageHandlingCommandBase<HostStoragePo
             vdsDynamicDao.updateVdsDynamicPowerManagementPolicyFlag(
                     getVds().getId(),
                     getVds().isPowerManagementControlledByPolicy());
+            resourceManager.invalidateCachedVds(getVds().getId());
 
             if (getVds().getHighlyAvailableIsConfigured()) {
                 haMaintenanceFailed = !hostedEngineHelper.updateHaLocalMaintenanceMode(getVds(), false);
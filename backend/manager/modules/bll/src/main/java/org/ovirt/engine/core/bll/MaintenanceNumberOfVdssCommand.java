@@ -66,6 +66,7 @@ import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.network.NetworkDao;
 import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
 import org.ovirt.engine.core.utils.ReplacementUtils;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.CancelMigrationVDSParameters;
 
 @InternalCommandAttribute
@@ -104,6 +105,8 @@ public class MaintenanceNumberOfVdssCommand<T extends MaintenanceNumberOfVdssPar
     private Instance<ConcurrentChildCommandsExecutionCallback> callbackProvider;
     @Inject
     private AuditLogDirector auditLogDirector;
+    @Inject
+    private ResourceManager resourceManager;
 
     public MaintenanceNumberOfVdssCommand(T parameters, CommandContext cmdContext) {
         super(parameters, cmdContext);
@@ -232,6 +235,7 @@ public class MaintenanceNumberOfVdssCommand<T extends MaintenanceNumberOfVdssPar
         if (!getParameters().getKeepPolicyPMEnabled()) {
             for (Guid vdsId : getParameters().getVdsIdList()) {
                 vdsDynamicDao.updateVdsDynamicPowerManagementPolicyFlag(vdsId, false);
+                resourceManager.invalidateCachedVds(vdsId);
             }
         }
 
@@ -1,5 +1,8 @@
 package org.ovirt.engine.core.bll;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+
 import javax.inject.Inject;
 
 import org.ovirt.engine.core.bll.context.EngineContext;
@@ -17,6 +20,8 @@ public class OsRepositoryQuery<P extends OsQueryParameters> extends QueriesComma
 
     @Override
     protected void executeQueryCommand() {
+        // the lists and sets of the repository are shared and unmodifiable, they are returned as copies which the
+        // clients can deserialize
         switch (getParameters().getOsRepositoryVerb()) {
             case GetOsNames:
                 setReturnValue(osRepository.getOsNames());
@@ -28,10 +33,10 @@ public class OsRepositoryQuery<P extends OsQueryParameters> extends QueriesComma
                 setReturnValue(osRepository.getOsIds());
                 break;
             case GetLinuxOss:
-                setReturnValue(osRepository.getLinuxOss());
+                setReturnValue(new ArrayList<>(osRepository.getLinuxOss()));
                 break;
             case GetWindowsOss:
-                setReturnValue(osRepository.getWindowsOss());
+                setReturnValue(new ArrayList<>(osRepository.getWindowsOss()));
                 break;
             case GetNicHotplugSupportMap:
                 setReturnValue(osRepository.getNicHotplugSupportMap());
@@ -58,17 +63,20 @@ public class OsRepositoryQuery<P extends OsQueryParameters> extends QueriesComma
                 setReturnValue(osRepository.isFloppySupported(getParameters().getOsId(), getParameters().getVersion()));
                 break;
             case GetDiskInterfaces:
-                setReturnValue(osRepository.getDiskInterfaces(getParameters().getOsId(), getParameters().getVersion(),
-                        getParameters().getChipset()));
+                setReturnValue(new ArrayList<>(osRepository.getDiskInterfaces(getParameters().getOsId(),
+                        getParameters().getVersion(), getParameters().getChipset())));
                 break;
             case GetNetworkDevices:
-                setReturnValue(osRepository.getNetworkDevices(getParameters().getOsId(), getParameters().getVersion()));
+                setReturnValue(new ArrayList<>(
+                        osRepository.getNetworkDevices(getParameters().getOsId(), getParameters().getVersion())));
                 break;
             case GetDiskHotpluggableInterfaces:
-                setReturnValue(osRepository.getDiskHotpluggableInterfaces(getParameters().getOsId(), getParameters().getVersion()));
+                setReturnValue(new HashSet<>(osRepository.getDiskHotpluggableInterfaces(getParameters().getOsId(),
+                        getParameters().getVersion())));
                 break;
             case GetVmWatchdogTypes:
-                setReturnValue(osRepository.getVmWatchdogTypes(getParameters().getOsId(), getParameters().getVersion()));
+                setReturnValue(new HashSet<>(
+                        osRepository.getVmWatchdogTypes(getParameters().getOsId(), getParameters().getVersion())));
                 break;
             case GetDefaultOSes:
                 setReturnValue(osRepository.getDefaultOSes());
@@ -77,7 +85,7 @@ public class OsRepositoryQuery<P extends OsQueryParameters> extends QueriesComma
                 setReturnValue(osRepository.getSoundDeviceSupportMap());
                 break;
             case Get64BitOss:
-                setReturnValue(osRepository.get64bitOss());
+                setReturnValue(new ArrayList<>(osRepository.get64bitOss()));
                 break;
             case GetVmInitMap:
                 setReturnValue(osRepository.getVmInitMap());
@@ -2,14 +2,18 @@ package org.ovirt.engine.core.bll;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
 import org.ovirt.engine.core.bll.context.CommandContext;
+import org.ovirt.engine.core.bll.scheduling.SchedulingManager;
 import org.ovirt.engine.core.common.action.ActionParametersBase;
 import org.ovirt.engine.core.common.action.ActionType;
+import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.VmStaticDao;
 
@@ -17,6 +21,8 @@ public class RunVMActionRunner extends SortedMultipleActionsRunnerBase {
 
     @Inject
     private VmStaticDao vmStaticDao;
+    @Inject
+    private SchedulingManager schedulingManager;
 
     public RunVMActionRunner(ActionType actionType, List<ActionParametersBase> parameters, CommandContext commandContext, boolean isInternal) {
         super(actionType, parameters, commandContext, isInternal);
@@ -44,4 +50,57 @@ public class RunVMActionRunner extends SortedMultipleActionsRunnerBase {
 
     }
 
+    /**
+     * Places the VMs that can run on any host of their cluster together, in one scheduling round per cluster, instead
+     * of scheduling each of them alone when its command is executed. A VM no host was found for is scheduled alone
+     * as before.
+     */
+    @Override
+    protected void prepareCommands() {
+        Map<Guid, List<RunVmCommand<?>>> commandsByCluster = getCommands().stream()
+                .filter(command -> command.getReturnValue().isValid())
+                .filter(RunVmCommand.class::isInstance)
+                .<RunVmCommand<?>> map(command -> (RunVmCommand<?>) command)
+                .filter(RunVmCommand::isPlaceableWithOtherVms)
+                .collect(Collectors.groupingBy(command -> command.getClusterId(),
+                        LinkedHashMap::new,
+                        Collectors.toList()));
+
+        commandsByCluster.values().stream()
+                .filter(commands -> commands.size() > 1)
+                .forEach(this::placeVms);
+    }
+
+    private void placeVms(List<RunVmCommand<?>> commands) {
+        List<VM> vms = commands.stream().map(RunVmCommand::getVm).collect(Collectors.toList());
+        Map<Guid, Guid> vmToHost = schedulingManager.prepareCall(commands.get(0).getCluster())
+                .delay(true)
+                .correlationId(commands.get(0).getCorrelationId())
+                .schedule(vms);
+
+        commands.forEach(command -> command.setPlacedVdsId(vmToHost.get(command.getVmId())));
+    }
+
+    @Override
+    protected void runCommands() {
+        try {
+            super.runCommands();
+        } finally {
+            clearUnusedPlacements();
+        }
+    }
+
+    /**
+     * Clears the pending resources of the VMs whose commands did not get to run them on the host they were placed on.
+     */
+    private void clearUnusedPlacements() {
+        getCommands().stream()
+                .filter(RunVmCommand.class::isInstance)
+                .map(command -> (RunVmCommand<?>) command)
+                .filter(command -> command.getPlacedVdsId() != null)
+                .forEach(command -> {
+                    schedulingManager.clearPendingVm(command.getVm().getStaticData());
+                    command.setPlacedVdsId(null);
+                });
+    }
 }
@@ -56,6 +56,7 @@ import org.ovirt.engine.core.common.businessentities.DisplayType;
 import org.ovirt.engine.core.common.businessentities.GraphicsInfo;
 import org.ovirt.engine.core.common.businessentities.GraphicsType;
 import org.ovirt.engine.core.common.businessentities.InitializationType;
+import org.ovirt.engine.core.common.businessentities.OriginType;
 import org.ovirt.engine.core.common.businessentities.Snapshot;
 import org.ovirt.engine.core.common.businessentities.Snapshot.SnapshotType;
 import org.ovirt.engine.core.common.businessentities.StorageDomain;
@@ -121,6 +122,8 @@ public class RunVmCommand<T extends RunVmParams> extends RunVmCommandBase<T>
     private boolean needsHostDevices = false;
     private InitializationType initializationType;
     protected VmPayload vmPayload;
+    /** The host the VM was placed on together with the other VMs started with it, used by the first run attempt */
+    private Guid placedVdsId;
 
     public static final String ISO_PREFIX = "iso://";
     public static final String STATELESS_SNAPSHOT_DESCRIPTION = "stateless snapshot";
@@ -744,6 +747,30 @@ public class RunVmCommand<T extends RunVmParams> extends RunVmCommandBase<T>
                 && !getVm().getDedicatedVmForVdsList().contains(getVm().getRunOnVds());
     }
 
+    /**
+     * @return true if the VM is run right away on any host of its cluster, so it can be placed together with other
+     * VMs started with it
+     */
+    boolean isPlaceableWithOtherVms() {
+        return getVm().getOrigin() != OriginType.KUBEVIRT
+                && getRunVdssList().isEmpty()
+                && getVdsWhiteList().isEmpty()
+                && getPredefinedVdsIdListToRunOn().isEmpty()
+                && isInitVmRequired();
+    }
+
+    Guid getPlacedVdsId() {
+        return placedVdsId;
+    }
+
+    /**
+     * Sets the host the VM was placed on together with other VMs started with it, which is run on instead of
+     * scheduling the VM alone. The pending resources of the VM on the host were added when it was placed.
+     */
+    void setPlacedVdsId(Guid placedVdsId) {
+        this.placedVdsId = placedVdsId;
+    }
+
     /**
      * @return true if we need to create the VM object, false otherwise
      */
@@ -917,13 +944,19 @@ public class RunVmCommand<T extends RunVmParams> extends RunVmCommandBase<T>
     }
 
     protected boolean getVdsToRunOn() {
-        Optional<Guid> vdsToRunOn = schedulingManager.prepareCall(getCluster())
-                .hostBlackList(getRunVdssList())
-                .hostWhiteList(getVdsWhiteList())
-                .destHostIdList(getPredefinedVdsIdListToRunOn())
-                .delay(true)
-                .correlationId(getCorrelationId())
-                .schedule(getVm());
+        Optional<Guid> vdsToRunOn;
+        if (placedVdsId != null) {
+            vdsToRunOn = Optional.of(placedVdsId);
+            placedVdsId = null;
+        } else {
+            vdsToRunOn = schedulingManager.prepareCall(getCluster())
+                    .hostBlackList(getRunVdssList())
+                    .hostWhiteList(getVdsWhiteList())
+                    .destHostIdList(getPredefinedVdsIdListToRunOn())
+                    .delay(true)
+                    .correlationId(getCorrelationId())
+                    .schedule(getVm());
+        }
 
         setVdsId(vdsToRunOn.orElse(null));
         if (vdsToRunOn.isPresent()) {
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -54,12 +53,12 @@ import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.errors.SearchEngineIllegalCharacterException;
 import org.ovirt.engine.core.common.errors.SqlInjectionException;
 import org.ovirt.engine.core.common.queries.IdQueryParameters;
+import org.ovirt.engine.core.common.queries.KeysetSearchResult;
 import org.ovirt.engine.core.common.queries.QueryParametersBase;
 import org.ovirt.engine.core.common.queries.QueryType;
 import org.ovirt.engine.core.common.queries.SearchParameters;
 import org.ovirt.engine.core.compat.DateTime;
 import org.ovirt.engine.core.compat.Guid;
-import org.ovirt.engine.core.compat.TimeSpan;
 import org.ovirt.engine.core.compat.Version;
 import org.ovirt.engine.core.dao.AuditLogDao;
 import org.ovirt.engine.core.dao.ClusterDao;
@@ -70,6 +69,7 @@ import org.ovirt.engine.core.dao.EngineSessionDao;
 import org.ovirt.engine.core.dao.ImageTransferDao;
 import org.ovirt.engine.core.dao.JobDao;
 import org.ovirt.engine.core.dao.QuotaDao;
+import org.ovirt.engine.core.dao.SearchCursorDao;
 import org.ovirt.engine.core.dao.SearchDao;
 import org.ovirt.engine.core.dao.StorageDomainDao;
 import org.ovirt.engine.core.dao.StoragePoolDao;
@@ -82,6 +82,8 @@ import org.ovirt.engine.core.dao.network.NetworkViewDao;
 import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
 import org.ovirt.engine.core.dao.provider.ProviderDao;
 import org.ovirt.engine.core.searchbackend.ISyntaxChecker;
+import org.ovirt.engine.core.searchbackend.ParameterizedQuery;
+import org.ovirt.engine.core.searchbackend.SearchCursor;
 import org.ovirt.engine.core.searchbackend.SearchObjects;
 import org.ovirt.engine.core.searchbackend.SyntaxCheckerFactory;
 import org.ovirt.engine.core.searchbackend.SyntaxContainer;
@@ -90,12 +92,14 @@ import org.ovirt.engine.core.utils.lock.EngineLock;
 import org.ovirt.engine.core.utils.lock.LockManager;
 
 public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<P> {
-    private static final Map<String, QueryData> queriesCache = new HashMap<>();
     public static final String LDAP = "LDAP";
 
     @Inject
     private QuotaManager quotaManager;
 
+    @Inject
+    private SearchQueryCache searchQueryCache;
+
     @Inject
     private SessionDataContainer sessionDataContainer;
 
@@ -159,6 +163,9 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
     @Inject
     private JobDao jobDao;
 
+    @Inject
+    private SearchCursorDao searchCursorDao;
+
     @Inject
     private DirectoryUtils directoryUtils;
 
@@ -172,6 +179,11 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
     @Inject
     private VmNetworkInterfaceDao vmNetworkInterfaceDao;
 
+    /**
+     * The query of the sort key of an entity of the search, set when the search pages by its sort key
+     */
+    private String cursorQuery;
+
     public SearchQuery(P parameters, EngineContext engineContext) {
         super(parameters, engineContext);
     }
@@ -250,9 +262,29 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
             log.error("Search object type not handled: {}", getParameters().getSearchTypeValue());
             break;
         }
+        if (getParameters().getSearchAfter() != null) {
+            returnValue = toKeysetSearchResult(returnValue);
+        }
         getQueryReturnValue().setReturnValue(returnValue);
     }
 
+    /**
+     * Adds to a page of a search that pages by its sort key the position of its last entity, which the next page
+     * follows, if the page is full.
+     */
+    private <T extends Queryable> List<T> toKeysetSearchResult(List<T> entities) {
+        String nextPageCursor = null;
+        if (cursorQuery != null && !entities.isEmpty() && entities.size() >= getParameters().getMaxCount()) {
+            Object lastId = entities.get(entities.size() - 1).getQueryableId();
+            List<String> sortKey = searchCursorDao.getSortKey(cursorQuery, lastId.toString());
+            // unless the entity was removed since the page was read
+            if (sortKey != null) {
+                nextPageCursor = SearchCursor.encode(sortKey);
+            }
+        }
+        return new KeysetSearchResult<>(entities, nextPageCursor);
+    }
+
     private List<VM> searchVmsFromDb() {
         QueryData data = initQueryData(true);
         if (data == null) {
@@ -260,7 +292,7 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
         }
 
         var javaZoneIdToOffset = vmHandler.getJavaZoneIdToOffsetFuncSupplier();
-        List<VM> vms = vmDao.getAllUsingQuery(data.getQuery());
+        List<VM> vms = vmDao.getAllUsingQuery(data.getQuery(), data.getParameters().toArray());
         Map<Guid, VM> vmsById = new HashMap<>();
         for (VM vm : vms) {
             vmHandler.updateVmGuestAgentVersion(vm);
@@ -379,8 +411,8 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
             return new ArrayList<>();
         }
 
-        log.debug("Executing generic query: {}", data.getQuery());
-        return dao.getAllWithQuery(data.getQuery());
+        log.debug("Executing generic query: {} with parameters: {}", data.getQuery(), data.getParameters());
+        return dao.getAllWithQuery(data.getQuery(), data.getParameters().toArray());
     }
 
     private List<AuditLog> searchAuditLogEvents() {
@@ -500,33 +532,40 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
     private QueryData initQueryData(boolean useCache) {
         final String ASTR = "*";
         QueryData data = null;
-        boolean isExistsValue = false;
-        boolean IsFromYesterday = false;
         boolean isSafe = false;
-        String searchKey = "";
+        String searchText = getParameters().getSearchPattern();
+        // failures are remembered by the key also for searches which are not cached, so each is logged once
+        String searchKey = String.format("%1$s,%2$s,%3$s", searchText, getParameters().getMaxCount(), getParameters().getCaseSensitive());
         try {
             if (getParameters().getMaxCount() < 0) {
                 throw new RuntimeException(String.format("Illegal max count value for query : %s", getParameters().getMaxCount()));
             }
-            String searchText = getParameters().getSearchPattern();
             // do not cache expressions with '*' since it is translated to specific IDs that might be changed
             useCache = useCache && !searchText.contains(ASTR);
-            if (useCache) {
-                // first lets check the cache of queries.
-                searchKey = String.format("%1$s,%2$s,%3$s", searchText, getParameters().getMaxCount(), getParameters().getCaseSensitive());
-                data = queriesCache.get(searchKey);
-                isExistsValue = data != null;
-
-                if (isExistsValue) {
-                    TimeSpan span = DateTime.getNow().subtract(new Date(data.getDate()));
-                    if (span.Days >= 1) {
-                        IsFromYesterday = true;
+            // nor keyset pages, since the entity the page follows is bound to the cached query
+            useCache = useCache && getParameters().getSearchAfter() == null;
+            // searches which differ only in their values share the translation of their skeleton
+            SearchSkeleton skeleton = null;
+            String skeletonKey = null;
+            if (useCache && !adSearchPattern.matcher(searchText).matches()) {
+                skeleton = SearchSkeleton.of(searchText);
+                if (skeleton != null) {
+                    skeletonKey = String.format("%1$s,%2$s,%3$s", skeleton.getText(), getParameters().getMaxCount(), getParameters().getCaseSensitive());
+                    if (searchQueryCache.isUnshared(skeletonKey)) {
+                        skeleton = null;
                     }
                 }
             }
+            if (skeleton != null) {
+                data = searchQueryCache.get(skeletonKey);
+                data = data != null ? skeleton.bind(data) : translateSkeleton(skeleton, skeletonKey);
+            } else if (useCache) {
+                // first lets check the cache of queries.
+                data = searchQueryCache.get(searchKey);
+            }
             // query not in cache or the cached entry is too old, process the
             // search text.
-            if (!isExistsValue || IsFromYesterday) {
+            if (data == null) {
                 log.debug("ResourceManager::searchBusinessObjects(''{}'') - entered", searchText);
                 final char AT='@';
                 String queryAuthz = null;
@@ -581,6 +620,7 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                 searchObj.setMaxCount(Math.min(Integer.MAX_VALUE, getParameters().getMaxCount()));
                 // setting FromSearch value
                 searchObj.setSearchFrom(getParameters().getSearchFrom());
+                searchObj.setSearchAfter(getParameters().getSearchAfter());
                 if (searchObj.getError() != SyntaxError.NO_ERROR) {
                     int startPos = searchObj.getErrorStartPos();
                     int endPos = searchObj.getErrorEndPos();
@@ -597,64 +637,97 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                                     :
                                     searchObj.getError().toString();
                     getQueryReturnValue().setExceptionString(error);
-                    if (!queriesCache.containsKey(searchKey)) {
-                        // log error only once
+                    // log error only once in case that this query is scheduled to be called repeatedly
+                    if (searchQueryCache.markFailed(searchKey)) {
                         log.info(
                                 "ResourceManager::searchBusinessObjects - erroneous search text - ''{}'' error - ''{}''",
                                 searchText,
                                 error);
-                        // add search to the cache in order not process it again in case that
-                        // this query is scheduled to be called repeatedly
-                        queriesCache.put(searchKey, null);
                     }
                     return null;
                 }
                 if (!searchObj.getvalid()) {
-                    if (!queriesCache.containsKey(searchKey)) {
+                    if (searchQueryCache.markFailed(searchKey)) {
                         log.warn("ResourceManager::searchBusinessObjects - Invalid search text - ''{}''", searchText);
-                        queriesCache.put(searchKey, null);
                     }
                     return null;
                 }
                 // find if this is a trivial search expression (like 'Vms:' etc).
                 isSafe = SearchObjects.isSafeExpression(searchText);
                 // An expression is considered safe if matches a trivial search.
+                ParameterizedQuery query =
+                        curSyntaxChecker.generateParameterizedQueryFromSyntaxContainer(searchObj, isSafe);
+                cursorQuery = query.getCursorQuery();
                 data =
-                        new QueryData(curSyntaxChecker.generateQueryFromSyntaxContainer(searchObj, isSafe),
+                        new QueryData(query.getQuery(),
+                                query.getParameters(),
                                 DateTime.getNow().getTime(),
                                 queryAuthz, queryNamespace);
                 // when looking for tags , the query contains all parent children tag id's
                 // statically, therefore , in order to reflect changes in the parent tree
                 // we should not rely on the cached query in such case and have to build the
                 // query from scratch.
-                if (!containsStaticInValues(data.getQuery())) {
-                    queriesCache.put(searchKey, data);
+                if (useCache && !containsStaticInValues(data.getQuery())) {
+                    searchQueryCache.put(searchKey, data);
                 }
             }
         } catch (SearchEngineIllegalCharacterException e) {
-            if (!queriesCache.containsKey(searchKey)) {
+            if (searchQueryCache.markFailed(searchKey)) {
                 log.error("Search expression can not end with ESCAPE character: {}",
                         getParameters().getSearchPattern());
-                queriesCache.put(searchKey, null);
             }
             data = null;
         } catch (SqlInjectionException e) {
-            if (!queriesCache.containsKey(searchKey)) {
+            if (searchQueryCache.markFailed(searchKey)) {
                 log.error("Sql Injection in search: {}", getParameters().getSearchPattern());
-                queriesCache.put(searchKey, null);
             }
             data = null;
         } catch (RuntimeException ex) {
-            if (!queriesCache.containsKey(searchKey)) {
+            if (searchQueryCache.markFailed(searchKey)) {
                 log.warn("Illegal search: {}: {}", getParameters().getSearchPattern(), ex.getMessage());
                 log.debug("Exception", ex);
-                queriesCache.put(searchKey, null);
             }
             throw ex;
         }
         return data;
     }
 
+    /**
+     * The following method translates the skeleton of the search and caches the translation if it can be shared by
+     * searches which differ only in their values.
+     *
+     * @return the translation with the values of this search bound, null if the translation can not be shared and the
+     *         search text should be translated as is
+     */
+    private QueryData translateSkeleton(SearchSkeleton skeleton, String skeletonKey) {
+        ISyntaxChecker curSyntaxChecker = SyntaxCheckerFactory.createBackendSyntaxChecker(LDAP);
+        SyntaxContainer searchObj = curSyntaxChecker.analyzeSyntaxState(skeleton.getText(), true);
+        searchObj.setCaseSensitive(getParameters().getCaseSensitive());
+        searchObj.setMaxCount(Math.min(Integer.MAX_VALUE, getParameters().getMaxCount()));
+        searchObj.setSearchFrom(getParameters().getSearchFrom());
+        // placeholders which fail the validation of their field, e.g. of an enum, are reported as errors
+        if (searchObj.getError() == SyntaxError.NO_ERROR && searchObj.getvalid()) {
+            try {
+                ParameterizedQuery query =
+                        curSyntaxChecker.generateParameterizedQueryFromSyntaxContainer(searchObj, false);
+                if (skeleton.isShareable(query) && !containsStaticInValues(query.getQuery())) {
+                    QueryData data = new QueryData(query.getQuery(),
+                            query.getParameters(),
+                            DateTime.getNow().getTime(),
+                            null,
+                            null);
+                    searchQueryCache.put(skeletonKey, data);
+                    return skeleton.bind(data);
+                }
+            } catch (RuntimeException ex) {
+                // the search text itself is translated and its failure reported
+                log.debug("Skeleton of search '{}' can not be translated: {}", skeleton.getText(), ex.getMessage());
+            }
+        }
+        searchQueryCache.markUnshared(skeletonKey);
+        return null;
+    }
+
     protected String getDefaultAuthz() {
         return AuthenticationProfileRepository.getInstance().getProfiles().get(0).getName();
     }
@@ -0,0 +1,205 @@
+package org.ovirt.engine.core.bll;
+
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.aaa.QueryData;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The following class keeps the SQL translations of search texts done by {@link SearchQuery}.
+ * <p>
+ * The cache is bounded both by size, evicting the least recently used translation, and by the age of the
+ * translations. Search texts which failed to be translated are remembered separately, with the same bound, only so
+ * the failure is reported once. So are the skeletons of searches, see {@link SearchSkeleton}, whose translation can
+ * not be shared by searches which differ in their values.
+ */
+@Singleton
+public class SearchQueryCache implements SearchQueryCacheMonitorMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchQueryCache.class);
+    private static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final Map<String, QueryData> queries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Boolean> failedSearches = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Boolean> unsharedSkeletons = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private long timeToLiveMillis = TimeUnit.DAYS.toMillis(1);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    @PostConstruct
+    public void init() {
+        maxSize = Config.<Integer> getValue(ConfigValues.SearchQueryCacheMaxSize);
+        timeToLiveMillis =
+                TimeUnit.MINUTES.toMillis(Config.<Integer> getValue(ConfigValues.SearchQueryCacheTimeToLiveInMinutes));
+        try {
+            objectName = new ObjectName("SearchQueryCache:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            log.warn("Problem during registration of search query cache into JMX: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        try {
+            if (objectName != null) {
+                platformMBeanServer.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            log.warn("Problem during unregistration of search query cache from JMX: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    /**
+     * @return the cached translation of the given search, null if it is not cached or if it is older than the time
+     *         to live
+     */
+    public QueryData get(String searchKey) {
+        synchronized (queries) {
+            QueryData data = queries.get(searchKey);
+            if (data != null && isExpired(data, System.currentTimeMillis())) {
+                queries.remove(searchKey);
+                expirations.increment();
+                data = null;
+            }
+            if (data == null) {
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+            return data;
+        }
+    }
+
+    public void put(String searchKey, QueryData data) {
+        if (maxSize <= 0) {
+            return;
+        }
+        synchronized (queries) {
+            queries.put(searchKey, data);
+            evictEldest(queries, evictions);
+        }
+        synchronized (failedSearches) {
+            failedSearches.remove(searchKey);
+        }
+    }
+
+    /**
+     * The following method remembers that translating the given search failed
+     *
+     * @return true if the failure is reported for the first time and should be logged
+     */
+    public boolean markFailed(String searchKey) {
+        synchronized (failedSearches) {
+            if (failedSearches.put(searchKey, Boolean.TRUE) != null) {
+                return false;
+            }
+            evictEldest(failedSearches, null);
+            return true;
+        }
+    }
+
+    /**
+     * The following method remembers that the translation of the given skeleton can not be shared
+     */
+    public void markUnshared(String skeletonKey) {
+        synchronized (unsharedSkeletons) {
+            unsharedSkeletons.put(skeletonKey, Boolean.TRUE);
+            evictEldest(unsharedSkeletons, null);
+        }
+    }
+
+    public boolean isUnshared(String skeletonKey) {
+        synchronized (unsharedSkeletons) {
+            return unsharedSkeletons.containsKey(skeletonKey);
+        }
+    }
+
+    private boolean isExpired(QueryData data, long now) {
+        return now - data.getDate() >= timeToLiveMillis;
+    }
+
+    private <V> void evictEldest(Map<String, V> map, LongAdder counter) {
+        Iterator<String> iterator = map.keySet().iterator();
+        while (map.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            if (counter != null) {
+                counter.increment();
+            }
+        }
+    }
+
+    @Override
+    public int getSize() {
+        synchronized (queries) {
+            return queries.size();
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    @Override
+    public void clear() {
+        log.info("Clearing the search query cache");
+        synchronized (queries) {
+            queries.clear();
+        }
+        synchronized (failedSearches) {
+            failedSearches.clear();
+        }
+        synchronized (unsharedSkeletons) {
+            unsharedSkeletons.clear();
+        }
+    }
+
+    @Override
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        expirations.reset();
+    }
+}
@@ -0,0 +1,42 @@
+package org.ovirt.engine.core.bll;
+
+/**
+ * The following interface is used as interface for the JMX bean of {@link SearchQueryCache}
+ */
+public interface SearchQueryCacheMonitorMXBean {
+
+    /**
+     * The following method will return the number of translated queries currently kept in the cache
+     */
+    int getSize();
+
+    /**
+     * The following method will return the number of lookups answered from the cache
+     */
+    long getHitCount();
+
+    /**
+     * The following method will return the number of lookups which required translating the search text
+     */
+    long getMissCount();
+
+    /**
+     * The following method will return the number of entries evicted because the cache was full
+     */
+    long getEvictionCount();
+
+    /**
+     * The following method will return the number of entries dropped because they were older than their time to live
+     */
+    long getExpirationCount();
+
+    /**
+     * The following method will allow to clear all the cached queries via JMX console
+     */
+    void clear();
+
+    /**
+     * The following method will reset the hit, miss, eviction and expiration counters
+     */
+    void resetStatistics();
+}
@@ -0,0 +1,118 @@
+package org.ovirt.engine.core.bll;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.ovirt.engine.core.aaa.QueryData;
+import org.ovirt.engine.core.searchbackend.ParameterizedQuery;
+
+/**
+ * The following class abstracts the values out of a search text, so searches which differ only in their values
+ * share one translation in the {@link SearchQueryCache}.
+ * <p>
+ * Each unquoted alphanumeric value of a condition is replaced by a placeholder. The translation of the skeleton may be
+ * shared only if the placeholders reach the SQL as bound parameters, unchanged. The values of each search are then
+ * bound in place of the placeholders, so the cached translation holds no values.
+ */
+class SearchSkeleton {
+
+    private static final Pattern VALUE_PATTERN = Pattern.compile("(!=|<=|>=|=|<|>)(\\s*)([A-Za-z0-9]+)(?=\\s|$)");
+    private static final String PLACEHOLDER_PREFIX = "sKeLeToNvAlUe";
+    private static final String PLACEHOLDER_SUFFIX = "X";
+    private static final Pattern PLACEHOLDER_PATTERN =
+            Pattern.compile(PLACEHOLDER_PREFIX + "(\\d+)" + PLACEHOLDER_SUFFIX);
+    // values which the search syntax reads as keywords rather than as values
+    private static final Set<String> KEYWORDS =
+            new HashSet<>(Arrays.asList("and", "or", "null", "sortby", "page", "asc", "desc"));
+
+    private final String text;
+    private final List<String> values;
+
+    private SearchSkeleton(String text, List<String> values) {
+        this.text = text;
+        this.values = values;
+    }
+
+    /**
+     * @return the skeleton of the given search text, null if the search has no value which can be abstracted
+     */
+    static SearchSkeleton of(String searchText) {
+        if (searchText.toLowerCase(Locale.ROOT).contains(PLACEHOLDER_PREFIX.toLowerCase(Locale.ROOT))) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuffer text = new StringBuffer();
+        Matcher matcher = VALUE_PATTERN.matcher(searchText);
+        while (matcher.find()) {
+            String value = matcher.group(3);
+            if (KEYWORDS.contains(value.toLowerCase(Locale.ROOT))) {
+                return null;
+            }
+            matcher.appendReplacement(text,
+                    Matcher.quoteReplacement(matcher.group(1) + matcher.group(2) + placeholder(values.size())));
+            values.add(value);
+        }
+        if (values.isEmpty()) {
+            return null;
+        }
+        matcher.appendTail(text);
+        return new SearchSkeleton(text.toString(), Collections.unmodifiableList(values));
+    }
+
+    private static String placeholder(int index) {
+        return PLACEHOLDER_PREFIX + index + PLACEHOLDER_SUFFIX;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    /**
+     * @return true if the placeholders appear, as given, only in the parameters of the translation of the skeleton
+     */
+    boolean isShareable(ParameterizedQuery query) {
+        if (query.getQuery().contains(PLACEHOLDER_PREFIX)) {
+            return false;
+        }
+        for (int i = 0; i < values.size(); i++) {
+            String placeholder = placeholder(i);
+            if (query.getParameters().stream().noneMatch(parameter -> parameter.contains(placeholder))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the given translation of the skeleton with the values of this search bound in place of the
+     *         placeholders
+     */
+    QueryData bind(QueryData skeletonData) {
+        List<String> parameters = new ArrayList<>(skeletonData.getParameters().size());
+        for (String parameter : skeletonData.getParameters()) {
+            parameters.add(bind(parameter));
+        }
+        return new QueryData(skeletonData.getQuery(),
+                parameters,
+                skeletonData.getDate(),
+                skeletonData.getAuthz(),
+                skeletonData.getNamespace());
+    }
+
+    private String bind(String parameter) {
+        StringBuffer bound = new StringBuffer();
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(parameter);
+        while (matcher.find()) {
+            matcher.appendReplacement(bound, Matcher.quoteReplacement(values.get(Integer.parseInt(matcher.group(1)))));
+        }
+        matcher.appendTail(bound);
+        return bound.toString();
+    }
+}
@@ -14,9 +14,16 @@ public abstract class SortedMultipleActionsRunnerBase extends PrevalidatingMulti
 
     protected abstract void sortCommands();
 
+    /**
+     * Prepares the sorted commands before any of them is executed, does nothing by default.
+     */
+    protected void prepareCommands() {
+    }
+
     @Override
     protected void runCommands() {
         sortCommands();
+        prepareCommands();
         super.runCommands();
     }
 }
@@ -357,6 +357,9 @@ public class UpdateClusterCommand<T extends ClusterOperationParameters> extends
             return null;
         });
 
+        // the hosts carry cluster data, make their monitoring pick up the changes
+        resourceManager.invalidateCachedVdsOfCluster(getCluster().getId());
+
         if (isAddedToStoragePool) {
             if (!addVdsSpmIdForAllHosts()) {
                 return;
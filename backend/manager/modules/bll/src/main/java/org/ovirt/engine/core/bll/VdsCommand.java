@@ -14,6 +14,7 @@ import org.ovirt.engine.core.bll.utils.PermissionSubject;
 import org.ovirt.engine.core.bll.validator.FenceValidator;
 import org.ovirt.engine.core.common.AuditLogType;
 import org.ovirt.engine.core.common.VdcObjectType;
+import org.ovirt.engine.core.common.action.ActionReturnValue;
 import org.ovirt.engine.core.common.action.VdsActionParameters;
 import org.ovirt.engine.core.common.businessentities.NonOperationalReason;
 import org.ovirt.engine.core.common.businessentities.VDSStatus;
@@ -40,6 +41,7 @@ import org.ovirt.engine.core.utils.EngineLocalConfig;
 import org.ovirt.engine.core.utils.ThreadUtils;
 import org.ovirt.engine.core.utils.lock.EngineLock;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
+import org.ovirt.engine.core.utils.transaction.TransactionCompletionListener;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 
 public abstract class VdsCommand<T extends VdsActionParameters> extends CommandBase<T> {
@@ -81,6 +83,52 @@ public abstract class VdsCommand<T extends VdsActionParameters> extends CommandB
         setVdsId(parameters.getVdsId());
     }
 
+    @Override
+    public ActionReturnValue executeAction() {
+        try {
+            return super.executeAction();
+        } finally {
+            invalidateCachedVds();
+        }
+    }
+
+    @Override
+    public ActionReturnValue endAction() {
+        try {
+            return super.endAction();
+        } finally {
+            invalidateCachedVds();
+        }
+    }
+
+    /**
+     * The host monitoring doesn't reload the host from the database on every cycle, so after changing the host make
+     * it pick up the changes. When running within an outer transaction the changes are visible only once it
+     * completes, so the host is invalidated again at that point.
+     */
+    private void invalidateCachedVds() {
+        if (getVdsId() == null) {
+            return;
+        }
+        resourceManager.invalidateCachedVds(getVdsId());
+        try {
+            registerRollbackHandler(new TransactionCompletionListener() {
+                @Override
+                public void onSuccess() {
+                    resourceManager.invalidateCachedVds(getVdsId());
+                }
+
+                @Override
+                public void onRollback() {
+                    resourceManager.invalidateCachedVds(getVdsId());
+                }
+            });
+        } catch (RuntimeException e) {
+            // the monitoring reconciles the host periodically anyway
+            log.debug("Failed to register cached host invalidation on transaction completion", e);
+        }
+    }
+
     protected CpuFlagsManagerHandler getCpuFlagsManagerHandler() {
         return cpuFlagsManagerHandler;
     }
@@ -1,9 +1,7 @@
 package org.ovirt.engine.core.bll.lock;
 
 import java.lang.management.ManagementFactory;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -29,6 +27,7 @@ import javax.management.ObjectName;
 import org.ovirt.engine.core.common.errors.EngineMessage;
 import org.ovirt.engine.core.common.locks.LockInfo;
 import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.utils.EngineLocalConfig;
 import org.ovirt.engine.core.utils.lock.EngineLock;
 import org.ovirt.engine.core.utils.lock.LockManager;
 import org.ovirt.engine.core.utils.lock.LockingResult;
@@ -36,7 +35,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The following class an implementation of internal locking mechanism
+ * The following class an implementation of internal locking mechanism.
+ * <p>
+ * By default all the locks are kept in a single map guarded by a global lock. When ENGINE_LOCK_MANAGER_STRIPED is
+ * set in the engine configuration, all the operations are delegated to {@link StripedLockManager} instead, which
+ * shards the locks by key and wakes up only the waiters of the released keys.
  */
 @Startup
 @Singleton(name = "LockManager")
@@ -51,6 +54,9 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     private final Lock globalLock = new ReentrantLock();
     /** A condition which is used in order to notify for waiting threads that some lock was released**/
     private final Condition releasedLock = globalLock.newCondition();
+    private final LockManagerStatistics statistics = new LockManagerStatistics();
+    /** The striped implementation all the operations are delegated to, if it is enabled **/
+    private StripedLockManager stripedLockManager;
 
     private MBeanServer platformMBeanServer;
     private ObjectName objectName = null;
@@ -58,6 +64,11 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
 
     @PostConstruct
     public void registerInJMX() {
+        EngineLocalConfig config = EngineLocalConfig.getInstance();
+        if (config.getBoolean("ENGINE_LOCK_MANAGER_STRIPED", Boolean.FALSE)) {
+            stripedLockManager = new StripedLockManager(config.getInteger("ENGINE_LOCK_MANAGER_STRIPES", 64));
+            log.info("Using striped lock manager");
+        }
         try {
             objectName = new ObjectName("InMemoryLockManager:type=" + this.getClass().getName());
             platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
@@ -78,10 +89,15 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
 
     @Override
     public LockingResult acquireLock(EngineLock lock) {
+        if (stripedLockManager != null) {
+            return stripedLockManager.acquireLock(lock);
+        }
         log.debug("Before acquiring lock '{}'", lock);
         globalLock.lock();
         try {
-            return acquireLockInternal(lock);
+            LockingResult result = acquireLockInternal(lock);
+            statistics.acquireAttempted(result.isAcquired());
+            return result;
         } finally {
             globalLock.unlock();
         }
@@ -89,23 +105,38 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
 
     @Override
     public void acquireLockWait(EngineLock lock) {
+        if (stripedLockManager != null) {
+            stripedLockManager.acquireLockWait(lock);
+            return;
+        }
         log.debug("Before acquiring and wait lock '{}'", lock);
         validateLockForAcquireAndWait(lock);
+        long start = System.nanoTime();
+        boolean waited = false;
         globalLock.lock();
         try {
-            while (!acquireLockInternal(lock).isAcquired()) {
+            while (!acquireLockAndCount(lock).isAcquired()) {
                 log.info("Failed to acquire lock and wait lock '{}'", lock);
+                statistics.waitStarted();
+                waited = true;
                 releasedLock.await();
+                statistics.waiterWokenUp();
             }
         } catch (InterruptedException ignore) {
 
         } finally {
             globalLock.unlock();
+            if (waited) {
+                statistics.waitEnded(System.nanoTime() - start);
+            }
         }
     }
 
     @Override
     public LockingResult acquireLockWait(EngineLock lock, long timeoutMillis) {
+        if (stripedLockManager != null) {
+            return stripedLockManager.acquireLockWait(lock, timeoutMillis);
+        }
         log.debug("Before acquiring wait or timeout lock '{}'", lock);
         validateLockForAcquireAndWait(lock);
         if (timeoutMillis <= 0) {
@@ -113,23 +144,33 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
         }
         long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
         LockingResult lockAcquired = LockingResult.fail();
+        long start = System.nanoTime();
+        boolean waited = false;
         globalLock.lock();
         try {
             do {
-                lockAcquired = acquireLockInternal(lock);
+                lockAcquired = acquireLockAndCount(lock);
                 if (!lockAcquired.isAcquired()) {
                     if (timeoutNanos <= 0L) {
                         log.info("Failed to acquire lock because timeout was reached. lock {}", lock);
                         break;
                     }
                     log.info("Failed to acquire lock, will try again until timeout. lock '{}'", lock);
+                    statistics.waitStarted();
+                    waited = true;
                     timeoutNanos = releasedLock.awaitNanos(timeoutNanos);
+                    if (timeoutNanos > 0L) {
+                        statistics.waiterWokenUp();
+                    }
                 }
             } while (!lockAcquired.isAcquired());
         } catch (InterruptedException ignore) {
             log.info("Acquire lock operation was interrupted. lock '{}'", lock);
         } finally {
             globalLock.unlock();
+            if (waited) {
+                statistics.waitEnded(System.nanoTime() - start);
+            }
         }
         return lockAcquired;
     }
@@ -143,6 +184,10 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
 
     @Override
     public void releaseLock(EngineLock lock) {
+        if (stripedLockManager != null) {
+            stripedLockManager.releaseLock(lock);
+            return;
+        }
         log.debug("Before releasing a lock '{}'", lock);
         globalLock.lock();
         try {
@@ -162,6 +207,10 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
 
     @Override
     public void clear() {
+        if (stripedLockManager != null) {
+            stripedLockManager.clear();
+            return;
+        }
         log.warn("Cleaning all in memory locks");
         globalLock.lock();
         try {
@@ -174,6 +223,9 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
 
     @Override
     public boolean releaseLock(String lockId) {
+        if (stripedLockManager != null) {
+            return stripedLockManager.releaseLock(lockId);
+        }
         log.warn("The following lock is going to be released via external call, lockId '{}', error message can be"
                 + " left for shared lock",
                 lockId);
@@ -199,6 +251,9 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
 
     @Override
     public List<String> showAllLocks() {
+        if (stripedLockManager != null) {
+            return stripedLockManager.showAllLocks();
+        }
         log.debug("All in memory locks will be shown");
         globalLock.lock();
         try {
@@ -220,6 +275,12 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
         return entry.getKey() + entry.getValue().getFirst();
     }
 
+    private LockingResult acquireLockAndCount(EngineLock lock) {
+        LockingResult result = acquireLockInternal(lock);
+        statistics.acquireAttempted(result.isAcquired());
+        return result;
+    }
+
     /**
      * The following method contains a logic for acquiring a lock. It is comprised of two steps:
      * 1. Check if the lock can be acquired
@@ -337,6 +398,9 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
 
     @Override
     public LockInfo getLockInfo(String key) {
+        if (stripedLockManager != null) {
+            return stripedLockManager.getLockInfo(key);
+        }
         InternalLockView internalLockView = locks.get(key);
         if (internalLockView == null) {
             return null;
@@ -361,61 +425,59 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
                 .anyMatch(entry -> getLockInfo(buildHashMapKey(entry)) != null);
     }
 
-    /**
-     * The following class represents different locks which are kept inside InMemoryLockManager
-     */
-    private static class InternalLockView {
-
-        /** Number for shared locks **/
-        private int count;
-        /** Indicate if the lock is exclusive and not allowing any other exclusive/shared locks with the same key **/
-        private final boolean exclusive;
-        /** Contains error messages for that key **/
-        private List<String> messages;
-
-        public InternalLockView(int count, String message, boolean exclusive) {
-            this.count = count;
-            this.exclusive = exclusive;
-            messages = new ArrayList<>();
-            messages.add(message);
-        }
-
-        public boolean getExclusive() {
-            return exclusive;
-        }
-
-        public int getCount() {
-            return count;
+    @Override
+    public long getAcquireAttemptsCount() {
+        if (stripedLockManager != null) {
+            return stripedLockManager.getAcquireAttemptsCount();
         }
+        return statistics.getAcquireAttempts();
+    }
 
-        public void increaseCount() {
-            count++;
+    @Override
+    public long getContendedAcquireAttemptsCount() {
+        if (stripedLockManager != null) {
+            return stripedLockManager.getContendedAcquireAttemptsCount();
         }
+        return statistics.getContendedAttempts();
+    }
 
-        public void decreaseCount() {
-            count--;
+    @Override
+    public long getWaitCount() {
+        if (stripedLockManager != null) {
+            return stripedLockManager.getWaitCount();
         }
+        return statistics.getWaits();
+    }
 
-        public Set<String> getMessages() {
-            return new HashSet<>(messages);
+    @Override
+    public long getWakeupCount() {
+        if (stripedLockManager != null) {
+            return stripedLockManager.getWakeupCount();
         }
+        return statistics.getWakeups();
+    }
 
-        public void addMessage(String message) {
-            messages.add(message);
+    @Override
+    public long getTotalWaitTimeMillis() {
+        if (stripedLockManager != null) {
+            return stripedLockManager.getTotalWaitTimeMillis();
         }
+        return statistics.getTotalWaitTimeMillis();
+    }
 
-        public void removeMessage(String message) {
-            if (message != null) {
-                messages.remove(message);
-            }
+    @Override
+    public long getMaxWaitTimeMillis() {
+        if (stripedLockManager != null) {
+            return stripedLockManager.getMaxWaitTimeMillis();
         }
+        return statistics.getMaxWaitTimeMillis();
+    }
 
-        @Override
-        public String toString() {
-            if(exclusive) {
-                return "The lock is exclusive";
-            }
-            return "The lock is shared and a number of shared locks is " + count;
+    @Override
+    public void resetStatistics() {
+        if (stripedLockManager != null) {
+            stripedLockManager.resetStatistics();
         }
+        statistics.reset();
     }
 }
@@ -21,4 +21,39 @@ public interface LockManagerMonitorMXBean {
      * The following method will release a lock with provided lockId
      */
     boolean releaseLock(String lockId);
+
+    /**
+     * The following method will return the number of acquire attempts, including retries of waiting threads
+     */
+    long getAcquireAttemptsCount();
+
+    /**
+     * The following method will return the number of acquire attempts which failed because a requested key was taken
+     */
+    long getContendedAcquireAttemptsCount();
+
+    /**
+     * The following method will return the number of times a thread started waiting for a lock
+     */
+    long getWaitCount();
+
+    /**
+     * The following method will return the number of times a waiting thread was woken up by a release of a lock
+     */
+    long getWakeupCount();
+
+    /**
+     * The following method will return the accumulated time threads spent waiting for locks
+     */
+    long getTotalWaitTimeMillis();
+
+    /**
+     * The following method will return the longest time a single thread spent waiting for a lock
+     */
+    long getMaxWaitTimeMillis();
+
+    /**
+     * The following method will reset the contention and wait time counters
+     */
+    void resetStatistics();
 }
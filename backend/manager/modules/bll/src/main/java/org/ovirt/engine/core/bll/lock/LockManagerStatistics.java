@@ -0,0 +1,76 @@
+package org.ovirt.engine.core.bll.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The following class keeps contention and wait time counters of a lock manager, it is exposed via
+ * {@link LockManagerMonitorMXBean}
+ */
+class LockManagerStatistics {
+
+    /** Number of acquire attempts, including retries of waiting threads **/
+    private final LongAdder acquireAttempts = new LongAdder();
+    /** Number of acquire attempts which failed because some of the requested keys were taken **/
+    private final LongAdder contendedAttempts = new LongAdder();
+    /** Number of times a thread went to sleep waiting for a lock to be released **/
+    private final LongAdder waits = new LongAdder();
+    /** Number of times a waiting thread was woken up by a release of a lock **/
+    private final LongAdder wakeups = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    void acquireAttempted(boolean acquired) {
+        acquireAttempts.increment();
+        if (!acquired) {
+            contendedAttempts.increment();
+        }
+    }
+
+    void waitStarted() {
+        waits.increment();
+    }
+
+    void waiterWokenUp() {
+        wakeups.increment();
+    }
+
+    void waitEnded(long waitNanos) {
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    long getAcquireAttempts() {
+        return acquireAttempts.sum();
+    }
+
+    long getContendedAttempts() {
+        return contendedAttempts.sum();
+    }
+
+    long getWaits() {
+        return waits.sum();
+    }
+
+    long getWakeups() {
+        return wakeups.sum();
+    }
+
+    long getTotalWaitTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum());
+    }
+
+    long getMaxWaitTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    void reset() {
+        acquireAttempts.reset();
+        contendedAttempts.reset();
+        waits.reset();
+        wakeups.reset();
+        totalWaitNanos.reset();
+        maxWaitNanos.set(0);
+    }
+}
@@ -0,0 +1,523 @@
+package org.ovirt.engine.core.bll.lock;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.ovirt.engine.core.common.errors.EngineMessage;
+import org.ovirt.engine.core.common.locks.LockInfo;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.utils.lock.EngineLock;
+import org.ovirt.engine.core.utils.lock.LockManager;
+import org.ovirt.engine.core.utils.lock.LockingResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The following class is an implementation of internal locking mechanism which shards the locks into stripes by
+ * the lock key.
+ * <p>
+ * Every stripe is guarded by its own lock and keeps FIFO wait queues per key, so acquiring or releasing an
+ * {@link EngineLock} touches only the stripes of its keys and a release wakes up only the threads waiting for the
+ * released keys. All the stripes of an {@link EngineLock} are locked in ascending order before its keys are checked
+ * and inserted, which keeps acquiring multiple keys atomic and free of deadlocks.
+ */
+public class StripedLockManager implements LockManager, LockManagerMonitorMXBean {
+
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+    private static final Logger log = LoggerFactory.getLogger(StripedLockManager.class);
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final LockManagerStatistics statistics = new LockManagerStatistics();
+
+    public StripedLockManager() {
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * @param concurrencyLevel
+     *            - the expected number of concurrently locked keys, rounded up to a power of two stripes
+     */
+    public StripedLockManager(int concurrencyLevel) {
+        int size = 1;
+        while (size < concurrencyLevel) {
+            size <<= 1;
+        }
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        stripeMask = size - 1;
+    }
+
+    @Override
+    public LockingResult acquireLock(EngineLock lock) {
+        log.debug("Before acquiring lock '{}'", lock);
+        List<KeyRequest> requests = toKeyRequests(lock);
+        int[] stripeIndexes = stripeIndexes(requests);
+        LockingResult result;
+        lockStripes(stripeIndexes);
+        try {
+            result = acquireLockInternal(requests);
+        } finally {
+            unlockStripes(stripeIndexes);
+        }
+        statistics.acquireAttempted(result.isAcquired());
+        if (result.isAcquired()) {
+            log.debug("Success acquiring lock '{}'", lock);
+        }
+        return result;
+    }
+
+    @Override
+    public void acquireLockWait(EngineLock lock) {
+        log.debug("Before acquiring and wait lock '{}'", lock);
+        validateLockForAcquireAndWait(lock);
+        acquireLockWaitInternal(lock, 0L, false);
+    }
+
+    @Override
+    public LockingResult acquireLockWait(EngineLock lock, long timeoutMillis) {
+        log.debug("Before acquiring wait or timeout lock '{}'", lock);
+        validateLockForAcquireAndWait(lock);
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+        return acquireLockWaitInternal(lock, TimeUnit.MILLISECONDS.toNanos(timeoutMillis), true);
+    }
+
+    private void validateLockForAcquireAndWait(EngineLock lock) {
+        if (lock.getSharedLocks() != null && lock.getExclusiveLocks().size() > 1) {
+            log.error("Trying to acquire or wait on shared or more than one exclusive locks '{}'", lock);
+            throw new IllegalArgumentException("Trying to acquire or wait on shared or more than one exclusive locks");
+        }
+    }
+
+    /**
+     * The following method tries to acquire the lock and, as long as it is taken, registers the calling thread in
+     * the wait queues of all the keys of the lock and sleeps until one of them is released or the timeout elapses
+     */
+    private LockingResult acquireLockWaitInternal(EngineLock lock, long timeoutNanos, boolean timed) {
+        List<KeyRequest> requests = toKeyRequests(lock);
+        int[] stripeIndexes = stripeIndexes(requests);
+        long start = System.nanoTime();
+        LockingResult result = LockingResult.fail();
+        Waiter waiter = null;
+        boolean waited = false;
+        try {
+            while (true) {
+                long remainingNanos = timeoutNanos - (System.nanoTime() - start);
+                lockStripes(stripeIndexes);
+                try {
+                    if (waiter != null) {
+                        removeWaiter(requests, waiter);
+                        waiter = null;
+                    }
+                    result = acquireLockInternal(requests);
+                    statistics.acquireAttempted(result.isAcquired());
+                    if (result.isAcquired()) {
+                        log.debug("Success acquiring lock '{}'", lock);
+                        return result;
+                    }
+                    if (timed && remainingNanos <= 0L) {
+                        log.info("Failed to acquire lock because timeout was reached. lock {}", lock);
+                        return result;
+                    }
+                    waiter = new Waiter();
+                    addWaiter(requests, waiter);
+                } finally {
+                    unlockStripes(stripeIndexes);
+                }
+
+                log.info("Failed to acquire lock, will wait until it is released. lock '{}'", lock);
+                statistics.waitStarted();
+                waited = true;
+                if (waiter.await(timed, remainingNanos)) {
+                    statistics.waiterWokenUp();
+                }
+            }
+        } catch (InterruptedException ignore) {
+            log.info("Acquire lock operation was interrupted. lock '{}'", lock);
+            if (waiter != null) {
+                lockStripes(stripeIndexes);
+                try {
+                    removeWaiter(requests, waiter);
+                } finally {
+                    unlockStripes(stripeIndexes);
+                }
+            }
+            return result;
+        } finally {
+            if (waited) {
+                statistics.waitEnded(System.nanoTime() - start);
+            }
+        }
+    }
+
+    @Override
+    public void releaseLock(EngineLock lock) {
+        log.debug("Before releasing a lock '{}'", lock);
+        List<KeyRequest> requests = toKeyRequests(lock);
+        int[] stripeIndexes = stripeIndexes(requests);
+        lockStripes(stripeIndexes);
+        try {
+            for (KeyRequest request : requests) {
+                Stripe stripe = stripes[request.stripeIndex];
+                boolean removed = request.exclusive
+                        ? releaseExclusiveLock(stripe, request.key)
+                        : releaseSharedLock(stripe, request.key, request.message);
+                if (removed) {
+                    stripe.wakeUpWaiters(request.key);
+                }
+            }
+        } finally {
+            unlockStripes(stripeIndexes);
+        }
+    }
+
+    @Override
+    public void clear() {
+        log.warn("Cleaning all in memory locks");
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+        try {
+            for (Stripe stripe : stripes) {
+                stripe.locks.clear();
+                stripe.wakeUpAllWaiters();
+            }
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean releaseLock(String lockId) {
+        log.warn("The following lock is going to be released via external call, lockId '{}', error message can be"
+                + " left for shared lock",
+                lockId);
+        Stripe stripe = stripes[stripeIndex(lockId)];
+        stripe.lock.lock();
+        try {
+            InternalLockView lock = stripe.locks.get(lockId);
+            if (lock == null) {
+                log.warn("Lock with id '{}' does not exist and can not be released via external call", lockId);
+                return false;
+            }
+            boolean removed = lock.getExclusive()
+                    ? releaseExclusiveLock(stripe, lockId)
+                    : releaseSharedLock(stripe, lockId, null);
+            if (removed) {
+                stripe.wakeUpWaiters(lockId);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        log.warn("Lock '{}' was released via external call", lockId);
+        return true;
+    }
+
+    @Override
+    public List<String> showAllLocks() {
+        log.debug("All in memory locks will be shown");
+        List<String> descriptions = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (Entry<String, InternalLockView> entry : stripe.locks.entrySet()) {
+                    descriptions.add("The object id is : " + entry.getKey() + ' ' + entry.getValue());
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        log.debug("All in memory locks were shown");
+        return descriptions;
+    }
+
+    @Override
+    public LockInfo getLockInfo(String key) {
+        Stripe stripe = stripes[stripeIndex(key)];
+        boolean exclusive;
+        Set<String> messages;
+        stripe.lock.lock();
+        try {
+            InternalLockView internalLockView = stripe.locks.get(key);
+            if (internalLockView == null) {
+                return null;
+            }
+            exclusive = internalLockView.getExclusive();
+            messages = internalLockView.getMessages();
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        messages.remove(EngineMessage.ACTION_TYPE_FAILED_OBJECT_LOCKED.name());
+        if (messages.isEmpty()) {
+            // EngineMessage.ACTION_TYPE_FAILED_OBJECT_LOCKED should only be used for
+            // short locks (locks for the execute phase) so we filter it and if no
+            // other lock exists, the entity should be displayed as unlocked
+            return null;
+        }
+
+        return new LockInfo(exclusive, messages);
+    }
+
+    @Override
+    public boolean isExclusiveLockPresent(EngineLock lock) {
+        return lock.getExclusiveLocks() != null &&
+            lock.getExclusiveLocks().entrySet().stream()
+                .anyMatch(entry -> getLockInfo(buildHashMapKey(entry)) != null);
+    }
+
+    @Override
+    public long getAcquireAttemptsCount() {
+        return statistics.getAcquireAttempts();
+    }
+
+    @Override
+    public long getContendedAcquireAttemptsCount() {
+        return statistics.getContendedAttempts();
+    }
+
+    @Override
+    public long getWaitCount() {
+        return statistics.getWaits();
+    }
+
+    @Override
+    public long getWakeupCount() {
+        return statistics.getWakeups();
+    }
+
+    @Override
+    public long getTotalWaitTimeMillis() {
+        return statistics.getTotalWaitTimeMillis();
+    }
+
+    @Override
+    public long getMaxWaitTimeMillis() {
+        return statistics.getMaxWaitTimeMillis();
+    }
+
+    @Override
+    public void resetStatistics() {
+        statistics.reset();
+    }
+
+    /**
+     * Internal method should build a key for lock
+     */
+    private String buildHashMapKey(Entry<String, Pair<String, String>> entry) {
+        return entry.getKey() + entry.getValue().getFirst();
+    }
+
+    private int stripeIndex(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    /**
+     * The following method flattens the lock into the keys it consists of, shared keys first, the same order the
+     * keys are checked by {@link InMemoryLockManager}
+     */
+    private List<KeyRequest> toKeyRequests(EngineLock lock) {
+        List<KeyRequest> requests = new ArrayList<>();
+        if (lock.getSharedLocks() != null) {
+            for (Entry<String, Pair<String, String>> entry : lock.getSharedLocks().entrySet()) {
+                String key = buildHashMapKey(entry);
+                requests.add(new KeyRequest(key, entry.getValue().getSecond(), false, stripeIndex(key)));
+            }
+        }
+        if (lock.getExclusiveLocks() != null) {
+            for (Entry<String, Pair<String, String>> entry : lock.getExclusiveLocks().entrySet()) {
+                String key = buildHashMapKey(entry);
+                requests.add(new KeyRequest(key, entry.getValue().getSecond(), true, stripeIndex(key)));
+            }
+        }
+        return requests;
+    }
+
+    private int[] stripeIndexes(List<KeyRequest> requests) {
+        return requests.stream().mapToInt(request -> request.stripeIndex).distinct().sorted().toArray();
+    }
+
+    private void lockStripes(int[] stripeIndexes) {
+        for (int stripeIndex : stripeIndexes) {
+            stripes[stripeIndex].lock.lock();
+        }
+    }
+
+    private void unlockStripes(int[] stripeIndexes) {
+        for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+            stripes[stripeIndexes[i]].lock.unlock();
+        }
+    }
+
+    /**
+     * The following method contains a logic for acquiring a lock, it should be called while holding the stripes of
+     * all the requested keys. It is comprised of two steps:
+     * 1. Check if all the keys can be acquired
+     * 2. If the first step succeeds, insert all the keys
+     */
+    private LockingResult acquireLockInternal(List<KeyRequest> requests) {
+        for (KeyRequest request : requests) {
+            InternalLockView lock = stripes[request.stripeIndex].locks.get(request.key);
+            if (lock != null && (request.exclusive || lock.getExclusive())) {
+                log.debug("Failed to acquire lock. {} lock is taken for key '{}'",
+                        request.exclusive ? "Exclusive" : "Shared",
+                        request.key);
+                return LockingResult.fail(lock.getMessages());
+            }
+        }
+
+        for (KeyRequest request : requests) {
+            Map<String, InternalLockView> locks = stripes[request.stripeIndex].locks;
+            InternalLockView lock = locks.get(request.key);
+            if (lock != null) {
+                lock.increaseCount();
+                lock.addMessage(request.message);
+            } else if (request.exclusive) {
+                locks.put(request.key, new InternalLockView(0, request.message, true));
+            } else {
+                locks.put(request.key, new InternalLockView(1, request.message, false));
+            }
+        }
+        return LockingResult.success();
+    }
+
+    /**
+     * @return true if the key was removed from the stripe and waiters for it should be woken up
+     */
+    private boolean releaseExclusiveLock(Stripe stripe, String key) {
+        InternalLockView lock = stripe.locks.get(key);
+        if (lock != null && lock.getExclusive()) {
+            stripe.locks.remove(key);
+            log.debug("The exclusive lock for key '{}' is released and lock is removed from map", key);
+            return true;
+        } else if (lock == null) {
+            log.warn("Trying to release exclusive lock which does not exist, lock key: '{}'", key);
+        } else {
+            log.warn("Trying to release exclusive lock but lock is not exclusive. lock key: '{}'", key);
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the last shared lock of the key was released and waiters for it should be woken up
+     */
+    private boolean releaseSharedLock(Stripe stripe, String key, String message) {
+        InternalLockView lock = stripe.locks.get(key);
+        if (lock == null) {
+            log.warn("Trying to release a shared lock for key: '{}' , but lock does not exist", key);
+            return false;
+        }
+        if (lock.getCount() <= 0) {
+            log.warn("Trying to decrease a shared lock for key: '{}' , but shared index is 0", key);
+            return false;
+        }
+        lock.decreaseCount();
+        log.debug("The shared lock for key '{}' is released.", key);
+        if (lock.getCount() == 0) {
+            stripe.locks.remove(key);
+            log.debug("The shared lock for key '{}' is removed from map", key);
+            return true;
+        }
+        lock.removeMessage(message);
+        return false;
+    }
+
+    private void addWaiter(List<KeyRequest> requests, Waiter waiter) {
+        for (KeyRequest request : requests) {
+            stripes[request.stripeIndex].waiters.computeIfAbsent(request.key, k -> new ArrayDeque<>()).add(waiter);
+        }
+    }
+
+    private void removeWaiter(List<KeyRequest> requests, Waiter waiter) {
+        for (KeyRequest request : requests) {
+            Map<String, Deque<Waiter>> waiters = stripes[request.stripeIndex].waiters;
+            Deque<Waiter> queue = waiters.get(request.key);
+            if (queue != null) {
+                queue.remove(waiter);
+                if (queue.isEmpty()) {
+                    waiters.remove(request.key);
+                }
+            }
+        }
+    }
+
+    /**
+     * The following class represents a single shard of the locks, all its fields are guarded by its lock
+     */
+    private static class Stripe {
+
+        private final Lock lock = new ReentrantLock();
+        /** A map which is contains all internal representation of locks of the stripe **/
+        private final Map<String, InternalLockView> locks = new HashMap<>();
+        /** Threads waiting for a key of the stripe to be released, in the order they started waiting **/
+        private final Map<String, Deque<Waiter>> waiters = new HashMap<>();
+
+        private void wakeUpWaiters(String key) {
+            Deque<Waiter> queue = waiters.remove(key);
+            if (queue != null) {
+                queue.forEach(Waiter::wakeUp);
+            }
+        }
+
+        private void wakeUpAllWaiters() {
+            waiters.values().forEach(queue -> queue.forEach(Waiter::wakeUp));
+            waiters.clear();
+        }
+    }
+
+    /**
+     * The following class represents a single wait of a thread in acquireLockWait(), a waiter is registered for all
+     * the keys of the requested lock and woken up by a release of any of them
+     */
+    private static class Waiter {
+
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        private void wakeUp() {
+            released.countDown();
+        }
+
+        /**
+         * @return true if the waiter was woken up, false if the timeout elapsed
+         */
+        private boolean await(boolean timed, long timeoutNanos) throws InterruptedException {
+            if (timed) {
+                return released.await(timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+            released.await();
+            return true;
+        }
+    }
+
+    private static class KeyRequest {
+
+        private final String key;
+        private final String message;
+        private final boolean exclusive;
+        private final int stripeIndex;
+
+        private KeyRequest(String key, String message, boolean exclusive, int stripeIndex) {
+            this.key = key;
+            this.message = message;
+            this.exclusive = exclusive;
+            this.stripeIndex = stripeIndex;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.Label;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VmNumaNode;
+import org.ovirt.engine.core.common.businessentities.network.Network;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.VnicProfileView;
+import org.ovirt.engine.core.common.scheduling.AffinityGroup;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MemoizingSupplier;
+
+/**
+ * The data of a cluster the policy units read while scheduling VMs, loaded from the database at most once in a
+ * scheduling round, however many VMs are scheduled in it and however many units read it.
+ *
+ * The data is loaded on the first read and not refreshed afterwards, the resources the round assigns to hosts are
+ * tracked by the {@link org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager} as before. The returned
+ * collections are shared by all the readers and must not be modified. A snapshot is used by the thread scheduling its
+ * round only and is not thread safe.
+ */
+public class ClusterSnapshot {
+
+    private final Cluster cluster;
+    private final ClusterSnapshotLoader loader;
+    private final Set<Guid> scheduledVmIds;
+    private final Map<Guid, Long> scheduledVmCountByCluster;
+
+    private final Map<Guid, List<AffinityGroup>> affinityGroups = new HashMap<>();
+    private final Map<Guid, Map<Guid, List<AffinityGroup>>> vmAffinityGroups = new HashMap<>();
+    private final Map<Guid, List<VM>> runningVms = new HashMap<>();
+    private final Supplier<Map<Guid, List<Label>>> scheduledVmLabels;
+    private final Map<Guid, List<Label>> vmLabels = new HashMap<>();
+    private final Map<Guid, Map<Guid, List<VmNumaNode>>> vmNumaNodes = new HashMap<>();
+    private final Map<Guid, List<Network>> networks = new HashMap<>();
+    private final Map<Guid, Network> networksById = new HashMap<>();
+    private final Map<Guid, Map<Guid, List<String>>> hostNetworks = new HashMap<>();
+    private final Map<Guid, List<VdsNetworkInterface>> networkInterfaces = new HashMap<>();
+    private final Map<Guid, List<VmNetworkInterface>> vmNetworkInterfaces = new HashMap<>();
+    private final Map<Guid, VnicProfileView> vnicProfiles = new HashMap<>();
+
+    ClusterSnapshot(Cluster cluster, Collection<VM> vms, ClusterSnapshotLoader loader) {
+        this.cluster = cluster;
+        this.loader = loader;
+        this.scheduledVmIds = vms.stream().map(VM::getId).collect(Collectors.toSet());
+        this.scheduledVmCountByCluster = vms.stream()
+                .filter(vm -> vm.getClusterId() != null)
+                .collect(Collectors.groupingBy(VM::getClusterId, Collectors.counting()));
+        this.scheduledVmLabels = new MemoizingSupplier<>(this::loadScheduledVmLabels);
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    /**
+     * @return the affinity groups of the cluster, with the VMs and hosts of their labels among their members
+     */
+    public List<AffinityGroup> getAffinityGroups(Guid clusterId) {
+        return affinityGroups.computeIfAbsent(clusterId,
+                id -> Collections.unmodifiableList(loader.loadAffinityGroups(id)));
+    }
+
+    /**
+     * @return the affinity groups the VM is a member of, directly or through a label
+     */
+    public List<AffinityGroup> getVmAffinityGroups(VM vm) {
+        return vmAffinityGroups.computeIfAbsent(vm.getClusterId(), this::groupAffinityGroupsByVm)
+                .getOrDefault(vm.getId(), Collections.emptyList());
+    }
+
+    private Map<Guid, List<AffinityGroup>> groupAffinityGroupsByVm(Guid clusterId) {
+        Map<Guid, List<AffinityGroup>> groupsByVm = new HashMap<>();
+        for (AffinityGroup group : getAffinityGroups(clusterId)) {
+            group.getVmIds().stream()
+                    .distinct()
+                    .forEach(vmId -> groupsByVm.computeIfAbsent(vmId, k -> new ArrayList<>()).add(group));
+        }
+        return groupsByVm;
+    }
+
+    public List<VM> getRunningVms(Guid clusterId) {
+        return runningVms.computeIfAbsent(clusterId,
+                id -> Collections.unmodifiableList(loader.loadRunningVms(id)));
+    }
+
+    /**
+     * @return the labels the VM is in, which are loaded together for all the VMs scheduled in the round
+     */
+    public List<Label> getLabels(VM vm) {
+        if (scheduledVmIds.contains(vm.getId())) {
+            return scheduledVmLabels.get().getOrDefault(vm.getId(), Collections.emptyList());
+        }
+        return vmLabels.computeIfAbsent(vm.getId(),
+                id -> Collections.unmodifiableList(loader.loadLabels(Collections.singleton(id))));
+    }
+
+    private Map<Guid, List<Label>> loadScheduledVmLabels() {
+        Map<Guid, List<Label>> labelsByVm = new HashMap<>();
+        for (Label label : loader.loadLabels(scheduledVmIds)) {
+            label.getVms().stream()
+                    .filter(scheduledVmIds::contains)
+                    .forEach(vmId -> labelsByVm.computeIfAbsent(vmId, k -> new ArrayList<>()).add(label));
+        }
+        return labelsByVm;
+    }
+
+    /**
+     * The NUMA nodes of all the VMs of a cluster are loaded together when more than one of its VMs is scheduled in the
+     * round, otherwise the ones of the VM are loaded alone, which reads less.
+     *
+     * @return a new list of the NUMA nodes of the VM, which can be set to it
+     */
+    public List<VmNumaNode> getVmNumaNodes(VM vm) {
+        if (scheduledVmCountByCluster.getOrDefault(vm.getClusterId(), 0L) < 2) {
+            return loader.loadVmNumaNodesOfVm(vm.getId());
+        }
+        return new ArrayList<>(vmNumaNodes.computeIfAbsent(vm.getClusterId(), loader::loadVmNumaNodes)
+                .getOrDefault(vm.getId(), Collections.emptyList()));
+    }
+
+    public List<Network> getNetworks(Guid clusterId) {
+        return networks.computeIfAbsent(clusterId, id -> Collections.unmodifiableList(loader.loadNetworks(id)));
+    }
+
+    public Network getNetwork(Guid networkId) {
+        return networksById.computeIfAbsent(networkId, loader::loadNetwork);
+    }
+
+    /**
+     * @return the names of the networks attached to each host of the cluster, by host id
+     */
+    public Map<Guid, List<String>> getHostNetworks(Guid clusterId) {
+        return hostNetworks.computeIfAbsent(clusterId, id -> Collections.unmodifiableMap(loader.loadHostNetworks(id)));
+    }
+
+    /**
+     * @return the host interfaces the network is attached to
+     */
+    public List<VdsNetworkInterface> getNetworkInterfaces(Guid networkId) {
+        return networkInterfaces.computeIfAbsent(networkId,
+                id -> Collections.unmodifiableList(loader.loadNetworkInterfaces(id)));
+    }
+
+    public List<VmNetworkInterface> getVmNetworkInterfaces(Guid vmId) {
+        return vmNetworkInterfaces.computeIfAbsent(vmId,
+                id -> Collections.unmodifiableList(loader.loadVmNetworkInterfaces(id)));
+    }
+
+    public VnicProfileView getVnicProfile(Guid vnicProfileId) {
+        return vnicProfiles.computeIfAbsent(vnicProfileId, loader::loadVnicProfile);
+    }
+}
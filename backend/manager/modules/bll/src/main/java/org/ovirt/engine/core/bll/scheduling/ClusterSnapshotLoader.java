@@ -0,0 +1,103 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.Label;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VmNumaNode;
+import org.ovirt.engine.core.common.businessentities.network.Network;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.VnicProfileView;
+import org.ovirt.engine.core.common.scheduling.AffinityGroup;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.LabelDao;
+import org.ovirt.engine.core.dao.VmDao;
+import org.ovirt.engine.core.dao.VmNumaNodeDao;
+import org.ovirt.engine.core.dao.network.InterfaceDao;
+import org.ovirt.engine.core.dao.network.NetworkDao;
+import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
+import org.ovirt.engine.core.dao.network.VnicProfileViewDao;
+import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
+
+/**
+ * Creates the {@link ClusterSnapshot} of a scheduling round and makes the database calls it loads its data with.
+ */
+@Singleton
+public class ClusterSnapshotLoader {
+
+    @Inject
+    private AffinityGroupDao affinityGroupDao;
+    @Inject
+    private VmDao vmDao;
+    @Inject
+    private LabelDao labelDao;
+    @Inject
+    private VmNumaNodeDao vmNumaNodeDao;
+    @Inject
+    private NetworkDao networkDao;
+    @Inject
+    private InterfaceDao interfaceDao;
+    @Inject
+    private VmNetworkInterfaceDao vmNetworkInterfaceDao;
+    @Inject
+    private VnicProfileViewDao vnicProfileViewDao;
+
+    /**
+     * @param cluster the cluster the VMs are scheduled in
+     * @param vms the VMs scheduled in the round, whose labels and NUMA nodes are loaded together
+     */
+    public ClusterSnapshot load(Cluster cluster, Collection<VM> vms) {
+        return new ClusterSnapshot(cluster, vms, this);
+    }
+
+    List<AffinityGroup> loadAffinityGroups(Guid clusterId) {
+        return affinityGroupDao.getAllAffinityGroupsWithFlatLabelsByClusterId(clusterId);
+    }
+
+    List<VM> loadRunningVms(Guid clusterId) {
+        return vmDao.getAllRunningByCluster(clusterId);
+    }
+
+    List<Label> loadLabels(Collection<Guid> vmIds) {
+        return labelDao.getAllByEntityIds(vmIds);
+    }
+
+    Map<Guid, List<VmNumaNode>> loadVmNumaNodes(Guid clusterId) {
+        return vmNumaNodeDao.getVmNumaNodeInfoByClusterId(clusterId);
+    }
+
+    List<VmNumaNode> loadVmNumaNodesOfVm(Guid vmId) {
+        return vmNumaNodeDao.getAllVmNumaNodeByVmId(vmId);
+    }
+
+    List<Network> loadNetworks(Guid clusterId) {
+        return networkDao.getAllForCluster(clusterId);
+    }
+
+    Network loadNetwork(Guid networkId) {
+        return networkDao.get(networkId);
+    }
+
+    Map<Guid, List<String>> loadHostNetworks(Guid clusterId) {
+        return interfaceDao.getHostNetworksByCluster(clusterId);
+    }
+
+    List<VdsNetworkInterface> loadNetworkInterfaces(Guid networkId) {
+        return interfaceDao.getVdsInterfacesByNetworkId(networkId);
+    }
+
+    List<VmNetworkInterface> loadVmNetworkInterfaces(Guid vmId) {
+        return vmNetworkInterfaceDao.getAllForVm(vmId);
+    }
+
+    VnicProfileView loadVnicProfile(Guid vnicProfileId) {
+        return vnicProfileViewDao.get(vnicProfileId);
+    }
+}
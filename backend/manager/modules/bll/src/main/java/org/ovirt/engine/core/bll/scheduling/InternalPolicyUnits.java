@@ -7,6 +7,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.bll.scheduling.policyunits.ArrayRankSelectorPolicyUnit;
 import org.ovirt.engine.core.bll.scheduling.policyunits.BasicWeightSelectorPolicyUnit;
 import org.ovirt.engine.core.bll.scheduling.policyunits.CPUPolicyUnit;
 import org.ovirt.engine.core.bll.scheduling.policyunits.ClusterInMaintenanceFilterPolicyUnit;
@@ -93,6 +94,7 @@ public class InternalPolicyUnits {
         enabledUnits.add(InClusterUpgradeWeightPolicyUnit.class);
         enabledUnits.add(BasicWeightSelectorPolicyUnit.class);
         enabledUnits.add(RankSelectorPolicyUnit.class);
+        enabledUnits.add(ArrayRankSelectorPolicyUnit.class);
         enabledUnits.add(HighPerformanceCpuPolicyUnit.class);
         enabledUnits.add(CpuAndNumaPinningWeightPolicyUnit.class);
         enabledUnits.add(MigrationTscFrequencyPolicyUnit.class);
@@ -0,0 +1,50 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.Map;
+
+/**
+ * The following interface is used as interface for JMX bean, the maps are keyed by the name of the cluster
+ */
+public interface LoadBalancingMonitorMXBean {
+
+    /**
+     * The following method will return the number of clusters waiting for a worker to balance them
+     */
+    int getPendingClusterCount();
+
+    /**
+     * The following method will return the number of workers currently balancing clusters
+     */
+    int getWorkerCount();
+
+    /**
+     * The following method will return the number of times each cluster was balanced
+     */
+    Map<String, Long> getBalanceCountByCluster();
+
+    /**
+     * The following method will return the time the last balancing of each cluster took
+     */
+    Map<String, Long> getLastBalanceTimeMillisByCluster();
+
+    /**
+     * The following method will return the longest time a balancing of each cluster took
+     */
+    Map<String, Long> getMaxBalanceTimeMillisByCluster();
+
+    /**
+     * The following method will return the number of balancings of each cluster whose migrations were dropped since
+     * they took longer than the time budget
+     */
+    Map<String, Long> getOverBudgetCountByCluster();
+
+    /**
+     * The following method will return the number of VMs the balancings of each cluster decided to migrate
+     */
+    Map<String, Long> getMigrationDecisionCountByCluster();
+
+    /**
+     * The following method will return the number of migrations the balancings of each cluster started
+     */
+    Map<String, Long> getMigrationCountByCluster();
+}
@@ -0,0 +1,100 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.compat.Guid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Balances the clusters queued by the load balancing timer concurrently, by a bounded number of workers which take the
+ * clusters from the queue one after the other. A cluster which is queued or being balanced is not queued again, so a
+ * slow cluster neither holds back the others nor piles up rounds of its own, it is balanced in the first round of the
+ * timer after its balancing ended.
+ */
+class LoadBalancingQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadBalancingQueue.class);
+
+    private final Executor executor;
+    private final Consumer<Cluster> balancer;
+
+    private final Queue<Cluster> pendingClusters = new ConcurrentLinkedQueue<>();
+    /** Ids of the clusters which are queued or being balanced **/
+    private final Set<Guid> balancedClusterIds = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger workers = new AtomicInteger();
+
+    LoadBalancingQueue(Executor executor, Consumer<Cluster> balancer) {
+        this.executor = executor;
+        this.balancer = balancer;
+    }
+
+    /**
+     * Queues the clusters which are not queued or balanced already and starts workers for them, up to the given
+     * parallelism. Clusters left in the queue when no worker can be started are balanced by the running workers.
+     */
+    void balance(Collection<Cluster> clusters, int parallelism) {
+        for (Cluster cluster : clusters) {
+            if (balancedClusterIds.add(cluster.getId())) {
+                pendingClusters.add(cluster);
+            } else {
+                log.debug("Balancing of cluster '{}' did not end yet, skipping it", cluster.getName());
+            }
+        }
+
+        while (!pendingClusters.isEmpty()) {
+            int count = workers.get();
+            if (count >= parallelism) {
+                break;
+            }
+            if (!workers.compareAndSet(count, count + 1)) {
+                continue;
+            }
+            try {
+                executor.execute(this::balancePendingClusters);
+            } catch (RejectedExecutionException e) {
+                workers.decrementAndGet();
+                log.debug("No thread is available for load balancing, continuing with {} workers", count);
+                break;
+            }
+        }
+    }
+
+    private void balancePendingClusters() {
+        try {
+            Cluster cluster;
+            while ((cluster = pendingClusters.poll()) != null) {
+                try {
+                    balancer.accept(cluster);
+                } catch (Throwable t) {
+                    log.error("Exception in load balancing of cluster '{}': {}",
+                            cluster.getName(),
+                            ExceptionUtils.getRootCauseMessage(t));
+                    log.debug("Exception", t);
+                } finally {
+                    balancedClusterIds.remove(cluster.getId());
+                }
+            }
+        } finally {
+            workers.decrementAndGet();
+        }
+    }
+
+    int getPendingClusterCount() {
+        return pendingClusters.size();
+    }
+
+    int getWorkerCount() {
+        return workers.get();
+    }
+}
@@ -0,0 +1,113 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * The following class keeps the duration and migration counters of the load balancing of each cluster, it is exposed
+ * via {@link LoadBalancingMonitorMXBean}
+ */
+class LoadBalancingStatistics implements LoadBalancingMonitorMXBean {
+
+    private final LoadBalancingQueue queue;
+    private final Map<Guid, ClusterStatistics> clusterStatistics = new ConcurrentHashMap<>();
+
+    LoadBalancingStatistics(LoadBalancingQueue queue) {
+        this.queue = queue;
+    }
+
+    /**
+     * @param decisions number of VMs the balancing decided to migrate
+     * @param migrations number of migrations started, 0 when the balancing was over budget
+     */
+    void balanced(Cluster cluster, long durationNanos, boolean overBudget, int decisions, int migrations) {
+        ClusterStatistics statistics =
+                clusterStatistics.computeIfAbsent(cluster.getId(), id -> new ClusterStatistics(cluster.getName()));
+        // the cluster may have been renamed since it was last balanced
+        statistics.name = cluster.getName();
+        statistics.balances.increment();
+        statistics.lastDurationNanos.set(durationNanos);
+        statistics.maxDurationNanos.accumulateAndGet(durationNanos, Math::max);
+        if (overBudget) {
+            statistics.overBudget.increment();
+        }
+        statistics.decisions.add(decisions);
+        statistics.migrations.add(migrations);
+    }
+
+    /**
+     * Forgets the counters of the clusters which were removed
+     */
+    void retainClusters(Collection<Guid> clusterIds) {
+        clusterStatistics.keySet().retainAll(clusterIds);
+    }
+
+    @Override
+    public int getPendingClusterCount() {
+        return queue.getPendingClusterCount();
+    }
+
+    @Override
+    public int getWorkerCount() {
+        return queue.getWorkerCount();
+    }
+
+    @Override
+    public Map<String, Long> getBalanceCountByCluster() {
+        return byClusterName(statistics -> statistics.balances.sum());
+    }
+
+    @Override
+    public Map<String, Long> getLastBalanceTimeMillisByCluster() {
+        return byClusterName(statistics -> TimeUnit.NANOSECONDS.toMillis(statistics.lastDurationNanos.get()));
+    }
+
+    @Override
+    public Map<String, Long> getMaxBalanceTimeMillisByCluster() {
+        return byClusterName(statistics -> TimeUnit.NANOSECONDS.toMillis(statistics.maxDurationNanos.get()));
+    }
+
+    @Override
+    public Map<String, Long> getOverBudgetCountByCluster() {
+        return byClusterName(statistics -> statistics.overBudget.sum());
+    }
+
+    @Override
+    public Map<String, Long> getMigrationDecisionCountByCluster() {
+        return byClusterName(statistics -> statistics.decisions.sum());
+    }
+
+    @Override
+    public Map<String, Long> getMigrationCountByCluster() {
+        return byClusterName(statistics -> statistics.migrations.sum());
+    }
+
+    private Map<String, Long> byClusterName(Function<ClusterStatistics, Long> counter) {
+        Map<String, Long> counters = new TreeMap<>();
+        clusterStatistics.values().forEach(statistics -> counters.put(statistics.name, counter.apply(statistics)));
+        return counters;
+    }
+
+    private static class ClusterStatistics {
+        private volatile String name;
+        private final LongAdder balances = new LongAdder();
+        private final AtomicLong lastDurationNanos = new AtomicLong();
+        private final AtomicLong maxDurationNanos = new AtomicLong();
+        private final LongAdder overBudget = new LongAdder();
+        private final LongAdder decisions = new LongAdder();
+        private final LongAdder migrations = new LongAdder();
+
+        private ClusterStatistics(String name) {
+            this.name = name;
+        }
+    }
+}
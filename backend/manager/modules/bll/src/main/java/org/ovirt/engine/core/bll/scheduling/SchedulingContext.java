@@ -9,6 +9,7 @@ import org.ovirt.engine.core.common.utils.Pair;
 
 public class SchedulingContext {
     private final Cluster cluster;
+    private final ClusterSnapshot snapshot;
     private final List<PolicyUnitImpl> internalFilters = new ArrayList<>();
     private final List<PolicyUnitImpl> externalFilters = new ArrayList<>();
     private final List<Pair<PolicyUnitImpl, Integer>> internalScoreFunctions = new ArrayList<>();
@@ -36,21 +37,43 @@ public class SchedulingContext {
 
     private final List<String> messages = new ArrayList<>();
 
-    public SchedulingContext(Cluster cluster, Map<String, String> policyParameters, boolean ignoreHardVmToVmAffinity, boolean doNotGroupVms) {
-        this.cluster = cluster;
+    public SchedulingContext(ClusterSnapshot snapshot,
+            Map<String, String> policyParameters,
+            boolean ignoreHardVmToVmAffinity,
+            boolean doNotGroupVms) {
+        this.cluster = snapshot.getCluster();
+        this.snapshot = snapshot;
         this.policyParameters = policyParameters;
         this.ignoreHardVmToVmAffinity = ignoreHardVmToVmAffinity;
         this.doNotGroupVms = doNotGroupVms;
     }
 
+    public SchedulingContext(ClusterSnapshot snapshot, Map<String, String> policyParameters) {
+        this(snapshot, policyParameters, false, false);
+    }
+
+    /**
+     * Creates a context without a cluster snapshot, for the policy units that do not read one.
+     */
     public SchedulingContext(Cluster cluster, Map<String, String> policyParameters) {
-        this(cluster, policyParameters, false, false);
+        this.cluster = cluster;
+        this.snapshot = null;
+        this.policyParameters = policyParameters;
+        this.ignoreHardVmToVmAffinity = false;
+        this.doNotGroupVms = false;
     }
 
     public Cluster  getCluster() {
         return cluster;
     }
 
+    /**
+     * @return the data of the cluster the policy units read, loaded once for the scheduling round
+     */
+    public ClusterSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     public List<PolicyUnitImpl> getInternalFilters() {
         return internalFilters;
     }
@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.bll.scheduling;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -22,9 +23,12 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.exception.ExceptionUtils;
@@ -84,7 +88,6 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.MessageBundler;
 import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.VdsNumaNodeDao;
-import org.ovirt.engine.core.dao.VmNumaNodeDao;
 import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
 import org.ovirt.engine.core.dao.scheduling.ClusterPolicyDao;
 import org.ovirt.engine.core.dao.scheduling.PolicyUnitDao;
@@ -131,14 +134,14 @@ public class SchedulingManager implements BackendService {
     @Inject
     private VfScheduler vfScheduler;
     @Inject
-    private VmNumaNodeDao vmNumaNodeDao;
-    @Inject
     private VdsNumaNodeDao vdsNumaNodeDao;
     @Inject
     private AffinityGroupDao affinityGroupDao;
     @Inject
     private RunVmDelayer runVmDelayer;
     @Inject
+    private ClusterSnapshotLoader clusterSnapshotLoader;
+    @Inject
     @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
     private ManagedScheduledExecutorService executor;
 
@@ -165,6 +168,14 @@ public class SchedulingManager implements BackendService {
 
     private final int vcpuLoadPerCore = Config.<Integer>getValue(ConfigValues.VcpuConsumptionPercentage);
 
+    private final LoadBalancingQueue loadBalancingQueue =
+            new LoadBalancingQueue(ThreadPoolUtil::execute, this::balanceCluster);
+
+    private final LoadBalancingStatistics loadBalancingStatistics = new LoadBalancingStatistics(loadBalancingQueue);
+
+    private MBeanServer platformMBeanServer;
+    private ObjectName loadBalancingObjectName;
+
     private PendingResourceManager getPendingResourceManager() {
         return pendingResourceManager;
     }
@@ -188,6 +199,18 @@ public class SchedulingManager implements BackendService {
         log.info("Initialized Scheduling manager");
     }
 
+    @PreDestroy
+    public void unregisterFromJMX() {
+        if (loadBalancingObjectName == null) {
+            return;
+        }
+        try {
+            platformMBeanServer.unregisterMBean(loadBalancingObjectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during unregistration of Monitoring into JMX:" + e);
+        }
+    }
+
     private void initializePendingResourceManager() {
         pendingResourceManager = new PendingResourceManager(resourceManager);
     }
@@ -364,9 +387,10 @@ public class SchedulingManager implements BackendService {
             lockCluster(cluster.getId());
             List<VDS> hosts = fetchHosts(cluster.getId(), hostBlackList, hostWhiteList);
             vms.forEach(vmHandler::updateVmStatistics);
-            fetchNumaNodes(vms, hosts);
+            ClusterSnapshot snapshot = clusterSnapshotLoader.load(cluster, vms);
+            fetchNumaNodes(vms, hosts, snapshot);
             ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
-            SchedulingContext context = new SchedulingContext(cluster,
+            SchedulingContext context = new SchedulingContext(snapshot,
                     createClusterPolicyParameters(cluster),
                     ignoreHardVmToVmAffinity,
                     doNotGroupVms);
@@ -474,10 +498,9 @@ public class SchedulingManager implements BackendService {
         return keepOnlyWhitelistedHosts(vdsList, whiteList);
     }
 
-    private void fetchNumaNodes(List<VM> vms, List<VDS> hosts) {
-        // TODO - fetch numa nodes for all VMs in 1 DB call
+    private void fetchNumaNodes(List<VM> vms, List<VDS> hosts, ClusterSnapshot snapshot) {
         for (VM vm : vms) {
-            vm.setvNumaNodeList(vmNumaNodeDao.getAllVmNumaNodeByVmId(vm.getId()));
+            vm.setvNumaNodeList(snapshot.getVmNumaNodes(vm));
         }
 
         for (VDS host : hosts) {
@@ -667,8 +690,7 @@ public class SchedulingManager implements BackendService {
                     .collect(Collectors.toList());
         }
 
-        // TODO - maybe optimize DB call to fetch only needed affinity groups?
-        List<AffinityGroup> allPositiveGroups = affinityGroupDao.getAllAffinityGroupsWithFlatLabelsByClusterId(context.getCluster().getId()).stream()
+        List<AffinityGroup> allPositiveGroups = context.getSnapshot().getAffinityGroups(context.getCluster().getId()).stream()
                 .filter(ag -> ag.isVmPositive() && ag.isVmEnforcing())
                 .collect(Collectors.toList());
 
@@ -678,7 +700,9 @@ public class SchedulingManager implements BackendService {
                     .collect(Collectors.toList());
         }
 
-        Map<Guid, VM> vmsById = vms.stream().collect(Collectors.toMap(VM::getId, vm -> vm));
+        // Keeps the order of the VMs, the ones not in affinity groups are scheduled in it
+        Map<Guid, VM> vmsById = vms.stream()
+                .collect(Collectors.toMap(VM::getId, vm -> vm, (vm1, vm2) -> vm1, LinkedHashMap::new));
         List<Set<Guid>> unifiedGroups = new ArrayList<>(AffinityRulesUtils.getUnifiedPositiveAffinityGroups(allPositiveGroups));
 
         List<List<VM>> vmGroups = new ArrayList<>();
@@ -767,14 +791,14 @@ public class SchedulingManager implements BackendService {
      */
     private void checkAllowOverbooking(Cluster cluster) {
         if (OptimizationType.ALLOW_OVERBOOKING == cluster.getOptimizationType()
-                && Config.<Boolean>getValue(ConfigValues.SchedulerAllowOverBooking)
+                && Config.getBooleanValue(ConfigValues.SchedulerAllowOverBooking)
                 && clusterLockMap.get(cluster.getId()).getQueueLength() >=
-                Config.<Integer>getValue(ConfigValues.SchedulerOverBookingThreshold)) {
+                Config.getIntValue(ConfigValues.SchedulerOverBookingThreshold)) {
             log.info("Scheduler: cluster '{}' lock is skipped (cluster is allowed to overbook)",
                     cluster.getName());
             // release pending threads (requests) and current one (+1)
             clusterLockMap.get(cluster.getId())
-                    .release(Config.<Integer>getValue(ConfigValues.SchedulerOverBookingThreshold) + 1);
+                    .release(Config.getIntValue(ConfigValues.SchedulerOverBookingThreshold) + 1);
         }
     }
 
@@ -784,7 +808,7 @@ public class SchedulingManager implements BackendService {
      *   configurable requests pending (skip weighing in a loaded setup).
      */
     private boolean shouldWeighClusterHosts(Cluster cluster) {
-        Integer threshold = Config.<Integer>getValue(ConfigValues.SpeedOptimizationSchedulingThreshold);
+        int threshold = Config.getIntValue(ConfigValues.SpeedOptimizationSchedulingThreshold);
         // threshold is crossed only when cluster is configured for optimized for speed
         boolean crossedThreshold =
                 OptimizationType.OPTIMIZE_FOR_SPEED == cluster.getOptimizationType()
@@ -815,9 +839,10 @@ public class SchedulingManager implements BackendService {
         }
         refreshCachedPendingValues(hosts);
         vms.forEach(vmHandler::updateVmStatistics);
-        fetchNumaNodes(vms, hosts);
+        ClusterSnapshot snapshot = clusterSnapshotLoader.load(cluster, vms);
+        fetchNumaNodes(vms, hosts, snapshot);
         ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
-        SchedulingContext context = new SchedulingContext(cluster,
+        SchedulingContext context = new SchedulingContext(snapshot,
                 createClusterPolicyParameters(cluster),
                 ignoreHardVmToVmAffinity,
                 doNotGroupVms);
@@ -901,7 +926,7 @@ public class SchedulingManager implements BackendService {
         hostList = runInternalFilters(hostList, vmGroup, context, correlationId, result);
 
         if (shouldRunExternalFilters
-                && Config.<Boolean>getValue(ConfigValues.ExternalSchedulerEnabled)
+                && Config.getBooleanValue(ConfigValues.ExternalSchedulerEnabled)
                 && !context.getExternalFilters().isEmpty()
                 && !hostList.isEmpty()) {
             hostList = runExternalFilters(hostList, vmGroup, context, correlationId, result);
@@ -1033,7 +1058,7 @@ public class SchedulingManager implements BackendService {
             SchedulingContext context) {
         runInternalFunctions(selector, hostList, vmGroup, context);
 
-        if (Config.<Boolean>getValue(ConfigValues.ExternalSchedulerEnabled) &&
+        if (Config.getBooleanValue(ConfigValues.ExternalSchedulerEnabled) &&
                 !context.getExternalScoreFunctions().isEmpty()) {
             runExternalFunctions(selector, hostList, vmGroup, context);
         }
@@ -1187,6 +1212,7 @@ public class SchedulingManager implements BackendService {
     private void enableLoadBalancer() {
         if (Config.<Boolean>getValue(ConfigValues.EnableVdsLoadBalancing)) {
             log.info("Start scheduling to enable vds load balancer");
+            registerLoadBalancingInJMX();
             executor.scheduleWithFixedDelay(this::performLoadBalancing,
                     Config.<Long>getValue(ConfigValues.VdsLoadBalancingIntervalInMinutes),
                     Config.<Long>getValue(ConfigValues.VdsLoadBalancingIntervalInMinutes),
@@ -1195,6 +1221,16 @@ public class SchedulingManager implements BackendService {
         }
     }
 
+    private void registerLoadBalancingInJMX() {
+        try {
+            loadBalancingObjectName = new ObjectName("SchedulingManager:type=LoadBalancing");
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(loadBalancingStatistics, loadBalancingObjectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
     private void enableHaReservationCheck() {
 
         if (Config.<Boolean>getValue(ConfigValues.EnableVdsLoadBalancing)) {
@@ -1273,36 +1309,67 @@ public class SchedulingManager implements BackendService {
         }
     }
 
+    /**
+     * Queues the clusters for balancing by up to {@link ConfigValues#LoadBalancingParallelism} engine threads, without
+     * waiting for them, so a cluster whose balancing takes long holds back neither the other clusters nor the next
+     * rounds of the timer. It is balanced again in the first round after its balancing ended.
+     */
     private void performLoadBalancingImpl() {
         log.debug("Load Balancer timer entered.");
         List<Cluster> clusters = clusterDao.getAll();
-        for (Cluster cluster : clusters) {
-            ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
-            PolicyUnitImpl policyUnit = policyUnits.get(policy.getBalance());
-            List<BalanceResult> balanceResults = Collections.emptyList();
-            if (policyUnit.getPolicyUnit().isEnabled()) {
-                List<VDS> hosts = vdsDao.getAllForClusterWithoutMigrating(cluster.getId());
-                if (policyUnit.getPolicyUnit().isInternal()) {
-                    balanceResults = internalRunBalance(policyUnit, cluster, hosts);
-                } else if (Config.<Boolean> getValue(ConfigValues.ExternalSchedulerEnabled)) {
-                    balanceResults = externalRunBalance(policyUnit, cluster, hosts);
-                }
-            }
+        loadBalancingStatistics.retainClusters(clusters.stream().map(Cluster::getId).collect(Collectors.toList()));
+        loadBalancingQueue.balance(clusters, Config.getIntValue(ConfigValues.LoadBalancingParallelism));
+    }
 
-            for (BalanceResult balanceResult: balanceResults) {
-                if (!balanceResult.isValid()) {
-                    continue;
-                }
+    /**
+     * Balances the cluster and starts the migration of the first VM it decided to migrate which can be migrated. When
+     * the balancing took longer than {@link ConfigValues#LoadBalancingTimeBudgetInSeconds} the decided migrations are
+     * dropped, since the host data they were based on is stale by then.
+     */
+    private void balanceCluster(Cluster cluster) {
+        ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
+        PolicyUnitImpl policyUnit = policyUnits.get(policy.getBalance());
+        if (!policyUnit.getPolicyUnit().isEnabled()) {
+            return;
+        }
 
-                boolean migrated = migrationHandler.migrateVM(balanceResult.getCandidateHosts(),
-                        balanceResult.getVmToMigrate(),
-                        MessageBundler.getMessage(AuditLogType.MIGRATION_REASON_LOAD_BALANCING));
+        long start = System.nanoTime();
+        List<BalanceResult> balanceResults = Collections.emptyList();
+        List<VDS> hosts = vdsDao.getAllForClusterWithoutMigrating(cluster.getId());
+        if (policyUnit.getPolicyUnit().isInternal()) {
+            balanceResults = internalRunBalance(policyUnit, cluster, hosts);
+        } else if (Config.getBooleanValue(ConfigValues.ExternalSchedulerEnabled)) {
+            balanceResults = externalRunBalance(policyUnit, cluster, hosts);
+        }
+        long duration = System.nanoTime() - start;
 
-                if (migrated) {
-                    break;
-                }
+        List<BalanceResult> validResults = balanceResults.stream()
+                .filter(BalanceResult::isValid)
+                .collect(Collectors.toList());
+        long budget = TimeUnit.SECONDS.toNanos(Config.getIntValue(ConfigValues.LoadBalancingTimeBudgetInSeconds));
+        if (duration > budget) {
+            log.warn("Load balancing of cluster '{}' took {} ms, longer than its budget of {} s, dropping its {} "
+                            + "migrations",
+                    cluster.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(duration),
+                    TimeUnit.NANOSECONDS.toSeconds(budget),
+                    validResults.size());
+            loadBalancingStatistics.balanced(cluster, duration, true, validResults.size(), 0);
+            return;
+        }
+
+        int migrations = 0;
+        for (BalanceResult balanceResult : validResults) {
+            boolean migrated = migrationHandler.migrateVM(balanceResult.getCandidateHosts(),
+                    balanceResult.getVmToMigrate(),
+                    MessageBundler.getMessage(AuditLogType.MIGRATION_REASON_LOAD_BALANCING));
+
+            if (migrated) {
+                migrations++;
+                break;
             }
         }
+        loadBalancingStatistics.balanced(cluster, duration, false, validResults.size(), migrations);
     }
 
     private List<BalanceResult> internalRunBalance(PolicyUnitImpl policyUnit,
@@ -1490,6 +1557,13 @@ public class SchedulingManager implements BackendService {
             return this;
         }
 
+        /**
+         * Places the VMs on hosts in one scheduling round, holding the lock of the cluster once. The pending resources
+         * of each VM placed are added before the next VM is placed, so the VMs are spread the same way as if they
+         * were scheduled one by one.
+         *
+         * @return the host each VM was placed on, by VM id, without the VMs no host was found for
+         */
         public Map<Guid, Guid> schedule(List<VM> vms) {
             return schedule(vms, false);
         }
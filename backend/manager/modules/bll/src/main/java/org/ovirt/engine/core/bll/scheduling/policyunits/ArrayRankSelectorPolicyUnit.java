@@ -0,0 +1,183 @@
+package org.ovirt.engine.core.bll.scheduling.policyunits;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.bll.scheduling.selector.SelectorInstance;
+import org.ovirt.engine.core.common.scheduling.PolicyUnit;
+import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ranks the hosts as the {@link RankSelectorPolicyUnit} does, with the weights accumulated in arrays indexed by the
+ * position of the host in the list the selector is initialized with, so that large clusters are scored without boxing
+ * the weights or creating the map entries of every record.
+ */
+@SchedulingUnit(
+        guid = "bf765196-1ee5-41c7-be5b-6fb9aecb83fd",
+        name = "ArrayRankSelector",
+        type = PolicyUnitType.SELECTOR,
+        description = "The host with lowest accumulated rank wins. The ranks are computed in arrays of the hosts."
+)
+public class ArrayRankSelectorPolicyUnit extends PolicyUnitImpl {
+    public static final Logger log = LoggerFactory.getLogger(ArrayRankSelectorPolicyUnit.class);
+
+    public ArrayRankSelectorPolicyUnit(PolicyUnit policyUnit, PendingResourceManager pendingResourceManager) {
+        super(policyUnit, pendingResourceManager);
+    }
+
+    @Override
+    public SelectorInstance selector(Map<String, String> parameters) {
+        return new Selector();
+    }
+
+    /**
+     * The weights of the hosts which are not in the list passed to {@link #init(List, List)} are ignored. The units
+     * without a factor, like the external scheduler which records its results without a unit id, have the factor 1.
+     */
+    public static class Selector implements SelectorInstance {
+        private static final int INITIAL_UNIT_COUNT = 16;
+
+        private List<Guid> hosts;
+        private final Map<Guid, Integer> hostIndexes = new HashMap<>();
+        private final Map<Guid, Integer> unitIndexes = new HashMap<>();
+        private Guid[] units = new Guid[INITIAL_UNIT_COUNT];
+        private int[] factors = new int[INITIAL_UNIT_COUNT];
+        // [unit][host], the weights of the records of a host are summed
+        private long[][] weights = new long[INITIAL_UNIT_COUNT][];
+        private boolean[] recorded = new boolean[INITIAL_UNIT_COUNT];
+        private int unitCount;
+
+        @Override
+        public void init(List<Pair<Guid, Integer>> policyUnits, List<Guid> hosts) {
+            this.hosts = Collections.unmodifiableList(hosts);
+            for (int i = 0; i < hosts.size(); i++) {
+                hostIndexes.putIfAbsent(hosts.get(i), i);
+            }
+
+            for (Pair<Guid, Integer> pair: policyUnits) {
+                factors[unitIndex(pair.getFirst())] = pair.getSecond();
+            }
+        }
+
+        private int unitIndex(Guid unit) {
+            Integer index = unitIndexes.get(unit);
+            if (index != null) {
+                return index;
+            }
+
+            if (unitCount == units.length) {
+                units = Arrays.copyOf(units, unitCount * 2);
+                factors = Arrays.copyOf(factors, unitCount * 2);
+                weights = Arrays.copyOf(weights, unitCount * 2);
+                recorded = Arrays.copyOf(recorded, unitCount * 2);
+            }
+            units[unitCount] = unit;
+            factors[unitCount] = 1;
+            weights[unitCount] = new long[hosts.size()];
+            unitIndexes.put(unit, unitCount);
+            return unitCount++;
+        }
+
+        @Override
+        public void record(Guid policyUnit, Guid host, Integer weight) {
+            Integer hostIndex = hostIndexes.get(host);
+            if (hostIndex == null) {
+                return;
+            }
+
+            int unitIndex = unitIndex(policyUnit);
+            weights[unitIndex][hostIndex] += weight;
+            recorded[unitIndex] = true;
+        }
+
+        @Override
+        public Optional<Guid> best() {
+            int hostCount = hosts.size();
+            long[] scores = new long[hostCount];
+            long[] sortedWeights = new long[hostCount];
+            int[] ranks = new int[hostCount];
+            boolean scored = false;
+
+            StringBuilder debug = null;
+            if (log.isDebugEnabled()) {
+                // DEBUG header - columns are policy unit id, factor, host weight, host rank, ....
+                debug = new StringBuilder("*;factor");
+                for (Guid host : hosts) {
+                    debug.append(';').append(host).append(';');
+                }
+                debug.append('\n');
+            }
+
+            for (int unit = 0; unit < unitCount; unit++) {
+                if (!recorded[unit]) {
+                    continue;
+                }
+                scored = true;
+
+                long[] unitWeights = weights[unit];
+                System.arraycopy(unitWeights, 0, sortedWeights, 0, hostCount);
+                Arrays.sort(sortedWeights);
+
+                for (int host = 0; host < hostCount; host++) {
+                    // Lower weight is better, the rank is the number of hosts with the same or worse weight
+                    ranks[host] = (hostCount - 1) - countLower(sortedWeights, unitWeights[host]);
+                    scores[host] += (long) factors[unit] * ranks[host];
+                }
+
+                if (debug != null) {
+                    debug.append(units[unit] == null ? "<unknown>" : units[unit].toString());
+                    debug.append(';').append(factors[unit]);
+                    for (int host = 0; host < hostCount; host++) {
+                        debug.append(';').append(ranks[host]).append(';').append(unitWeights[host]);
+                    }
+                    debug.append('\n');
+                }
+            }
+
+            if (debug != null) {
+                log.debug("Ranking selector:\n{}", debug);
+            }
+
+            if (!scored || hostCount == 0) {
+                return Optional.empty();
+            }
+
+            // Higher score wins, the first host in the list on a tie
+            int best = 0;
+            for (int host = 1; host < hostCount; host++) {
+                if (scores[host] > scores[best]) {
+                    best = host;
+                }
+            }
+            return Optional.of(hosts.get(best));
+        }
+
+        /**
+         * @return the number of the sorted weights lower than the weight
+         */
+        private static int countLower(long[] sortedWeights, long weight) {
+            int low = 0;
+            int high = sortedWeights.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sortedWeights[middle] < weight) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -7,11 +7,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-import javax.inject.Inject;
-
 import org.apache.commons.lang.StringUtils;
 import org.ovirt.engine.core.bll.ValidationResult;
 import org.ovirt.engine.core.bll.network.host.VfScheduler;
+import org.ovirt.engine.core.bll.scheduling.ClusterSnapshot;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
 import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
@@ -31,10 +30,6 @@ import org.ovirt.engine.core.common.scheduling.PerHostMessages;
 import org.ovirt.engine.core.common.scheduling.PolicyUnit;
 import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
 import org.ovirt.engine.core.compat.Guid;
-import org.ovirt.engine.core.dao.network.InterfaceDao;
-import org.ovirt.engine.core.dao.network.NetworkDao;
-import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
-import org.ovirt.engine.core.dao.network.VnicProfileViewDao;
 import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.NetworkUtils;
 import org.slf4j.Logger;
@@ -49,15 +44,6 @@ import org.slf4j.LoggerFactory;
 public class NetworkPolicyUnit extends PolicyUnitImpl {
     private static final Logger log = LoggerFactory.getLogger(NetworkPolicyUnit.class);
 
-    @Inject
-    private InterfaceDao interfaceDao;
-    @Inject
-    private NetworkDao networkDao;
-    @Inject
-    private VmNetworkInterfaceDao vmNetworkInterfaceDao;
-    @Inject
-    private VnicProfileViewDao vnicProfileViewDao;
-
     public NetworkPolicyUnit(PolicyUnit policyUnit,
             PendingResourceManager pendingResourceManager) {
         super(policyUnit, pendingResourceManager);
@@ -69,18 +55,20 @@ public class NetworkPolicyUnit extends PolicyUnitImpl {
             return Collections.emptyList();
         }
 
+        ClusterSnapshot snapshot = context.getSnapshot();
         List<VDS> toRemoveHostList = new ArrayList<>();
-        List<VmNetworkInterface> vmNICs = vmNetworkInterfaceDao.getAllForVm(vm.getId());
+        List<VmNetworkInterface> vmNICs = snapshot.getVmNetworkInterfaces(vm.getId());
         Guid clusterId = hosts.get(0).getClusterId();
-        List<Network> clusterNetworks = networkDao.getAllForCluster(clusterId);
+        List<Network> clusterNetworks = snapshot.getNetworks(clusterId);
         Map<String, Network> networksByName = Entities.entitiesByName(clusterNetworks);
-        Map<Guid, List<String>> hostNics = interfaceDao.getHostNetworksByCluster(clusterId);
+        Map<Guid, List<String>> hostNics = snapshot.getHostNetworks(clusterId);
         Network displayNetwork = NetworkUtils.getDisplayNetwork(clusterNetworks);
-        Map<Guid, VdsNetworkInterface> hostDisplayNics = getDisplayNics(displayNetwork);
+        Map<Guid, VdsNetworkInterface> hostDisplayNics = getDisplayNics(snapshot, displayNetwork);
 
         for (VDS host : hosts) {
             ValidationResult result =
-                    validateRequiredNetworksAvailable(host,
+                    validateRequiredNetworksAvailable(snapshot,
+                            host,
                             vm,
                             vmNICs,
                             displayNetwork,
@@ -102,10 +90,10 @@ public class NetworkPolicyUnit extends PolicyUnitImpl {
         return hosts;
     }
 
-    public Map<Guid, VdsNetworkInterface> getDisplayNics(Network displayNetwork) {
+    public Map<Guid, VdsNetworkInterface> getDisplayNics(ClusterSnapshot snapshot, Network displayNetwork) {
         Map<Guid, VdsNetworkInterface> displayNics = new HashMap<>();
         if (displayNetwork != null) {
-            List<VdsNetworkInterface> nics = interfaceDao.getVdsInterfacesByNetworkId(displayNetwork.getId());
+            List<VdsNetworkInterface> nics = snapshot.getNetworkInterfaces(displayNetwork.getId());
             for (VdsNetworkInterface nic : nics) {
                 displayNics.put(nic.getVdsId(), nic);
             }
@@ -122,6 +110,8 @@ public class NetworkPolicyUnit extends PolicyUnitImpl {
      * Vnic configured for 'passthrough' will skip the network existence check for the host and will be validated later by
      * {@code validatePassthroughVnics(...)}
      *
+     * @param snapshot
+     *            the data of the cluster
      * @param vds
      *            the Host
      * @param vm
@@ -132,7 +122,8 @@ public class NetworkPolicyUnit extends PolicyUnitImpl {
      *            the interface on top the display network is configured
      * @return the result of network compatibility check
      */
-    private ValidationResult validateRequiredNetworksAvailable(VDS vds,
+    private ValidationResult validateRequiredNetworksAvailable(ClusterSnapshot snapshot,
+            VDS vds,
             VM vm,
             List<VmNetworkInterface> vmNICs,
             Network displayNetwork,
@@ -162,11 +153,12 @@ public class NetworkPolicyUnit extends PolicyUnitImpl {
 
                 Network network = networksByName.get(vmIf.getNetworkName());
                 if (network.isExternal()) {
-                    findPhysicalNetworkNotConnectedAndLinkedTo(network, hostNetworks).ifPresent(missingIfs::add);
+                    findPhysicalNetworkNotConnectedAndLinkedTo(snapshot, network, hostNetworks)
+                            .ifPresent(missingIfs::add);
                 }
                 if (skipNetworkExistenceCheckForVnicPassthrough) {
-                    findFailoverNetworkNotConnected(vmIf.getVnicProfileId(), networksByName, hostNetworks).ifPresent(
-                            missingIfs::add);
+                    findFailoverNetworkNotConnected(snapshot, vmIf.getVnicProfileId(), networksByName, hostNetworks)
+                            .ifPresent(missingIfs::add);
                 }
             }
 
@@ -201,26 +193,29 @@ public class NetworkPolicyUnit extends PolicyUnitImpl {
         return !network.isExternal();
     }
 
-    private Optional<String> findPhysicalNetworkNotConnectedAndLinkedTo(Network network, List<String> hostNetworks) {
+    private Optional<String> findPhysicalNetworkNotConnectedAndLinkedTo(ClusterSnapshot snapshot,
+            Network network,
+            List<String> hostNetworks) {
         if (!network.getProvidedBy().isSetPhysicalNetworkId()) {
             return Optional.empty();
         }
 
-        Network physicalNetwork = networkDao.get(network.getProvidedBy().getPhysicalNetworkId());
+        Network physicalNetwork = snapshot.getNetwork(network.getProvidedBy().getPhysicalNetworkId());
 
         return Optional.ofNullable(hostNetworks.contains(physicalNetwork.getName()) ? null : physicalNetwork.getName());
     }
 
-    private Optional<String> findFailoverNetworkNotConnected(Guid vnicProfileId,
+    private Optional<String> findFailoverNetworkNotConnected(ClusterSnapshot snapshot,
+            Guid vnicProfileId,
             Map<String, Network> networksByName,
             List<String> hostNetworks) {
-        var profile = vnicProfileViewDao.get(vnicProfileId);
+        var profile = snapshot.getVnicProfile(vnicProfileId);
         if (profile.getFailoverVnicProfileId() == null) {
             return Optional.empty();
         }
 
         var failoverNetwork =
-                networksByName.get(vnicProfileViewDao.get(profile.getFailoverVnicProfileId()).getNetworkName());
+                networksByName.get(snapshot.getVnicProfile(profile.getFailoverVnicProfileId()).getNetworkName());
 
         return Optional.ofNullable(hostNetworks.contains(failoverNetwork.getName()) ? null : failoverNetwork.getName());
     }
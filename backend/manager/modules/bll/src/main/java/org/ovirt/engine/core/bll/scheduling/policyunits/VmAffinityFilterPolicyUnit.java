@@ -8,8 +8,7 @@ import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import javax.inject.Inject;
-
+import org.ovirt.engine.core.bll.scheduling.ClusterSnapshot;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
 import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
@@ -23,8 +22,6 @@ import org.ovirt.engine.core.common.scheduling.PerHostMessages;
 import org.ovirt.engine.core.common.scheduling.PolicyUnit;
 import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
 import org.ovirt.engine.core.compat.Guid;
-import org.ovirt.engine.core.dao.VmDao;
-import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
 import org.ovirt.engine.core.utils.MemoizingSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,11 +36,6 @@ import org.slf4j.LoggerFactory;
 public class VmAffinityFilterPolicyUnit extends PolicyUnitImpl {
     private static final Logger log = LoggerFactory.getLogger(VmAffinityFilterPolicyUnit.class);
 
-    @Inject
-    private AffinityGroupDao affinityGroupDao;
-    @Inject
-    private VmDao vmDao;
-
     public VmAffinityFilterPolicyUnit(PolicyUnit policyUnit,
             PendingResourceManager pendingResourceManager) {
         super(policyUnit, pendingResourceManager);
@@ -55,23 +47,24 @@ public class VmAffinityFilterPolicyUnit extends PolicyUnitImpl {
             return hosts;
         }
 
+        ClusterSnapshot snapshot = context.getSnapshot();
         Set<AffinityGroup> affinityGroups = new HashSet<>();
-        // TODO - get all affinity gorups in 1 DB call
-        vmGroup.forEach(vm -> affinityGroups.addAll(affinityGroupDao.getAllAffinityGroupsWithFlatLabelsByVmId(vm.getId())));
+        vmGroup.forEach(vm -> affinityGroups.addAll(snapshot.getVmAffinityGroups(vm)));
 
         // no affinity groups found for VM group return all hosts
         if (affinityGroups.isEmpty()) {
             return hosts;
         }
 
-        Set<Guid> acceptableHosts = getAcceptableHosts(hosts, vmGroup, affinityGroups, messages);
+        Set<Guid> acceptableHosts = getAcceptableHosts(snapshot, hosts, vmGroup, affinityGroups, messages);
 
         return hosts.stream()
                 .filter(h -> acceptableHosts.contains(h.getId()))
                 .collect(Collectors.toList());
     }
 
-    private Set<Guid> getAcceptableHosts(List<VDS> hosts,
+    private Set<Guid> getAcceptableHosts(ClusterSnapshot snapshot,
+            List<VDS> hosts,
             List<VM> vmGroup,
             Set<AffinityGroup> affinityGroups,
             PerHostMessages messages) {
@@ -123,7 +116,7 @@ public class VmAffinityFilterPolicyUnit extends PolicyUnitImpl {
         Guid clusterId = vmGroup.get(0).getClusterId();
 
         // Get all running VMs in cluster
-        Map<Guid, VM> runningVMsMap = vmDao.getAllRunningByCluster(clusterId).stream()
+        Map<Guid, VM> runningVMsMap = snapshot.getRunningVms(clusterId).stream()
                 .collect(Collectors.toMap(VM::getId, vm -> vm));
 
         // Update the VM list with pending VMs
@@ -11,8 +11,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import javax.inject.Inject;
-
+import org.ovirt.engine.core.bll.scheduling.ClusterSnapshot;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
 import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
@@ -27,8 +26,6 @@ import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
 import org.ovirt.engine.core.common.utils.ListUtils;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
-import org.ovirt.engine.core.dao.VmDao;
-import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
 
 @SchedulingUnit(
         guid = "84e6ddee-ab0d-42dd-82f0-c297779db567",
@@ -40,11 +37,6 @@ import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
 public class VmAffinityWeightPolicyUnit extends PolicyUnitImpl {
     private static final int DEFAULT_SCORE = 1;
 
-    @Inject
-    private AffinityGroupDao affinityGroupDao;
-    @Inject
-    private VmDao vmDao;
-
     public VmAffinityWeightPolicyUnit(PolicyUnit policyUnit,
             PendingResourceManager pendingResourceManager) {
         super(policyUnit, pendingResourceManager);
@@ -53,7 +45,7 @@ public class VmAffinityWeightPolicyUnit extends PolicyUnitImpl {
 
     @Override
     public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, List<VM> vmGroup) {
-        List<HostInfo> hostInfos = getHostInfos(vmGroup, hosts);
+        List<HostInfo> hostInfos = getHostInfos(context.getSnapshot(), vmGroup, hosts);
 
         // Using lexicographicListComparator to sort priorities of broken groups.
         // So that a host that breaks any number of affinity groups with low priority will
@@ -80,10 +72,9 @@ public class VmAffinityWeightPolicyUnit extends PolicyUnitImpl {
         return retList;
     }
 
-    private List<HostInfo> getHostInfos(List<VM> vmGroup, List<VDS> hosts) {
+    private List<HostInfo> getHostInfos(ClusterSnapshot snapshot, List<VM> vmGroup, List<VDS> hosts) {
         Set<AffinityGroup> affinityGroups = new HashSet<>();
-        // TODO - get all affinity gorups in 1 DB call
-        vmGroup.forEach(vm -> affinityGroups.addAll(affinityGroupDao.getAllAffinityGroupsWithFlatLabelsByVmId(vm.getId()).stream()
+        vmGroup.forEach(vm -> affinityGroups.addAll(snapshot.getVmAffinityGroups(vm).stream()
                 .filter(AffinityGroup::isVmAffinityEnabled)
                 .collect(Collectors.toList())));
 
@@ -94,7 +85,7 @@ public class VmAffinityWeightPolicyUnit extends PolicyUnitImpl {
         }
 
         // Get all running VMs in cluster
-        Map<Guid, VM> runningVMsMap = vmDao.getAllRunningByCluster(vmGroup.get(0).getClusterId()).stream()
+        Map<Guid, VM> runningVMsMap = snapshot.getRunningVms(vmGroup.get(0).getClusterId()).stream()
                 .collect(Collectors.toMap(VM::getId, vm -> vm));
 
         // Update the VM list with pending VMs
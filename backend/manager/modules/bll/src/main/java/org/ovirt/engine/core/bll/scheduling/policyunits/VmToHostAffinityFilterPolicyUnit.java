@@ -1,13 +1,10 @@
 package org.ovirt.engine.core.bll.scheduling.policyunits;
 
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import javax.inject.Inject;
-
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
 import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
@@ -23,8 +20,6 @@ import org.ovirt.engine.core.common.scheduling.PerHostMessages;
 import org.ovirt.engine.core.common.scheduling.PolicyUnit;
 import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
 import org.ovirt.engine.core.compat.Guid;
-import org.ovirt.engine.core.dao.LabelDao;
-import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
 
 @SchedulingUnit(
         guid = "e69808a9-8a41-40f1-94ba-dd5d385d82d8",
@@ -36,11 +31,6 @@ import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
 )
 public class VmToHostAffinityFilterPolicyUnit extends PolicyUnitImpl {
 
-    @Inject
-    private AffinityGroupDao affinityGroupDao;
-    @Inject
-    private LabelDao labelDao;
-
     public VmToHostAffinityFilterPolicyUnit(PolicyUnit policyUnit,
             PendingResourceManager pendingResourceManager) {
         super(policyUnit, pendingResourceManager);
@@ -52,12 +42,12 @@ public class VmToHostAffinityFilterPolicyUnit extends PolicyUnitImpl {
             VM vm,
             PerHostMessages messages) {
 
-        List<AffinityGroup> affinityGroups = affinityGroupDao.getAllAffinityGroupsWithFlatLabelsByVmId(vm.getId()).stream()
+        List<AffinityGroup> affinityGroups = context.getSnapshot().getVmAffinityGroups(vm).stream()
                 .filter(ag -> ag.isVdsEnforcing() && ag.isVdsAffinityEnabled())
                 .collect(Collectors.toList());
 
         if (FeatureSupported.isImplicitAffinityGroupSupported(context.getCluster().getCompatibilityVersion()) ) {
-            List<Label> labels = labelDao.getAllByEntityIds(Collections.singleton(vm.getId()));
+            List<Label> labels = context.getSnapshot().getLabels(vm);
             affinityGroups.addAll(AffinityRulesUtils.affinityGroupsFromLabels(labels, context.getCluster().getId()));
         }
 
@@ -5,8 +5,6 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import javax.inject.Inject;
-
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
 import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
@@ -19,7 +17,6 @@ import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
 import org.ovirt.engine.core.common.utils.ListUtils;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
-import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
 
 @SchedulingUnit(
         guid = "427aed70-dae3-48ba-8fe9-a902a9d563c8",
@@ -33,9 +30,6 @@ public class VmToHostAffinityWeightPolicyUnit extends PolicyUnitImpl {
 
     private static final int DEFAULT_SCORE = 1;
 
-    @Inject
-    private AffinityGroupDao affinityGroupDao;
-
     public VmToHostAffinityWeightPolicyUnit(PolicyUnit policyUnit,
             PendingResourceManager pendingResourceManager) {
         super(policyUnit, pendingResourceManager);
@@ -43,8 +37,7 @@ public class VmToHostAffinityWeightPolicyUnit extends PolicyUnitImpl {
 
     @Override
     public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
-        // TODO - cache affinity groups in scheduling context
-        List<AffinityGroup> affinityGroups = affinityGroupDao.getAllAffinityGroupsWithFlatLabelsByVmId(vm.getId()).stream()
+        List<AffinityGroup> affinityGroups = context.getSnapshot().getVmAffinityGroups(vm).stream()
                 .filter(ag -> ag.isVdsAffinityEnabled() && !ag.isVdsEnforcing())
                 .collect(Collectors.toList());
 
@@ -6,8 +6,8 @@ class CallbackTiming {
     // Total delay between callback executions
     private long initialDelay;
 
-    // Remaining delay to next callback execution
-    private long remainingDelay;
+    // The polling cycle of the next callback execution, 0 if it is not scheduled yet and -1 while it is polled
+    private volatile long nextPollTick;
     private CommandCallback callback;
 
     // the end-time, where the callback shouldn't wait for the event any longer and change to polling mode
@@ -16,7 +16,6 @@ class CallbackTiming {
     public CallbackTiming(CommandCallback callback, long executionDelay) {
         this.callback = callback;
         this.initialDelay = executionDelay;
-        this.remainingDelay = executionDelay;
     }
 
     public long getInitialDelay() {
@@ -27,8 +26,12 @@ class CallbackTiming {
         this.initialDelay = initialDelay;
     }
 
-    public long getRemainingDelay() {
-        return remainingDelay;
+    public long getNextPollTick() {
+        return nextPollTick;
+    }
+
+    public void setNextPollTick(long nextPollTick) {
+        this.nextPollTick = nextPollTick;
     }
 
     public void setWaitOnEventEndTime(long waitOnEventEndTime) {
@@ -39,10 +42,6 @@ class CallbackTiming {
         return waitOnEventEndTime;
     }
 
-    public void setRemainingDelay(long remainingDelay) {
-        this.remainingDelay = remainingDelay;
-    }
-
     public CommandCallback getCallback() {
         return callback;
     }
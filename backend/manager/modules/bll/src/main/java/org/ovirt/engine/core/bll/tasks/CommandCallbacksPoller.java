@@ -1,17 +1,31 @@
 package org.ovirt.engine.core.bll.tasks;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.inject.Inject;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.ovirt.engine.core.bll.tasks.interfaces.CommandCallback;
@@ -27,13 +41,26 @@ import org.ovirt.engine.core.utils.threadpool.ThreadPools;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class CommandCallbacksPoller implements BackendService {
+/**
+ * Polls the callbacks of the commands. The callbacks are kept ordered by the polling cycle they are due in, so a
+ * polling cycle only visits the callbacks which are due. The due callbacks of a command tree are invoked one after
+ * the other, while the command trees are processed concurrently by up to
+ * {@link ConfigValues#CommandCallbacksPollingParallelism} threads, so a slow callback does not hold back the callbacks
+ * of unrelated commands.
+ */
+public class CommandCallbacksPoller implements BackendService, CommandCallbacksPollerMXBean {
 
     @Inject
     @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
     private ManagedScheduledExecutorService executor;
 
+    @Inject
+    @ThreadPools(ThreadPools.ThreadPoolType.CoCo)
+    private ManagedExecutorService callbacksExecutor;
+
     private static final Logger log = LoggerFactory.getLogger(CommandCallbacksPoller.class);
+    /** The next polling cycle of a callback which was taken for polling and was not rescheduled yet **/
+    private static final long POLLED_TICK = -1;
     private long pollingRate;
 
     @Inject
@@ -43,8 +70,25 @@ public class CommandCallbacksPoller implements BackendService {
 
     private int repeatEndMethodsOnFailMaxRetries;
 
+    /** The scheduled callbacks ordered by their due polling cycle, entries of rescheduled callbacks are skipped **/
+    private final PriorityBlockingQueue<ScheduledCallback> scheduledCallbacks = new PriorityBlockingQueue<>();
+    /** The current polling cycle, advanced only by the polling thread **/
+    private volatile long currentTick;
+
+    private final LongAdder pollingCycles = new LongAdder();
+    private final LongAdder callbackInvocations = new LongAdder();
+    private final LongAdder callbackNanos = new LongAdder();
+    private final LongAccumulator maxCallbackNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder callbackWaitNanos = new LongAdder();
+    private final LongAccumulator maxCallbackWaitNanos = new LongAccumulator(Math::max, 0);
+    private volatile int lastCycleDueCallbacks;
+    private volatile long lastCycleDurationMillis;
+
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
     @PostConstruct
-    private void init() {
+    void init() {
         log.info("Start initializing {}", getClass().getSimpleName());
         pollingRate = Config.<Long>getValue(ConfigValues.AsyncCommandPollingLoopInSeconds);
         repeatEndMethodsOnFailMaxRetries = Config.<Integer>getValue(ConfigValues.RepeatEndMethodsOnFailMaxRetries);
@@ -53,9 +97,29 @@ public class CommandCallbacksPoller implements BackendService {
                 pollingRate,
                 pollingRate,
                 TimeUnit.SECONDS);
+        registerInJMX();
         log.info("Finished initializing {}", getClass().getSimpleName());
     }
 
+    @PreDestroy
+    void destroy() {
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during unregistration of Monitoring into JMX:" + e);
+        }
+    }
+
+    private void registerInJMX() {
+        try {
+            objectName = new ObjectName("CommandCallbacksPoller:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
     private boolean endCallback(Guid cmdId, CommandCallback callback, CommandStatus status) {
         try {
             boolean shouldRepeatEndMethodsOnFail = callback.shouldRepeatEndMethodsOnFail(cmdId);
@@ -104,7 +168,7 @@ public class CommandCallbacksPoller implements BackendService {
         return new ArrayList<>(commandsRepository.getChildCommandIds(cmdId));
     }
 
-    private void invokeCallbackMethods() {
+    void invokeCallbackMethods() {
         try {
             invokeCallbackMethodsImpl();
         } catch (Throwable t) {
@@ -130,105 +194,229 @@ public class CommandCallbacksPoller implements BackendService {
     }
 
     private void invokeCallbackMethodsImpl() {
-        Iterator<Entry<Guid, CallbackTiming>> iterator = commandsRepository.getCallbacksTiming().entrySet().iterator();
-        while (iterator.hasNext()) {
-            Entry<Guid, CallbackTiming> entry = iterator.next();
-
-            Guid cmdId = entry.getKey();
-            CallbackTiming callbackTiming = entry.getValue();
-            CommandEntity commandEntity = commandsRepository.getCommandEntity(cmdId);
-            CorrelationIdTracker.setCorrelationId(commandEntity != null
-                    ? commandEntity.getCommandParameters().getCorrelationId() : null);
-            if (commandEntity != null && updateCommandWaitingForEvent(commandEntity, callbackTiming)) {
-                continue;
+        long cycleStart = System.nanoTime();
+        long tick = ++currentTick;
+        scheduleAddedCallbacks(tick - 1);
+        Collection<List<ScheduledCallback>> dueCallbacks = pollDueCallbacks(tick);
+        invokeCallbacks(dueCallbacks, cycleStart);
+        CorrelationIdTracker.setCorrelationId(null);
+        commandsRepository.markExpiredCommandsAsFailure();
+
+        pollingCycles.increment();
+        lastCycleDueCallbacks = dueCallbacks.stream().mapToInt(List::size).sum();
+        lastCycleDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - cycleStart);
+    }
+
+    /**
+     * Schedules the callbacks of the commands added to the repository since the previous polling cycle
+     */
+    private void scheduleAddedCallbacks(long previousTick) {
+        for (Guid cmdId : commandsRepository.drainAddedCallbacks()) {
+            CallbackTiming callbackTiming = commandsRepository.getCallbackTiming(cmdId);
+            if (callbackTiming != null && callbackTiming.getNextPollTick() == 0) {
+                schedule(cmdId, callbackTiming, previousTick + toTicks(callbackTiming.getInitialDelay()));
             }
+        }
+    }
 
-            // Decrement counter; execute if it reaches 0
-            callbackTiming.setRemainingDelay(callbackTiming.getRemainingDelay() - pollingRate);
-            ActionType cmdActionType = commandEntity == null ? ActionType.Unknown : commandEntity.getCommandType();
-            if (callbackTiming.getRemainingDelay() > 0) {
-                log.debug("The command {} ({}) has remaining delay {}, polling will be skipped.",
-                        cmdActionType,
-                        cmdId,
-                        callbackTiming.getRemainingDelay());
+    /**
+     * Removes the callbacks which are due in the given polling cycle from the schedule, grouped by their root command
+     */
+    private Collection<List<ScheduledCallback>> pollDueCallbacks(long tick) {
+        Map<Guid, List<ScheduledCallback>> dueCallbacks = new LinkedHashMap<>();
+        while (!scheduledCallbacks.isEmpty() && scheduledCallbacks.peek().getTick() <= tick) {
+            ScheduledCallback scheduledCallback = scheduledCallbacks.poll();
+            if (!isCurrent(scheduledCallback)) {
+                // the callback was rescheduled or removed since this entry was added, or it was scheduled more than
+                // once for this polling cycle and was already taken
                 continue;
             }
+            scheduledCallback.getCallbackTiming().setNextPollTick(POLLED_TICK);
+            dueCallbacks.computeIfAbsent(getRootCommandId(scheduledCallback.getCommandId()), id -> new ArrayList<>())
+                    .add(scheduledCallback);
+        }
+        return dueCallbacks.values();
+    }
+
+    private boolean isCurrent(ScheduledCallback scheduledCallback) {
+        return isCurrent(scheduledCallback, scheduledCallback.getTick());
+    }
+
+    private boolean isCurrent(ScheduledCallback scheduledCallback, long nextPollTick) {
+        CallbackTiming callbackTiming = scheduledCallback.getCallbackTiming();
+        return callbackTiming == commandsRepository.getCallbackTiming(scheduledCallback.getCommandId())
+                && callbackTiming.getNextPollTick() == nextPollTick;
+    }
+
+    private Guid getRootCommandId(Guid cmdId) {
+        CommandEntity commandEntity = commandsRepository.getCommandEntity(cmdId);
+        return commandEntity == null || Guid.isNullOrEmpty(commandEntity.getRootCommandId())
+                ? cmdId
+                : commandEntity.getRootCommandId();
+    }
+
+    /**
+     * Invokes the due callbacks, the callbacks of each command tree one after the other and the command trees
+     * concurrently by up to {@link ConfigValues#CommandCallbacksPollingParallelism} threads, including the polling
+     * thread itself
+     */
+    private void invokeCallbacks(Collection<List<ScheduledCallback>> dueCallbacks, long cycleStart) {
+        Queue<List<ScheduledCallback>> pendingCallbacks = new ConcurrentLinkedQueue<>(dueCallbacks);
+        int parallelism = Math.min(Config.<Integer>getValue(ConfigValues.CommandCallbacksPollingParallelism),
+                dueCallbacks.size());
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 1; i < parallelism; i++) {
+            try {
+                workers.add(callbacksExecutor.submit(() -> invokeCommandTreeCallbacks(pendingCallbacks, cycleStart)));
+            } catch (RejectedExecutionException ex) {
+                log.debug("No thread is available for invoking callbacks, continuing with {} threads", i);
+                break;
+            }
+        }
 
-            CommandCallback callback = callbackTiming.getCallback();
-            CommandStatus status = commandsRepository.getCommandStatus(cmdId);
-            log.debug("Command {} ({}) in status {}", cmdActionType, cmdId, status);
-            boolean runCallbackAgain = false;
-            boolean errorInCallback = false;
+        invokeCommandTreeCallbacks(pendingCallbacks, cycleStart);
+        for (Future<?> worker : workers) {
             try {
-                switch (status) {
-                    case FAILED:
-                    case SUCCEEDED:
-                        runCallbackAgain = endCallback(cmdId, callback, status);
-                        break;
-                    case ACTIVE:
-                        if (commandEntity == null) {
-                            log.info("Not invoking command's {} doPolling method command entity is null, callback is {}.",
-                                    cmdId,
-                                    callbackTiming.getCallback() == null ? "NULL" : callbackTiming.getCallback().getClass().getCanonicalName());
-                        } else if (commandEntity.isExecuted()) {
-                            log.debug("Invoking command's {} ({}) doPolling method.", cmdActionType, cmdId);
-                            callback.doPolling(cmdId, getChildCommandIds(cmdId));
-                        }
-                        break;
-                    case EXECUTION_FAILED:
-                        if (callback.pollOnExecutionFailed()) {
-                            log.debug("Invoking command's {} ({}) doPolling method.", cmdActionType, cmdId);
-                            callback.doPolling(cmdId, getChildCommandIds(cmdId));
-                        } else {
-                            log.info("Not invoking command's {} ({}) doPolling method callback's pollOnExecutionFailed is false.",
-                                    cmdActionType, cmdId);
-                        }
-                        break;
-                    default:
-                        break;
+                worker.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException ex) {
+                logInvocationCallbackError(ex.getCause());
+            }
+        }
+    }
+
+    private void invokeCommandTreeCallbacks(Queue<List<ScheduledCallback>> pendingCallbacks, long cycleStart) {
+        List<ScheduledCallback> commandTreeCallbacks;
+        while ((commandTreeCallbacks = pendingCallbacks.poll()) != null) {
+            for (ScheduledCallback scheduledCallback : commandTreeCallbacks) {
+                long start = System.nanoTime();
+                callbackWaitNanos.add(start - cycleStart);
+                maxCallbackWaitNanos.accumulate(start - cycleStart);
+                try {
+                    invokeCallback(scheduledCallback.getCommandId(), scheduledCallback.getCallbackTiming());
+                } catch (Throwable t) {
+                    logInvocationCallbackError(t);
+                    rescheduleIfNotHandled(scheduledCallback);
+                } finally {
+                    long duration = System.nanoTime() - start;
+                    callbackInvocations.increment();
+                    callbackNanos.add(duration);
+                    maxCallbackNanos.accumulate(duration);
                 }
-            } catch (Throwable ex) {
-                errorInCallback = true;
-                log.info("Exception in invoking callback of command {} ({}): {}",
-                        cmdActionType,
-                        cmdId,
-                        ExceptionUtils.getRootCauseMessage(ex));
-                log.debug("Exception", ex);
-                handleError(ex, status, cmdId);
-            } finally {
-                if ((CommandStatus.FAILED == status || (CommandStatus.SUCCEEDED == status && !errorInCallback))
-                        && !runCallbackAgain) {
-                    log.debug("Callback of command {} ({}) has been notified, removing command from command repository.",
-                            cmdActionType, cmdId);
-                    commandsRepository.updateCallbackNotified(cmdId);
-                    iterator.remove();
-                    CommandEntity cmdEntity = commandsRepository.getCommandEntity(entry.getKey());
-                    if (cmdEntity != null) {
-                        // When a child finishes, its parent's callback should execute shortly thereafter
-                        CallbackTiming rootCmdContainer =
-                                commandsRepository.getCallbackTiming(cmdEntity.getRootCommandId());
-                        if (rootCmdContainer != null) {
-                            rootCmdContainer.setInitialDelay(pollingRate);
-                            rootCmdContainer.setRemainingDelay(pollingRate);
-                        }
+            }
+        }
+        CorrelationIdTracker.setCorrelationId(null);
+    }
+
+    /**
+     * Makes sure a callback which failed before its next polling was determined is polled again
+     */
+    private void rescheduleIfNotHandled(ScheduledCallback scheduledCallback) {
+        if (isCurrent(scheduledCallback, POLLED_TICK)) {
+            reschedule(scheduledCallback.getCommandId(), scheduledCallback.getCallbackTiming(), pollingRate);
+        }
+    }
+
+    private void invokeCallback(Guid cmdId, CallbackTiming callbackTiming) {
+        CommandEntity commandEntity = commandsRepository.getCommandEntity(cmdId);
+        CorrelationIdTracker.setCorrelationId(commandEntity != null
+                ? commandEntity.getCommandParameters().getCorrelationId() : null);
+        if (commandEntity != null && updateCommandWaitingForEvent(commandEntity, callbackTiming)) {
+            reschedule(cmdId, callbackTiming, pollingRate);
+            return;
+        }
+
+        ActionType cmdActionType = commandEntity == null ? ActionType.Unknown : commandEntity.getCommandType();
+        CommandCallback callback = callbackTiming.getCallback();
+        CommandStatus status = commandsRepository.getCommandStatus(cmdId);
+        log.debug("Command {} ({}) in status {}", cmdActionType, cmdId, status);
+        boolean runCallbackAgain = false;
+        boolean errorInCallback = false;
+        try {
+            switch (status) {
+                case FAILED:
+                case SUCCEEDED:
+                    runCallbackAgain = endCallback(cmdId, callback, status);
+                    break;
+                case ACTIVE:
+                    if (commandEntity == null) {
+                        log.info("Not invoking command's {} doPolling method command entity is null, callback is {}.",
+                                cmdId,
+                                callbackTiming.getCallback() == null ? "NULL" : callbackTiming.getCallback().getClass().getCanonicalName());
+                    } else if (commandEntity.isExecuted()) {
+                        log.debug("Invoking command's {} ({}) doPolling method.", cmdActionType, cmdId);
+                        callback.doPolling(cmdId, getChildCommandIds(cmdId));
+                    }
+                    break;
+                case EXECUTION_FAILED:
+                    if (callback.pollOnExecutionFailed()) {
+                        log.debug("Invoking command's {} ({}) doPolling method.", cmdActionType, cmdId);
+                        callback.doPolling(cmdId, getChildCommandIds(cmdId));
+                    } else {
+                        log.info("Not invoking command's {} ({}) doPolling method callback's pollOnExecutionFailed is false.",
+                                cmdActionType, cmdId);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (Throwable ex) {
+            errorInCallback = true;
+            log.info("Exception in invoking callback of command {} ({}): {}",
+                    cmdActionType,
+                    cmdId,
+                    ExceptionUtils.getRootCauseMessage(ex));
+            log.debug("Exception", ex);
+            handleError(ex, status, cmdId);
+        } finally {
+            if ((CommandStatus.FAILED == status || (CommandStatus.SUCCEEDED == status && !errorInCallback))
+                    && !runCallbackAgain) {
+                log.debug("Callback of command {} ({}) has been notified, removing command from command repository.",
+                        cmdActionType, cmdId);
+                commandsRepository.updateCallbackNotified(cmdId);
+                commandsRepository.getCallbacksTiming().remove(cmdId, callbackTiming);
+                CommandEntity cmdEntity = commandsRepository.getCommandEntity(cmdId);
+                if (cmdEntity != null) {
+                    // When a child finishes, its parent's callback should execute shortly thereafter
+                    Guid rootCmdId = cmdEntity.getRootCommandId();
+                    CallbackTiming rootCmdContainer = commandsRepository.getCallbackTiming(rootCmdId);
+                    if (rootCmdContainer != null) {
+                        rootCmdContainer.setInitialDelay(pollingRate);
+                        reschedule(rootCmdId, rootCmdContainer, pollingRate);
                     }
-                } else if (status != commandsRepository.getCommandStatus(cmdId)) {
-                    log.debug("Command {} ({}) status {} has been updated to {}, command will be polled again.",
-                            cmdActionType, cmdId,
-                            commandsRepository.getCommandStatus(cmdId),
-                            status);
-                    callbackTiming.setInitialDelay(pollingRate);
-                    callbackTiming.setRemainingDelay(pollingRate);
-                } else {
-                    log.debug("Command {} ({}) will be polled again, updating initial and remaining delay.", cmdActionType, cmdId);
-                    long maxDelay = Config.<Long>getValue(ConfigValues.AsyncCommandPollingRateInSeconds);
-                    callbackTiming.setInitialDelay(Math.min(maxDelay, callbackTiming.getInitialDelay() * 2));
-                    callbackTiming.setRemainingDelay(callbackTiming.getInitialDelay());
                 }
+            } else if (status != commandsRepository.getCommandStatus(cmdId)) {
+                log.debug("Command {} ({}) status {} has been updated to {}, command will be polled again.",
+                        cmdActionType, cmdId,
+                        commandsRepository.getCommandStatus(cmdId),
+                        status);
+                callbackTiming.setInitialDelay(pollingRate);
+                reschedule(cmdId, callbackTiming, pollingRate);
+            } else {
+                log.debug("Command {} ({}) will be polled again, updating initial and remaining delay.", cmdActionType, cmdId);
+                long maxDelay = Config.<Long>getValue(ConfigValues.AsyncCommandPollingRateInSeconds);
+                callbackTiming.setInitialDelay(Math.min(maxDelay, callbackTiming.getInitialDelay() * 2));
+                reschedule(cmdId, callbackTiming, callbackTiming.getInitialDelay());
             }
         }
-        CorrelationIdTracker.setCorrelationId(null);
-        commandsRepository.markExpiredCommandsAsFailure();
+    }
+
+    private void reschedule(Guid cmdId, CallbackTiming callbackTiming, long delay) {
+        schedule(cmdId, callbackTiming, currentTick + toTicks(delay));
+    }
+
+    private void schedule(Guid cmdId, CallbackTiming callbackTiming, long tick) {
+        callbackTiming.setNextPollTick(tick);
+        scheduledCallbacks.add(new ScheduledCallback(cmdId, callbackTiming, tick));
+    }
+
+    /**
+     * Returns the number of polling cycles the given delay in seconds spans, at least one
+     */
+    private long toTicks(long delay) {
+        return Math.max(1, (delay + pollingRate - 1) / pollingRate);
     }
 
     private void handleError(Throwable ex, CommandStatus status, Guid cmdId) {
@@ -297,4 +485,92 @@ public class CommandCallbacksPoller implements BackendService {
         }
         return false;
     }
+
+    @Override
+    public long getPollingCycles() {
+        return pollingCycles.sum();
+    }
+
+    @Override
+    public int getScheduledCallbacksCount() {
+        return commandsRepository.getCallbacksTiming().size();
+    }
+
+    @Override
+    public int getLastCycleDueCallbacksCount() {
+        return lastCycleDueCallbacks;
+    }
+
+    @Override
+    public long getLastCycleDurationMillis() {
+        return lastCycleDurationMillis;
+    }
+
+    @Override
+    public long getCallbackInvocations() {
+        return callbackInvocations.sum();
+    }
+
+    @Override
+    public long getCallbackTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(callbackNanos.sum());
+    }
+
+    @Override
+    public long getMaxCallbackTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxCallbackNanos.get());
+    }
+
+    @Override
+    public long getCallbackWaitTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(callbackWaitNanos.sum());
+    }
+
+    @Override
+    public long getMaxCallbackWaitTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxCallbackWaitNanos.get());
+    }
+
+    @Override
+    public void resetStatistics() {
+        pollingCycles.reset();
+        callbackInvocations.reset();
+        callbackNanos.reset();
+        maxCallbackNanos.reset();
+        callbackWaitNanos.reset();
+        maxCallbackWaitNanos.reset();
+    }
+
+    /**
+     * An entry of the schedule, valid as long as the callback of the command is still due in the entry's polling
+     * cycle
+     */
+    private static class ScheduledCallback implements Comparable<ScheduledCallback> {
+        private final Guid commandId;
+        private final CallbackTiming callbackTiming;
+        private final long tick;
+
+        ScheduledCallback(Guid commandId, CallbackTiming callbackTiming, long tick) {
+            this.commandId = commandId;
+            this.callbackTiming = callbackTiming;
+            this.tick = tick;
+        }
+
+        Guid getCommandId() {
+            return commandId;
+        }
+
+        CallbackTiming getCallbackTiming() {
+            return callbackTiming;
+        }
+
+        long getTick() {
+            return tick;
+        }
+
+        @Override
+        public int compareTo(ScheduledCallback other) {
+            return Long.compare(tick, other.tick);
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package org.ovirt.engine.core.bll.tasks;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface CommandCallbacksPollerMXBean {
+
+    /**
+     * The following method will return the number of polling cycles
+     */
+    long getPollingCycles();
+
+    /**
+     * The following method will return the number of commands whose callbacks are polled
+     */
+    int getScheduledCallbacksCount();
+
+    /**
+     * The following method will return the number of callbacks which were due in the last polling cycle
+     */
+    int getLastCycleDueCallbacksCount();
+
+    /**
+     * The following method will return the duration of the last polling cycle
+     */
+    long getLastCycleDurationMillis();
+
+    /**
+     * The following method will return the number of callback invocations
+     */
+    long getCallbackInvocations();
+
+    /**
+     * The following method will return the accumulated time spent invoking callbacks
+     */
+    long getCallbackTimeMillis();
+
+    /**
+     * The following method will return the longest time spent invoking a single callback
+     */
+    long getMaxCallbackTimeMillis();
+
+    /**
+     * The following method will return the accumulated time due callbacks waited within their polling cycle until
+     * they were invoked
+     */
+    long getCallbackWaitTimeMillis();
+
+    /**
+     * The following method will return the longest time a due callback waited within its polling cycle until it was
+     * invoked
+     */
+    long getMaxCallbackWaitTimeMillis();
+
+    /**
+     * The following method will reset the counters
+     */
+    void resetStatistics();
+}
@@ -39,4 +39,14 @@ public interface CommandsCache {
     void updateCallbackNotified(Guid commandId);
 
     List<CommandEntity> getChildCmdsByParentCmdId(Guid cmdId);
+
+    /**
+     * Returns the ids of the commands whose parent is the given command
+     */
+    List<Guid> getChildCommandIds(Guid parentCommandId);
+
+    /**
+     * Returns the ids of the given root command and of the commands which reference it as their root
+     */
+    List<Guid> getCommandIdsByRootCommandId(Guid rootCommandId);
 }
@@ -1,52 +1,112 @@
 package org.ovirt.engine.core.bll.tasks;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.ovirt.engine.core.common.businessentities.CommandAssociatedEntity;
 import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.compat.CommandStatus;
 import org.ovirt.engine.core.compat.DateTime;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.CommandEntityDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPools;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * <p>Caches the command entities by the trees they belong to, a tree being a root command and the commands which
+ * reference it as their root.</p>
+ * <p>Only the trees that have commands which did not end are loaded on startup, other trees are loaded as a whole
+ * the first time one of their commands is looked up. Trees whose commands all ended are evicted once they stay that
+ * way for {@link ConfigValues#EndedCommandsCacheTimeToLiveInMinutes}, the database remains the source of truth so
+ * an evicted command is simply loaded again when needed.</p>
+ * <p>Changes to the commands of a tree and to the index of child commands are made while holding the entry of
+ * the tree, so different trees are changed concurrently and each tree is seen consistently.</p>
+ */
 @Singleton
 public class CommandsCacheImpl implements CommandsCache {
 
-    private Map<Guid, CommandEntity> commandMap;
+    private static final Logger log = LoggerFactory.getLogger(CommandsCacheImpl.class);
+
+    private final ConcurrentMap<Guid, CommandEntity> commandMap;
+    private final ConcurrentMap<Guid, CommandTree> commandTrees;
+    private final ConcurrentMap<Guid, CopyOnWriteArrayList<Guid>> childCommandIds;
     private volatile boolean cacheInitialized;
-    private Object LOCK = new Object();
+    private final Object LOCK = new Object();
+    private ScheduledFuture<?> evictionJob;
 
     @Inject
     private CommandEntityDao commandEntityDao;
 
+    @Inject
+    @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
+    private ManagedScheduledExecutorService executor;
+
     public CommandsCacheImpl() {
-        commandMap = new HashMap<>();
+        commandMap = new ConcurrentHashMap<>();
+        commandTrees = new ConcurrentHashMap<>();
+        childCommandIds = new ConcurrentHashMap<>();
+    }
+
+    @PostConstruct
+    void init() {
+        evictionJob = executor.scheduleWithFixedDelay(this::evictEndedCommandTrees, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (evictionJob != null) {
+            evictionJob.cancel(false);
+        }
     }
 
     private void initializeCache() {
         if (!cacheInitialized) {
             synchronized(LOCK) {
                 if (!cacheInitialized) {
-                    List<CommandEntity> cmdEntities = commandEntityDao.getAll();
-                    for (CommandEntity cmdEntity : cmdEntities) {
-                        commandMap.put(cmdEntity.getId(), cmdEntity);
-                    }
+                    Map<Guid, List<CommandEntity>> cmdEntitiesByTree = commandEntityDao.getAllOfActiveCommandTrees()
+                            .stream()
+                            .collect(Collectors.groupingBy(CommandsCacheImpl::getTreeId));
+                    cmdEntitiesByTree.forEach((treeId, cmdEntities) -> commandTrees.compute(treeId, (id, tree) -> {
+                        tree = tree != null ? tree : new CommandTree();
+                        for (CommandEntity cmdEntity : cmdEntities) {
+                            addToTree(tree, cmdEntity, false);
+                        }
+                        return tree;
+                    }));
+                    log.info("Loaded {} commands of {} command trees that did not end",
+                            commandMap.size(),
+                            commandTrees.size());
                     cacheInitialized = true;
                 }
             }
         }
     }
 
+    /**
+     * Returns the ids of the resident commands, which include all the commands that did not end
+     */
     @Override
     public Set<Guid> keySet() {
         initializeCache();
@@ -56,26 +116,43 @@ public class CommandsCacheImpl implements CommandsCache {
     @Override
     public CommandEntity get(Guid commandId) {
         initializeCache();
-        return commandMap.get(commandId);
+        CommandEntity cmdEntity = commandMap.get(commandId);
+        return cmdEntity != null || Guid.isNullOrEmpty(commandId) ? cmdEntity : load(commandId);
     }
 
     @Override
     public void remove(final Guid commandId) {
-        commandMap.remove(commandId);
+        evict(commandId);
         commandEntityDao.remove(commandId);
     }
 
     @Override
     public void put(final CommandEntity cmdEntity) {
-        commandMap.put(cmdEntity.getId(), cmdEntity);
+        initializeCache();
+        commandTrees.compute(getTreeId(cmdEntity), (treeId, tree) -> {
+            if (tree == null) {
+                // a root command is looked up before it is persisted, so its tree is resident unless it is new
+                tree = treeId.equals(cmdEntity.getId()) ? new CommandTree() : loadTree(treeId);
+            }
+            addToTree(tree, cmdEntity, true);
+            return tree;
+        });
         saveOrUpdateWithoutTransaction(cmdEntity);
     }
 
     @Override
     public void removeAllCommandsBeforeDate(DateTime cutoff) {
         commandEntityDao.removeAllBeforeDate(cutoff);
-        cacheInitialized = false;
-        initializeCache();
+        List<CommandEntity> removedCmdEntities = commandMap.values()
+                .stream()
+                .filter(cmdEntity -> cmdEntity.getCreatedAt() != null && cmdEntity.getCreatedAt().before(cutoff))
+                .collect(Collectors.toList());
+        removedCmdEntities.forEach(cmdEntity -> evict(cmdEntity.getId()));
+        // commands with async tasks are kept in the database, the ones that did not end are loaded back right away
+        // to be found by the lookups of the resident commands
+        removedCmdEntities.stream()
+                .filter(cmdEntity -> !hasEnded(cmdEntity))
+                .forEach(cmdEntity -> get(cmdEntity.getId()));
     }
 
     @Override
@@ -147,4 +224,158 @@ public class CommandsCacheImpl implements CommandsCache {
     public List<CommandEntity> getChildCmdsByParentCmdId(Guid cmdId) {
         return commandEntityDao.getCmdEntitiesByParentCmdId(cmdId);
     }
+
+    @Override
+    public List<Guid> getChildCommandIds(Guid parentCommandId) {
+        List<Guid> childIds = childCommandIds.get(parentCommandId);
+        if (childIds == null && get(parentCommandId) != null) {
+            // the parent is resident now, and so are its children
+            childIds = childCommandIds.get(parentCommandId);
+        }
+        return childIds != null ? new ArrayList<>(childIds) : Collections.emptyList();
+    }
+
+    @Override
+    public List<Guid> getCommandIdsByRootCommandId(Guid rootCommandId) {
+        if (Guid.isNullOrEmpty(rootCommandId)) {
+            return Collections.emptyList();
+        }
+        initializeCache();
+        CommandTree tree = commandTrees.get(rootCommandId);
+        if (tree == null) {
+            tree = commandTrees.computeIfAbsent(rootCommandId, this::loadTree);
+        }
+        return new ArrayList<>(tree.commandIds);
+    }
+
+    /**
+     * Returns the number of commands held in memory
+     */
+    public int getResidentCommandsCount() {
+        return commandMap.size();
+    }
+
+    /**
+     * Evicts the trees whose commands all ended for longer than the configured time to live
+     */
+    void evictEndedCommandTrees() {
+        try {
+            long timeToLive = TimeUnit.MINUTES.toMillis(
+                    Config.<Integer> getValue(ConfigValues.EndedCommandsCacheTimeToLiveInMinutes));
+            long now = System.currentTimeMillis();
+            int evictedTrees = 0;
+            for (Guid treeId : commandTrees.keySet()) {
+                CommandTree tree = commandTrees.computeIfPresent(treeId, (id, t) -> {
+                    if (t.commandIds.stream().map(commandMap::get).anyMatch(c -> c != null && !hasEnded(c))) {
+                        t.endedAt = 0;
+                        return t;
+                    }
+                    if (t.endedAt == 0) {
+                        t.endedAt = now;
+                    }
+                    if (now - t.endedAt < timeToLive) {
+                        return t;
+                    }
+                    t.commandIds.forEach(this::removeFromIndexes);
+                    return null;
+                });
+                if (tree == null) {
+                    evictedTrees++;
+                }
+            }
+            if (evictedTrees > 0) {
+                log.debug("Evicted {} ended command trees, {} commands remain in memory",
+                        evictedTrees,
+                        commandMap.size());
+            }
+        } catch (Throwable t) {
+            log.error("Exception in evicting ended commands: {}", t.getMessage());
+            log.debug("Exception", t);
+        }
+    }
+
+    private CommandEntity load(Guid commandId) {
+        CommandEntity cmdEntity = commandEntityDao.get(commandId);
+        if (cmdEntity == null) {
+            return null;
+        }
+        commandTrees.compute(getTreeId(cmdEntity), (treeId, tree) -> {
+            tree = tree != null ? tree : loadTree(treeId);
+            addToTree(tree, cmdEntity, false);
+            return tree;
+        });
+        return commandMap.get(commandId);
+    }
+
+    /**
+     * Loads the commands of the given tree, must be called while holding the entry of the tree
+     */
+    private CommandTree loadTree(Guid treeId) {
+        CommandTree tree = new CommandTree();
+        for (CommandEntity cmdEntity : commandEntityDao.getCmdEntitiesByParentCmdId(treeId)) {
+            addToTree(tree, cmdEntity, false);
+        }
+        if (!commandMap.containsKey(treeId)) {
+            CommandEntity rootCmdEntity = commandEntityDao.get(treeId);
+            if (rootCmdEntity != null) {
+                addToTree(tree, rootCmdEntity, false);
+            }
+        }
+        return tree;
+    }
+
+    private void addToTree(CommandTree tree, CommandEntity cmdEntity, boolean replace) {
+        Guid commandId = cmdEntity.getId();
+        if (replace) {
+            commandMap.put(commandId, cmdEntity);
+        } else {
+            commandMap.putIfAbsent(commandId, cmdEntity);
+        }
+        tree.commandIds.add(commandId);
+        Guid parentCommandId = cmdEntity.getParentCommandId();
+        if (!Guid.isNullOrEmpty(parentCommandId) && !commandId.equals(parentCommandId)) {
+            childCommandIds.computeIfAbsent(parentCommandId, id -> new CopyOnWriteArrayList<>()).addIfAbsent(commandId);
+        }
+    }
+
+    private void evict(Guid commandId) {
+        CommandEntity cmdEntity = commandMap.get(commandId);
+        if (cmdEntity == null) {
+            return;
+        }
+        commandTrees.computeIfPresent(getTreeId(cmdEntity), (treeId, tree) -> {
+            tree.commandIds.remove(commandId);
+            removeFromIndexes(commandId);
+            return tree.commandIds.isEmpty() ? null : tree;
+        });
+    }
+
+    /**
+     * Removes the command from the commands map and from the children of its parent, must be called while holding
+     * the entry of the command's tree
+     */
+    private void removeFromIndexes(Guid commandId) {
+        CommandEntity cmdEntity = commandMap.remove(commandId);
+        if (cmdEntity != null && !Guid.isNullOrEmpty(cmdEntity.getParentCommandId())) {
+            childCommandIds.computeIfPresent(cmdEntity.getParentCommandId(), (parentId, childIds) -> {
+                childIds.remove(commandId);
+                return childIds.isEmpty() ? null : childIds;
+            });
+        }
+    }
+
+    private static Guid getTreeId(CommandEntity cmdEntity) {
+        return Guid.isNullOrEmpty(cmdEntity.getRootCommandId()) ? cmdEntity.getId() : cmdEntity.getRootCommandId();
+    }
+
+    private static boolean hasEnded(CommandEntity cmdEntity) {
+        return !cmdEntity.getCommandStatus().isDuringExecution()
+                && (!cmdEntity.isCallbackEnabled() || cmdEntity.isCallbackNotified());
+    }
+
+    private static class CommandTree {
+        private final Set<Guid> commandIds = ConcurrentHashMap.newKeySet();
+        /** the time all the commands of the tree were first seen ended, 0 while some of them did not end */
+        private long endedAt;
+    }
 }
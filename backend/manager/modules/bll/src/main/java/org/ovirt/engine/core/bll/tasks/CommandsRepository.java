@@ -8,8 +8,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -41,12 +43,11 @@ public class CommandsRepository {
 
     private static final Logger log = LoggerFactory.getLogger(CommandsRepository.class);
     private final ConcurrentMap<Guid, CallbackTiming> callbacksTiming;
+    /** ids of the commands added to the callbacks map, which the poller has not scheduled yet **/
+    private final Queue<Guid> addedCallbacks;
     private final CommandsCache commandsCache;
     private final CommandContextsCache contextsCache;
-    private final ConcurrentHashMap<Guid, List<Guid>> childHierarchy;
     private final ConcurrentMap<Guid, CoCoEventSubscriber> subscriptions;
-    private final Object LOCK;
-    private volatile boolean childHierarchyInitialized;
     @Inject
     private AsyncTaskDao asyncTaskDao;
 
@@ -56,9 +57,8 @@ public class CommandsRepository {
         this.contextsCache = contextsCache;
 
         callbacksTiming = new ConcurrentHashMap<>();
-        childHierarchy = new ConcurrentHashMap<>();
+        addedCallbacks = new ConcurrentLinkedQueue<>();
         subscriptions = new ConcurrentHashMap<>();
-        LOCK = new Object();
     }
 
     public void addToCallbackMap(CommandEntity cmdEntity) {
@@ -110,10 +110,23 @@ public class CommandsRepository {
 
     public void addToCallbackMap(Guid commandId, CallbackTiming callbackTiming) {
         callbacksTiming.put(commandId, callbackTiming);
+        addedCallbacks.add(commandId);
+    }
+
+    /**
+     * Returns the ids of the commands added to the callbacks map since the previous call, so the callbacks of these
+     * commands can be scheduled without scanning the whole map
+     */
+    public List<Guid> drainAddedCallbacks() {
+        List<Guid> commandIds = new ArrayList<>();
+        Guid commandId;
+        while ((commandId = addedCallbacks.poll()) != null) {
+            commandIds.add(commandId);
+        }
+        return commandIds;
     }
 
     public void persistCommand(CommandEntity cmdEntity, CommandContext cmdContext) {
-        initChildHierarchy();
         if (Guid.isNullOrEmpty(cmdEntity.getId())) {
             return;
         }
@@ -139,7 +152,6 @@ public class CommandsRepository {
                         commandsCache.get(cmdEntity.getParentCommandId()) != null &&
                         commandsCache.get(cmdEntity.getParentCommandId()).isCallbackEnabled()
                 )) {
-            buildCmdHierarchy(cmdEntity);
             if (!cmdEntity.isCallbackNotified()) {
                 addToCallbackMap(cmdEntity);
             }
@@ -217,55 +229,14 @@ public class CommandsRepository {
     public void removeCommand(Guid commandId) {
         commandsCache.remove(commandId);
         contextsCache.remove(commandId);
-        updateCmdHierarchy(commandId);
-    }
-
-    private void initChildHierarchy() {
-        if (!childHierarchyInitialized) {
-            synchronized(LOCK) {
-                if (!childHierarchyInitialized) {
-                    childHierarchy.clear();
-                    getCommands(false).forEach(this::buildCmdHierarchy);
-                }
-                childHierarchyInitialized = true;
-            }
-        }
-    }
-
-    private void buildCmdHierarchy(CommandEntity cmdEntity) {
-        if (!Guid.isNullOrEmpty(cmdEntity.getParentCommandId()) && !cmdEntity.getId().equals(cmdEntity.getParentCommandId())) {
-            childHierarchy.putIfAbsent(cmdEntity.getParentCommandId(), new ArrayList<>());
-            if (!childHierarchy.get(cmdEntity.getParentCommandId()).contains(cmdEntity.getId())) {
-                childHierarchy.get(cmdEntity.getParentCommandId()).add(cmdEntity.getId());
-            }
-        }
-    }
-
-    private void updateCmdHierarchy(Guid cmdId) {
-        for (List<Guid> childIds : childHierarchy.values()) {
-            if (childIds.contains(cmdId)) {
-                childIds.remove(cmdId);
-                break;
-            }
-        }
-        if (childHierarchy.containsKey(cmdId) && childHierarchy.get(cmdId).size() == 0) {
-            childHierarchy.remove(cmdId);
-        }
     }
 
     public void removeAllCommandsBeforeDate(final DateTime cutoff) {
         commandsCache.removeAllCommandsBeforeDate(cutoff);
-        synchronized(LOCK) {
-            childHierarchyInitialized = false;
-        }
     }
 
     public List<Guid> getChildCommandIds(Guid cmdId) {
-        initChildHierarchy();
-        if (childHierarchy.containsKey(cmdId)) {
-            return childHierarchy.get(cmdId);
-        }
-        return Collections.emptyList();
+        return Guid.isNullOrEmpty(cmdId) ? Collections.emptyList() : commandsCache.getChildCommandIds(cmdId);
     }
 
     public ConcurrentMap<Guid, CallbackTiming> getCallbacksTiming() {
@@ -311,16 +282,9 @@ public class CommandsRepository {
     }
 
     public boolean hasCommandEntitiesWithRootCommandId(Guid rootCommandId) {
-        CommandEntity cmdEntity;
-        for (Guid cmdId : commandsCache.keySet()) {
-            cmdEntity = commandsCache.get(cmdId);
-            if (cmdEntity != null && !Guid.isNullOrEmpty(cmdEntity.getRootCommandId()) &&
-                    !cmdEntity.getRootCommandId().equals(cmdId) &&
-                    cmdEntity.getRootCommandId().equals(rootCommandId)) {
-                return true;
-            }
-        }
-        return false;
+        return commandsCache.getCommandIdsByRootCommandId(rootCommandId)
+                .stream()
+                .anyMatch(cmdId -> !cmdId.equals(rootCommandId));
     }
 
     public CallbackTiming getCallbackTiming(Guid commandId) {
@@ -2,13 +2,18 @@ package org.ovirt.engine.core.bll;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import java.lang.reflect.Constructor;
 import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 import org.ovirt.engine.core.bll.aaa.CreateUserSessionCommand;
 import org.ovirt.engine.core.bll.context.CommandContext;
 import org.ovirt.engine.core.common.action.CreateUserSessionParameters;
+import org.ovirt.engine.core.common.queries.GetSystemStatisticsQueryParameters;
+import org.ovirt.engine.core.common.queries.QueryType;
 
 public class CommandsFactoryTest {
 
@@ -25,6 +30,7 @@ public class CommandsFactoryTest {
         CommandsFactory.getCommandConstructor(CreateUserSessionCommand.class,
                 CreateUserSessionParameters.class,
                 CommandContext.class);
+        long cacheSize = CommandsFactory.getConstructorCacheSize();
         CommandsFactory.getCommandConstructor(CreateUserSessionCommand.class,
                 CreateUserSessionParameters.class,
                 CommandContext.class);
@@ -32,6 +38,35 @@ public class CommandsFactoryTest {
                 CreateUserSessionParameters.class,
                 CommandContext.class);
 
-        assertEquals(1, CommandsFactory.getConstructorCacheSize());
+        assertEquals(cacheSize, CommandsFactory.getConstructorCacheSize());
+    }
+
+    @Test
+    public void testCreatingQueryCommandsReusesResolvedConstructor() {
+        CommandsFactory.getQueryConstructor(QueryType.GetSystemStatistics, GetSystemStatisticsQueryParameters.class);
+        CommandsFactory.ResolvedConstructor resolved =
+                CommandsFactory.getResolvedQueryConstructor(QueryType.GetSystemStatistics);
+
+        for (int i = 0; i < 10000; i++) {
+            Constructor<?> constructor = CommandsFactory.getQueryConstructor(QueryType.GetSystemStatistics,
+                    GetSystemStatisticsQueryParameters.class);
+            assertEquals(GetSystemStatisticsQuery.class, constructor.getDeclaringClass());
+        }
+
+        assertSame(resolved, CommandsFactory.getResolvedQueryConstructor(QueryType.GetSystemStatistics));
+    }
+
+    @Test
+    public void testCreatingQueryCommandsWithOtherParametersResolvesConstructorAgain() {
+        CommandsFactory.getQueryConstructor(QueryType.GetSystemStatistics, GetSystemStatisticsQueryParameters.class);
+        CommandsFactory.ResolvedConstructor resolved =
+                CommandsFactory.getResolvedQueryConstructor(QueryType.GetSystemStatistics);
+
+        CommandsFactory.getQueryConstructor(QueryType.GetSystemStatistics, OtherSystemStatisticsParameters.class);
+
+        assertNotSame(resolved, CommandsFactory.getResolvedQueryConstructor(QueryType.GetSystemStatistics));
+    }
+
+    private static class OtherSystemStatisticsParameters extends GetSystemStatisticsQueryParameters {
     }
 }
@@ -0,0 +1,200 @@
+package org.ovirt.engine.core.bll;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.ovirt.engine.core.bll.context.CommandContext;
+import org.ovirt.engine.core.bll.context.NoOpCompensationContext;
+import org.ovirt.engine.core.bll.scheduling.SchedulingManager;
+import org.ovirt.engine.core.common.action.ActionReturnValue;
+import org.ovirt.engine.core.common.action.ActionType;
+import org.ovirt.engine.core.common.action.RunVmParams;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VmStaticDao;
+
+public class RunVMActionRunnerTest extends BaseCommandTest {
+
+    private static CommandContext commandContext = CommandContext.createContext(new
+            RunVmParams().getSessionId()).withCompensationContext(NoOpCompensationContext.getInstance());
+
+    @Mock
+    private VmStaticDao vmStaticDao;
+
+    @Mock
+    private SchedulingManager schedulingManager;
+
+    @Mock
+    private NestedCommandFactory commandFactory;
+
+    @InjectMocks
+    private RunVMActionRunner runner = new RunVMActionRunner(ActionType.RunVm,
+            new ArrayList<>(),
+            commandContext,
+            true);
+
+    private SchedulingManager.CallBuilder callBuilder;
+    private List<Guid> orderedVmIds = new ArrayList<>();
+    private Map<Guid, Guid> placements = new HashMap<>();
+
+    @BeforeEach
+    public void setUp() {
+        callBuilder = mock(SchedulingManager.CallBuilder.class, Answers.RETURNS_SELF);
+        when(callBuilder.schedule(anyList())).thenReturn(placements);
+        when(schedulingManager.prepareCall(any())).thenReturn(callBuilder);
+        when(vmStaticDao.getOrderedVmGuidsForRunMultipleActions(any())).thenReturn(orderedVmIds);
+    }
+
+    @Test
+    public void testVmsOfClusterArePlacedTogether() {
+        Cluster cluster1 = createCluster();
+        Cluster cluster2 = createCluster();
+        RunVmCommand<RunVmParams> command1 = createCommand(cluster1, true);
+        RunVmCommand<RunVmParams> command2 = createCommand(cluster2, true);
+        RunVmCommand<RunVmParams> command3 = createCommand(cluster1, true);
+        RunVmCommand<RunVmParams> command4 = createCommand(cluster2, true);
+        RunVmCommand<RunVmParams> notPlaceableCommand = createCommand(cluster1, false);
+        Guid vdsId = placeOnNewHost(command1);
+
+        runner.runCommands();
+
+        verify(callBuilder, times(2)).schedule(anyList());
+        verify(callBuilder).schedule(Arrays.asList(command1.getVm(), command3.getVm()));
+        verify(callBuilder).schedule(Arrays.asList(command2.getVm(), command4.getVm()));
+        verify(command1).setPlacedVdsId(vdsId);
+        verify(notPlaceableCommand, never()).setPlacedVdsId(any());
+    }
+
+    @Test
+    public void testSingleVmOfClusterIsNotPlaced() {
+        createCommand(createCluster(), true);
+        createCommand(createCluster(), true);
+
+        runner.runCommands();
+
+        verify(schedulingManager, never()).prepareCall(any());
+    }
+
+    @Test
+    public void testUnusedPlacementsAreCleared() {
+        Cluster cluster = createCluster();
+        RunVmCommand<RunVmParams> usingCommand = createCommand(cluster, true);
+        RunVmCommand<RunVmParams> notUsingCommand = createCommand(cluster, true);
+        RunVmCommand<RunVmParams> notPlacedCommand = createCommand(cluster, true);
+        placeOnNewHost(usingCommand);
+        placeOnNewHost(notUsingCommand);
+        usePlacementOnExecute(usingCommand);
+
+        runner.runCommands();
+
+        verify(schedulingManager).clearPendingVm(notUsingCommand.getVm().getStaticData());
+        verify(schedulingManager, never()).clearPendingVm(usingCommand.getVm().getStaticData());
+        verify(schedulingManager, never()).clearPendingVm(notPlacedCommand.getVm().getStaticData());
+        assertNull(notUsingCommand.getPlacedVdsId());
+    }
+
+    @Test
+    public void testUnusedPlacementsAreClearedWhenCommandFails() {
+        Cluster cluster = createCluster();
+        RunVmCommand<RunVmParams> failingCommand = createCommand(cluster, true);
+        RunVmCommand<RunVmParams> notExecutedCommand = createCommand(cluster, true);
+        placeOnNewHost(failingCommand);
+        placeOnNewHost(notExecutedCommand);
+        doThrow(new RuntimeException()).when(failingCommand).executeAction();
+
+        assertThrows(RuntimeException.class, () -> runner.runCommands());
+
+        verify(schedulingManager).clearPendingVm(failingCommand.getVm().getStaticData());
+        verify(schedulingManager).clearPendingVm(notExecutedCommand.getVm().getStaticData());
+    }
+
+    /**
+     * A stateless VM is run only after its snapshot is created, when the runner is done, so it is not placed with
+     * the other VMs and nothing is left pending for it.
+     */
+    @Test
+    public void testStatelessVmIsNotPlaced() {
+        Cluster cluster = createCluster();
+        RunVmCommand<RunVmParams> command1 = createCommand(cluster, true);
+        RunVmCommand<RunVmParams> command2 = createCommand(cluster, true);
+        RunVmCommand<RunVmParams> statelessCommand = createCommand(cluster, false);
+        placeOnNewHost(command1);
+        placeOnNewHost(command2);
+        usePlacementOnExecute(command1);
+        usePlacementOnExecute(command2);
+
+        runner.runCommands();
+
+        verify(callBuilder).schedule(Arrays.asList(command1.getVm(), command2.getVm()));
+        verify(statelessCommand, never()).setPlacedVdsId(any());
+        verify(schedulingManager, never()).clearPendingVm(any());
+    }
+
+    private Cluster createCluster() {
+        Cluster cluster = new Cluster();
+        cluster.setId(Guid.newGuid());
+        return cluster;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RunVmCommand<RunVmParams> createCommand(Cluster cluster, boolean placeable) {
+        VM vm = new VM();
+        vm.setId(Guid.newGuid());
+        vm.setClusterId(cluster.getId());
+
+        ActionReturnValue returnValue = new ActionReturnValue();
+        returnValue.setValid(true);
+
+        RunVmCommand<RunVmParams> command = mock(RunVmCommand.class);
+        when(command.getReturnValue()).thenReturn(returnValue);
+        when(command.getVm()).thenReturn(vm);
+        when(command.getVmId()).thenReturn(vm.getId());
+        when(command.getClusterId()).thenReturn(cluster.getId());
+        when(command.getCluster()).thenReturn(cluster);
+        when(command.isPlaceableWithOtherVms()).thenReturn(placeable);
+        doCallRealMethod().when(command).setPlacedVdsId(any());
+        doCallRealMethod().when(command).getPlacedVdsId();
+
+        runner.getCommands().add(command);
+        orderedVmIds.add(vm.getId());
+        return command;
+    }
+
+    private Guid placeOnNewHost(RunVmCommand<RunVmParams> command) {
+        Guid vdsId = Guid.newGuid();
+        placements.put(command.getVmId(), vdsId);
+        return vdsId;
+    }
+
+    /**
+     * Makes the command run its VM on the host it was placed on, as its first run attempt does.
+     */
+    private void usePlacementOnExecute(RunVmCommand<RunVmParams> command) {
+        doAnswer(invocation -> {
+            command.setPlacedVdsId(null);
+            return command.getReturnValue();
+        }).when(command).executeAction();
+    }
+}
@@ -13,6 +13,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.ovirt.engine.core.common.vdscommands.VDSCommandType.ConnectStorageServer;
@@ -22,6 +23,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -31,6 +33,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -38,6 +41,7 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.bll.scheduling.SchedulingManager;
 import org.ovirt.engine.core.bll.storage.domain.IsoDomainListSynchronizer;
 import org.ovirt.engine.core.bll.validator.RunVmValidator;
 import org.ovirt.engine.core.common.AuditLogType;
@@ -48,6 +52,7 @@ import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.Snapshot.SnapshotStatus;
 import org.ovirt.engine.core.common.businessentities.StoragePool;
 import org.ovirt.engine.core.common.businessentities.StorageServerConnections;
+import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.businessentities.VMStatus;
 import org.ovirt.engine.core.common.businessentities.VmDevice;
@@ -69,6 +74,7 @@ import org.ovirt.engine.core.compat.Version;
 import org.ovirt.engine.core.dao.DiskImageDao;
 import org.ovirt.engine.core.dao.SnapshotDao;
 import org.ovirt.engine.core.dao.StorageServerConnectionDao;
+import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.VmDao;
 import org.ovirt.engine.core.dao.VmDeviceDao;
 import org.ovirt.engine.core.utils.InjectedMock;
@@ -114,6 +120,12 @@ public class RunVmCommandTest extends BaseCommandTest {
     @Mock
     private StorageServerConnectionDao storageServerConnectionDao;
 
+    @Mock
+    private SchedulingManager schedulingManager;
+
+    @Mock
+    private VdsDao vdsDao;
+
     @Spy
     @InjectMocks
     VmHandler vmHandler;
@@ -645,4 +657,84 @@ public class RunVmCommandTest extends BaseCommandTest {
         assertFalse(connectSucceeded);
 
     }
+
+    @Test
+    public void testVmIsPlaceableWithOtherVms() {
+        command.setVm(new VM());
+        doReturn(RunVmFlow.RUN).when(command).getFlow();
+        assertTrue(command.isPlaceableWithOtherVms());
+    }
+
+    @Test
+    public void testStatelessVmIsNotPlaceableWithOtherVms() {
+        command.setVm(new VM());
+        doReturn(RunVmFlow.CREATE_STATELESS_IMAGES).when(command).getFlow();
+        assertFalse(command.isPlaceableWithOtherVms());
+    }
+
+    @Test
+    public void testRerunVmIsNotPlaceableWithOtherVms() {
+        command.setVm(new VM());
+        doReturn(RunVmFlow.RUN).when(command).getFlow();
+        command.getRunVdssList().add(Guid.newGuid());
+        assertFalse(command.isPlaceableWithOtherVms());
+    }
+
+    @Test
+    public void testFirstRunAttemptUsesPlacedHost() {
+        Guid placedVdsId = mockVdsToRunOn();
+        command.setVm(new VM());
+        command.setCluster(new Cluster());
+        command.setPlacedVdsId(placedVdsId);
+
+        assertTrue(command.getVdsToRunOn());
+
+        assertEquals(placedVdsId, command.getVdsId());
+        assertNull(command.getPlacedVdsId());
+        verify(schedulingManager, never()).prepareCall(any());
+    }
+
+    @Test
+    public void testRerunSchedulesVmAlone() {
+        Guid placedVdsId = mockVdsToRunOn();
+        Guid scheduledVdsId = mockVdsToRunOn();
+        SchedulingManager.CallBuilder callBuilder = mockSchedulingCall(scheduledVdsId);
+        command.setVm(new VM());
+        command.setCluster(new Cluster());
+        command.setPlacedVdsId(placedVdsId);
+
+        command.getVdsToRunOn();
+        assertTrue(command.getVdsToRunOn());
+
+        assertEquals(scheduledVdsId, command.getVdsId());
+        assertEquals(Arrays.asList(placedVdsId, scheduledVdsId), command.getRunVdssList());
+        verify(callBuilder).schedule(command.getVm());
+    }
+
+    @Test
+    public void testVmWithoutPlacementSchedulesAlone() {
+        Guid scheduledVdsId = mockVdsToRunOn();
+        SchedulingManager.CallBuilder callBuilder = mockSchedulingCall(scheduledVdsId);
+        command.setVm(new VM());
+        command.setCluster(new Cluster());
+
+        assertTrue(command.getVdsToRunOn());
+
+        assertEquals(scheduledVdsId, command.getVdsId());
+        verify(callBuilder).schedule(command.getVm());
+    }
+
+    private Guid mockVdsToRunOn() {
+        VDS vds = new VDS();
+        vds.setId(Guid.newGuid());
+        when(vdsDao.get(vds.getId())).thenReturn(vds);
+        return vds.getId();
+    }
+
+    private SchedulingManager.CallBuilder mockSchedulingCall(Guid vdsId) {
+        SchedulingManager.CallBuilder callBuilder = mock(SchedulingManager.CallBuilder.class, Answers.RETURNS_SELF);
+        when(callBuilder.schedule(any(VM.class))).thenReturn(Optional.of(vdsId));
+        when(schedulingManager.prepareCall(any())).thenReturn(callBuilder);
+        return callBuilder;
+    }
 }
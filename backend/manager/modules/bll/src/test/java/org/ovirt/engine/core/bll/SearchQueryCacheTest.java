@@ -0,0 +1,85 @@
+package org.ovirt.engine.core.bll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.ovirt.engine.core.aaa.QueryData;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+
+@ExtendWith(MockConfigExtension.class)
+public class SearchQueryCacheTest {
+
+    private SearchQueryCache cache;
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.SearchQueryCacheMaxSize, 2),
+                MockConfigDescriptor.of(ConfigValues.SearchQueryCacheTimeToLiveInMinutes, 10));
+    }
+
+    @BeforeEach
+    public void setUp() {
+        cache = new SearchQueryCache();
+        cache.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cache.unregisterFromJMX();
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        QueryData data = createQueryData(System.currentTimeMillis());
+        assertNull(cache.get("Vms:"));
+        cache.put("Vms:", data);
+        assertSame(data, cache.get("Vms:"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        cache.put("Vms:", createQueryData(System.currentTimeMillis()));
+        cache.put("Hosts:", createQueryData(System.currentTimeMillis()));
+        cache.get("Vms:");
+        cache.put("Templates:", createQueryData(System.currentTimeMillis()));
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get("Hosts:"));
+        assertNotNull(cache.get("Vms:"));
+    }
+
+    @Test
+    public void testExpiredEntryIsDropped() {
+        cache.put("Vms:", createQueryData(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(11)));
+        assertNull(cache.get("Vms:"));
+        assertEquals(1, cache.getExpirationCount());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testFailureIsReportedOnce() {
+        assertTrue(cache.markFailed("Vms: name="));
+        assertFalse(cache.markFailed("Vms: name="));
+        cache.clear();
+        assertTrue(cache.markFailed("Vms: name="));
+    }
+
+    private static QueryData createQueryData(long date) {
+        return new QueryData("select * from vms", date, null, null);
+    }
+}
@@ -1,11 +1,19 @@
 package org.ovirt.engine.core.bll;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -15,6 +23,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.ovirt.engine.core.bll.quota.QuotaManager;
@@ -31,6 +40,7 @@ import org.ovirt.engine.core.common.businessentities.network.NetworkView;
 import org.ovirt.engine.core.common.businessentities.storage.Disk;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.interfaces.SearchType;
+import org.ovirt.engine.core.common.queries.KeysetSearchResult;
 import org.ovirt.engine.core.common.queries.SearchParameters;
 import org.ovirt.engine.core.common.utils.CommonConstants;
 import org.ovirt.engine.core.compat.Guid;
@@ -38,6 +48,7 @@ import org.ovirt.engine.core.compat.Version;
 import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.DiskDao;
 import org.ovirt.engine.core.dao.QuotaDao;
+import org.ovirt.engine.core.dao.SearchCursorDao;
 import org.ovirt.engine.core.dao.StoragePoolDao;
 import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.VmDao;
@@ -45,6 +56,7 @@ import org.ovirt.engine.core.dao.VmTemplateDao;
 import org.ovirt.engine.core.dao.gluster.GlusterVolumeDao;
 import org.ovirt.engine.core.dao.network.NetworkViewDao;
 import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
+import org.ovirt.engine.core.searchbackend.SearchCursor;
 import org.ovirt.engine.core.searchbackend.SearchObjectAutoCompleter;
 import org.ovirt.engine.core.searchbackend.SearchObjects;
 import org.ovirt.engine.core.utils.MockConfigDescriptor;
@@ -96,6 +108,10 @@ public class SearchQueryTest extends AbstractQueryTest<SearchParameters, SearchQ
     private VmHandler vmHandler;
     @Mock
     private VmNetworkInterfaceDao vmNetworkInterfaceDao;
+    @Mock
+    private SearchCursorDao searchCursorDao;
+    @Spy
+    private SearchQueryCache searchQueryCache = new SearchQueryCache();
 
     List<Disk> diskImageResultList = new ArrayList<>();
     List<Quota> quotaResultList = new ArrayList<>();
@@ -439,6 +455,72 @@ public class SearchQueryTest extends AbstractQueryTest<SearchParameters, SearchQ
         assertEquals(true, vdsResultList.get(0).isNetworkOperationInProgress());
     }
 
+    @Test
+    public void testKeysetVdsSearch() {
+        when(getQueryParameters().getSearchPattern()).thenReturn("Hosts" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR);
+        when(getQueryParameters().getSearchTypeValue()).thenReturn(SearchType.VDS);
+        when(getQueryParameters().getSearchAfter()).thenReturn("");
+        when(getQueryParameters().getMaxCount()).thenReturn(1);
+        when(searchCursorDao.getSortKey("SELECT vds_name, vds_id FROM vds WHERE vds_id = ?", Guid.Empty.toString()))
+                .thenReturn(Arrays.asList("host1", Guid.Empty.toString()));
+        getQuery().executeQueryCommand();
+        // the page is full, so it is followed by the page after the position of its last host
+        KeysetSearchResult<VDS> result = getQuery().getQueryReturnValue().getReturnValue();
+        assertEquals(vdsResultList, result);
+        assertEquals(SearchCursor.encode(Arrays.asList("host1", Guid.Empty.toString())), result.getNextPageCursor());
+    }
+
+    @Test
+    public void testKeysetVdsSearchLastPage() {
+        when(getQueryParameters().getSearchPattern()).thenReturn("Hosts" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR);
+        when(getQueryParameters().getSearchTypeValue()).thenReturn(SearchType.VDS);
+        when(getQueryParameters().getSearchAfter()).thenReturn("");
+        when(getQueryParameters().getMaxCount()).thenReturn(2);
+        getQuery().executeQueryCommand();
+        KeysetSearchResult<VDS> result = getQuery().getQueryReturnValue().getReturnValue();
+        assertEquals(vdsResultList, result);
+        assertNull(result.getNextPageCursor());
+        verify(searchCursorDao, never()).getSortKey(any(), any());
+    }
+
+    @Test
+    public void testUncachedSearchFailureIsMarkedByItsKey() {
+        String searchPattern = "Hosts" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR + " name = *";
+        when(getQueryParameters().getSearchPattern()).thenReturn(searchPattern);
+        when(getQueryParameters().getSearchTypeValue()).thenReturn(SearchType.VDS);
+        when(getQueryParameters().getMaxCount()).thenReturn(-1);
+        assertThrows(RuntimeException.class, () -> getQuery().executeQueryCommand());
+        verify(searchQueryCache).markFailed(searchPattern + ",-1,false");
+        verify(searchQueryCache, never()).markFailed("");
+    }
+
+    @Test
+    public void testSearchesDifferingInValuesShareCachedQuery() {
+        when(getQueryParameters().getSearchTypeValue()).thenReturn(SearchType.VDS);
+        when(getQueryParameters().getSearchPattern())
+                .thenReturn("Hosts" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR + " name = host1");
+        getQuery().executeQueryCommand();
+        when(getQueryParameters().getSearchPattern())
+                .thenReturn("Hosts" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR + " name = host2");
+        getQuery().executeQueryCommand();
+
+        assertEquals(1, searchQueryCache.getSize());
+        assertEquals(1, searchQueryCache.getHitCount());
+        verify(vdsDao).getAllWithQuery(anyString(), contains("host1"));
+        verify(vdsDao).getAllWithQuery(anyString(), contains("host2"));
+    }
+
+    @Test
+    public void testSearchWithEnumValueIsCachedByItsText() {
+        String searchPattern = "Hosts" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR + " status = up";
+        when(getQueryParameters().getSearchTypeValue()).thenReturn(SearchType.VDS);
+        when(getQueryParameters().getSearchPattern()).thenReturn(searchPattern);
+        getQuery().executeQueryCommand();
+
+        verify(searchQueryCache).markUnshared(anyString());
+        verify(searchQueryCache).put(eq(searchPattern + ",0,false"), any());
+    }
+
     @Test
     public void testGetAllMultiVdsSearch() {
         when(getQueryParameters().getSearchPattern()).thenReturn("Hosts" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR);
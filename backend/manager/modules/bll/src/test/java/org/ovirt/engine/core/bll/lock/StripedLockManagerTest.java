@@ -0,0 +1,191 @@
+package org.ovirt.engine.core.bll.lock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.lock.EngineLock;
+import org.ovirt.engine.core.utils.lock.LockingResult;
+
+public class StripedLockManagerTest {
+
+    private static final String ERROR1 = "Error1";
+    private static final String ERROR2 = "Error2";
+    private static final String ERROR3 = "Error3";
+    private EngineLock updateLock1;
+    private EngineLock updateLock3;
+    private EngineLock lockLock1;
+    private EngineLock lockLock2;
+    private EngineLock updateAndLockLock;
+    private EngineLock failLockLock;
+    private String updateGuid;
+    // a single stripe makes sure keys sharing a stripe do not block each other
+    private StripedLockManager lockManager = new StripedLockManager(1);
+
+    @BeforeEach
+    public void setup() {
+        updateGuid = Guid.newGuid().toString();
+        String lockGuid = Guid.newGuid().toString();
+        Map<String, Pair<String, String>> updateRegionsMap = new HashMap<>();
+        updateRegionsMap.put(updateGuid, new Pair<>("1", ERROR1));
+        updateLock1 = new EngineLock();
+        updateLock1.setSharedLocks(updateRegionsMap);
+        lockLock1 = new EngineLock();
+        lockLock1.setExclusiveLocks(updateRegionsMap);
+        Map<String, Pair<String, String>> lockedRegionsMap = new HashMap<>();
+        lockedRegionsMap.put(lockGuid, new Pair<>("2", ERROR2));
+        lockLock2 = new EngineLock();
+        lockLock2.setExclusiveLocks(lockedRegionsMap);
+        updateAndLockLock = new EngineLock();
+        updateAndLockLock.setSharedLocks(updateRegionsMap);
+        updateAndLockLock.setExclusiveLocks(lockedRegionsMap);
+        failLockLock = new EngineLock();
+        failLockLock.setExclusiveLocks(updateRegionsMap);
+        Map<String, Pair<String, String>> updateRegionsMap2 = new HashMap<>();
+        updateRegionsMap2.put(updateGuid, new Pair<>("1", ERROR3));
+        updateLock3 = new EngineLock();
+        updateLock3.setSharedLocks(updateRegionsMap2);
+    }
+
+    @Test
+    public void checkAcquireLockSuccess() {
+        assertTrue(lockManager.acquireLock(updateLock1).isAcquired());
+        assertTrue(lockManager.acquireLock(lockLock2).isAcquired());
+        lockManager.releaseLock(lockLock2);
+        lockManager.releaseLock(updateLock1);
+        assertTrue(lockManager.acquireLock(updateAndLockLock).isAcquired());
+        lockManager.releaseLock(updateAndLockLock);
+        assertTrue(lockManager.acquireLock(updateLock1).isAcquired());
+        assertTrue(lockManager.releaseLock(updateGuid + "1"));
+        assertTrue(lockManager.showAllLocks().isEmpty());
+    }
+
+    @Test
+    public void checkAcquireLockFailure() {
+        assertTrue(lockManager.acquireLock(updateAndLockLock).isAcquired());
+        LockingResult lockResult = lockManager.acquireLock(lockLock1);
+        assertFalse(lockResult.isAcquired());
+        assertTrue(lockResult.getMessages().contains(ERROR1));
+        assertEquals(1, lockResult.getMessages().size());
+        assertTrue(lockManager.acquireLock(updateLock3).isAcquired());
+        lockResult = lockManager.acquireLock(failLockLock);
+        assertFalse(lockResult.isAcquired());
+        assertTrue(lockResult.getMessages().contains(ERROR1));
+        assertTrue(lockResult.getMessages().contains(ERROR3));
+        assertEquals(2, lockResult.getMessages().size());
+        lockManager.releaseLock(updateAndLockLock);
+        lockManager.releaseLock(updateLock3);
+        assertTrue(lockManager.showAllLocks().isEmpty());
+    }
+
+    @Test
+    public void checkFailedAcquireIsAtomic() {
+        assertTrue(lockManager.acquireLock(lockLock2).isAcquired());
+        assertFalse(lockManager.acquireLock(updateAndLockLock).isAcquired());
+        // the shared key of the failed lock must not be left behind
+        assertEquals(1, lockManager.showAllLocks().size());
+        assertTrue(lockManager.acquireLock(lockLock1).isAcquired());
+        lockManager.clear();
+    }
+
+    @Test
+    public void checkGetLockInfo() {
+        assertTrue(lockManager.acquireLock(lockLock1).isAcquired());
+        assertTrue(lockManager.getLockInfo(updateGuid + "1").isExclusive());
+        assertTrue(lockManager.isExclusiveLockPresent(failLockLock));
+        lockManager.releaseLock(lockLock1);
+        assertNull(lockManager.getLockInfo(updateGuid + "1"));
+    }
+
+    @Test
+    public void testAcquireLockWaitTimeout() {
+        assertTrue(lockManager.acquireLockWait(lockLock1, 1000L).isAcquired());
+        long before = System.currentTimeMillis();
+        assertFalse(lockManager.acquireLockWait(failLockLock, 500L).isAcquired());
+        long after = System.currentTimeMillis();
+        assertTrue(after - before >= 500L);
+        assertEquals(1, lockManager.getWaitCount());
+        lockManager.releaseLock(lockLock1);
+        assertTrue(lockManager.acquireLockWait(failLockLock, 1000L).isAcquired());
+        lockManager.releaseLock(failLockLock);
+        assertEquals(0, lockManager.showAllLocks().size());
+    }
+
+    @Test
+    public void testAcquireLockWaitIsWokenUpByRelease() throws Exception {
+        assertTrue(lockManager.acquireLock(lockLock1).isAcquired());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<LockingResult> result = executor.submit(() -> lockManager.acquireLockWait(failLockLock, 10000L));
+            while (lockManager.getWaitCount() == 0) {
+                Thread.sleep(10L);
+            }
+            // releasing an unrelated key should not wake up the waiter
+            assertTrue(lockManager.acquireLock(lockLock2).isAcquired());
+            lockManager.releaseLock(lockLock2);
+            assertEquals(0, lockManager.getWakeupCount());
+
+            lockManager.releaseLock(lockLock1);
+            assertTrue(result.get(5, TimeUnit.SECONDS).isAcquired());
+            assertEquals(1, lockManager.getWakeupCount());
+        } finally {
+            executor.shutdownNow();
+        }
+        lockManager.releaseLock(failLockLock);
+        assertTrue(lockManager.showAllLocks().isEmpty());
+    }
+
+    @Test
+    public void testAcquireLockNegativeTimeout() {
+        assertThrows(IllegalArgumentException.class, () -> lockManager.acquireLockWait(lockLock1, -1000L));
+    }
+
+    @Test
+    public void testConcurrentExclusiveAccess() throws Exception {
+        lockManager = new StripedLockManager();
+        int threads = 8;
+        int iterations = 1000;
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger violations = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < iterations; j++) {
+                        lockManager.acquireLockWait(lockLock1);
+                        if (holders.incrementAndGet() != 1) {
+                            violations.incrementAndGet();
+                        }
+                        holders.decrementAndGet();
+                        lockManager.releaseLock(lockLock1);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, violations.get());
+        assertTrue(lockManager.showAllLocks().isEmpty());
+    }
+}
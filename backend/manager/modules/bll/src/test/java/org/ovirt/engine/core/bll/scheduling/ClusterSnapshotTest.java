@@ -0,0 +1,146 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.Label;
+import org.ovirt.engine.core.common.businessentities.LabelBuilder;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VmNumaNode;
+import org.ovirt.engine.core.common.scheduling.AffinityGroup;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.LabelDao;
+import org.ovirt.engine.core.dao.VmDao;
+import org.ovirt.engine.core.dao.VmNumaNodeDao;
+import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ClusterSnapshotTest {
+
+    @Mock
+    private AffinityGroupDao affinityGroupDao;
+    @Mock
+    private VmDao vmDao;
+    @Mock
+    private LabelDao labelDao;
+    @Mock
+    private VmNumaNodeDao vmNumaNodeDao;
+
+    @InjectMocks
+    private ClusterSnapshotLoader loader;
+
+    private Cluster cluster;
+    private VM vm1;
+    private VM vm2;
+    private VM vm3;
+
+    @BeforeEach
+    public void setUp() {
+        cluster = new Cluster();
+        cluster.setId(Guid.newGuid());
+
+        vm1 = createVm();
+        vm2 = createVm();
+        vm3 = createVm();
+    }
+
+    @Test
+    public void testAffinityGroupsLoadedOnce() {
+        AffinityGroup group12 = createAffinityGroup(vm1, vm2);
+        AffinityGroup group1 = createAffinityGroup(vm1, vm1);
+        when(affinityGroupDao.getAllAffinityGroupsWithFlatLabelsByClusterId(cluster.getId()))
+                .thenReturn(Arrays.asList(group12, group1));
+
+        ClusterSnapshot snapshot = loader.load(cluster, Arrays.asList(vm1, vm2));
+
+        assertThat(snapshot.getVmAffinityGroups(vm1)).containsExactly(group12, group1);
+        assertThat(snapshot.getVmAffinityGroups(vm2)).containsExactly(group12);
+        assertThat(snapshot.getVmAffinityGroups(vm3)).isEmpty();
+        assertThat(snapshot.getAffinityGroups(cluster.getId())).containsExactly(group12, group1);
+        verify(affinityGroupDao, times(1)).getAllAffinityGroupsWithFlatLabelsByClusterId(any());
+        verify(affinityGroupDao, never()).getAllAffinityGroupsWithFlatLabelsByVmId(any());
+    }
+
+    @Test
+    public void testRunningVmsLoadedOnce() {
+        when(vmDao.getAllRunningByCluster(cluster.getId())).thenReturn(Collections.singletonList(vm3));
+
+        ClusterSnapshot snapshot = loader.load(cluster, Arrays.asList(vm1, vm2));
+
+        assertThat(snapshot.getRunningVms(cluster.getId())).containsExactly(vm3);
+        assertThat(snapshot.getRunningVms(cluster.getId())).containsExactly(vm3);
+        verify(vmDao, times(1)).getAllRunningByCluster(any());
+    }
+
+    @Test
+    public void testLabelsOfScheduledVmsLoadedTogether() {
+        Label label1 = new LabelBuilder().randomId().vm(vm1.getId()).build();
+        Label label12 = new LabelBuilder().randomId().vm(vm1.getId()).vm(vm2.getId()).build();
+        when(labelDao.getAllByEntityIds(any())).thenReturn(Arrays.asList(label1, label12));
+
+        ClusterSnapshot snapshot = loader.load(cluster, Arrays.asList(vm1, vm2));
+
+        assertThat(snapshot.getLabels(vm1)).containsExactly(label1, label12);
+        assertThat(snapshot.getLabels(vm2)).containsExactly(label12);
+        verify(labelDao, times(1)).getAllByEntityIds(any());
+    }
+
+    @Test
+    public void testNumaNodesOfSingleVmLoadedAlone() {
+        List<VmNumaNode> nodes = Collections.singletonList(new VmNumaNode());
+        when(vmNumaNodeDao.getAllVmNumaNodeByVmId(vm1.getId())).thenReturn(nodes);
+
+        ClusterSnapshot snapshot = loader.load(cluster, Collections.singletonList(vm1));
+
+        assertThat(snapshot.getVmNumaNodes(vm1)).isEqualTo(nodes);
+        verify(vmNumaNodeDao, never()).getVmNumaNodeInfoByClusterId(any());
+    }
+
+    @Test
+    public void testNumaNodesOfManyVmsLoadedTogether() {
+        VmNumaNode node = new VmNumaNode();
+        Map<Guid, List<VmNumaNode>> nodes = Collections.singletonMap(vm1.getId(), Collections.singletonList(node));
+        when(vmNumaNodeDao.getVmNumaNodeInfoByClusterId(cluster.getId())).thenReturn(nodes);
+
+        ClusterSnapshot snapshot = loader.load(cluster, Arrays.asList(vm1, vm2));
+
+        assertThat(snapshot.getVmNumaNodes(vm1)).containsExactly(node);
+        assertThat(snapshot.getVmNumaNodes(vm2)).isEmpty();
+        verify(vmNumaNodeDao, times(1)).getVmNumaNodeInfoByClusterId(any());
+        verify(vmNumaNodeDao, never()).getAllVmNumaNodeByVmId(any());
+    }
+
+    private VM createVm() {
+        VM vm = new VM();
+        vm.setId(Guid.newGuid());
+        vm.setClusterId(cluster.getId());
+        return vm;
+    }
+
+    private AffinityGroup createAffinityGroup(VM... vms) {
+        AffinityGroup group = new AffinityGroup();
+        group.setId(Guid.newGuid());
+        group.setClusterId(cluster.getId());
+        Arrays.stream(vms).map(VM::getId).forEach(group.getVmIds()::add);
+        return group;
+    }
+}
@@ -0,0 +1,103 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.compat.Guid;
+
+public class LoadBalancingQueueTest {
+
+    private final List<Runnable> workers = new ArrayList<>();
+    private final List<Cluster> balancedClusters = new ArrayList<>();
+
+    private LoadBalancingQueue queue;
+    private Cluster cluster1;
+    private Cluster cluster2;
+    private Cluster cluster3;
+
+    @BeforeEach
+    public void setUp() {
+        queue = new LoadBalancingQueue(workers::add, balancedClusters::add);
+        cluster1 = createCluster("cluster1");
+        cluster2 = createCluster("cluster2");
+        cluster3 = createCluster("cluster3");
+    }
+
+    @Test
+    public void testClustersBalancedInOrder() {
+        queue = new LoadBalancingQueue(Runnable::run, balancedClusters::add);
+
+        queue.balance(Arrays.asList(cluster1, cluster2, cluster3), 2);
+
+        assertThat(balancedClusters).containsExactly(cluster1, cluster2, cluster3);
+        assertThat(queue.getPendingClusterCount()).isZero();
+        assertThat(queue.getWorkerCount()).isZero();
+    }
+
+    @Test
+    public void testWorkersBoundedByParallelism() {
+        queue.balance(Arrays.asList(cluster1, cluster2, cluster3), 2);
+
+        assertThat(workers).hasSize(2);
+        assertThat(queue.getWorkerCount()).isEqualTo(2);
+
+        workers.get(0).run();
+
+        assertThat(balancedClusters).containsExactly(cluster1, cluster2, cluster3);
+        assertThat(queue.getWorkerCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testQueuedClusterNotQueuedAgain() {
+        queue.balance(Collections.singletonList(cluster1), 1);
+        queue.balance(Arrays.asList(cluster1, cluster2), 1);
+
+        assertThat(workers).hasSize(1);
+        assertThat(queue.getPendingClusterCount()).isEqualTo(2);
+
+        workers.get(0).run();
+
+        assertThat(balancedClusters).containsExactly(cluster1, cluster2);
+    }
+
+    @Test
+    public void testClusterQueuedAgainAfterBalancing() {
+        queue.balance(Collections.singletonList(cluster1), 1);
+        workers.get(0).run();
+        queue.balance(Collections.singletonList(cluster1), 1);
+        workers.get(1).run();
+
+        assertThat(balancedClusters).containsExactly(cluster1, cluster1);
+    }
+
+    @Test
+    public void testFailedBalancingDoesNotStopOtherClusters() {
+        queue = new LoadBalancingQueue(Runnable::run, cluster -> {
+            if (cluster == cluster1) {
+                throw new IllegalStateException();
+            }
+            balancedClusters.add(cluster);
+        });
+
+        queue.balance(Arrays.asList(cluster1, cluster2), 1);
+        queue.balance(Collections.singletonList(cluster1), 1);
+
+        assertThat(balancedClusters).containsExactly(cluster2);
+        assertThat(queue.getPendingClusterCount()).isZero();
+        assertThat(queue.getWorkerCount()).isZero();
+    }
+
+    private Cluster createCluster(String name) {
+        Cluster cluster = new Cluster();
+        cluster.setId(Guid.newGuid());
+        cluster.setName(name);
+        return cluster;
+    }
+}
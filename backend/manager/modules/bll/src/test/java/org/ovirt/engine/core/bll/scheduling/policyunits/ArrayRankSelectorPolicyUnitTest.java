@@ -0,0 +1,147 @@
+package org.ovirt.engine.core.bll.scheduling.policyunits;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+
+public class ArrayRankSelectorPolicyUnitTest {
+    private Guid unit1;
+    private Guid unit2;
+    private Guid host1;
+    private Guid host2;
+    private Guid host3;
+    private List<Guid> hosts;
+    private List<Pair<Guid, Integer>> units;
+
+    @BeforeEach
+    public void setUp() {
+        unit1 = Guid.newGuid();
+        unit2 = Guid.newGuid();
+
+        host1 = Guid.newGuid();
+        host2 = Guid.newGuid();
+        host3 = Guid.newGuid();
+
+        hosts = new ArrayList<>();
+        hosts.add(host1);
+        hosts.add(host2);
+        hosts.add(host3);
+
+        units = new ArrayList<>();
+        units.add(new Pair<>(unit1, 1));
+        units.add(new Pair<>(unit2, 100));
+    }
+
+    @Test
+    public void testRanking() {
+        ArrayRankSelectorPolicyUnit.Selector selector = new ArrayRankSelectorPolicyUnit.Selector();
+        selector.init(units, hosts);
+
+        selector.record(unit1, host1, 500000);
+        selector.record(unit1, host2, 1000);
+        selector.record(unit1, host3, 85366814);
+
+        selector.record(unit2, host3, 50);
+        selector.record(unit2, host1, 100);
+
+        Guid best = selector.best().get();
+        assertEquals(host2, best);
+    }
+
+    @Test
+    public void testSameWeightRanking() {
+        ArrayRankSelectorPolicyUnit.Selector selector = new ArrayRankSelectorPolicyUnit.Selector();
+        selector.init(units, hosts);
+
+        selector.record(unit1, host1, 200);
+        selector.record(unit1, host2, 300);
+        selector.record(unit1, host3, 200);
+
+        selector.record(unit2, host3, 1);
+
+        Guid best = selector.best().get();
+        assertEquals(host1, best);
+    }
+
+    @Test
+    public void testSameWeightRankingWithExternalScheduler() {
+        ArrayRankSelectorPolicyUnit.Selector selector = new ArrayRankSelectorPolicyUnit.Selector();
+        selector.init(units, hosts);
+
+        // External scheduler result does not have unit Guid
+        selector.record(null, host1, 200);
+        selector.record(null, host2, 200);
+        selector.record(null, host3, 200);
+
+        selector.record(unit1, host1, 200);
+        selector.record(unit1, host2, 300);
+        selector.record(unit1, host3, 200);
+
+        selector.record(unit2, host3, 1);
+
+        Guid best = selector.best().get();
+        assertEquals(host1, best);
+    }
+
+    @Test
+    public void testRecordsOfHostAccumulated() {
+        ArrayRankSelectorPolicyUnit.Selector selector = new ArrayRankSelectorPolicyUnit.Selector();
+        selector.init(units, hosts);
+
+        // Scoring multiple VMs records the weights of a host for each of them
+        selector.record(unit1, host1, 100);
+        selector.record(unit1, host2, 150);
+        selector.record(unit1, host3, 200);
+        selector.record(unit1, host1, 100);
+        selector.record(unit1, host2, 0);
+
+        Guid best = selector.best().get();
+        assertEquals(host2, best);
+    }
+
+    @Test
+    public void testUnknownHostIgnored() {
+        ArrayRankSelectorPolicyUnit.Selector selector = new ArrayRankSelectorPolicyUnit.Selector();
+        selector.init(units, hosts);
+
+        selector.record(unit1, Guid.newGuid(), 0);
+        selector.record(unit1, host1, 200);
+        selector.record(unit1, host2, 100);
+        selector.record(unit1, host3, 300);
+
+        Guid best = selector.best().get();
+        assertEquals(host2, best);
+    }
+
+    @Test
+    public void testNoRecords() {
+        ArrayRankSelectorPolicyUnit.Selector selector = new ArrayRankSelectorPolicyUnit.Selector();
+        selector.init(units, hosts);
+
+        assertFalse(selector.best().isPresent());
+    }
+
+    @Test
+    public void testManyUnits() {
+        ArrayRankSelectorPolicyUnit.Selector selector = new ArrayRankSelectorPolicyUnit.Selector();
+        selector.init(Collections.emptyList(), hosts);
+
+        for (int i = 0; i < 40; i++) {
+            Guid unit = Guid.newGuid();
+            selector.record(unit, host1, 2);
+            selector.record(unit, host2, 3);
+            selector.record(unit, host3, 1);
+        }
+
+        Guid best = selector.best().get();
+        assertEquals(host3, best);
+    }
+}
@@ -99,6 +99,6 @@ public class VmAffinityFilterPolicyUnitTest extends VmAffinityPolicyUnitTestBase
     }
 
     private List<VDS> filter(List<VDS> hosts) {
-        return policyUnit.filter(context, hosts, Collections.singletonList(newVm), new PerHostMessages());
+        return policyUnit.filter(createContext(), hosts, Collections.singletonList(newVm), new PerHostMessages());
     }
 }
@@ -12,7 +12,9 @@ import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.ovirt.engine.core.bll.scheduling.ClusterSnapshotLoader;
 import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
 import org.ovirt.engine.core.common.businessentities.Cluster;
@@ -41,9 +43,10 @@ public class VmAffinityPolicyUnitTestBase {
     protected AffinityGroupDao affinityGroupDao;
     @Mock
     protected VmDao vmDao;
+    @InjectMocks
+    protected ClusterSnapshotLoader snapshotLoader;
 
     protected Cluster cluster;
-    protected SchedulingContext context;
     protected VDS host1;
     protected VDS host2;
     protected VDS host3;
@@ -58,8 +61,6 @@ public class VmAffinityPolicyUnitTestBase {
         cluster = new Cluster();
         cluster.setId(Guid.newGuid());
 
-        context = new SchedulingContext(cluster, Collections.emptyMap());
-
         host1 = createHost(cluster);
         host2 = createHost(cluster);
         host3 = createHost(cluster);
@@ -67,10 +68,18 @@ public class VmAffinityPolicyUnitTestBase {
         newVm = createVMDown(cluster);
 
         when(pendingResourceManager.pendingResources(any())).thenReturn(Collections.emptyList());
-        when(affinityGroupDao.getAllAffinityGroupsWithFlatLabelsByVmId(any())).thenReturn(affinityGroups);
+        when(affinityGroupDao.getAllAffinityGroupsWithFlatLabelsByClusterId(any())).thenReturn(affinityGroups);
         when(vmDao.getAllRunningByCluster(any())).thenReturn(runningVMs);
     }
 
+    /**
+     * The context of a new scheduling round, which reads the current affinity groups and running VMs.
+     */
+    protected SchedulingContext createContext() {
+        return new SchedulingContext(snapshotLoader.load(cluster, Collections.singletonList(newVm)),
+                Collections.emptyMap());
+    }
+
     protected VDS createHost(Cluster cluster) {
         VDS vds = new VDS();
         vds.setId(Guid.newGuid());
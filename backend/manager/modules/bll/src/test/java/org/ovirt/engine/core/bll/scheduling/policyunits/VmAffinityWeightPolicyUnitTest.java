@@ -181,7 +181,7 @@ public class VmAffinityWeightPolicyUnitTest extends VmAffinityPolicyUnitTestBase
     }
 
     private Map<Guid, Integer> collectScores(List<VDS> hosts) {
-        return policyUnit.score(context, hosts, Collections.singletonList(newVm)).stream()
+        return policyUnit.score(createContext(), hosts, Collections.singletonList(newVm)).stream()
                 .collect(Collectors.toMap(Pair::getFirst, Pair::getSecond));
     }
 }
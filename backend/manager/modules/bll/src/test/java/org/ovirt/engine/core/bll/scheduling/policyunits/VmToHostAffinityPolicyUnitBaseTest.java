@@ -8,7 +8,9 @@ import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.ovirt.engine.core.bll.scheduling.ClusterSnapshotLoader;
 import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
 import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
@@ -30,6 +32,8 @@ public abstract class VmToHostAffinityPolicyUnitBaseTest {
 
     @Mock
     AffinityGroupDao affinityGroupDao;
+    @InjectMocks
+    ClusterSnapshotLoader snapshotLoader;
 
     protected Cluster cluster;
     protected SchedulingContext context;
@@ -47,12 +51,13 @@ public abstract class VmToHostAffinityPolicyUnitBaseTest {
         cluster.setId(Guid.newGuid());
         cluster.setCompatibilityVersion(Version.getLast());
 
-        context = new SchedulingContext(cluster, Collections.emptyMap());
-
         vm = new VM();
         vm.setId(Guid.newGuid());
         vm.setClusterId(cluster.getId());
 
+        context = new SchedulingContext(snapshotLoader.load(cluster, Collections.singletonList(vm)),
+                Collections.emptyMap());
+
         host_positive_enforcing = new VDS();
         host_positive_enforcing.setId(Guid.newGuid());
         host_positive_enforcing.setClusterId(cluster.getId());
@@ -68,10 +73,12 @@ public abstract class VmToHostAffinityPolicyUnitBaseTest {
         positive_enforcing_group = new AffinityGroup();
         negative_enforcing_group = new AffinityGroup();
 
+        positive_enforcing_group.setVmIds(Arrays.asList(vm.getId()));
         positive_enforcing_group.setVdsIds(Arrays.asList(host_positive_enforcing.getId()));
         positive_enforcing_group.setVdsAffinityRule(EntityAffinityRule.POSITIVE);
         positive_enforcing_group.setVdsEnforcing(true);
 
+        negative_enforcing_group.setVmIds(Arrays.asList(vm.getId()));
         negative_enforcing_group.setVdsIds(Arrays.asList(host_negative_enforcing.getId()));
         negative_enforcing_group.setVdsAffinityRule(EntityAffinityRule.NEGATIVE);
         negative_enforcing_group.setVdsEnforcing(true);
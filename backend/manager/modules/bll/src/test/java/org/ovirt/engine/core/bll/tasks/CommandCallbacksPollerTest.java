@@ -0,0 +1,210 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.bll.tasks.interfaces.CommandCallback;
+import org.ovirt.engine.core.common.action.ActionParametersBase;
+import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.CommandStatus;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.utils.MockedConfig;
+
+@ExtendWith({ MockitoExtension.class, MockConfigExtension.class })
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CommandCallbacksPollerTest {
+
+    private static final Guid ROOT_COMMAND = Guid.newGuid();
+    private static final Guid CHILD_COMMAND = Guid.newGuid();
+    private static final Guid OTHER_COMMAND = Guid.newGuid();
+
+    @Mock
+    private ManagedScheduledExecutorService executor;
+    @Mock
+    private ManagedExecutorService callbacksExecutor;
+    @Mock
+    private CommandsRepository commandsRepository;
+    @Mock
+    private CommandCallback callback;
+
+    @InjectMocks
+    private CommandCallbacksPoller poller;
+
+    private final ConcurrentMap<Guid, CallbackTiming> callbacksTiming = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Guid, CommandEntity> commands = new ConcurrentHashMap<>();
+    private final List<Guid> addedCallbacks = new ArrayList<>();
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.AsyncCommandPollingLoopInSeconds, 1L),
+                MockConfigDescriptor.of(ConfigValues.AsyncCommandPollingRateInSeconds, 8L),
+                MockConfigDescriptor.of(ConfigValues.RepeatEndMethodsOnFailMaxRetries, 5),
+                MockConfigDescriptor.of(ConfigValues.CommandCallbacksPollingParallelism, 1));
+    }
+
+    public static Stream<MockConfigDescriptor<?>> mockParallelConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.AsyncCommandPollingLoopInSeconds, 1L),
+                MockConfigDescriptor.of(ConfigValues.AsyncCommandPollingRateInSeconds, 8L),
+                MockConfigDescriptor.of(ConfigValues.RepeatEndMethodsOnFailMaxRetries, 5),
+                MockConfigDescriptor.of(ConfigValues.CommandCallbacksPollingParallelism, 4));
+    }
+
+    @BeforeEach
+    public void setUp() {
+        when(commandsRepository.getCommands(true)).thenReturn(Collections.emptyList());
+        when(commandsRepository.getCallbacksTiming()).thenReturn(callbacksTiming);
+        when(commandsRepository.getCallbackTiming(any())).thenAnswer(invocation -> {
+            Guid cmdId = invocation.getArgument(0);
+            return cmdId == null ? null : callbacksTiming.get(cmdId);
+        });
+        when(commandsRepository.getCommandEntity(any())).thenAnswer(invocation -> commands.get(invocation.getArgument(0)));
+        when(commandsRepository.getCommandStatus(any()))
+                .thenAnswer(invocation -> commands.get(invocation.getArgument(0)).getCommandStatus());
+        when(commandsRepository.getChildCommandIds(any())).thenReturn(Collections.emptyList());
+        when(commandsRepository.drainAddedCallbacks()).thenAnswer(invocation -> {
+            List<Guid> drained = new ArrayList<>(addedCallbacks);
+            addedCallbacks.clear();
+            return drained;
+        });
+        poller.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        poller.destroy();
+    }
+
+    @Test
+    public void testCallbackIsPolledWhenDue() {
+        addCommand(ROOT_COMMAND, null, CommandStatus.ACTIVE, 1);
+
+        poller.invokeCallbackMethods();
+        verify(callback, times(1)).doPolling(eq(ROOT_COMMAND), anyList());
+
+        // the delay was doubled to 2 cycles
+        poller.invokeCallbackMethods();
+        verify(callback, times(1)).doPolling(eq(ROOT_COMMAND), anyList());
+
+        poller.invokeCallbackMethods();
+        verify(callback, times(2)).doPolling(eq(ROOT_COMMAND), anyList());
+        assertEquals(3, poller.getPollingCycles());
+        assertEquals(2, poller.getCallbackInvocations());
+    }
+
+    @Test
+    public void testRootCommandIsPolledOnceItsChildEnded() {
+        addCommand(ROOT_COMMAND, null, CommandStatus.ACTIVE, 8);
+        addCommand(CHILD_COMMAND, ROOT_COMMAND, CommandStatus.SUCCEEDED, 1);
+
+        poller.invokeCallbackMethods();
+        verify(callback).onSucceeded(eq(CHILD_COMMAND), anyList());
+        verify(commandsRepository).updateCallbackNotified(CHILD_COMMAND);
+        assertFalse(callbacksTiming.containsKey(CHILD_COMMAND));
+        verify(callback, never()).doPolling(eq(ROOT_COMMAND), anyList());
+
+        poller.invokeCallbackMethods();
+        verify(callback).doPolling(eq(ROOT_COMMAND), anyList());
+    }
+
+    @Test
+    public void testCallbackScheduledTwiceForSameCycleIsInvokedOnce() {
+        addCommand(ROOT_COMMAND, null, CommandStatus.ACTIVE, 1);
+        addCommand(CHILD_COMMAND, ROOT_COMMAND, CommandStatus.SUCCEEDED, 1);
+        // the root is rescheduled for the next cycle both for its status change and for its ended child
+        doAnswer(invocation -> {
+            commands.get(ROOT_COMMAND).setCommandStatus(CommandStatus.SUCCEEDED);
+            return null;
+        }).when(callback).doPolling(eq(ROOT_COMMAND), anyList());
+
+        poller.invokeCallbackMethods();
+        verify(callback).doPolling(eq(ROOT_COMMAND), anyList());
+        verify(callback).onSucceeded(eq(CHILD_COMMAND), anyList());
+
+        poller.invokeCallbackMethods();
+        verify(callback, times(1)).onSucceeded(eq(ROOT_COMMAND), anyList());
+        verify(commandsRepository, times(1)).updateCallbackNotified(ROOT_COMMAND);
+        assertEquals(1, poller.getLastCycleDueCallbacksCount());
+    }
+
+    @Test
+    public void testCommandWaitingForEventIsNotPolled() {
+        addCommand(ROOT_COMMAND, null, CommandStatus.ACTIVE, 1);
+        commands.get(ROOT_COMMAND).setWaitingForEvent(true);
+        callbacksTiming.get(ROOT_COMMAND).setWaitOnEventEndTime(Long.MAX_VALUE);
+
+        poller.invokeCallbackMethods();
+        poller.invokeCallbackMethods();
+        verify(callback, never()).doPolling(any(), anyList());
+
+        commands.get(ROOT_COMMAND).setWaitingForEvent(false);
+        poller.invokeCallbackMethods();
+        verify(callback).doPolling(eq(ROOT_COMMAND), anyList());
+    }
+
+    @Test
+    @MockedConfig("mockParallelConfiguration")
+    public void testCommandTreesAreInvokedConcurrently() {
+        when(callbacksExecutor.submit(any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.<Runnable> getArgument(0).run();
+            return CompletableFuture.completedFuture(null);
+        });
+        addCommand(ROOT_COMMAND, null, CommandStatus.ACTIVE, 1);
+        addCommand(CHILD_COMMAND, ROOT_COMMAND, CommandStatus.ACTIVE, 1);
+        addCommand(OTHER_COMMAND, null, CommandStatus.ACTIVE, 1);
+
+        poller.invokeCallbackMethods();
+
+        // one thread besides the polling thread for the two command trees
+        verify(callbacksExecutor, times(1)).submit(any(Runnable.class));
+        for (Guid cmdId : Arrays.asList(ROOT_COMMAND, CHILD_COMMAND, OTHER_COMMAND)) {
+            verify(callback).doPolling(eq(cmdId), anyList());
+        }
+        assertEquals(3, poller.getLastCycleDueCallbacksCount());
+    }
+
+    private void addCommand(Guid cmdId, Guid rootCmdId, CommandStatus status, long delay) {
+        CommandEntity commandEntity = new CommandEntity();
+        commandEntity.setId(cmdId);
+        commandEntity.setRootCommandId(rootCmdId);
+        commandEntity.setCommandStatus(status);
+        commandEntity.setExecuted(true);
+        commandEntity.setCommandParameters(new ActionParametersBase());
+        commands.put(cmdId, commandEntity);
+
+        callbacksTiming.put(cmdId, new CallbackTiming(callback, delay));
+        addedCallbacks.add(cmdId);
+    }
+}
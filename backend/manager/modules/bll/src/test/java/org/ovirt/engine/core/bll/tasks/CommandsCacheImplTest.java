@@ -0,0 +1,161 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.transaction.TransactionManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.CommandStatus;
+import org.ovirt.engine.core.compat.DateTime;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.CommandEntityDao;
+import org.ovirt.engine.core.utils.InjectedMock;
+import org.ovirt.engine.core.utils.InjectorExtension;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+
+@ExtendWith({ MockitoExtension.class, MockConfigExtension.class, InjectorExtension.class })
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CommandsCacheImplTest {
+
+    private static final Guid ACTIVE_ROOT = Guid.newGuid();
+    private static final Guid ACTIVE_CHILD = Guid.newGuid();
+    private static final Guid ENDED_ROOT = Guid.newGuid();
+    private static final Guid ENDED_CHILD = Guid.newGuid();
+
+    @Mock
+    private CommandEntityDao commandEntityDao;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    @InjectedMock
+    public TransactionManager transactionManager;
+
+    @InjectMocks
+    private CommandsCacheImpl commandsCache;
+
+    private CommandEntity activeRoot;
+    private CommandEntity activeChild;
+    private CommandEntity endedRoot;
+    private CommandEntity endedChild;
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.EndedCommandsCacheTimeToLiveInMinutes, 0));
+    }
+
+    @BeforeEach
+    public void setUp() {
+        activeRoot = createCommand(ACTIVE_ROOT, null, CommandStatus.ACTIVE);
+        activeChild = createCommand(ACTIVE_CHILD, ACTIVE_ROOT, CommandStatus.ACTIVE);
+        endedRoot = createCommand(ENDED_ROOT, null, CommandStatus.ENDED_SUCCESSFULLY);
+        endedChild = createCommand(ENDED_CHILD, ENDED_ROOT, CommandStatus.ENDED_SUCCESSFULLY);
+
+        when(commandEntityDao.getAllOfActiveCommandTrees()).thenReturn(Arrays.asList(activeRoot, activeChild));
+        when(commandEntityDao.get(ENDED_ROOT)).thenReturn(endedRoot);
+        when(commandEntityDao.get(ENDED_CHILD)).thenReturn(endedChild);
+        when(commandEntityDao.getCmdEntitiesByParentCmdId(ENDED_ROOT)).thenReturn(Collections.singletonList(endedChild));
+    }
+
+    @Test
+    public void testOnlyActiveTreesAreLoaded() {
+        assertEquals(new HashSet<>(Arrays.asList(ACTIVE_ROOT, ACTIVE_CHILD)), commandsCache.keySet());
+        assertEquals(Collections.singletonList(ACTIVE_CHILD), commandsCache.getChildCommandIds(ACTIVE_ROOT));
+        verify(commandEntityDao, never()).getAll();
+    }
+
+    @Test
+    public void testEndedTreeIsLoadedOnDemand() {
+        assertSame(endedChild, commandsCache.get(ENDED_CHILD));
+
+        // the whole tree was loaded along with the child
+        assertSame(endedRoot, commandsCache.get(ENDED_ROOT));
+        assertEquals(Collections.singletonList(ENDED_CHILD), commandsCache.getChildCommandIds(ENDED_ROOT));
+        verify(commandEntityDao, times(1)).getCmdEntitiesByParentCmdId(ENDED_ROOT);
+        verify(commandEntityDao, times(1)).get(ENDED_ROOT);
+    }
+
+    @Test
+    public void testChildCommandIdsOfTreeThatIsNotResident() {
+        assertEquals(Collections.singletonList(ENDED_CHILD), commandsCache.getChildCommandIds(ENDED_ROOT));
+        assertTrue(commandsCache.getCommandIdsByRootCommandId(ENDED_ROOT).contains(ENDED_CHILD));
+        assertNull(commandsCache.get(Guid.newGuid()));
+    }
+
+    @Test
+    public void testPutIndexesNewChildCommand() {
+        Guid newChild = Guid.newGuid();
+        commandsCache.put(createCommand(newChild, ACTIVE_ROOT, CommandStatus.NOT_STARTED));
+
+        assertEquals(Arrays.asList(ACTIVE_CHILD, newChild), commandsCache.getChildCommandIds(ACTIVE_ROOT));
+        verify(commandEntityDao).saveOrUpdate(any());
+    }
+
+    @Test
+    public void testRemoveUpdatesIndexes() {
+        commandsCache.remove(ACTIVE_CHILD);
+
+        assertFalse(commandsCache.keySet().contains(ACTIVE_CHILD));
+        assertTrue(commandsCache.getChildCommandIds(ACTIVE_ROOT).isEmpty());
+        verify(commandEntityDao).remove(ACTIVE_CHILD);
+    }
+
+    @Test
+    public void testEndedTreesAreEvicted() {
+        commandsCache.get(ENDED_ROOT);
+        assertEquals(4, commandsCache.getResidentCommandsCount());
+
+        // with no time to live, the ended tree is evicted as soon as it is seen ended
+        commandsCache.evictEndedCommandTrees();
+
+        assertEquals(new HashSet<>(Arrays.asList(ACTIVE_ROOT, ACTIVE_CHILD)), commandsCache.keySet());
+        assertNotNull(commandsCache.get(ENDED_CHILD));
+    }
+
+    @Test
+    public void testActiveCommandsAreKeptWhenOldCommandsAreRemoved() {
+        commandsCache.get(ENDED_ROOT);
+        when(commandEntityDao.get(ACTIVE_CHILD)).thenReturn(activeChild);
+
+        commandsCache.removeAllCommandsBeforeDate(new DateTime(System.currentTimeMillis() + 1000));
+
+        verify(commandEntityDao).removeAllBeforeDate(any());
+        List<Guid> residentIds = Arrays.asList(commandsCache.keySet().toArray(new Guid[0]));
+        assertEquals(Collections.singletonList(ACTIVE_CHILD), residentIds);
+    }
+
+    private static CommandEntity createCommand(Guid commandId, Guid rootCommandId, CommandStatus status) {
+        CommandEntity cmdEntity = new CommandEntity();
+        cmdEntity.setId(commandId);
+        cmdEntity.setRootCommandId(rootCommandId);
+        cmdEntity.setParentCommandId(rootCommandId);
+        cmdEntity.setCommandStatus(status);
+        cmdEntity.setCreatedAt(new Date());
+        return cmdEntity;
+    }
+}
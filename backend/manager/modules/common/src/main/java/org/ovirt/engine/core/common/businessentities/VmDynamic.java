@@ -327,6 +327,7 @@ public class VmDynamic implements BusinessEntityWithStatus<Guid, VMStatus>, Comp
         guestContainers = template.getGuestContainers();
         volatileRun = template.isVolatileRun();
         leaseInfo = template.leaseInfo;
+        runtimeName = template.getRuntimeName();
     }
 
     public String getAppList() {
@@ -20,6 +20,27 @@ public final class Config {
         return Config.getValue(value, ConfigCommon.defaultConfigurationVersion);
     }
 
+    /**
+     * Returns the value of an integer option of the default configuration version, without boxing it
+     */
+    public static int getIntValue(ConfigValues value) {
+        return getConfigUtils().getIntValue(value);
+    }
+
+    /**
+     * Returns the value of a long option of the default configuration version, without boxing it
+     */
+    public static long getLongValue(ConfigValues value) {
+        return getConfigUtils().getLongValue(value);
+    }
+
+    /**
+     * Returns the value of a boolean option of the default configuration version, without boxing it
+     */
+    public static boolean getBooleanValue(ConfigValues value) {
+        return getConfigUtils().getBooleanValue(value);
+    }
+
     public static <T> Map<String, T> getValuesForAllVersions(ConfigValues value) {
         return getConfigUtils().getValuesForAllVersions(value);
     }
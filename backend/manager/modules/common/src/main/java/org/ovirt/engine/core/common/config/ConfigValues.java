@@ -1587,6 +1587,54 @@ public enum ConfigValues {
     @TypeConverterAttribute(Boolean.class)
     EnableBochsDisplay,
 
+    @TypeConverterAttribute(Integer.class)
+    SearchQueryCacheMaxSize,
+
+    @TypeConverterAttribute(Integer.class)
+    SearchQueryCacheTimeToLiveInMinutes,
+
+    @TypeConverterAttribute(Integer.class)
+    HostMonitoringReconciliationIntervalInSeconds,
+
+    @Reloadable
+    @TypeConverterAttribute(Integer.class)
+    VmsMonitoringParallelism,
+
+    @Reloadable
+    @TypeConverterAttribute(String.class)
+    CopyBasedStatisticsUpdateTables,
+
+    @TypeConverterAttribute(Integer.class)
+    StatisticsWriteBehindIntervalInSeconds,
+
+    @TypeConverterAttribute(Integer.class)
+    StatisticsWriteBehindFlushThreshold,
+
+    @Reloadable
+    @TypeConverterAttribute(Integer.class)
+    CommandCallbacksPollingParallelism,
+
+    @Reloadable
+    @TypeConverterAttribute(Integer.class)
+    EndedCommandsCacheTimeToLiveInMinutes,
+
+    @TypeConverterAttribute(Integer.class)
+    AuditLogWriteBehindIntervalInMilliseconds,
+
+    @TypeConverterAttribute(Integer.class)
+    AuditLogWriteBehindQueueSize,
+
+    @TypeConverterAttribute(Integer.class)
+    AuditLogWriteBehindBatchSize,
+
+    @Reloadable
+    @TypeConverterAttribute(Integer.class)
+    LoadBalancingParallelism,
+
+    @Reloadable
+    @TypeConverterAttribute(Integer.class)
+    LoadBalancingTimeBudgetInSeconds,
+
     Invalid;
 
     private ClientAccessLevel accessLevel;
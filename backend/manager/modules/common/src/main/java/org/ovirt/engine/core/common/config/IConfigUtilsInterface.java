@@ -10,4 +10,16 @@ public interface IConfigUtilsInterface {
     void refresh();
     <T> Map<String, T> getValuesForAllVersions(ConfigValues configValue);
     boolean valueExists(ConfigValues configValue, String version);
+
+    default int getIntValue(ConfigValues configValue) {
+        return this.<Integer> getValue(configValue, ConfigCommon.defaultConfigurationVersion);
+    }
+
+    default long getLongValue(ConfigValues configValue) {
+        return this.<Long> getValue(configValue, ConfigCommon.defaultConfigurationVersion);
+    }
+
+    default boolean getBooleanValue(ConfigValues configValue) {
+        return this.<Boolean> getValue(configValue, ConfigCommon.defaultConfigurationVersion);
+    }
 }
@@ -0,0 +1,30 @@
+package org.ovirt.engine.core.common.queries;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * The entities of a page of a search that pages by its sort key, see {@link SearchParameters#setSearchAfter(String)},
+ * with the cursor of the page that follows it.
+ */
+public class KeysetSearchResult<T> extends ArrayList<T> {
+    private static final long serialVersionUID = -4511358245297620358L;
+
+    private String nextPageCursor;
+
+    public KeysetSearchResult() {
+    }
+
+    public KeysetSearchResult(Collection<? extends T> entities, String nextPageCursor) {
+        super(entities);
+        this.nextPageCursor = nextPageCursor;
+    }
+
+    /**
+     * @return the value of {@link SearchParameters#setSearchAfter(String)} for the next page, or {@code null} if the
+     *         page is the last one
+     */
+    public String getNextPageCursor() {
+        return nextPageCursor;
+    }
+}
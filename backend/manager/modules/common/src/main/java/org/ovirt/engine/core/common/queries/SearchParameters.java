@@ -12,6 +12,7 @@ public class SearchParameters extends QueryParametersBase implements Serializabl
     private SearchType _searchType;
     private int _maxCount;
     private long searchFrom;
+    private String searchAfter;
     private boolean caseSensitive;
 
     public SearchParameters() {
@@ -53,6 +54,23 @@ public class SearchParameters extends QueryParametersBase implements Serializabl
         return searchFrom;
     }
 
+    /**
+     * Sets the search to page by its sort key rather than by the page number of the search text: the entities that
+     * follow the given position in the order of the search are returned, so a page costs the same whatever its depth.
+     * The entities are returned in a {@link KeysetSearchResult}, which gives the position of the next page.
+     *
+     * @param value
+     *            the cursor of the page, as given by {@link KeysetSearchResult#getNextPageCursor()} for the previous
+     *            page, or an empty string for the first page, or {@code null} to page by page number
+     */
+    public void setSearchAfter(String value) {
+        searchAfter = value;
+    }
+
+    public String getSearchAfter() {
+        return searchAfter;
+    }
+
     public boolean getCaseSensitive() {
         return caseSensitive;
     }
@@ -68,6 +86,7 @@ public class SearchParameters extends QueryParametersBase implements Serializabl
                 .append("searchPattern", getSearchPattern())
                 .append("caseSensitive", getCaseSensitive())
                 .append("from", getSearchFrom())
+                .append("after", getSearchAfter())
                 .append("max", getMaxCount());
     }
 }
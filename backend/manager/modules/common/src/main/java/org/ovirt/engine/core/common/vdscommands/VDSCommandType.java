@@ -229,6 +229,7 @@ public enum VDSCommandType {
     GetOvaInfo("org.ovirt.engine.core.vdsbroker.vdsbroker"),
     DumpXmls("org.ovirt.engine.core.vdsbroker.vdsbroker"),
     GetAllVmStats("org.ovirt.engine.core.vdsbroker.vdsbroker"),  // get a list of VMs with full data and statistics
+    GetAllVmStatsAsync("org.ovirt.engine.core.vdsbroker.vdsbroker"), // same as GetAllVmStats, without waiting for the response
     HostDevListByCaps("org.ovirt.engine.core.vdsbroker"),        // get all host devices with passthrough information
     Destroy("org.ovirt.engine.core.vdsbroker.vdsbroker"),        // Clean a DOWN VM from the vms list
     GetVmExternalData("org.ovirt.engine.core.vdsbroker.vdsbroker"),
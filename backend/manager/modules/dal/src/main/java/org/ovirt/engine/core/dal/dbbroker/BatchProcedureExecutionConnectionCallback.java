@@ -1,23 +1,15 @@
 package org.ovirt.engine.core.dal.dbbroker;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.sql.CallableStatement;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.sql.Types;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
-import org.ovirt.engine.core.compat.Guid;
-import org.ovirt.engine.core.utils.SerializationFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
@@ -51,13 +43,14 @@ public final class BatchProcedureExecutionConnectionCallback implements Connecti
         StoredProcedureMetaData procMetaData = getStoredProcedureMetaData(
                 procName, con);
 
+        StoredProcedureParametersBinder binder = procMetaData.getParametersBinder();
         try (CallableStatement stmt = con.prepareCall(procMetaData.getSqlCommand())) {
 
             for (MapSqlParameterSource execution : executions) {
-                mapParams(stmt, execution,
-                        procMetaData.getParamatersMetaData());
+                binder.bind(stmt, execution.getValues());
                 stmt.addBatch();
             }
+            log.debug("Mapped params of {} executions", executions.size());
 
             stmt.executeBatch();
             log.debug("Executed batch");
@@ -76,19 +69,16 @@ public final class BatchProcedureExecutionConnectionCallback implements Connecti
         return null;
     }
 
-    private StoredProcedureMetaData getStoredProcedureMetaData(
-            String procName, Connection con) throws SQLException {
-
-        if (!storedProceduresMap.containsKey(procName)) {
+    private StoredProcedureMetaData getStoredProcedureMetaData(String procName, Connection con) {
+        return storedProceduresMap.computeIfAbsent(procName, name -> {
             StoredProcedureMetaData procMetaData = new StoredProcedureMetaData();
-            fillProcMetaData(procName, con, procMetaData);
-            storedProceduresMap.putIfAbsent(procName, procMetaData);
-        }
-        return storedProceduresMap.get(procName);
+            fillProcMetaData(name, con, procMetaData);
+            return procMetaData;
+        });
     }
 
     private void fillProcMetaData(String procName, Connection con,
-            StoredProcedureMetaData procMetaData) throws SQLException {
+            StoredProcedureMetaData procMetaData) {
         SimpleJdbcCall call = handler.getCall(procName,
                 handler.createCallForModification(procName));
 
@@ -127,6 +117,8 @@ public final class BatchProcedureExecutionConnectionCallback implements Connecti
                 procSchemaFromDB, procNameFromDB, params.toString()));
         procMetaData.setDbName(procNameFromDB);
         procMetaData.setParamatersMetaData(paramOrder);
+        procMetaData.setParametersBinder(
+                new StoredProcedureParametersBinder(paramOrder.values(), dbEngineDialect.getParamNamePrefix()));
         procMetaData.setSchemaName(procSchemaFromDB);
     }
 
@@ -157,65 +149,6 @@ public final class BatchProcedureExecutionConnectionCallback implements Connecti
         return retValue;
     }
 
-    private void mapParams(PreparedStatement stmt,
-            MapSqlParameterSource paramSource,
-            Map<String, SqlCallParameter> paramOrder)
-            throws SQLException {
-
-        Map<String, Object> values = paramSource.getValues();
-        for (Map.Entry<String, SqlCallParameter> paramOrderEntry : paramOrder.entrySet()) {
-            String paramName = paramOrderEntry.getKey();
-            Object value = values.get(paramName);
-            if (value == null && paramName.startsWith(dbEngineDialect.getParamNamePrefix())) {
-                value = values.get(paramName.substring(dbEngineDialect.getParamNamePrefix().length()));
-            }
-
-            SqlCallParameter sqlParam = paramOrderEntry.getValue();
-
-            if (value != null) {
-                if (value.getClass().isEnum()) {
-                    try {
-                        Method method = value.getClass().getMethod("getValue");
-                        value = method.invoke(value);
-                    } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException ex) {
-                        log.error("Error mapping enum type '{}': {}", value, ex.getMessage());
-                        log.debug("Exception", ex);
-                    }
-                }
-
-                if (value instanceof Guid) {
-                    value = value.toString();
-                }
-
-                if (sqlParam.getDataType() == Types.TIMESTAMP) {
-                    value = new Timestamp(((Date) value).getTime());
-                }
-
-                if (value instanceof Map) {
-                    value = SerializationFactory.getSerializer().serialize(value);
-                }
-            } else {
-                if (sqlParam.getDataType() == Types.BOOLEAN || sqlParam.getDataType() == Types.BIT) {
-                    value = false;
-                }
-            }
-
-            int ordinal = sqlParam.getOrdinal();
-            try {
-                stmt.setObject(ordinal, value);
-            } catch (Exception e) {
-                log.error("Can't map '{}' of type '{}' to type '{}', mapping to null value for parameter '{}'.",
-                        value,
-                        value != null ? value.getClass().getName() : null,
-                        sqlParam.getDataType(),
-                        sqlParam.getName());
-                stmt.setObject(ordinal, null);
-            }
-        }
-
-        log.debug("Mapped params: {}", values.keySet());
-    }
-
     private  static class ProcData {
         private String colName;
         private int ordinal;
@@ -0,0 +1,74 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Exposes the {@link BulkUpdateStatistics} of a {@link SimpleJdbcCallsHandler} via JMX.
+ */
+public class BulkUpdateMonitor implements BulkUpdateMonitorMXBean {
+
+    private final BulkUpdateStatistics statistics;
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    public BulkUpdateMonitor(BulkUpdateStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public void registerInJMX() {
+        try {
+            objectName = new ObjectName("BulkUpdateStatistics:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    public void unregisterFromJMX() {
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during unregistration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getUpdates() {
+        return statistics.getUpdates();
+    }
+
+    @Override
+    public Map<String, Long> getRows() {
+        return statistics.getRows();
+    }
+
+    @Override
+    public Map<String, Long> getStatements() {
+        return statistics.getStatements();
+    }
+
+    @Override
+    public Map<String, Long> getTimeMillis() {
+        return statistics.getTimeMillis();
+    }
+
+    @Override
+    public Map<String, Long> getRowsPerSecond() {
+        return statistics.getRowsPerSecond();
+    }
+
+    @Override
+    public long getStagingTableUpdateFallbacks() {
+        return statistics.getStagingTableUpdateFallbacks();
+    }
+
+    @Override
+    public void resetStatistics() {
+        statistics.reset();
+    }
+}
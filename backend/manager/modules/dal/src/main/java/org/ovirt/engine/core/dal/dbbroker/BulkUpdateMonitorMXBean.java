@@ -0,0 +1,46 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import java.util.Map;
+
+/**
+ * The following interface is used as interface for JMX bean, the counters are keyed by the updated table and the
+ * way it was updated, e.g. {@code vm_statistics/staging_table} or {@code vm_statistics/batch}
+ */
+public interface BulkUpdateMonitorMXBean {
+
+    /**
+     * The following method will return the number of bulk updates
+     */
+    Map<String, Long> getUpdates();
+
+    /**
+     * The following method will return the number of updated rows
+     */
+    Map<String, Long> getRows();
+
+    /**
+     * The following method will return the number of statements sent to the database
+     */
+    Map<String, Long> getStatements();
+
+    /**
+     * The following method will return the accumulated time spent in the bulk updates
+     */
+    Map<String, Long> getTimeMillis();
+
+    /**
+     * The following method will return the average number of rows updated per second
+     */
+    Map<String, Long> getRowsPerSecond();
+
+    /**
+     * The following method will return the number of updates through a staging table which fell back to a batch
+     * since the connection did not support COPY
+     */
+    long getStagingTableUpdateFallbacks();
+
+    /**
+     * The following method will reset the counters
+     */
+    void resetStatistics();
+}
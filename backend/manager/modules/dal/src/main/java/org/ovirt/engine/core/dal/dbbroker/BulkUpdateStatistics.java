@@ -0,0 +1,81 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keeps the counters of the bulk updates of the tables which have a {@link StagingTableUpdate}, per table and per the
+ * way the update was executed, either through the staging table or as a batch of update procedure calls. It is
+ * exposed via {@link BulkUpdateMonitorMXBean}.
+ */
+public class BulkUpdateStatistics {
+
+    static final String STAGING_TABLE = "staging_table";
+    static final String BATCH = "batch";
+
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+    /** Number of updates which fell back to a batch since the connection did not support COPY **/
+    private final LongAdder stagingTableUpdateFallbacks = new LongAdder();
+
+    void updated(String tableName, String method, int rows, int statements, long nanos) {
+        Counters tableCounters = counters.computeIfAbsent(tableName + "/" + method, key -> new Counters());
+        tableCounters.updates.increment();
+        tableCounters.rows.add(rows);
+        tableCounters.statements.add(statements);
+        tableCounters.nanos.add(nanos);
+    }
+
+    void stagingTableUpdateFellBack() {
+        stagingTableUpdateFallbacks.increment();
+    }
+
+    public Map<String, Long> getUpdates() {
+        return collect(counters -> counters.updates.sum());
+    }
+
+    public Map<String, Long> getRows() {
+        return collect(counters -> counters.rows.sum());
+    }
+
+    public Map<String, Long> getStatements() {
+        return collect(counters -> counters.statements.sum());
+    }
+
+    public Map<String, Long> getTimeMillis() {
+        return collect(counters -> TimeUnit.NANOSECONDS.toMillis(counters.nanos.sum()));
+    }
+
+    public Map<String, Long> getRowsPerSecond() {
+        return collect(counters -> {
+            long nanos = counters.nanos.sum();
+            return nanos == 0 ? 0 : counters.rows.sum() * TimeUnit.SECONDS.toNanos(1) / nanos;
+        });
+    }
+
+    public long getStagingTableUpdateFallbacks() {
+        return stagingTableUpdateFallbacks.sum();
+    }
+
+    public void reset() {
+        counters.clear();
+        stagingTableUpdateFallbacks.reset();
+    }
+
+    private Map<String, Long> collect(ToLongFunction<Counters> counter) {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((key, value) -> result.put(key, counter.applyAsLong(value)));
+        return result;
+    }
+
+    private static class Counters {
+        private final LongAdder updates = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+}
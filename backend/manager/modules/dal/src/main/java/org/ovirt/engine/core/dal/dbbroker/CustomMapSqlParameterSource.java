@@ -19,6 +19,17 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Dependent
 public class CustomMapSqlParameterSource extends MapSqlParameterSource {
 
+    /**
+     * The method translating the values of each enum type, looked up once per type rather than once per value
+     */
+    private static final ClassValue<Method> ENUM_VALUE_METHODS = new ClassValue<Method>() {
+        @Override
+        protected Method computeValue(Class<?> type) {
+            Method getValueMethod = findMethodByName(type, "getValue");
+            return getValueMethod != null ? getValueMethod : findMethodByName(type, "ordinal");
+        }
+    };
+
     private final DbEngineDialect dialect;
 
     @Inject
@@ -57,14 +68,9 @@ public class CustomMapSqlParameterSource extends MapSqlParameterSource {
     }
 
     private static Object extractEnumValue(Object value) {
-        Method getValueMethod = findMethodByName(value, "getValue");
-        if (getValueMethod != null) {
-            return invokeMethod(value, getValueMethod);
-        }
-
-        Method ordinalMethod = findMethodByName(value, "ordinal");
-        if (ordinalMethod != null) {
-            return invokeMethod(value, ordinalMethod);
+        Method method = ENUM_VALUE_METHODS.get(value.getClass());
+        if (method != null) {
+            return invokeMethod(value, method);
         }
 
         return Integer.valueOf(0);
@@ -78,9 +84,9 @@ public class CustomMapSqlParameterSource extends MapSqlParameterSource {
         }
     }
 
-    private static Method findMethodByName(Object value, String methodName) {
+    private static Method findMethodByName(Class<?> type, String methodName) {
         try {
-            return value.getClass().getMethod(methodName);
+            return type.getMethod(methodName);
         } catch (NoSuchMethodException e) {
             return null;
         }
@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dal.dbbroker;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -11,6 +12,9 @@ import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.apache.commons.lang.StringUtils;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -25,6 +29,8 @@ public class SimpleJdbcCallsHandler {
 
     private final ConcurrentMap<String, SimpleJdbcCall> callsMap = new ConcurrentHashMap<>();
 
+    private final BulkUpdateStatistics bulkUpdateStatistics = new BulkUpdateStatistics();
+
     private final DbEngineDialect dialect;
     private final JdbcTemplate jdbcTemplate;
 
@@ -72,6 +78,54 @@ public class SimpleJdbcCallsHandler {
         executeStoredProcAsBatch(procedureName, sqlParams);
     }
 
+    /**
+     * Runs a set of updates of a table which has a staging table. If the staging table is enabled for the table by
+     * {@link ConfigValues#CopyBasedStatisticsUpdateTables} the rows are copied into it and applied all at once,
+     * otherwise, or if the connection does not support copying, the update procedure is called for each of them in a
+     * batch.
+     * @param procedureName the update procedure name
+     * @param stagingTableUpdate the description of the staging table of the updated table
+     * @param paramValues list of objects to be converted to {@link MapSqlParameterSource}
+     * @param mapper mapper to use to convert the param value objects to {@link MapSqlParameterSource}
+     */
+    public <T> void executeStoredProcAsBatch(final String procedureName,
+            StagingTableUpdate stagingTableUpdate,
+            Collection<T> paramValues,
+            MapSqlParameterMapper<T> mapper) {
+        if (paramValues.isEmpty()) {
+            return;
+        }
+
+        List<MapSqlParameterSource> sqlParams = paramValues.stream().map(mapper::map).collect(Collectors.toList());
+        String tableName = stagingTableUpdate.getTableName();
+
+        if (isStagingTableUpdateEnabled(tableName)) {
+            long start = System.nanoTime();
+            if (jdbcTemplate.execute(new StagingTableUpdateConnectionCallback(this, stagingTableUpdate, sqlParams))) {
+                // the COPY of the rows and the call of the apply procedure
+                bulkUpdateStatistics.updated(tableName, BulkUpdateStatistics.STAGING_TABLE, sqlParams.size(), 2,
+                        System.nanoTime() - start);
+                return;
+            }
+            bulkUpdateStatistics.stagingTableUpdateFellBack();
+        }
+
+        long start = System.nanoTime();
+        executeStoredProcAsBatch(procedureName, sqlParams);
+        bulkUpdateStatistics.updated(tableName, BulkUpdateStatistics.BATCH, sqlParams.size(), sqlParams.size(),
+                System.nanoTime() - start);
+    }
+
+    private static boolean isStagingTableUpdateEnabled(String tableName) {
+        String tables = Config.getValue(ConfigValues.CopyBasedStatisticsUpdateTables);
+        return StringUtils.isNotBlank(tables)
+                && Arrays.stream(tables.split(",")).map(String::trim).anyMatch(tableName::equalsIgnoreCase);
+    }
+
+    public BulkUpdateStatistics getBulkUpdateStatistics() {
+        return bulkUpdateStatistics;
+    }
+
     public Map<String, Object> executeModification(final String procedureName, final MapSqlParameterSource paramSource) {
         return executeImpl(procedureName, paramSource, createCallForModification(procedureName));
     }
@@ -0,0 +1,58 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Describes how a batch of rows may be applied to a table by copying them into an unlogged staging table and
+ * applying them all with a single stored procedure call, instead of calling the update procedure once per row.
+ * <p>
+ * The staging table holds a {@code batch_id} column followed by the given columns, which are named after the
+ * parameters of the update procedure. The apply procedure receives the batch id, applies the rows of the batch to
+ * the table and deletes them from the staging table.
+ */
+public final class StagingTableUpdate {
+
+    private final String tableName;
+    private final String stagingTableName;
+    private final String applyProcedureName;
+    private final String[] columns;
+    private final String copySql;
+
+    public StagingTableUpdate(String tableName,
+            String stagingTableName,
+            String applyProcedureName,
+            String... columns) {
+        this.tableName = tableName;
+        this.stagingTableName = stagingTableName;
+        this.applyProcedureName = applyProcedureName;
+        this.columns = columns.clone();
+        this.copySql = String.format("COPY %s (%s) FROM STDIN",
+                stagingTableName,
+                Stream.concat(Stream.of("batch_id"), Arrays.stream(columns)).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * @return the name of the updated table, which the update is enabled by and its statistics are kept under
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getStagingTableName() {
+        return stagingTableName;
+    }
+
+    public String getApplyProcedureName() {
+        return applyProcedureName;
+    }
+
+    String[] getColumns() {
+        return columns;
+    }
+
+    String getCopySql() {
+        return copySql;
+    }
+}
@@ -0,0 +1,172 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+/**
+ * Applies a set of rows by streaming them with {@code COPY} into the staging table of a {@link StagingTableUpdate}
+ * and calling its apply procedure once. Returns {@code false} without touching the database if the connection does
+ * not support {@code COPY}, so the caller may fall back to a batch of update procedure calls.
+ */
+public final class StagingTableUpdateConnectionCallback implements ConnectionCallback<Boolean> {
+    private static final Logger log = LoggerFactory.getLogger(StagingTableUpdateConnectionCallback.class);
+
+    /** Size of the chunks the copied rows are sent to the database in **/
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final StagingTableUpdate update;
+    private final List<MapSqlParameterSource> executions;
+    private final String[] columns;
+    private final String[] prefixedColumns;
+
+    public StagingTableUpdateConnectionCallback(SimpleJdbcCallsHandler handler,
+            StagingTableUpdate update,
+            List<MapSqlParameterSource> executions) {
+        this.update = update;
+        this.executions = executions;
+        String paramNamePrefix = handler.getDialect().getParamNamePrefix();
+        columns = update.getColumns();
+        prefixedColumns = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            prefixedColumns[i] = paramNamePrefix + columns[i];
+        }
+    }
+
+    @Override
+    public Boolean doInConnection(Connection con) throws SQLException, DataAccessException {
+        if (!con.isWrapperFor(PGConnection.class)) {
+            log.debug("Connection does not support COPY, can't update '{}' through its staging table",
+                    update.getTableName());
+            return false;
+        }
+
+        UUID batchId = UUID.randomUUID();
+        try {
+            copy(con.unwrap(PGConnection.class), batchId);
+            log.debug("Copied {} rows of '{}' as batch '{}'", executions.size(), update.getTableName(), batchId);
+
+            try (CallableStatement stmt = con.prepareCall("{call " + update.getApplyProcedureName() + "(?)}")) {
+                stmt.setObject(1, batchId);
+                stmt.execute();
+            }
+            log.debug("Applied batch '{}'", batchId);
+        } catch (SQLException | RuntimeException e) {
+            log.error("Can't update '{}' through its staging table: {}", update.getTableName(), e.getMessage());
+            log.debug("Exception", e);
+            discard(con, batchId);
+            throw e;
+        }
+
+        return true;
+    }
+
+    private void copy(PGConnection con, UUID batchId) throws SQLException {
+        CopyIn copyIn = con.getCopyAPI().copyIn(update.getCopySql());
+        try {
+            String batch = batchId.toString();
+            StringBuilder rows = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+            for (MapSqlParameterSource execution : executions) {
+                appendRow(rows, batch, execution.getValues());
+                if (rows.length() >= COPY_BUFFER_SIZE) {
+                    write(copyIn, rows);
+                }
+            }
+            write(copyIn, rows);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder rows) throws SQLException {
+        if (rows.length() > 0) {
+            byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            rows.setLength(0);
+        }
+    }
+
+    private void appendRow(StringBuilder rows, String batchId, Map<String, Object> values) {
+        rows.append(batchId);
+        for (int i = 0; i < columns.length; i++) {
+            Object value = values.get(prefixedColumns[i]);
+            if (value == null) {
+                value = values.get(columns[i]);
+            }
+            rows.append('\t');
+            appendValue(rows, StoredProcedureParametersBinder.convertValue(value));
+        }
+        rows.append('\n');
+    }
+
+    /**
+     * Appends a value in the text format of {@code COPY}
+     */
+    private static void appendValue(StringBuilder rows, Object value) {
+        if (value == null) {
+            rows.append("\\N");
+            return;
+        }
+
+        String text;
+        if (value instanceof Boolean) {
+            text = (Boolean) value ? "t" : "f";
+        } else if (value instanceof Date && !(value instanceof Timestamp)) {
+            text = new Timestamp(((Date) value).getTime()).toString();
+        } else {
+            text = value.toString();
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '\\':
+                rows.append("\\\\");
+                break;
+            case '\t':
+                rows.append("\\t");
+                break;
+            case '\n':
+                rows.append("\\n");
+                break;
+            case '\r':
+                rows.append("\\r");
+                break;
+            default:
+                rows.append(c);
+            }
+        }
+    }
+
+    /**
+     * Removes the rows of a failed batch which were already committed to the staging table, this is only the case when
+     * the update is not running in a transaction, otherwise they are removed by its rollback and this fails silently
+     */
+    private void discard(Connection con, UUID batchId) {
+        String sql = "DELETE FROM " + update.getStagingTableName() + " WHERE batch_id = ?";
+        try (PreparedStatement stmt = con.prepareStatement(sql)) {
+            stmt.setObject(1, batchId);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            log.debug("Can't discard batch '{}' of '{}': {}", batchId, update.getTableName(), e.getMessage());
+        }
+    }
+}
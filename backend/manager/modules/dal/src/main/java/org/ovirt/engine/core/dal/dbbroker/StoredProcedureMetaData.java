@@ -7,6 +7,7 @@ public class StoredProcedureMetaData {
     private String dbName;
     private String sqlCommand;
     private Map<String, SqlCallParameter> paramatersMetaData;
+    private StoredProcedureParametersBinder parametersBinder;
 
     public String getSchemaName() {
         return schemaName;
@@ -41,4 +42,12 @@ public class StoredProcedureMetaData {
         this.paramatersMetaData = paramatersMetaData;
     }
 
+    public StoredProcedureParametersBinder getParametersBinder() {
+        return parametersBinder;
+    }
+
+    public void setParametersBinder(StoredProcedureParametersBinder parametersBinder) {
+        this.parametersBinder = parametersBinder;
+    }
+
 }
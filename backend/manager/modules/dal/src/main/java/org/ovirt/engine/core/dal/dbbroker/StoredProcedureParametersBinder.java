@@ -0,0 +1,129 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.SerializationFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Binds the parameters of a stored procedure call to a statement. The binder is compiled once per stored procedure
+ * from its meta data: the parameters are kept in their ordinal order together with their JDBC type and the names
+ * they may be passed by, and the conversion of a value is resolved once per value class, so binding a row involves
+ * neither reflection nor string manipulation.
+ */
+public final class StoredProcedureParametersBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(StoredProcedureParametersBinder.class);
+
+    private static final ClassValue<UnaryOperator<Object>> VALUE_CONVERTERS = new ClassValue<UnaryOperator<Object>>() {
+        @Override
+        protected UnaryOperator<Object> computeValue(Class<?> type) {
+            if (Enum.class.isAssignableFrom(type)) {
+                return enumValueConverter(type);
+            }
+            if (Guid.class.isAssignableFrom(type)) {
+                return value -> ((Guid) value).getUuid();
+            }
+            if (Map.class.isAssignableFrom(type)) {
+                return value -> SerializationFactory.getSerializer().serialize(value);
+            }
+            return UnaryOperator.identity();
+        }
+    };
+
+    private final Parameter[] parameters;
+
+    public StoredProcedureParametersBinder(Collection<SqlCallParameter> parameters, String paramNamePrefix) {
+        this.parameters = parameters.stream()
+                .sorted(Comparator.comparingInt(SqlCallParameter::getOrdinal))
+                .map(parameter -> new Parameter(parameter, paramNamePrefix))
+                .toArray(Parameter[]::new);
+    }
+
+    public void bind(PreparedStatement stmt, Map<String, Object> values) throws SQLException {
+        for (Parameter parameter : parameters) {
+            Object value = values.get(parameter.name);
+            if (value == null && parameter.unprefixedName != null) {
+                value = values.get(parameter.unprefixedName);
+            }
+            value = value != null ? parameter.convert(value) : parameter.nullValue;
+
+            try {
+                stmt.setObject(parameter.ordinal, value);
+            } catch (Exception e) {
+                log.error("Can't map '{}' of type '{}' to type '{}', mapping to null value for parameter '{}'.",
+                        value,
+                        value != null ? value.getClass().getName() : null,
+                        parameter.dataType,
+                        parameter.name);
+                stmt.setObject(parameter.ordinal, null);
+            }
+        }
+    }
+
+    /**
+     * Converts a parameter value to the value stored in the database, the same way it is converted when bound
+     */
+    static Object convertValue(Object value) {
+        return value != null ? VALUE_CONVERTERS.get(value.getClass()).apply(value) : null;
+    }
+
+    private static UnaryOperator<Object> enumValueConverter(Class<?> type) {
+        try {
+            Method method = type.getMethod("getValue");
+            MethodHandle handle = MethodHandles.publicLookup()
+                    .unreflect(method)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            return value -> {
+                try {
+                    return handle.invokeExact(value);
+                } catch (Throwable t) {
+                    log.error("Error mapping enum type '{}': {}", value, t.getMessage());
+                    log.debug("Exception", t);
+                    return value;
+                }
+            };
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            log.error("Error mapping enum type '{}': {}", type.getName(), ex.getMessage());
+            log.debug("Exception", ex);
+            return UnaryOperator.identity();
+        }
+    }
+
+    private static class Parameter {
+        private final int ordinal;
+        private final String name;
+        private final String unprefixedName;
+        private final int dataType;
+        private final boolean timestamp;
+        private final Object nullValue;
+
+        Parameter(SqlCallParameter parameter, String paramNamePrefix) {
+            ordinal = parameter.getOrdinal();
+            name = parameter.getName();
+            unprefixedName = name.startsWith(paramNamePrefix) ? name.substring(paramNamePrefix.length()) : null;
+            dataType = parameter.getDataType();
+            timestamp = dataType == Types.TIMESTAMP;
+            nullValue = dataType == Types.BOOLEAN || dataType == Types.BIT ? Boolean.FALSE : null;
+        }
+
+        Object convert(Object value) {
+            Object converted = convertValue(value);
+            return timestamp ? new Timestamp(((Date) converted).getTime()) : converted;
+        }
+    }
+}
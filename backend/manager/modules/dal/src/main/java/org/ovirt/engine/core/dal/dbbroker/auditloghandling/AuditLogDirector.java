@@ -1,11 +1,14 @@
 package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
 
 import java.text.MessageFormat;
+import java.util.EnumSet;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.apache.commons.lang.StringUtils;
+import org.ovirt.engine.core.common.AuditLogSeverity;
 import org.ovirt.engine.core.common.AuditLogType;
 import org.ovirt.engine.core.common.businessentities.AuditLog;
 import org.ovirt.engine.core.dao.AuditLogDao;
@@ -17,9 +20,18 @@ import org.slf4j.LoggerFactory;
 public class AuditLogDirector {
     private static final Logger log = LoggerFactory.getLogger(AuditLogDirector.class);
     private static final int USERNAME_LENGTH = 255;
+    /**
+     * The events which are read back right after they are logged, the quiet time between power management operations
+     * on a host is measured from the last of them, so they are never written behind nor dropped
+     */
+    private static final Set<AuditLogType> SYNC_LOG_TYPES = EnumSet.of(AuditLogType.USER_VDS_RESTART,
+            AuditLogType.USER_VDS_START,
+            AuditLogType.USER_VDS_STOP);
 
     @Inject
     private AuditLogDao auditLogDao;
+    @Inject
+    private AuditLogWriteBehindQueue auditLogWriteBehindQueue;
 
     public void log(AuditLogable auditLogable, AuditLogType logType) {
         log(auditLogable, logType, "", false);
@@ -45,22 +57,43 @@ public class AuditLogDirector {
      *            the indication if ignore the time limit set for log or not in special cases
      */
     public void log(AuditLogable auditLogable, AuditLogType logType, String message, boolean ignoreTimeout) {
+        log(auditLogable, logType, message, ignoreTimeout, false);
+    }
+
+    /**
+     * Log an event with the given message and write it to the database before returning, unlike the other methods
+     * which may leave it to be written behind. Meant for callers which read the event right after logging it.
+     *
+     * @return the saved event, with its id set, or {@code null} if the event was not logged
+     */
+    public AuditLog logSync(AuditLogable auditLogable, AuditLogType logType, String message) {
+        return log(auditLogable, logType, message, false, true);
+    }
+
+    private AuditLog log(AuditLogable auditLogable,
+            AuditLogType logType,
+            String message,
+            boolean ignoreTimeout,
+            boolean sync) {
         if (!logType.shouldBeLogged()) {
-            return;
+            return null;
         }
 
         EventFloodRegulator eventFloodRegulator = new EventFloodRegulator(auditLogable, logType);
-        if (eventFloodRegulator.isLegal(ignoreTimeout)) {
-            AuditLog savedAuditLog = saveToDb(auditLogable, logType, message);
-            if (savedAuditLog == null) {
-                log.warn("Unable to create AuditLog");
-            } else {
-                logMessage(savedAuditLog);
-            }
+        if (!eventFloodRegulator.isLegal(ignoreTimeout)) {
+            return null;
+        }
+
+        AuditLog savedAuditLog = saveToDb(auditLogable, logType, message, sync);
+        if (savedAuditLog == null) {
+            log.warn("Unable to create AuditLog");
+        } else {
+            logMessage(savedAuditLog);
         }
+        return savedAuditLog;
     }
 
-    private AuditLog saveToDb(AuditLogable auditLogable, AuditLogType logType, String loggerString) {
+    private AuditLog saveToDb(AuditLogable auditLogable, AuditLogType logType, String loggerString, boolean sync) {
         AuditLog auditLog = create(auditLogable, logType, loggerString);
 
         if (auditLog == null) {
@@ -71,13 +104,29 @@ public class AuditLogDirector {
         // truncate user name
         auditLog.setUserName(StringUtils.abbreviate(auditLog.getUserName(), USERNAME_LENGTH));
 
-        TransactionSupport.executeInNewTransaction(() -> {
-            auditLogDao.save(auditLog);
-            return null;
-        });
+        if (sync || !writeBehind(auditLog)) {
+            TransactionSupport.executeInNewTransaction(() -> {
+                auditLogDao.save(auditLog);
+                return null;
+            });
+        }
         return auditLog;
     }
 
+    /**
+     * Alerts are not written behind, the database does not add an alert which is already shown and the
+     * {@link AlertDirector} removes alerts right away, so they have to be written in the order they are raised. Neither
+     * are the power management events in {@link #SYNC_LOG_TYPES}.
+     *
+     * @return {@code true} if the event is handled by the write behind queue
+     */
+    private boolean writeBehind(AuditLog auditLog) {
+        return auditLog.getSeverity() != AuditLogSeverity.ALERT
+                && !SYNC_LOG_TYPES.contains(auditLog.getLogType())
+                && auditLogWriteBehindQueue.isEnabled()
+                && auditLogWriteBehindQueue.offer(auditLog);
+    }
+
     private void logMessage(AuditLog auditLog) {
         String logMessage = getMessageToLog(auditLog);
         switch (auditLog.getSeverity()) {
@@ -0,0 +1,211 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.common.AuditLogSeverity;
+import org.ovirt.engine.core.common.businessentities.AuditLog;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.dao.AuditLogDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the events logged by the {@link AuditLogDirector} behind it. The events wait in a bounded queue and are
+ * written in batches of {@link ConfigValues#AuditLogWriteBehindBatchSize} every
+ * {@link ConfigValues#AuditLogWriteBehindIntervalInMilliseconds}, or as soon as a batch is waiting.
+ * <p>
+ * When {@link ConfigValues#AuditLogWriteBehindQueueSize} events are waiting, normal events are dropped from the
+ * database, they are still written to the engine log, and the other events are left to be written by the logging
+ * thread. The events waiting when the engine stops are written before it does.
+ */
+@Singleton
+public class AuditLogWriteBehindQueue implements AuditLogWriteBehindQueueMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriteBehindQueue.class);
+
+    @Inject
+    private AuditLogDao auditLogDao;
+    @Inject
+    @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
+    private ManagedScheduledExecutorService schedulerService;
+
+    /** Serializes the flushes, so the events are written in the order they were logged **/
+    private final Lock writeLock = new ReentrantLock();
+    private final AtomicBoolean flushSubmitted = new AtomicBoolean();
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    private BlockingQueue<AuditLog> pendingEvents;
+    private long flushIntervalMillis;
+    private int batchSize;
+    private ScheduledFuture<?> flushJob;
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    @PostConstruct
+    void init() {
+        flushIntervalMillis = Config.<Integer> getValue(ConfigValues.AuditLogWriteBehindIntervalInMilliseconds);
+        batchSize = Config.<Integer> getValue(ConfigValues.AuditLogWriteBehindBatchSize);
+        pendingEvents = new ArrayBlockingQueue<>(Config.<Integer> getValue(ConfigValues.AuditLogWriteBehindQueueSize));
+        if (isEnabled()) {
+            flushJob = schedulerService.scheduleWithFixedDelay(this::flush,
+                    flushIntervalMillis,
+                    flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+            log.info("Writing the events every {} ms", flushIntervalMillis);
+        }
+
+        try {
+            objectName = new ObjectName("AuditLogWriteBehindQueue:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (flushJob != null) {
+            flushJob.cancel(false);
+        }
+        flush();
+
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during unregistration of Monitoring into JMX:" + e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return flushIntervalMillis > 0;
+    }
+
+    /**
+     * Queues the given event to be written behind
+     *
+     * @return {@code false} if the queue is full and the event is to be written by the caller, {@code true} if the
+     *         event was queued or dropped
+     */
+    public boolean offer(AuditLog auditLog) {
+        if (!pendingEvents.offer(auditLog)) {
+            if (auditLog.getSeverity() == AuditLogSeverity.NORMAL) {
+                dropped.increment();
+                return true;
+            }
+            overflows.increment();
+            return false;
+        }
+
+        queued.increment();
+        if (pendingEvents.size() >= batchSize && flushSubmitted.compareAndSet(false, true)) {
+            schedulerService.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushSubmitted.set(false);
+                }
+            });
+        }
+        return true;
+    }
+
+    @Override
+    public void flush() {
+        writeLock.lock();
+        try {
+            List<AuditLog> batch = new ArrayList<>(batchSize);
+            while (pendingEvents.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+            flushes.increment();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        try {
+            auditLogDao.saveAllInBatch(batch);
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to write a batch of {} events: {}", batch.size(), e.getMessage());
+            log.debug("Exception", e);
+            // a single event which can't be written must not take the rest of the batch with it
+            batch.forEach(this::writeOne);
+        }
+    }
+
+    private void writeOne(AuditLog auditLog) {
+        try {
+            auditLogDao.save(auditLog);
+            written.increment();
+        } catch (RuntimeException e) {
+            log.error("Failed to write event '{}': {}", auditLog.getLogType(), e.getMessage());
+            log.debug("Exception", e);
+            failed.increment();
+        }
+    }
+
+    @Override
+    public int getPendingCount() {
+        return pendingEvents.size();
+    }
+
+    @Override
+    public long getQueuedCount() {
+        return queued.sum();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public long getOverflowCount() {
+        return overflows.sum();
+    }
+
+    @Override
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @Override
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+}
@@ -0,0 +1,47 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface AuditLogWriteBehindQueueMXBean {
+
+    /**
+     * The following method will return the number of events waiting to be written
+     */
+    int getPendingCount();
+
+    /**
+     * The following method will return the number of events handed to the queue
+     */
+    long getQueuedCount();
+
+    /**
+     * The following method will return the number of normal events dropped since the queue was full
+     */
+    long getDroppedCount();
+
+    /**
+     * The following method will return the number of events written by the logging thread since the queue was full
+     */
+    long getOverflowCount();
+
+    /**
+     * The following method will return the number of events written to the database
+     */
+    long getWrittenCount();
+
+    /**
+     * The following method will return the number of events which failed to be written to the database
+     */
+    long getFailedCount();
+
+    /**
+     * The following method will return the number of flushes
+     */
+    long getFlushCount();
+
+    /**
+     * The following method will write all the events waiting to be written
+     */
+    void flush();
+}
@@ -0,0 +1,181 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.common.BackendService;
+
+/**
+ * Keeps the events which are not to be logged again until their flood rate passes, see {@link EventFloodRegulator}.
+ * <p>
+ * The time each event may be logged again is kept in a map, so checking an event and suppressing it is a single
+ * lookup. The events are also put in a timing wheel, a ring of one second slots in which each event waits in the slot
+ * of the second it may be logged again in, and the slots which pass are swept by the logging threads to forget the
+ * events whose time passed. Events suppressed for longer than the wheel spans stay in their slot until the wheel
+ * goes around enough times.
+ */
+@Singleton
+public class EventFloodControl implements BackendService, EventFloodControlMXBean {
+
+    private static final long TICK_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final int WHEEL_SIZE = 512;
+
+    private static EventFloodControl instance;
+
+    private final LongSupplier clock;
+    private final ConcurrentMap<EventFloodKey, Long> suppressedUntil = new ConcurrentHashMap<>();
+    private final Queue<EventFloodKey>[] wheel;
+    private final AtomicLong sweptTick;
+    private final AtomicLongArray suppressedByType = new AtomicLongArray(AuditLogType.values().length);
+
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    public EventFloodControl() {
+        this(() -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    @SuppressWarnings("unchecked")
+    EventFloodControl(LongSupplier clock) {
+        this.clock = clock;
+        wheel = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        sweptTick = new AtomicLong(Math.floorDiv(clock.getAsLong(), TICK_MILLIS) - 1);
+    }
+
+    @PostConstruct
+    private void init() {
+        instance = this;
+        try {
+            objectName = new ObjectName("EventFloodControl:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during unregistration of Monitoring into JMX:" + e);
+        }
+    }
+
+    public static EventFloodControl getInstance() {
+        return instance;
+    }
+
+    /**
+     * Checks whether the given event may be logged, and if so suppresses it for the given time
+     *
+     * @return {@code true} if the event may be logged
+     */
+    boolean tryLog(EventFloodKey key, long floodRateMillis) {
+        long now = clock.getAsLong();
+        sweep(now);
+
+        long until = now + floodRateMillis;
+        Long previousUntil = suppressedUntil.putIfAbsent(key, until);
+        if (previousUntil != null && (previousUntil > now || !suppressedUntil.replace(key, previousUntil, until))) {
+            suppressedByType.incrementAndGet(key.getLogType().ordinal());
+            return false;
+        }
+
+        wheel[slotOf(until)].add(key);
+        return true;
+    }
+
+    /**
+     * Lets the given event be logged again right away
+     */
+    void evict(EventFloodKey key) {
+        suppressedUntil.remove(key);
+    }
+
+    /**
+     * Sweeps the slots of the wheel which passed since the previous sweep. Only one thread sweeps them, the others
+     * carry on with logging.
+     */
+    private void sweep(long now) {
+        // the slot of the current second is swept once the second passes
+        long tick = Math.floorDiv(now, TICK_MILLIS) - 1;
+        long previousTick = sweptTick.get();
+        if (tick <= previousTick || !sweptTick.compareAndSet(previousTick, tick)) {
+            return;
+        }
+
+        long lastTick = Math.min(tick, previousTick + WHEEL_SIZE);
+        for (long t = previousTick + 1; t <= lastTick; t++) {
+            sweep(wheel[Math.floorMod(t, WHEEL_SIZE)], now);
+        }
+    }
+
+    private void sweep(Queue<EventFloodKey> slot, long now) {
+        for (Iterator<EventFloodKey> iterator = slot.iterator(); iterator.hasNext();) {
+            EventFloodKey key = iterator.next();
+            Long until = suppressedUntil.get(key);
+            if (until == null) {
+                iterator.remove();
+            } else if (until <= now) {
+                suppressedUntil.remove(key, until);
+                iterator.remove();
+            } else if (wheel[slotOf(until)] != slot) {
+                // the event was logged again after it was put in this slot, it waits in another one now
+                iterator.remove();
+            }
+        }
+    }
+
+    private static int slotOf(long millis) {
+        return Math.floorMod(Math.floorDiv(millis, TICK_MILLIS), WHEEL_SIZE);
+    }
+
+    @Override
+    public int getSuppressingEventCount() {
+        return suppressedUntil.size();
+    }
+
+    @Override
+    public long getSuppressedCount() {
+        long count = 0;
+        for (int i = 0; i < suppressedByType.length(); i++) {
+            count += suppressedByType.get(i);
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, Long> getSuppressedCountByType() {
+        Map<String, Long> counts = new TreeMap<>();
+        AuditLogType[] types = AuditLogType.values();
+        for (int i = 0; i < types.length; i++) {
+            long count = suppressedByType.get(i);
+            if (count > 0) {
+                counts.put(types[i].name(), count);
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,25 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.util.Map;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface EventFloodControlMXBean {
+
+    /**
+     * The following method will return the number of events which are not logged again until their flood rate passes
+     */
+    int getSuppressingEventCount();
+
+    /**
+     * The following method will return the number of events which were not logged since their flood rate did not pass
+     */
+    long getSuppressedCount();
+
+    /**
+     * The following method will return the number of events which were not logged since their flood rate did not
+     * pass, by the name of their type, for the types which had any
+     */
+    Map<String, Long> getSuppressedCountByType();
+}
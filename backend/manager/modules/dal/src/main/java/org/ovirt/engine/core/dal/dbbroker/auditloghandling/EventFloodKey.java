@@ -0,0 +1,85 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.util.Objects;
+
+import org.apache.commons.lang.StringUtils;
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * Identifies the events which are flood controlled together, the events of the same type on the same entities: the
+ * storage domain, data center, user, cluster, host, VM, template and custom id of the event. An empty id is the same
+ * as no id.
+ */
+final class EventFloodKey {
+
+    private final AuditLogType logType;
+    private final Guid storageDomainId;
+    private final Guid storagePoolId;
+    private final Guid userId;
+    private final Guid clusterId;
+    private final Guid vdsId;
+    private final Guid vmId;
+    private final Guid vmTemplateId;
+    private final String customId;
+    private final int hash;
+
+    EventFloodKey(AuditLogable event, AuditLogType logType) {
+        this.logType = logType;
+        storageDomainId = emptyGuidToNull(event.getStorageDomainId());
+        storagePoolId = emptyGuidToNull(event.getStoragePoolId());
+        userId = emptyGuidToNull(event.getUserId());
+        clusterId = emptyGuidToNull(event.getClusterId());
+        vdsId = emptyGuidToNull(event.getVdsId());
+        vmId = emptyGuidToNull(event.getVmId());
+        vmTemplateId = emptyGuidToNull(event.getVmTemplateId());
+        customId = StringUtils.defaultString(event.getCustomId());
+        hash = computeHash();
+    }
+
+    AuditLogType getLogType() {
+        return logType;
+    }
+
+    private int computeHash() {
+        int result = logType.hashCode();
+        result = 31 * result + Objects.hashCode(storageDomainId);
+        result = 31 * result + Objects.hashCode(storagePoolId);
+        result = 31 * result + Objects.hashCode(userId);
+        result = 31 * result + Objects.hashCode(clusterId);
+        result = 31 * result + Objects.hashCode(vdsId);
+        result = 31 * result + Objects.hashCode(vmId);
+        result = 31 * result + Objects.hashCode(vmTemplateId);
+        return 31 * result + customId.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof EventFloodKey)) {
+            return false;
+        }
+        EventFloodKey other = (EventFloodKey) obj;
+        return hash == other.hash
+                && logType == other.logType
+                && Objects.equals(storageDomainId, other.storageDomainId)
+                && Objects.equals(storagePoolId, other.storagePoolId)
+                && Objects.equals(userId, other.userId)
+                && Objects.equals(clusterId, other.clusterId)
+                && Objects.equals(vdsId, other.vdsId)
+                && Objects.equals(vmId, other.vmId)
+                && Objects.equals(vmTemplateId, other.vmTemplateId)
+                && customId.equals(other.customId);
+    }
+
+    private static Guid emptyGuidToNull(Guid guid) {
+        return Guid.isNullOrEmpty(guid) ? null : guid;
+    }
+}
@@ -3,15 +3,12 @@ package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
 import java.util.concurrent.TimeUnit;
 
 import org.ovirt.engine.core.common.AuditLogType;
-import org.ovirt.engine.core.dal.utils.CacheManager;
 
 public class EventFloodRegulator {
 
     private final AuditLogable event;
     private final AuditLogType logType;
-    private boolean useTimeout;
-    private long endTime;
-    private String timeoutObjectId;
+    private long floodRateMillis;
 
     public EventFloodRegulator(AuditLogable event, AuditLogType logType) {
         this.event = event;
@@ -26,14 +23,8 @@ public class EventFloodRegulator {
      * @return should the action be logged again
      */
     public boolean isLegal(boolean ignoreTimeout) {
-        if (useTimeout && !ignoreTimeout) {
-            String key = "".equals(timeoutObjectId) ? logType.toString() : timeoutObjectId;
-            String oldValue = CacheManager.getTimeoutBaseCache().putIfAbsent(
-                    key,
-                    key,
-                    endTime,
-                    TimeUnit.MILLISECONDS);
-            return oldValue == null;
+        if (floodRateMillis > 0 && !ignoreTimeout) {
+            return EventFloodControl.getInstance().tryLog(createKey(), floodRateMillis);
         }
         return true;
     }
@@ -45,24 +36,14 @@ public class EventFloodRegulator {
         int eventFloodRate = (event.isExternal() && event.getEventFloodInSec() == 0)
                 ? 30 // Minimal default duration for External Events is 30 seconds.
                 : logType.getEventFloodRate();
-        if (eventFloodRate > 0) {
-            setEndTime(TimeUnit.SECONDS.toMillis(eventFloodRate));
-            timeoutObjectId = composeObjectId();
-        } else {
-            timeoutObjectId = "";
-        }
+        floodRateMillis = TimeUnit.SECONDS.toMillis(Math.max(eventFloodRate, 0));
     }
 
-    private String composeObjectId() {
-        return EventKeyComposer.composeObjectId(event, logType);
+    private EventFloodKey createKey() {
+        return new EventFloodKey(event, logType);
     }
 
     public void evict() {
-        CacheManager.getTimeoutBaseCache().computeIfPresent(composeObjectId(), (k, v) -> null);
-    }
-
-    private void setEndTime(long value) {
-        useTimeout = true;
-        endTime = value;
+        EventFloodControl.getInstance().evict(createKey());
     }
 }
@@ -0,0 +1,121 @@
+package org.ovirt.engine.core.dal.dbbroker.generic;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ovirt.engine.core.common.config.ConfigCommon;
+import org.ovirt.engine.core.common.config.ConfigValues;
+
+/**
+ * An immutable snapshot of the configuration values, indexed by the ordinal of their {@link ConfigValues}. The values
+ * of the default configuration version, which most of the options only have, are kept in an array of their own, and
+ * the integer, long and boolean ones also unboxed, so they are read without a map lookup.
+ */
+final class ConfigValuesSnapshot {
+
+    static final ConfigValuesSnapshot EMPTY = new ConfigValuesSnapshot(Collections.emptyMap());
+
+    private static final byte NO_VALUE = 0;
+    private static final byte OBJECT = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte BOOLEAN = 4;
+
+    private final Map<String, Object>[] valuesByVersion;
+    private final byte[] defaultValueTypes;
+    private final Object[] defaultValues;
+    private final int[] intValues;
+    private final long[] longValues;
+    private final boolean[] booleanValues;
+
+    @SuppressWarnings("unchecked")
+    ConfigValuesSnapshot(Map<ConfigValues, Map<String, Object>> values) {
+        int size = ConfigValues.values().length;
+        valuesByVersion = new Map[size];
+        defaultValueTypes = new byte[size];
+        defaultValues = new Object[size];
+        intValues = new int[size];
+        longValues = new long[size];
+        booleanValues = new boolean[size];
+
+        values.forEach((configValue, versions) -> {
+            int index = configValue.ordinal();
+            valuesByVersion[index] = Collections.unmodifiableMap(new HashMap<>(versions));
+            if (versions.containsKey(ConfigCommon.defaultConfigurationVersion)) {
+                setDefaultValue(index, versions.get(ConfigCommon.defaultConfigurationVersion));
+            }
+        });
+    }
+
+    private void setDefaultValue(int index, Object value) {
+        defaultValues[index] = value;
+        if (value instanceof Integer) {
+            defaultValueTypes[index] = INTEGER;
+            intValues[index] = (Integer) value;
+        } else if (value instanceof Long) {
+            defaultValueTypes[index] = LONG;
+            longValues[index] = (Long) value;
+        } else if (value instanceof Boolean) {
+            defaultValueTypes[index] = BOOLEAN;
+            booleanValues[index] = (Boolean) value;
+        } else {
+            defaultValueTypes[index] = OBJECT;
+        }
+    }
+
+    Map<String, Object> getValuesForAllVersions(ConfigValues configValue) {
+        return valuesByVersion[configValue.ordinal()];
+    }
+
+    boolean valueExists(ConfigValues configValue, String version) {
+        if (ConfigCommon.defaultConfigurationVersion.equals(version)) {
+            return defaultValueTypes[configValue.ordinal()] != NO_VALUE;
+        }
+        Map<String, Object> values = valuesByVersion[configValue.ordinal()];
+        return values != null && values.containsKey(version);
+    }
+
+    Object getValue(ConfigValues configValue, String version) {
+        if (ConfigCommon.defaultConfigurationVersion.equals(version)) {
+            int index = configValue.ordinal();
+            if (defaultValueTypes[index] != NO_VALUE) {
+                return defaultValues[index];
+            }
+        } else if (valueExists(configValue, version)) {
+            return valuesByVersion[configValue.ordinal()].get(version);
+        }
+        throw noValue(configValue, version);
+    }
+
+    int getIntValue(ConfigValues configValue) {
+        checkDefaultValueType(configValue, INTEGER);
+        return intValues[configValue.ordinal()];
+    }
+
+    long getLongValue(ConfigValues configValue) {
+        checkDefaultValueType(configValue, LONG);
+        return longValues[configValue.ordinal()];
+    }
+
+    boolean getBooleanValue(ConfigValues configValue) {
+        checkDefaultValueType(configValue, BOOLEAN);
+        return booleanValues[configValue.ordinal()];
+    }
+
+    private void checkDefaultValueType(ConfigValues configValue, byte type) {
+        byte actualType = defaultValueTypes[configValue.ordinal()];
+        if (actualType == type) {
+            return;
+        }
+        if (actualType == NO_VALUE) {
+            throw noValue(configValue, ConfigCommon.defaultConfigurationVersion);
+        }
+        throw new IllegalArgumentException(configValue.toString() + " has a value of another type: "
+                + defaultValues[configValue.ordinal()]);
+    }
+
+    private static IllegalArgumentException noValue(ConfigValues configValue, String version) {
+        return new IllegalArgumentException(configValue.toString() + " has no value for version: " + version);
+    }
+}
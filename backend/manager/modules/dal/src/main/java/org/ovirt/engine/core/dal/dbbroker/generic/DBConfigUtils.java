@@ -6,6 +6,7 @@ import java.lang.reflect.Field;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -24,7 +25,6 @@ import org.ovirt.engine.core.common.config.ConfigCommon;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.config.IConfigUtilsInterface;
 import org.ovirt.engine.core.common.config.OptionBehaviourAttribute;
-import org.ovirt.engine.core.common.config.Reloadable;
 import org.ovirt.engine.core.common.config.TypeConverterAttribute;
 import org.ovirt.engine.core.compat.Version;
 import org.ovirt.engine.core.dao.VdcOptionDao;
@@ -38,7 +38,7 @@ public class DBConfigUtils implements IConfigUtilsInterface {
     private static final Logger log = LoggerFactory.getLogger(DBConfigUtils.class);
 
     private static final String TEMP = "Temp";
-    private final Map<String, Map<String, Object>> _vdcOptionCache = new HashMap<>();
+    private volatile ConfigValuesSnapshot snapshot = ConfigValuesSnapshot.EMPTY;
 
     @Inject
     private VdcOptionDao vdcOptionDao;
@@ -126,58 +126,61 @@ public class DBConfigUtils implements IConfigUtilsInterface {
     }
 
     /**
-     * Refreshes the VDC option cache.
+     * Refreshes the VDC option cache. The values are read into a new snapshot which replaces the current one once it
+     * is complete, so the values are never read while they are refreshed.
      */
     @PostConstruct
     public void refresh() {
-        _vdcOptionCache.clear();
-        List<VdcOption> list = moveDependentToEnd(vdcOptionDao.getAll());
-        for (VdcOption option : list) {
-            try {
-                if (!_vdcOptionCache.containsKey(option.getOptionName()) ||
-                        !_vdcOptionCache.get(option.getOptionName()).containsKey(option.getVersion()) ||
-                        isReloadable(option.getOptionName())) {
-                    updateOption(option);
-                }
-            } catch (NoSuchFieldException e) {
-                log.error("Not refreshing field '{}': does not exist in class {}.", option.getOptionName(),
-                        ConfigValues.class.getSimpleName());
+        Map<ConfigValues, Map<String, Object>> values = new EnumMap<>(ConfigValues.class);
+        for (VdcOption option : moveDependentToEnd(vdcOptionDao.getAll())) {
+            ConfigValues configValue = toConfigValue(option.getOptionName());
+            if (configValue != null) {
+                values.computeIfAbsent(configValue, k -> new HashMap<>())
+                        .put(option.getVersion(), getValue(option, values));
             }
         }
+        snapshot = new ConfigValuesSnapshot(values);
+    }
+
+    private static ConfigValues toConfigValue(String optionName) {
+        try {
+            return ConfigValues.valueOf(optionName);
+        } catch (IllegalArgumentException e) {
+            // options which are not in the enum, e.g. temporary values inserted by upgrades, are never read
+            return null;
+        }
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> Map<String, T> getValuesForAllVersions(ConfigValues configValue) {
-        return (Map<String, T>) _vdcOptionCache.get(configValue.toString());
+        return (Map<String, T>) snapshot.getValuesForAllVersions(configValue);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T getValue(ConfigValues name, String version) {
-        Map<String, T> values = getValuesForAllVersions(name);
-        if (valueExists(name, version)) {
-            return values.get(version);
-        }
-        throw new IllegalArgumentException(name.toString() + " has no value for version: " + version);
+        return (T) snapshot.getValue(name, version);
     }
 
     @Override
     public boolean valueExists(ConfigValues configValue, String version) {
-        Map<String, Object> values = getValuesForAllVersions(configValue);
-        return values != null && values.containsKey(version);
+        return snapshot.valueExists(configValue, version);
     }
 
-    private void updateOption(VdcOption option) {
-        Map<String, Object> values = _vdcOptionCache.get(option.getOptionName());
-        if (values == null) {
-            values = new HashMap<>();
-            _vdcOptionCache.put(option.getOptionName(), values);
-        }
-        values.put(option.getVersion(), getValue(option));
+    @Override
+    public int getIntValue(ConfigValues configValue) {
+        return snapshot.getIntValue(configValue);
+    }
+
+    @Override
+    public long getLongValue(ConfigValues configValue) {
+        return snapshot.getLongValue(configValue);
     }
 
-    private static boolean isReloadable(String optionName) throws NoSuchFieldException {
-        return ConfigValues.class.getField(optionName).isAnnotationPresent(Reloadable.class);
+    @Override
+    public boolean getBooleanValue(ConfigValues configValue) {
+        return snapshot.getBooleanValue(configValue);
     }
 
     private List<VdcOption> moveDependentToEnd(List<VdcOption> list) {
@@ -197,8 +200,11 @@ public class DBConfigUtils implements IConfigUtilsInterface {
 
     /**
      * Returns the typed value of the given option. returns default value if option.option_value is null
+     *
+     * @param values
+     *            the values read so far, which the values depending on other values are taken from
      */
-    protected Object getValue(VdcOption option) {
+    protected Object getValue(VdcOption option, Map<ConfigValues, Map<String, Object>> values) {
         Object result = option.getOptionValue();
         EnumValue enumValue = parseEnumValue(option.getOptionName());
         if (enumValue != null) {
@@ -207,7 +213,6 @@ public class DBConfigUtils implements IConfigUtilsInterface {
             result = parseValue(option.getOptionValue(), option.getOptionName(), fieldType);
 
             if (optionBehaviour != null) {
-                Map<String, Object> values = null;
                 switch (optionBehaviour.behaviour()) {
                     // split string by comma for List<string> constructor
                     case CommaSeparatedStringArray:
@@ -224,11 +229,11 @@ public class DBConfigUtils implements IConfigUtilsInterface {
                         break;
                     case ValueDependent:
                         // get the config that this value depends on
-                        String prefix = getValue(optionBehaviour.dependentOn(), ConfigCommon.defaultConfigurationVersion);
+                        String prefix = (String) getDefaultVersionValue(values, optionBehaviour.dependentOn());
                         // combine the prefix with the 'real value'
                         if (prefix != null) {
                             String realName = String.format("%1$s%2$s", prefix, optionBehaviour.realValue());
-                            result = getValue(ConfigValues.valueOf(realName), ConfigCommon.defaultConfigurationVersion);
+                            result = getDefaultVersionValue(values, ConfigValues.valueOf(realName));
                         }
                         break;
                     case CommaSeparatedVersionArray:
@@ -249,6 +254,16 @@ public class DBConfigUtils implements IConfigUtilsInterface {
         return result;
     }
 
+    private static Object getDefaultVersionValue(Map<ConfigValues, Map<String, Object>> values,
+            ConfigValues configValue) {
+        Map<String, Object> versions = values.get(configValue);
+        if (versions == null || !versions.containsKey(ConfigCommon.defaultConfigurationVersion)) {
+            throw new IllegalArgumentException(configValue.toString() + " has no value for version: "
+                    + ConfigCommon.defaultConfigurationVersion);
+        }
+        return versions.get(ConfigCommon.defaultConfigurationVersion);
+    }
+
     public static final class EnumValue {
         final Class<?> fieldType;
         final OptionBehaviourAttribute optionBehaviour;
@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -114,6 +115,14 @@ public interface AuditLogDao extends Dao, SearchDao<AuditLog> {
      */
     void save(AuditLog entry);
 
+    /**
+     * Saves the provided audit logs in a batch, their ids are not set
+     *
+     * @param entries
+     *            the entries
+     */
+    void saveAllInBatch(Collection<AuditLog> entries);
+
     /**
      * Updates the provided audit log entry.
      *
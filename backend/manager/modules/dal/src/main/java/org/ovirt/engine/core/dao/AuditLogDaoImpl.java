@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -102,8 +103,8 @@ public class AuditLogDaoImpl extends BaseDao implements AuditLogDao {
     }
 
     @Override
-    public List<AuditLog> getAllWithQuery(String query) {
-        return getJdbcTemplate().query(query, auditLogRowMapper);
+    public List<AuditLog> getAllWithQuery(String query, Object... parameters) {
+        return queryWithUntypedParameters(query, auditLogRowMapper, parameters);
     }
 
     @Override
@@ -168,6 +169,11 @@ public class AuditLogDaoImpl extends BaseDao implements AuditLogDao {
         event.setAuditLogId((Long) outParameters.get("audit_log_id"));
     }
 
+    @Override
+    public void saveAllInBatch(Collection<AuditLog> events) {
+        getCallsHandler().executeStoredProcAsBatch("InsertAuditLog", events, this::getSqlMapper);
+    }
+
     @Override
     public void update(AuditLog event) {
         throw new UnsupportedOperationException();
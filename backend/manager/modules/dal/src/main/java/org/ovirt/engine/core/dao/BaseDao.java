@@ -4,9 +4,11 @@ import java.sql.Array;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import javax.inject.Inject;
@@ -18,6 +20,7 @@ import org.ovirt.engine.core.dal.dbbroker.DbEngineDialect;
 import org.ovirt.engine.core.dal.dbbroker.SimpleJdbcCallsHandler;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
 
 public abstract class BaseDao {
     protected static final String SEPARATOR = ",";
@@ -67,6 +70,21 @@ public abstract class BaseDao {
         return (rs, rowNum) -> new Guid((UUID) rs.getObject(1));
     }
 
+    /**
+     * Runs the given query, binding the given values to its placeholders. The values are sent with no type so that,
+     * like the literals they stand for, the database infers their type from the expressions they are used in.
+     */
+    protected <T> List<T> queryWithUntypedParameters(String query, RowMapper<T> rowMapper, Object... parameters) {
+        if (parameters.length == 0) {
+            return getJdbcTemplate().query(query, rowMapper);
+        }
+        Object[] untypedParameters = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            untypedParameters[i] = new SqlParameterValue(Types.OTHER, parameters[i]);
+        }
+        return getJdbcTemplate().query(query, rowMapper, untypedParameters);
+    }
+
     protected SimpleJdbcCallsHandler getCallsHandler() {
         return callsHandler;
     }
@@ -108,8 +108,8 @@ public class ClusterDaoImpl extends BaseDao implements ClusterDao {
     }
 
     @Override
-    public List<Cluster> getAllWithQuery(String query) {
-        List<Cluster> clusters = getJdbcTemplate().query(query, clusterRowMapper);
+    public List<Cluster> getAllWithQuery(String query, Object... parameters) {
+        List<Cluster> clusters = queryWithUntypedParameters(query, clusterRowMapper, parameters);
         return getHostsAndVmsForClusters(clusters);
     }
 
@@ -23,6 +23,12 @@ public interface CommandEntityDao extends GenericDao<CommandEntity, Guid> {
 
     List<CommandEntity> getCmdEntitiesByParentCmdId(Guid parentId);
 
+    /**
+     * Returns the commands of all the command trees which still have a command that did not end, either since it is
+     * during execution or since its callback was not notified yet
+     */
+    List<CommandEntity> getAllOfActiveCommandTrees();
+
     List<Guid> getCommandIdsByEntity(Guid entityId);
 
     void insertCommandAssociatedEntities(Collection<CommandAssociatedEntity> cmdAssociatedEntities);
@@ -180,6 +180,13 @@ public class CommandEntityDaoImpl extends DefaultGenericDao<CommandEntity, Guid>
                 parameterSource);
     }
 
+    @Override
+    public List<CommandEntity> getAllOfActiveCommandTrees() {
+        return getCallsHandler().executeReadList("GetAllFromCommandEntitiesOfActiveTrees",
+                mapper,
+                getCustomMapSqlParameterSource());
+    }
+
     @Override
     public List<Guid> getCommandIdsByEntity(Guid entityId) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
@@ -91,8 +91,8 @@ public class DbGroupDaoImpl extends BaseDao implements DbGroupDao {
 
 
     @Override
-    public List<DbGroup> getAllWithQuery(String query) {
-        return getJdbcTemplate().query(query, dbGroupRowMapper);
+    public List<DbGroup> getAllWithQuery(String query, Object... parameters) {
+        return queryWithUntypedParameters(query, dbGroupRowMapper, parameters);
     }
 
     @Override
@@ -12,6 +12,7 @@ import org.ovirt.engine.core.common.businessentities.storage.DiskImageDynamic;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.MapSqlParameterMapper;
+import org.ovirt.engine.core.dal.dbbroker.StagingTableUpdate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -23,6 +24,20 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 public class DiskImageDynamicDaoImpl extends MassOperationsGenericDao<DiskImageDynamic, Guid>
         implements DiskImageDynamicDao {
 
+    private static final StagingTableUpdate STAGING_TABLE_UPDATE = new StagingTableUpdate("disk_image_dynamic",
+            "disk_image_dynamic_staging",
+            "Applydisk_image_dynamic_staging",
+            "vm_id",
+            "image_group_id",
+            "read_rate",
+            "read_ops",
+            "write_rate",
+            "write_ops",
+            "actual_size",
+            "read_latency_seconds",
+            "write_latency_seconds",
+            "flush_latency_seconds");
+
     public DiskImageDynamicDaoImpl() {
         super("disk_image_dynamic");
         setProcedureNameForGet("Getdisk_image_dynamicByimage_id");
@@ -97,6 +112,8 @@ public class DiskImageDynamicDaoImpl extends MassOperationsGenericDao<DiskImageD
     @Override
     public void updateAllDiskImageDynamicWithDiskIdByVmId(Collection<Pair<Guid, DiskImageDynamic>> diskImageDynamicForVm) {
         getCallsHandler().executeStoredProcAsBatch("Updatedisk_image_dynamic_by_disk_id_and_vm_id",
-                sortDiskImageDynamicForUpdate(diskImageDynamicForVm), getBatchImageGroupMapper());
+                STAGING_TABLE_UPDATE,
+                sortDiskImageDynamicForUpdate(diskImageDynamicForVm),
+                getBatchImageGroupMapper());
     }
 }
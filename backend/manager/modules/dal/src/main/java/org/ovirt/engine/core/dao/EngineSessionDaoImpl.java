@@ -92,7 +92,7 @@ public class EngineSessionDaoImpl extends BaseDao implements EngineSessionDao {
     }
 
     @Override
-    public List<EngineSession> getAllWithQuery(String query) {
-        return getJdbcTemplate().query(query, engineSessionRowMapper);
+    public List<EngineSession> getAllWithQuery(String query, Object... parameters) {
+        return queryWithUntypedParameters(query, engineSessionRowMapper, parameters);
     }
 }
@@ -9,6 +9,7 @@ import java.util.List;
 import org.ovirt.engine.core.common.businessentities.BusinessEntity;
 import org.ovirt.engine.core.common.businessentities.comparators.BusinessEntityComparator;
 import org.ovirt.engine.core.dal.dbbroker.MapSqlParameterMapper;
+import org.ovirt.engine.core.dal.dbbroker.StagingTableUpdate;
 
 /**
  * Implementation for the {@link MassOperationsDao} which provides a default
@@ -57,8 +58,24 @@ public abstract class MassOperationsGenericDao<T extends BusinessEntity<ID>, ID
         // To overcome possible deadlocks, we need to sort the collection
         List<T> sortedParamValues = new ArrayList<>(paramValues);
         Collections.sort(sortedParamValues, BusinessEntityComparator.newInstance());
-        getCallsHandler().executeStoredProcAsBatch(procedureName == null ? getProcedureNameForUpdate() : procedureName,
-                sortedParamValues, mapper);
+        if (procedureName == null) {
+            procedureName = getProcedureNameForUpdate();
+        }
+
+        StagingTableUpdate stagingTableUpdate = getStagingTableUpdate();
+        if (stagingTableUpdate != null && procedureName.equals(getProcedureNameForUpdate())) {
+            getCallsHandler().executeStoredProcAsBatch(procedureName, stagingTableUpdate, sortedParamValues, mapper);
+        } else {
+            getCallsHandler().executeStoredProcAsBatch(procedureName, sortedParamValues, mapper);
+        }
+    }
+
+    /**
+     * Returns the staging table the rows updated by {@link #updateAllInBatch(Collection)} may be copied into and
+     * applied from all at once, or {@code null} if the table has none.
+     */
+    protected StagingTableUpdate getStagingTableUpdate() {
+        return null;
     }
 
     @Override
@@ -0,0 +1,19 @@
+package org.ovirt.engine.core.dao;
+
+import java.util.List;
+
+/**
+ * {@code SearchCursorDao} reads the position of an entity in the order of a search that pages by its sort key.
+ */
+public interface SearchCursorDao extends Dao {
+    /**
+     * Retrieves the values of the sort key of an entity.
+     *
+     * @param query
+     *            the query of the sort key generated for the search, with the id of the entity as its only parameter
+     * @param id
+     *            the id of the entity
+     * @return the values of the columns of the query as text, or {@code null} if the entity does not exist
+     */
+    List<String> getSortKey(String query, String id);
+}
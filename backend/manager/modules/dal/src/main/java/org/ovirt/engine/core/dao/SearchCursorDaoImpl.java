@@ -0,0 +1,29 @@
+package org.ovirt.engine.core.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.springframework.jdbc.core.RowMapper;
+
+@Named
+@Singleton
+public class SearchCursorDaoImpl extends BaseDao implements SearchCursorDao {
+
+    private static final RowMapper<List<String>> sortKeyRowMapper = (rs, rowNum) -> {
+        int columnCount = rs.getMetaData().getColumnCount();
+        List<String> values = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            values.add(rs.getString(i));
+        }
+        return values;
+    };
+
+    @Override
+    public List<String> getSortKey(String query, String id) {
+        List<List<String>> rows = queryWithUntypedParameters(query, sortKeyRowMapper, id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+}
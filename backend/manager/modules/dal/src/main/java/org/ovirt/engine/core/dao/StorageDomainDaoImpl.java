@@ -120,8 +120,8 @@ public class StorageDomainDaoImpl extends BaseDao implements StorageDomainDao {
     }
 
     @Override
-    public List<StorageDomain> getAllWithQuery(String query) {
-        return getJdbcTemplate().query(query, storageDomainRowMapper);
+    public List<StorageDomain> getAllWithQuery(String query, Object... parameters) {
+        return queryWithUntypedParameters(query, storageDomainRowMapper, parameters);
     }
 
     @Override
@@ -141,8 +141,8 @@ public class VdsDaoImpl extends BaseDao implements VdsDao {
     }
 
     @Override
-    public List<VDS> getAllWithQuery(String query) {
-        return getJdbcTemplate().query(query, vdsRowMapper);
+    public List<VDS> getAllWithQuery(String query, Object... parameters) {
+        return queryWithUntypedParameters(query, vdsRowMapper, parameters);
     }
 
     @Override
@@ -178,9 +178,11 @@ public interface VmDao extends Dao {
      *
      * @param query
      *            the SQL query
+     * @param parameters
+     *            the values of the placeholders of the query, bound untyped like the literals they stand for
      * @return the list of VMs
      */
-    List<VM> getAllUsingQuery(String query);
+    List<VM> getAllUsingQuery(String query, Object... parameters);
 
     /**
      * Retrieves the list of VMs for the given storage domain.
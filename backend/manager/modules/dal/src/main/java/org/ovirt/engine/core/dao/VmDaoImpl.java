@@ -184,8 +184,8 @@ public class VmDaoImpl extends BaseDao implements VmDao {
     }
 
     @Override
-    public List<VM> getAllUsingQuery(String query) {
-        return getJdbcTemplate().query(query, vmRowMapper);
+    public List<VM> getAllUsingQuery(String query, Object... parameters) {
+        return queryWithUntypedParameters(query, vmRowMapper, parameters);
     }
 
     @Override
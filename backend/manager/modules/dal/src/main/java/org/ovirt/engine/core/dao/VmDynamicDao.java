@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -108,6 +109,13 @@ public interface VmDynamicDao extends GenericDao<VmDynamic, Guid>, StatusAwareDa
      */
     void updateDevicesHashes(List<Pair<Guid, String>> vmHashes);
 
+    /**
+     * Update only the status of the given VMs in one batch, leaving the rest of their dynamic data as is.
+     *
+     * @param vms the VMs whose status should be updated
+     */
+    void updateStatusesInBatch(Collection<VmDynamic> vms);
+
     /**
      * Update the status of all the given VMs to unknown
      *
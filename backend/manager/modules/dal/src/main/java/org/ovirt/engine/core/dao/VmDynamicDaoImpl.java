@@ -3,6 +3,7 @@ package org.ovirt.engine.core.dao;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -116,6 +117,16 @@ public class VmDynamicDaoImpl extends MassOperationsGenericDao<VmDynamic, Guid>
                         .addValue("qemu_guest_agent_status", qemuGuestAgentStatus.getValue()));
     }
 
+    @Override
+    public void updateStatusesInBatch(Collection<VmDynamic> vms) {
+        if (vms.isEmpty()) {
+            return;
+        }
+        updateAllInBatch("UpdateVmDynamicStatus",
+                vms,
+                vm -> createIdParameterMapper(vm.getId()).addValue("status", vm.getStatus()));
+    }
+
     @Override
     public void updateVmsToUnknown(List<Guid> vmIds) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
@@ -66,8 +66,8 @@ public class VmPoolDaoImpl extends BaseDao implements VmPoolDao {
     }
 
     @Override
-    public List<VmPool> getAllWithQuery(String query) {
-        return getJdbcTemplate().query(query, vmPoolFullRowMapper);
+    public List<VmPool> getAllWithQuery(String query, Object... parameters) {
+        return queryWithUntypedParameters(query, vmPoolFullRowMapper, parameters);
     }
 
     @Override
@@ -7,6 +7,7 @@ import javax.inject.Singleton;
 
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.StagingTableUpdate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -15,6 +16,20 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 public class VmStatisticsDaoImpl extends MassOperationsGenericDao<VmStatistics, Guid>
         implements VmStatisticsDao {
 
+    private static final StagingTableUpdate STAGING_TABLE_UPDATE = new StagingTableUpdate("vm_statistics",
+            "vm_statistics_staging",
+            "ApplyVmStatisticsStaging",
+            "vm_guid",
+            "cpu_sys",
+            "cpu_user",
+            "elapsed_time",
+            "usage_cpu_percent",
+            "usage_mem_percent",
+            "usage_network_percent",
+            "disks_usage",
+            "guest_mem_buffered",
+            "guest_mem_cached");
+
     public VmStatisticsDaoImpl() {
         super("VmStatistics");
         setProcedureNameForGet("GetVmStatisticsByVmGuid");
@@ -48,6 +63,11 @@ public class VmStatisticsDaoImpl extends MassOperationsGenericDao<VmStatistics,
                 .addValue("guest_mem_cached", statistics.getGuestMemoryCached());
     }
 
+    @Override
+    protected StagingTableUpdate getStagingTableUpdate() {
+        return STAGING_TABLE_UPDATE;
+    }
+
     @Override
     protected RowMapper<VmStatistics> createEntityRowMapper() {
         return vmStatisticsRowMapper;
@@ -43,7 +43,7 @@ public interface GlusterHooksDao extends Dao, SearchDao<GlusterHookEntity>, Mass
     public String getGlusterHookContent(Guid glusterHookId);
 
     @Override
-    public List<GlusterHookEntity> getAllWithQuery(String query);
+    public List<GlusterHookEntity> getAllWithQuery(String query, Object... parameters);
 
     public void remove(Guid id);
 
@@ -23,7 +23,7 @@ public interface GlusterServerServiceDao extends Dao, SearchDao<GlusterServerSer
     public List<GlusterServerService> getByServerIdAndServiceType(Guid serverId, ServiceType serviceType);
 
     @Override
-    public List<GlusterServerService> getAllWithQuery(String query);
+    public List<GlusterServerService> getAllWithQuery(String query, Object... parameters);
 
     public void save(GlusterServerService service);
 
@@ -45,7 +45,7 @@ public interface GlusterVolumeDao extends Dao, SearchDao<GlusterVolumeEntity>, M
     public List<GlusterVolumeEntity> getVolumesSupportedAsStorageDomain();
 
     @Override
-    public List<GlusterVolumeEntity> getAllWithQuery(String query);
+    public List<GlusterVolumeEntity> getAllWithQuery(String query, Object... parameters);
 
     public void remove(Guid id);
 
@@ -22,7 +22,7 @@ public interface GlusterVolumeSnapshotConfigDao extends Dao, SearchDao<GlusterVo
             String paramName);
 
     @Override
-    public List<GlusterVolumeSnapshotConfig> getAllWithQuery(String query);
+    public List<GlusterVolumeSnapshotConfig> getAllWithQuery(String query, Object... parameters);
 
     public void updateConfigByClusterIdAndName(Guid clusterId, String paramName, String paramValue);
 
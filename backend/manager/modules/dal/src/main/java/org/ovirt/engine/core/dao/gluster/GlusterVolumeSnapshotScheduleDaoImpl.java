@@ -56,8 +56,8 @@ public class GlusterVolumeSnapshotScheduleDaoImpl extends BaseDao implements Glu
     }
 
     @Override
-    public List<GlusterVolumeSnapshotSchedule> getAllWithQuery(String query) {
-        return getJdbcTemplate().query(query, snapshotScheduleRowMapper);
+    public List<GlusterVolumeSnapshotSchedule> getAllWithQuery(String query, Object... parameters) {
+        return queryWithUntypedParameters(query, snapshotScheduleRowMapper, parameters);
     }
 
     @Override
@@ -6,6 +6,7 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.dal.dbbroker.StagingTableUpdate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -14,6 +15,22 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 public class VmNetworkStatisticsDaoImpl extends NetworkStatisticsDaoImpl<VmNetworkStatistics>
         implements VmNetworkStatisticsDao {
 
+    private static final StagingTableUpdate STAGING_TABLE_UPDATE = new StagingTableUpdate("vm_interface_statistics",
+            "vm_interface_statistics_staging",
+            "Applyvm_interface_statistics_staging",
+            "id",
+            "rx_drop",
+            "rx_rate",
+            "rx_total",
+            "rx_offset",
+            "tx_drop",
+            "tx_rate",
+            "tx_total",
+            "tx_offset",
+            "iface_status",
+            "sample_time",
+            "vm_id");
+
     public VmNetworkStatisticsDaoImpl() {
         super("vm_interface_statistics");
         setProcedureNameForGet("Getvm_interface_statisticsById");
@@ -30,6 +47,11 @@ public class VmNetworkStatisticsDaoImpl extends NetworkStatisticsDaoImpl<VmNetwo
                 .addValue("vm_id", stats.getVmId());
     }
 
+    @Override
+    protected StagingTableUpdate getStagingTableUpdate() {
+        return STAGING_TABLE_UPDATE;
+    }
+
     @Override
     protected RowMapper<VmNetworkStatistics> createEntityRowMapper() {
         return VmNetworkStatisticsRowMapper.INSTANCE;
@@ -0,0 +1,119 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.compat.Guid;
+
+/** A test case for the {@link StoredProcedureParametersBinder} */
+public class StoredProcedureParametersBinderTest {
+
+    private static final String PREFIX = "v_";
+
+    public static enum TestEnum {
+        ONE,
+        TWO
+    }
+
+    public static enum TestEnumWithGetValue {
+        ONE,
+        TWO;
+
+        public int getValue() {
+            return ordinal() + 10;
+        }
+    }
+
+    private PreparedStatement stmt;
+    private Map<String, Object> values;
+
+    @BeforeEach
+    public void setUp() {
+        stmt = mock(PreparedStatement.class);
+        values = new HashMap<>();
+    }
+
+    private static StoredProcedureParametersBinder binder(SqlCallParameter... parameters) {
+        return new StoredProcedureParametersBinder(Arrays.asList(parameters), PREFIX);
+    }
+
+    @Test
+    public void testBindByPrefixedAndUnprefixedName() throws SQLException {
+        values.put("v_name", "prefixed");
+        values.put("description", "unprefixed");
+
+        binder(new SqlCallParameter(2, "v_description", Types.VARCHAR),
+                new SqlCallParameter(1, "v_name", Types.VARCHAR)).bind(stmt, values);
+
+        verify(stmt).setObject(1, "prefixed");
+        verify(stmt).setObject(2, "unprefixed");
+    }
+
+    @Test
+    public void testBindGuidAsUuid() throws SQLException {
+        Guid id = Guid.newGuid();
+        values.put("v_id", id);
+
+        binder(new SqlCallParameter(1, "v_id", Types.OTHER)).bind(stmt, values);
+
+        verify(stmt).setObject(1, id.getUuid());
+    }
+
+    @Test
+    public void testBindEnum() throws SQLException {
+        values.put("v_with_value", TestEnumWithGetValue.TWO);
+        values.put("v_without_value", TestEnum.TWO);
+
+        binder(new SqlCallParameter(1, "v_with_value", Types.INTEGER),
+                new SqlCallParameter(2, "v_without_value", Types.OTHER)).bind(stmt, values);
+
+        verify(stmt).setObject(1, 11);
+        verify(stmt).setObject(2, TestEnum.TWO);
+    }
+
+    @Test
+    public void testBindTimestamp() throws SQLException {
+        Date date = new Date();
+        values.put("v_date", date);
+
+        binder(new SqlCallParameter(1, "v_date", Types.TIMESTAMP)).bind(stmt, values);
+
+        verify(stmt).setObject(1, new Timestamp(date.getTime()));
+    }
+
+    @Test
+    public void testBindMissingValues() throws SQLException {
+        binder(new SqlCallParameter(1, "v_flag", Types.BOOLEAN),
+                new SqlCallParameter(2, "v_bit", Types.BIT),
+                new SqlCallParameter(3, "v_name", Types.VARCHAR)).bind(stmt, values);
+
+        verify(stmt).setObject(1, false);
+        verify(stmt).setObject(2, false);
+        verify(stmt).setObject(3, null);
+    }
+
+    @Test
+    public void testBindFailureMapsToNull() throws SQLException {
+        values.put("v_name", "value");
+        doThrow(new SQLException()).when(stmt).setObject(anyInt(), eq("value"));
+
+        binder(new SqlCallParameter(1, "v_name", Types.VARCHAR)).bind(stmt, values);
+
+        verify(stmt).setObject(eq(1), isNull());
+    }
+}
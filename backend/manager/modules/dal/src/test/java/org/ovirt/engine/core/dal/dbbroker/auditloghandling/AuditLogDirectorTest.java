@@ -0,0 +1,67 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.transaction.TransactionManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.dao.AuditLogDao;
+import org.ovirt.engine.core.utils.InjectedMock;
+import org.ovirt.engine.core.utils.InjectorExtension;
+
+@ExtendWith({ MockitoExtension.class, InjectorExtension.class })
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AuditLogDirectorTest {
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    @InjectedMock
+    public TransactionManager transactionManager;
+    @Mock
+    private AuditLogDao auditLogDao;
+    @Mock
+    private AuditLogWriteBehindQueue auditLogWriteBehindQueue;
+
+    @InjectMocks
+    private AuditLogDirector auditLogDirector;
+
+    private AuditLogable auditLogable;
+
+    @BeforeEach
+    public void setUp() {
+        when(auditLogWriteBehindQueue.isEnabled()).thenReturn(true);
+        when(auditLogWriteBehindQueue.offer(any())).thenReturn(true);
+        auditLogable = new AuditLogableImpl();
+        auditLogable.setVdsName("host1");
+    }
+
+    @Test
+    public void testNormalEventIsWrittenBehind() {
+        auditLogDirector.log(auditLogable, AuditLogType.USER_ADD_VDS);
+
+        verify(auditLogWriteBehindQueue).offer(any());
+        verify(auditLogDao, never()).save(any());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = AuditLogType.class, names = { "USER_VDS_RESTART", "USER_VDS_START", "USER_VDS_STOP" })
+    public void testPowerManagementEventIsWrittenRightAway(AuditLogType logType) {
+        auditLogDirector.log(auditLogable, logType);
+
+        verify(auditLogWriteBehindQueue, never()).offer(any());
+        verify(auditLogDao).save(any());
+    }
+}
@@ -0,0 +1,149 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.ovirt.engine.core.common.AuditLogSeverity;
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.common.businessentities.AuditLog;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.dao.AuditLogDao;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+
+@ExtendWith({ MockitoExtension.class, MockConfigExtension.class })
+public class AuditLogWriteBehindQueueTest {
+
+    @Mock
+    private AuditLogDao auditLogDao;
+    @Mock
+    private ManagedScheduledExecutorService schedulerService;
+    @Captor
+    private ArgumentCaptor<Collection<AuditLog>> batchCaptor;
+    @Captor
+    private ArgumentCaptor<Runnable> flushCaptor;
+
+    @InjectMocks
+    private AuditLogWriteBehindQueue queue;
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.AuditLogWriteBehindIntervalInMilliseconds, 1000),
+                MockConfigDescriptor.of(ConfigValues.AuditLogWriteBehindQueueSize, 4),
+                MockConfigDescriptor.of(ConfigValues.AuditLogWriteBehindBatchSize, 3));
+    }
+
+    @BeforeEach
+    public void setUp() {
+        queue.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        queue.destroy();
+    }
+
+    @Test
+    public void testEventsAreWrittenInBatchByFlush() {
+        AuditLog first = createEvent(AuditLogSeverity.NORMAL);
+        AuditLog second = createEvent(AuditLogSeverity.WARNING);
+
+        assertTrue(queue.offer(first));
+        assertTrue(queue.offer(second));
+
+        verifyZeroInteractions(auditLogDao);
+        assertEquals(2, queue.getPendingCount());
+
+        queue.flush();
+
+        verify(auditLogDao).saveAllInBatch(batchCaptor.capture());
+        assertEquals(Arrays.asList(first, second), batchCaptor.getValue());
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(2, queue.getWrittenCount());
+    }
+
+    @Test
+    public void testFullBatchSubmitsFlush() {
+        queue.offer(createEvent(AuditLogSeverity.NORMAL));
+        queue.offer(createEvent(AuditLogSeverity.NORMAL));
+        queue.offer(createEvent(AuditLogSeverity.NORMAL));
+
+        verify(schedulerService).execute(flushCaptor.capture());
+        verifyZeroInteractions(auditLogDao);
+
+        flushCaptor.getValue().run();
+
+        verify(auditLogDao).saveAllInBatch(anyCollection());
+        assertEquals(3, queue.getWrittenCount());
+    }
+
+    @Test
+    public void testOverflowDropsNormalEventsAndLeavesOthersToCaller() {
+        for (int i = 0; i < 4; i++) {
+            queue.offer(createEvent(AuditLogSeverity.NORMAL));
+        }
+
+        assertTrue(queue.offer(createEvent(AuditLogSeverity.NORMAL)));
+        assertFalse(queue.offer(createEvent(AuditLogSeverity.ERROR)));
+
+        assertEquals(4, queue.getQueuedCount());
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(1, queue.getOverflowCount());
+    }
+
+    @Test
+    public void testFailedBatchIsWrittenOneByOne() {
+        AuditLog first = createEvent(AuditLogSeverity.NORMAL);
+        AuditLog second = createEvent(AuditLogSeverity.NORMAL);
+        second.setMessage("Can't be written");
+        doThrow(new RuntimeException()).when(auditLogDao).saveAllInBatch(anyCollection());
+        doThrow(new RuntimeException()).when(auditLogDao).save(second);
+
+        queue.offer(first);
+        queue.offer(second);
+        queue.flush();
+
+        verify(auditLogDao).save(first);
+        assertEquals(1, queue.getWrittenCount());
+        assertEquals(1, queue.getFailedCount());
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    public void testFlushWritesAllPendingBatches() {
+        for (int i = 0; i < 4; i++) {
+            queue.offer(createEvent(AuditLogSeverity.NORMAL));
+        }
+
+        queue.flush();
+
+        verify(auditLogDao, times(2)).saveAllInBatch(anyCollection());
+        assertEquals(4, queue.getWrittenCount());
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    private static AuditLog createEvent(AuditLogSeverity severity) {
+        return new AuditLog(AuditLogType.UNASSIGNED, severity);
+    }
+}
@@ -0,0 +1,93 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.compat.Guid;
+
+public class EventFloodControlTest {
+
+    private static final long FLOOD_RATE = TimeUnit.MINUTES.toMillis(1);
+
+    private AtomicLong now;
+    private EventFloodControl eventFloodControl;
+
+    @BeforeEach
+    public void setUp() {
+        now = new AtomicLong(TimeUnit.DAYS.toMillis(1));
+        eventFloodControl = new EventFloodControl(now::get);
+    }
+
+    @Test
+    public void testEventIsSuppressedUntilFloodRatePasses() {
+        EventFloodKey key = createKey(Guid.newGuid(), AuditLogType.VDS_FAILURE);
+
+        assertTrue(eventFloodControl.tryLog(key, FLOOD_RATE));
+        now.addAndGet(FLOOD_RATE - 1);
+        assertFalse(eventFloodControl.tryLog(key, FLOOD_RATE));
+        now.incrementAndGet();
+        assertTrue(eventFloodControl.tryLog(key, FLOOD_RATE));
+    }
+
+    @Test
+    public void testEventsOnOtherEntitiesAreNotSuppressed() {
+        Guid vdsId = Guid.newGuid();
+
+        assertTrue(eventFloodControl.tryLog(createKey(vdsId, AuditLogType.VDS_FAILURE), FLOOD_RATE));
+        assertTrue(eventFloodControl.tryLog(createKey(Guid.newGuid(), AuditLogType.VDS_FAILURE), FLOOD_RATE));
+        assertTrue(eventFloodControl.tryLog(createKey(vdsId, AuditLogType.VDS_DETECTED), FLOOD_RATE));
+        assertFalse(eventFloodControl.tryLog(createKey(vdsId, AuditLogType.VDS_FAILURE), FLOOD_RATE));
+    }
+
+    @Test
+    public void testEvictedEventIsLoggedAgain() {
+        Guid vdsId = Guid.newGuid();
+
+        eventFloodControl.tryLog(createKey(vdsId, AuditLogType.VDS_FAILURE), FLOOD_RATE);
+        eventFloodControl.evict(createKey(vdsId, AuditLogType.VDS_FAILURE));
+
+        assertTrue(eventFloodControl.tryLog(createKey(vdsId, AuditLogType.VDS_FAILURE), FLOOD_RATE));
+    }
+
+    @Test
+    public void testSuppressedEventsAreCountedByType() {
+        EventFloodKey key = createKey(Guid.newGuid(), AuditLogType.VDS_FAILURE);
+
+        eventFloodControl.tryLog(key, FLOOD_RATE);
+        eventFloodControl.tryLog(key, FLOOD_RATE);
+        eventFloodControl.tryLog(key, FLOOD_RATE);
+
+        assertEquals(2, eventFloodControl.getSuppressedCount());
+        assertEquals(Collections.singletonMap(AuditLogType.VDS_FAILURE.name(), 2L),
+                eventFloodControl.getSuppressedCountByType());
+    }
+
+    @Test
+    public void testPassedEventsAreForgotten() {
+        eventFloodControl.tryLog(createKey(Guid.newGuid(), AuditLogType.VDS_FAILURE), FLOOD_RATE);
+        eventFloodControl.tryLog(createKey(Guid.newGuid(), AuditLogType.VDS_FAILURE), TimeUnit.HOURS.toMillis(1));
+        assertEquals(2, eventFloodControl.getSuppressingEventCount());
+
+        now.addAndGet(FLOOD_RATE + TimeUnit.SECONDS.toMillis(1));
+        eventFloodControl.tryLog(createKey(Guid.newGuid(), AuditLogType.VDS_DETECTED), FLOOD_RATE);
+        assertEquals(2, eventFloodControl.getSuppressingEventCount());
+
+        now.addAndGet(TimeUnit.HOURS.toMillis(1));
+        eventFloodControl.tryLog(createKey(Guid.newGuid(), AuditLogType.VDS_DETECTED), FLOOD_RATE);
+        assertEquals(1, eventFloodControl.getSuppressingEventCount());
+    }
+
+    private static EventFloodKey createKey(Guid vdsId, AuditLogType logType) {
+        AuditLogable event = new AuditLogableImpl();
+        event.setVdsId(vdsId);
+        return new EventFloodKey(event, logType);
+    }
+}
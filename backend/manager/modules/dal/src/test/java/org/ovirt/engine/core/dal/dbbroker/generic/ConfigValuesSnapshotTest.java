@@ -0,0 +1,75 @@
+package org.ovirt.engine.core.dal.dbbroker.generic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.common.config.ConfigCommon;
+import org.ovirt.engine.core.common.config.ConfigValues;
+
+public class ConfigValuesSnapshotTest {
+
+    private static final String VERSION = "4.4";
+
+    private ConfigValuesSnapshot snapshot;
+
+    @BeforeEach
+    public void setUp() {
+        Map<ConfigValues, Map<String, Object>> values = new EnumMap<>(ConfigValues.class);
+        values.put(ConfigValues.SchedulerOverBookingThreshold, defaultVersionValue(10));
+        values.put(ConfigValues.SchedulerAllowOverBooking, defaultVersionValue(true));
+        values.put(ConfigValues.DBEngine, defaultVersionValue("Postgres"));
+        Map<String, Object> versions = new HashMap<>();
+        versions.put(VERSION, true);
+        values.put(ConfigValues.ExternalSchedulerEnabled, versions);
+        snapshot = new ConfigValuesSnapshot(values);
+    }
+
+    @Test
+    public void testTypedValues() {
+        assertEquals(10, snapshot.getIntValue(ConfigValues.SchedulerOverBookingThreshold));
+        assertTrue(snapshot.getBooleanValue(ConfigValues.SchedulerAllowOverBooking));
+        assertEquals(10, (int) snapshot.getValue(ConfigValues.SchedulerOverBookingThreshold,
+                ConfigCommon.defaultConfigurationVersion));
+        assertEquals("Postgres", snapshot.getValue(ConfigValues.DBEngine, ConfigCommon.defaultConfigurationVersion));
+    }
+
+    @Test
+    public void testTypedValueOfAnotherType() {
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getIntValue(ConfigValues.DBEngine));
+        assertThrows(IllegalArgumentException.class,
+                () -> snapshot.getLongValue(ConfigValues.SchedulerOverBookingThreshold));
+    }
+
+    @Test
+    public void testValueOfOtherVersion() {
+        assertTrue(snapshot.valueExists(ConfigValues.ExternalSchedulerEnabled, VERSION));
+        assertFalse(snapshot.valueExists(ConfigValues.ExternalSchedulerEnabled,
+                ConfigCommon.defaultConfigurationVersion));
+        assertEquals(true, snapshot.getValue(ConfigValues.ExternalSchedulerEnabled, VERSION));
+        assertThrows(IllegalArgumentException.class,
+                () -> snapshot.getBooleanValue(ConfigValues.ExternalSchedulerEnabled));
+    }
+
+    @Test
+    public void testMissingValue() {
+        assertFalse(snapshot.valueExists(ConfigValues.DBPagingType, ConfigCommon.defaultConfigurationVersion));
+        assertNull(snapshot.getValuesForAllVersions(ConfigValues.DBPagingType));
+        assertThrows(IllegalArgumentException.class,
+                () -> snapshot.getValue(ConfigValues.DBPagingType, ConfigCommon.defaultConfigurationVersion));
+    }
+
+    private static Map<String, Object> defaultVersionValue(Object value) {
+        Map<String, Object> versions = new HashMap<>();
+        versions.put(ConfigCommon.defaultConfigurationVersion, value);
+        return versions;
+    }
+}
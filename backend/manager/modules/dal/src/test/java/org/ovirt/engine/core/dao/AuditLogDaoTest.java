@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -294,6 +295,22 @@ public class AuditLogDaoTest extends BaseDaoTestCase<AuditLogDao> {
         assertEquals(newExternalEvent.getEventFloodInSec(), result.getEventFloodInSec());
     }
 
+    @Test
+    public void testSaveAllInBatch() {
+        AuditLog otherAuditLog = new AuditLog(AuditLogType.VM_DOWN, AuditLogSeverity.NORMAL);
+        otherAuditLog.setVmId(VM_ID);
+        otherAuditLog.setVmName(VM_NAME);
+        otherAuditLog.setMessage("VM is down");
+        int count = dao.getAll(null, false).size();
+
+        dao.saveAllInBatch(Arrays.asList(newAuditLog, otherAuditLog));
+
+        List<AuditLog> result = dao.getAll(null, false);
+        assertEquals(count + 2, result.size());
+        assertTrue(result.stream().anyMatch(entry -> newAuditLog.getMessage().equals(entry.getMessage())));
+        assertTrue(result.stream().anyMatch(entry -> otherAuditLog.getMessage().equals(entry.getMessage())));
+    }
+
     /**
      * Ensures that removing an AuditLog works as expected.
      */
@@ -80,6 +80,22 @@ public class CommandEntityDaoTest extends BaseGenericDaoTestCase<Guid, CommandEn
         assertTrue(cmds.size() > 0);
     }
 
+    @Test
+    public void testGetAllOfActiveCommandTrees() {
+        List<CommandEntity> allCmds = dao.getAll();
+        assertEquals(allCmds.size(), dao.getAllOfActiveCommandTrees().size());
+
+        // ending the root command alone keeps its tree active as long as its child commands did not end
+        dao.updateStatus(getExistingEntityId(), CommandStatus.ENDED_SUCCESSFULLY);
+        assertEquals(allCmds.size(), dao.getAllOfActiveCommandTrees().size());
+
+        List<CommandEntity> childCmds = dao.getCmdEntitiesByParentCmdId(getExistingEntityId());
+        childCmds.forEach(cmd -> dao.updateStatus(cmd.getId(), CommandStatus.ENDED_WITH_FAILURE));
+        List<CommandEntity> activeCmds = dao.getAllOfActiveCommandTrees();
+        assertEquals(allCmds.size() - childCmds.size() - 1, activeCmds.size());
+        assertTrue(activeCmds.stream().noneMatch(cmd -> cmd.getId().equals(getExistingEntityId())));
+    }
+
     @Test
     public void testGetCommandIdsByEntity() {
         Guid storageId = Guid.newGuid();
@@ -7,13 +7,29 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.ovirt.engine.core.common.businessentities.storage.DiskImageDynamic;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.utils.MockedConfig;
 
+@ExtendWith(MockConfigExtension.class)
 public class DiskImageDynamicDaoTest extends BaseGenericDaoTestCase<Guid, DiskImageDynamic, DiskImageDynamicDao> {
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.CopyBasedStatisticsUpdateTables, ""));
+    }
+
+    public static Stream<MockConfigDescriptor<?>> mockStagingTableConfiguration() {
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.CopyBasedStatisticsUpdateTables,
+                "vm_statistics, disk_image_dynamic"));
+    }
+
     private static final int TOTAL_DYNAMIC_DISK_IMAGES = 5;
 
     @Override
@@ -73,6 +89,16 @@ public class DiskImageDynamicDaoTest extends BaseGenericDaoTestCase<Guid, DiskIm
 
     @Test
     public void updateAllDiskImageDynamicWithDiskIdByVmId() {
+        assertUpdateAllDiskImageDynamicWithDiskIdByVmId();
+    }
+
+    @Test
+    @MockedConfig("mockStagingTableConfiguration")
+    public void updateAllDiskImageDynamicWithDiskIdByVmIdThroughStagingTable() {
+        assertUpdateAllDiskImageDynamicWithDiskIdByVmId();
+    }
+
+    private void assertUpdateAllDiskImageDynamicWithDiskIdByVmId() {
         Guid imageId = FixturesTool.IMAGE_ID_2;
         Guid imageGroupId = FixturesTool.IMAGE_GROUP_ID_2;
 
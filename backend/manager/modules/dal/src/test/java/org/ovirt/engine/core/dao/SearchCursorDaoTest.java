@@ -0,0 +1,24 @@
+package org.ovirt.engine.core.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.compat.Guid;
+
+public class SearchCursorDaoTest extends BaseDaoTestCase<SearchCursorDao> {
+    private static final String QUERY = "SELECT vm_name, vm_guid FROM vms WHERE vm_guid = ?";
+
+    @Test
+    public void testGetSortKey() {
+        assertEquals(Arrays.asList("rhel5-pool-57", FixturesTool.VM_RHEL5_POOL_57.toString()),
+                dao.getSortKey(QUERY, FixturesTool.VM_RHEL5_POOL_57.toString()));
+    }
+
+    @Test
+    public void testGetSortKeyOfMissingEntity() {
+        assertNull(dao.getSortKey(QUERY, Guid.newGuid().toString()));
+    }
+}
@@ -84,6 +84,21 @@ public class VmDynamicDaoTest extends BaseGenericDaoTestCase<Guid, VmDynamic, Vm
         assertEquals(existingEntity, after);
     }
 
+    @Test
+    public void testUpdateStatusesInBatch() {
+        VmDynamic existingVm2 = dao.get(FixturesTool.VM_RHEL5_POOL_51);
+        existingEntity.setStatus(VMStatus.Down);
+        existingVm2.setStatus(VMStatus.Paused);
+        existingVm2.setIp("111");
+
+        dao.updateStatusesInBatch(Arrays.asList(existingEntity, existingVm2));
+
+        assertEquals(existingEntity, dao.get(existingEntity.getId()));
+        VmDynamic vm2After = dao.get(existingVm2.getId());
+        assertEquals(VMStatus.Paused, vm2After.getStatus());
+        assertNotEquals("111", vm2After.getIp());
+    }
+
     @Test
     public void testUpdateAll() {
         VmDynamic existingVm2 = dao.get(FixturesTool.VM_RHEL5_POOL_51);
@@ -4,12 +4,27 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.Arrays;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.utils.MockedConfig;
 
+@ExtendWith(MockConfigExtension.class)
 public class VmStatisticsDaoTest extends BaseGenericDaoTestCase<Guid, VmStatistics, VmStatisticsDao > {
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.CopyBasedStatisticsUpdateTables, ""));
+    }
+
+    public static Stream<MockConfigDescriptor<?>> mockStagingTableConfiguration() {
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.CopyBasedStatisticsUpdateTables, "vm_statistics"));
+    }
+
     @Override
     protected VmStatistics generateNewEntity() {
         VmStatistics newVmStatistics = new VmStatistics();
@@ -63,4 +78,29 @@ public class VmStatisticsDaoTest extends BaseGenericDaoTestCase<Guid, VmStatisti
         assertEquals(existingVm, dao.get(existingVm.getId()));
         assertEquals(existingVm2, dao.get(existingVm2.getId()));
     }
+
+    @Test
+    public void testUpdateAllInBatch() {
+        assertUpdateAllInBatch();
+    }
+
+    @Test
+    @MockedConfig("mockStagingTableConfiguration")
+    public void testUpdateAllInBatchThroughStagingTable() {
+        assertUpdateAllInBatch();
+    }
+
+    private void assertUpdateAllInBatch() {
+        VmStatistics existingVm = dao.get(FixturesTool.VM_RHEL5_POOL_57);
+        VmStatistics existingVm2 = dao.get(FixturesTool.VM_RHEL5_POOL_51);
+        existingVm.setCpuSys(50.0);
+        existingVm.setDisksUsage("tab\tand\\backslash");
+        existingVm2.setCpuUser(50.0);
+        existingVm2.setGuestMemoryCached(null);
+
+        dao.updateAllInBatch(Arrays.asList(existingVm, existingVm2));
+
+        assertEquals(existingVm, dao.get(existingVm.getId()));
+        assertEquals(existingVm2, dao.get(existingVm2.getId()));
+    }
 }
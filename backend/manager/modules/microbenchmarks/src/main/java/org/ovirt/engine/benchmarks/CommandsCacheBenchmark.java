@@ -0,0 +1,170 @@
+package org.ovirt.engine.benchmarks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.ovirt.engine.core.bll.tasks.CommandsCacheImpl;
+import org.ovirt.engine.core.common.action.ActionParametersBase;
+import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.compat.CommandStatus;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.CommandEntityDao;
+
+/**
+ * <p> Stresses {@link CommandsCacheImpl} with a database of command entities made of trees of a root command and its
+ * child commands, of which only a fraction did not end.</p>
+ * <p> The lookups are made by several threads at once and hit the resident commands, the latency of the lookups of
+ * ended commands is dominated by the database and is not measured. The number of commands the cache holds and the
+ * heap they take are reported as the {@code residentCommands} and {@code residentHeapKb} secondary results, to be
+ * compared with holding all of them.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class CommandsCacheBenchmark {
+
+    @Benchmark
+    public CommandEntity getCommand(BenchmarkState state, CacheFootprint footprint) {
+        return state.commandsCache.get(state.randomActiveCommandId());
+    }
+
+    @Benchmark
+    public List<Guid> getChildCommandIds(BenchmarkState state, CacheFootprint footprint) {
+        return state.commandsCache.getChildCommandIds(state.randomActiveRootId());
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "100000" })
+        private int commands;
+
+        /** Number of commands in a tree, the root included */
+        @Param({ "10" })
+        private int treeSize;
+
+        /** Percentage of the trees that have commands which did not end */
+        @Param({ "5", "100" })
+        private int activeTreesPercent;
+
+        private CommandsCacheImpl commandsCache;
+        private Guid[] activeCommandIds;
+        private Guid[] activeRootIds;
+        private long residentCommands;
+        private long residentHeapKb;
+
+        @Setup
+        public void setup() throws Exception {
+            Map<Guid, List<Guid>> treeCommandIds = new HashMap<>();
+            List<Guid> activeCommands = new ArrayList<>();
+            List<Guid> activeRoots = new ArrayList<>();
+            for (int i = 0; i < commands / treeSize; i++) {
+                Guid rootId = Guid.newGuid();
+                List<Guid> commandIds = new ArrayList<>(treeSize);
+                commandIds.add(rootId);
+                for (int j = 1; j < treeSize; j++) {
+                    commandIds.add(Guid.newGuid());
+                }
+                treeCommandIds.put(rootId, commandIds);
+                if (i * 100L < (long) activeTreesPercent * (commands / treeSize)) {
+                    activeCommands.addAll(commandIds);
+                    activeRoots.add(rootId);
+                }
+            }
+            activeCommandIds = activeCommands.toArray(new Guid[0]);
+            activeRootIds = activeRoots.toArray(new Guid[0]);
+
+            // like the database, the dao returns new entities on every call
+            CommandEntityDao commandEntityDao = mock(CommandEntityDao.class, withSettings().stubOnly());
+            when(commandEntityDao.getAllOfActiveCommandTrees()).thenAnswer(invocation -> activeRoots.stream()
+                    .flatMap(rootId -> createTree(rootId, treeCommandIds.get(rootId)).stream())
+                    .collect(Collectors.toList()));
+
+            long usedHeap = usedHeap();
+            commandsCache = new CommandsCacheImpl();
+            Field field = CommandsCacheImpl.class.getDeclaredField("commandEntityDao");
+            field.setAccessible(true);
+            field.set(commandsCache, commandEntityDao);
+            commandsCache.keySet();
+            residentCommands = commandsCache.getResidentCommandsCount();
+            residentHeapKb = (usedHeap() - usedHeap) / 1024;
+        }
+
+        Guid randomActiveCommandId() {
+            return activeCommandIds[ThreadLocalRandom.current().nextInt(activeCommandIds.length)];
+        }
+
+        Guid randomActiveRootId() {
+            return activeRootIds[ThreadLocalRandom.current().nextInt(activeRootIds.length)];
+        }
+
+        private static List<CommandEntity> createTree(Guid rootId, List<Guid> commandIds) {
+            List<CommandEntity> tree = new ArrayList<>(commandIds.size());
+            for (Guid commandId : commandIds) {
+                CommandEntity cmdEntity = new CommandEntity();
+                cmdEntity.setId(commandId);
+                if (!commandId.equals(rootId)) {
+                    cmdEntity.setRootCommandId(rootId);
+                    cmdEntity.setParentCommandId(rootId);
+                }
+                cmdEntity.setCommandStatus(CommandStatus.ACTIVE);
+                cmdEntity.setCreatedAt(new Date());
+                cmdEntity.setCommandParameters(new ActionParametersBase());
+                tree.add(cmdEntity);
+            }
+            return tree;
+        }
+
+        private static long usedHeap() {
+            System.gc();
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+
+    /**
+     * The footprint of the cache, reported by the first thread only since the counters of the threads are summed
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CacheFootprint {
+
+        public long residentCommands;
+
+        public long residentHeapKb;
+
+        @Setup(Level.Iteration)
+        public void setup(BenchmarkState state, ThreadParams threadParams) {
+            boolean reporting = threadParams.getThreadIndex() == 0;
+            residentCommands = reporting ? state.residentCommands : 0;
+            residentHeapKb = reporting ? state.residentHeapKb : 0;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.ovirt.engine.benchmarks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ovirt.engine.core.common.businessentities.VdcOption;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigCommon;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.dal.dbbroker.generic.DBConfigUtils;
+import org.ovirt.engine.core.dao.VdcOptionDao;
+
+/**
+ * <p> Benchmarks reading the configuration options the scheduler reads on each scheduling decision, an integer and a
+ * boolean one.</p>
+ * <p> <b>nameMap</b> reads them the way the configuration was read before it was kept in a snapshot indexed by the
+ * option ordinal, from a map by the option name holding a map by version, <b>getValue</b> reads them through
+ * {@code Config.getValue} and <b>typed</b> through {@code Config.getIntValue} and {@code Config.getBooleanValue},
+ * which read them unboxed.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConfigValueLookupBenchmark {
+
+    @Benchmark
+    public int nameMap(BenchmarkState state) {
+        Map<String, Object> threshold = state.valuesByName.get(ConfigValues.SchedulerOverBookingThreshold.toString());
+        Map<String, Object> allowed = state.valuesByName.get(ConfigValues.SchedulerAllowOverBooking.toString());
+        return (Boolean) allowed.get(ConfigCommon.defaultConfigurationVersion)
+                ? (Integer) threshold.get(ConfigCommon.defaultConfigurationVersion)
+                : 0;
+    }
+
+    @Benchmark
+    public int getValue() {
+        return Config.<Boolean> getValue(ConfigValues.SchedulerAllowOverBooking)
+                ? Config.<Integer> getValue(ConfigValues.SchedulerOverBookingThreshold)
+                : 0;
+    }
+
+    @Benchmark
+    public int typed() {
+        return Config.getBooleanValue(ConfigValues.SchedulerAllowOverBooking)
+                ? Config.getIntValue(ConfigValues.SchedulerOverBookingThreshold)
+                : 0;
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        private Map<String, Map<String, Object>> valuesByName;
+
+        @Setup
+        public void setup() throws Exception {
+            List<VdcOption> options = new ArrayList<>();
+            options.add(createOption(ConfigValues.SchedulerOverBookingThreshold, "10"));
+            options.add(createOption(ConfigValues.SchedulerAllowOverBooking, "true"));
+
+            valuesByName = new HashMap<>();
+            valuesByName.put(ConfigValues.SchedulerOverBookingThreshold.toString(),
+                    Collections.singletonMap(ConfigCommon.defaultConfigurationVersion, 10));
+            valuesByName.put(ConfigValues.SchedulerAllowOverBooking.toString(),
+                    Collections.singletonMap(ConfigCommon.defaultConfigurationVersion, true));
+
+            VdcOptionDao vdcOptionDao = mock(VdcOptionDao.class, withSettings().stubOnly());
+            when(vdcOptionDao.getAll()).thenReturn(options);
+            DBConfigUtils configUtils = new DBConfigUtils();
+            Field field = DBConfigUtils.class.getDeclaredField("vdcOptionDao");
+            field.setAccessible(true);
+            field.set(configUtils, vdcOptionDao);
+            configUtils.refresh();
+            Config.setConfigUtils(configUtils);
+        }
+
+        private static VdcOption createOption(ConfigValues configValue, String value) {
+            VdcOption option = new VdcOption();
+            option.setOptionName(configValue.toString());
+            option.setOptionValue(value);
+            option.setVersion(ConfigCommon.defaultConfigurationVersion);
+            return option;
+        }
+    }
+}
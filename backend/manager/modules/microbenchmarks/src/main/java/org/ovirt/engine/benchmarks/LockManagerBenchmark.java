@@ -0,0 +1,109 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.bll.lock.InMemoryLockManager;
+import org.ovirt.engine.core.bll.lock.StripedLockManager;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.lock.EngineLock;
+import org.ovirt.engine.core.utils.lock.LockManager;
+
+/**
+ * <p> Benchmark's the throughput of the in memory lock managers, the global lock based {@link InMemoryLockManager}
+ * vs. the {@link StripedLockManager}.</p>
+ * <p> Every invocation acquires an {@link EngineLock} with one shared and one exclusive key, waiting for it if it is
+ * taken, and releases it. With <b>disjoint</b> keys every thread locks its own entities, so the only contention is
+ * the one inside the lock manager. With <b>overlapping</b> keys all the threads share a small pool of entities, the
+ * way commands on the same VMs and clusters do.</p>
+ * <p> Run with {@code -t 1}, {@code -t 8} and {@code -t 64} to compare the scalability.</p>
+ *
+ * @see LockManager
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Threads(8)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LockManagerBenchmark {
+
+    private static final int OVERLAPPING_ENTITIES = 16;
+
+    @Benchmark
+    public void acquireAndRelease(BenchmarkState state, ThreadState threadState, Blackhole blackhole) {
+        EngineLock lock = threadState.nextLock();
+        state.lockManager.acquireLockWait(lock);
+        blackhole.consume(lock);
+        state.lockManager.releaseLock(lock);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "global", "striped" })
+        private String implementation;
+
+        @Param({ "disjoint", "overlapping" })
+        private String keys;
+
+        private LockManager lockManager;
+        private Guid[] sharedEntities;
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        @Setup
+        public void setup() {
+            lockManager = "striped".equals(implementation) ? new StripedLockManager() : new InMemoryLockManager();
+            sharedEntities = new Guid[OVERLAPPING_ENTITIES];
+            for (int i = 0; i < sharedEntities.length; i++) {
+                sharedEntities[i] = Guid.newGuid();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private EngineLock[] locks;
+        private int next;
+
+        @Setup
+        public void setup(BenchmarkState state) {
+            int threadIndex = state.threadCounter.getAndIncrement();
+            locks = new EngineLock[OVERLAPPING_ENTITIES];
+            for (int i = 0; i < locks.length; i++) {
+                Guid sharedEntity;
+                Guid exclusiveEntity;
+                if ("disjoint".equals(state.keys)) {
+                    sharedEntity = Guid.newGuid();
+                    exclusiveEntity = Guid.newGuid();
+                } else {
+                    sharedEntity = state.sharedEntities[(threadIndex + i) % OVERLAPPING_ENTITIES];
+                    exclusiveEntity = state.sharedEntities[(threadIndex + i + 1) % OVERLAPPING_ENTITIES];
+                }
+                locks[i] = new EngineLock(
+                        Collections.singletonMap(exclusiveEntity.toString(), new Pair<>("VM", "exclusive")),
+                        Collections.singletonMap(sharedEntity.toString(), new Pair<>("VM", "shared")));
+            }
+        }
+
+        private EngineLock nextLock() {
+            EngineLock lock = locks[next];
+            next = (next + 1) % locks.length;
+            return lock;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.ovirt.engine.benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.businessentities.DisplayType;
+import org.ovirt.engine.core.common.businessentities.GraphicsType;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.IConfigUtilsInterface;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Version;
+import org.ovirt.engine.core.utils.OsRepositoryImpl;
+import org.ovirt.engine.core.utils.osinfo.OsInfoPreferencesLoader;
+
+/**
+ * <p> Benchmarks the OS lookups the validation of {@code AddVmCommand} makes, for each of the OSes of the osinfo
+ * configuration in turn, at the latest compatibility version.</p>
+ * <p> The osinfo configuration is loaded from the {@code osinfoDir} parameter, which defaults to the one of the source
+ * tree when run from the microbenchmarks module. Run the benchmark on the parent commit to compare with the lookups
+ * which walked the osinfo preferences.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OsRepositoryLookupBenchmark {
+
+    private static final Pair<GraphicsType, DisplayType> SPICE_QXL = new Pair<>(GraphicsType.SPICE, DisplayType.qxl);
+
+    @Benchmark
+    public void addVmValidation(BenchmarkState state, Blackhole blackhole) {
+        OsRepositoryImpl osRepository = OsRepositoryImpl.INSTANCE;
+        int osId = state.nextOsId();
+        Version version = state.version;
+        blackhole.consume(osRepository.getArchitectureFromOS(osId));
+        blackhole.consume(osRepository.isCpuSupported(osId, version, "Skylake-Client"));
+        blackhole.consume(osRepository.getGraphicsAndDisplays(osId, version).contains(SPICE_QXL));
+        blackhole.consume(osRepository.getDiskInterfaces(osId, version, null).contains("VirtIO_SCSI"));
+        blackhole.consume(osRepository.getMinimumRam(osId, version));
+        blackhole.consume(osRepository.getMaximumRam(osId, version));
+        blackhole.consume(osRepository.getMaxPciDevices(osId, version));
+        blackhole.consume(osRepository.isSoundDeviceEnabled(osId, version));
+        blackhole.consume(osRepository.getNetworkDevices(osId, version).contains("pv"));
+        blackhole.consume(osRepository.isQ35Supported(osId));
+        blackhole.consume(osRepository.isWindows(osId));
+        blackhole.consume(osRepository.getOsName(osId));
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        @Param({ "../../../../packaging/conf" })
+        private String osinfoDir;
+
+        private final Version version = Version.getLast();
+        private List<Integer> osIds;
+        private int next;
+
+        @Setup
+        public void setup() {
+            IConfigUtilsInterface configUtils = mock(IConfigUtilsInterface.class, withSettings().stubOnly());
+            when(configUtils.getValue(any(), any())).thenAnswer(invocation -> Boolean.TRUE);
+            Config.setConfigUtils(configUtils);
+
+            OsInfoPreferencesLoader.INSTANCE.init(Paths.get(osinfoDir));
+            OsRepositoryImpl.INSTANCE.init(OsInfoPreferencesLoader.INSTANCE.getPreferences());
+            osIds = OsRepositoryImpl.INSTANCE.getOsIds();
+        }
+
+        int nextOsId() {
+            next = next + 1 == osIds.size() ? 0 : next + 1;
+            return osIds.get(next);
+        }
+    }
+}
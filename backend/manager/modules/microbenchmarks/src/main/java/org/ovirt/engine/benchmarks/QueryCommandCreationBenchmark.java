@@ -0,0 +1,69 @@
+package org.ovirt.engine.benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.bll.CommandsFactory;
+import org.ovirt.engine.core.bll.context.EngineContext;
+import org.ovirt.engine.core.common.queries.GetSystemStatisticsQueryParameters;
+import org.ovirt.engine.core.common.queries.QueryType;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.utils.ReflectionUtils;
+
+/**
+ * <p> Benchmarks creating a million query commands through {@link CommandsFactory}, the time is reported per
+ * query.</p>
+ * <p> <b>lookup</b> looks the query class up by its name and its constructor up in a cache keyed by the parameter
+ * types on each creation, as the factory did before it kept the constructors by the ordinal of the query type,
+ * <b>resolved</b> creates the queries with the constructor the factory resolved for the query type. The queries are
+ * created without injecting their members, which needs the CDI container.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QueryCommandCreationBenchmark {
+
+    private static final int QUERIES = 1_000_000;
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void lookup(BenchmarkState state, Blackhole blackhole) throws ReflectiveOperationException {
+        for (int i = 0; i < QUERIES; i++) {
+            GetSystemStatisticsQueryParameters parameters = new GetSystemStatisticsQueryParameters();
+            Class<?> queryClass = CommandsFactory.getQueryClass(QueryType.GetSystemStatistics.name());
+            Class<?>[] parameterTypes = new Class<?>[] { parameters.getClass(), EngineContext.class };
+            blackhole.consume(state.constructorCache.computeIfAbsent(new Pair<>(queryClass, parameterTypes),
+                    key -> ReflectionUtils.findConstructor(queryClass, parameterTypes)).newInstance(parameters, null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void resolved(Blackhole blackhole) throws ReflectiveOperationException {
+        for (int i = 0; i < QUERIES; i++) {
+            GetSystemStatisticsQueryParameters parameters = new GetSystemStatisticsQueryParameters();
+            blackhole.consume(CommandsFactory.getQueryConstructor(QueryType.GetSystemStatistics, parameters.getClass())
+                    .newInstance(parameters, null));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        /** The constructor cache the factory looked every creation up in */
+        private final Map<Pair<Class<?>, Class<?>[]>, Constructor<?>> constructorCache = new ConcurrentHashMap<>();
+    }
+}
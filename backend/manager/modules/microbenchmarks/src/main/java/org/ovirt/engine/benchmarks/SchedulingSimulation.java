@@ -0,0 +1,662 @@
+package org.ovirt.engine.benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Random;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.ovirt.engine.core.bll.scheduling.ClusterSnapshot;
+import org.ovirt.engine.core.bll.scheduling.ClusterSnapshotLoader;
+import org.ovirt.engine.core.bll.scheduling.InternalPolicyUnits;
+import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
+import org.ovirt.engine.core.bll.scheduling.SlaValidator;
+import org.ovirt.engine.core.bll.scheduling.external.BalanceResult;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingCpuCores;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingCpuLoad;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingHugePages;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingMemory;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingOvercommitMemory;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingVM;
+import org.ovirt.engine.core.bll.scheduling.policyunits.CPUPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.EvenDistributionBalancePolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.EvenDistributionCPUWeightPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.EvenDistributionMemoryWeightPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.HugePagesFilterPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.MemoryPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.NumaPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.VmAffinityFilterPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.VmAffinityWeightPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.selector.SelectorInstance;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.HugePage;
+import org.ovirt.engine.core.common.businessentities.MigrationSupport;
+import org.ovirt.engine.core.common.businessentities.NumaNodeStatistics;
+import org.ovirt.engine.core.common.businessentities.NumaTuneMode;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VMStatus;
+import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
+import org.ovirt.engine.core.common.businessentities.VmNumaNode;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.config.IConfigUtilsInterface;
+import org.ovirt.engine.core.common.scheduling.AffinityGroup;
+import org.ovirt.engine.core.common.scheduling.EntityAffinityRule;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.common.scheduling.VmOverheadCalculator;
+import org.ovirt.engine.core.common.utils.HugePageUtils;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.ClusterDao;
+import org.ovirt.engine.core.dao.LabelDao;
+import org.ovirt.engine.core.dao.VmDao;
+import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.VmManager;
+
+/**
+ * <p> A synthetic cluster the internal policy units schedule VMs in without the engine, its DAOs are stand-ins over
+ * the VMs and hosts of the simulation kept in memory.</p>
+ * <p> The hosts have two NUMA nodes, a quarter of them has 1 GiB hugepages. The VMs are of a few shapes, some backed
+ * by hugepages or pinned to the NUMA nodes of the host, and are grouped in enforcing negative and non enforcing
+ * positive affinity groups. A request starts a VM or migrates a running one, stopping a random VM first when the
+ * cluster is at its density. A placed VM keeps its pending resources for a few requests before it is started, as the
+ * VMs started at the same time would.</p>
+ * <p> A request goes through the filters, the weights and the selector as {@code SchedulingManager} schedules a single
+ * VM, with the context read from a {@link ClusterSnapshot}. The placements are not locked and not delayed, and the
+ * mandatory filters, the network filter and the external units are not run.</p>
+ */
+class SchedulingSimulation {
+
+    private static final int HOST_MEMORY_MB = 256 * 1024;
+    private static final int HOST_CORES = 32;
+    private static final int HOST_THREADS = 64;
+    private static final int HUGEPAGE_SIZE_KB = 1024 * 1024;
+    private static final int VM_OVERHEAD_MB = 64;
+    private static final int VCPU_LOAD_PERCENT = 10;
+    /** Number of requests a placed VM waits with its pending resources before it is started */
+    private static final int START_LAG = 8;
+
+    private final Random random;
+    private final Cluster cluster = new Cluster();
+    private final List<VDS> hosts = new ArrayList<>();
+    private final Map<Guid, VDS> hostsById = new HashMap<>();
+    private final List<VM> vms = new ArrayList<>();
+    private final List<VM> runningVms = new ArrayList<>();
+    private final List<VM> stoppedVms = new ArrayList<>();
+    private final Queue<VM> startingVms = new ArrayDeque<>();
+    private final List<AffinityGroup> affinityGroups = new ArrayList<>();
+    private final int density;
+
+    private final PendingResourceManager pendingResourceManager = new PendingResourceManager();
+    private final ClusterSnapshotLoader snapshotLoader = new ClusterSnapshotLoader();
+    private final Map<PolicyUnitImpl, Integer> filters = new LinkedHashMap<>();
+    private final Map<PolicyUnitImpl, Integer> weights = new LinkedHashMap<>();
+    private final PolicyUnitImpl selector;
+    private final PolicyUnitImpl balancer;
+
+    private final Map<Class<? extends PolicyUnitImpl>, Long> unitNanos = new HashMap<>();
+    private long requests;
+    private long placements;
+    private long failures;
+
+    /**
+     * @param hostCount number of hosts in the cluster
+     * @param vmsPerHost number of VMs running in the cluster per host, the density it is kept at
+     * @param selectorType the selector policy unit choosing the host from the weights
+     */
+    SchedulingSimulation(int hostCount,
+            int vmsPerHost,
+            Class<? extends PolicyUnitImpl> selectorType,
+            long seed) throws ReflectiveOperationException {
+        random = new Random(seed);
+        density = hostCount * vmsPerHost;
+
+        cluster.setId(Guid.newGuid());
+        cluster.setName("simulation");
+        cluster.setCountThreadsAsCores(false);
+        cluster.setClusterPolicyProperties(new HashMap<>());
+
+        IntStream.range(0, hostCount).mapToObj(this::createHost).forEach(host -> {
+            hosts.add(host);
+            hostsById.put(host.getId(), host);
+        });
+        // Some VMs are left stopped at any time, so there is a VM to start
+        IntStream.range(0, density + density / 4).mapToObj(this::createVm).forEach(vms::add);
+        stoppedVms.addAll(vms);
+        createAffinityGroups();
+
+        initConfig();
+        Object[] dependencies = createDependencies();
+        inject(snapshotLoader, dependencies);
+        addUnit(filters, CPUPolicyUnit.class, 1, dependencies);
+        addUnit(filters, MemoryPolicyUnit.class, 1, dependencies);
+        addUnit(filters, HugePagesFilterPolicyUnit.class, 1, dependencies);
+        addUnit(filters, NumaPolicyUnit.class, 1, dependencies);
+        addUnit(filters, VmAffinityFilterPolicyUnit.class, 1, dependencies);
+        addUnit(weights, EvenDistributionCPUWeightPolicyUnit.class, 1, dependencies);
+        addUnit(weights, EvenDistributionMemoryWeightPolicyUnit.class, 1, dependencies);
+        addUnit(weights, VmAffinityWeightPolicyUnit.class, 1, dependencies);
+        selector = createUnit(selectorType, dependencies);
+        unitNanos.put(selectorType, 0L);
+        balancer = createUnit(EvenDistributionBalancePolicyUnit.class, dependencies);
+
+        while (runningVms.size() + startingVms.size() < density && failures == 0) {
+            request();
+        }
+        startAll();
+        resetStatistics();
+    }
+
+    private VDS createHost(int index) {
+        VDS host = new VDS();
+        host.setId(Guid.newGuid());
+        host.setVdsName("host" + index);
+        host.setClusterId(cluster.getId());
+        host.setStatus(VDSStatus.Up);
+        host.setCpuSockets(2);
+        host.setCpuCores(HOST_CORES);
+        host.setCpuThreads(HOST_THREADS);
+        host.setOnlineCpus(IntStream.range(0, HOST_THREADS).mapToObj(String::valueOf).collect(Collectors.joining(",")));
+        host.setPhysicalMemMb(HOST_MEMORY_MB);
+        host.setMemCommited(0);
+        host.setReservedMem(321);
+        host.setGuestOverhead(VM_OVERHEAD_MB);
+        host.setMaxVdsMemoryOverCommit(100);
+        host.setMemFree((long) HOST_MEMORY_MB);
+        host.setSwapFree(0L);
+        host.setUsageCpuPercent(random.nextInt(10));
+        host.setVmCount(0);
+        host.setNumaSupport(true);
+        host.setNumaNodeList(Arrays.asList(createHostNumaNode(0), createHostNumaNode(1)));
+        host.setHugePages(index % 4 == 0
+                ? Collections.singletonList(new HugePage(HUGEPAGE_SIZE_KB, 64))
+                : Collections.emptyList());
+        return host;
+    }
+
+    private VdsNumaNode createHostNumaNode(int index) {
+        VdsNumaNode node = new VdsNumaNode();
+        node.setId(Guid.newGuid());
+        node.setIndex(index);
+        node.setMemTotal(HOST_MEMORY_MB / 2);
+        node.setCpuIds(IntStream.range(index * HOST_THREADS / 2, (index + 1) * HOST_THREADS / 2)
+                .boxed()
+                .collect(Collectors.toList()));
+        NumaNodeStatistics statistics = new NumaNodeStatistics();
+        statistics.setMemFree(HOST_MEMORY_MB / 2);
+        statistics.setHugePages(Collections.emptyList());
+        node.setNumaNodeStatistics(statistics);
+        return node;
+    }
+
+    /**
+     * Creates a VM of one of the shapes, in the proportions of 4 small, 3 medium, 1 large, 1 backed by hugepages and
+     * 1 pinned to the NUMA nodes of the host
+     */
+    private VM createVm(int index) {
+        VM vm = new VM();
+        vm.setId(Guid.newGuid());
+        vm.setName("vm" + index);
+        vm.setClusterId(cluster.getId());
+        vm.setStatus(VMStatus.Down);
+        vm.setMigrationSupport(MigrationSupport.MIGRATABLE);
+        vm.setNumOfSockets(1);
+        switch (index % 10) {
+        case 0:
+        case 1:
+        case 2:
+        case 3:
+            setShape(vm, 2, 4);
+            break;
+        case 4:
+        case 5:
+        case 6:
+            setShape(vm, 4, 16);
+            break;
+        case 7:
+            setShape(vm, 16, 64);
+            break;
+        case 8:
+            setShape(vm, 8, 32);
+            vm.setCustomProperties("hugepages=" + HUGEPAGE_SIZE_KB);
+            break;
+        default:
+            setShape(vm, 8, 32);
+            vm.setvNumaNodeList(Arrays.asList(createVmNumaNode(0, 16), createVmNumaNode(1, 16)));
+            break;
+        }
+        return vm;
+    }
+
+    private void setShape(VM vm, int cpus, int memoryGb) {
+        vm.setCpuPerSocket(cpus);
+        vm.setVmMemSizeMb(memoryGb * 1024);
+    }
+
+    private VmNumaNode createVmNumaNode(int index, int memoryGb) {
+        VmNumaNode node = new VmNumaNode();
+        node.setId(Guid.newGuid());
+        node.setIndex(index);
+        node.setMemTotal(memoryGb * 1024);
+        node.setCpuIds(Arrays.asList(index * 4, index * 4 + 1, index * 4 + 2, index * 4 + 3));
+        node.setVdsNumaNodeList(Collections.singletonList(index));
+        node.setNumaTuneMode(NumaTuneMode.STRICT);
+        return node;
+    }
+
+    /**
+     * Puts a third of the VMs in enforcing negative groups of 3 VMs and a fifth of them in non enforcing positive
+     * groups of 2 VMs
+     */
+    private void createAffinityGroups() {
+        List<VM> shuffled = new ArrayList<>(vms);
+        Collections.shuffle(shuffled, random);
+        int negative = shuffled.size() / 3 / 3;
+        for (int i = 0; i < negative; i++) {
+            affinityGroups.add(createAffinityGroup(EntityAffinityRule.NEGATIVE,
+                    true,
+                    shuffled.subList(i * 3, i * 3 + 3)));
+        }
+        int offset = negative * 3;
+        int positive = shuffled.size() / 5 / 2;
+        for (int i = 0; i < positive; i++) {
+            affinityGroups.add(createAffinityGroup(EntityAffinityRule.POSITIVE,
+                    false,
+                    shuffled.subList(offset + i * 2, offset + i * 2 + 2)));
+        }
+    }
+
+    private AffinityGroup createAffinityGroup(EntityAffinityRule rule, boolean enforcing, List<VM> members) {
+        AffinityGroup group = new AffinityGroup();
+        group.setId(Guid.newGuid());
+        group.setName("group" + affinityGroups.size());
+        group.setClusterId(cluster.getId());
+        group.setVmAffinityRule(rule);
+        group.setVmEnforcing(enforcing);
+        group.setVdsAffinityRule(EntityAffinityRule.DISABLED);
+        group.setVmIds(members.stream().map(VM::getId).collect(Collectors.toList()));
+        group.setPriority(1);
+        return group;
+    }
+
+    private void initConfig() {
+        Map<ConfigValues, Object> values = new EnumMap<>(ConfigValues.class);
+        values.put(ConfigValues.MaxSchedulerWeight, 1000);
+        values.put(ConfigValues.VcpuConsumptionPercentage, VCPU_LOAD_PERCENT);
+        values.put(ConfigValues.SpmVCpuConsumption, 1);
+        values.put(ConfigValues.HighUtilizationForEvenlyDistribute, 80);
+        values.put(ConfigValues.UtilizationThresholdInPercent, 80);
+        values.put(ConfigValues.CpuOverCommitDurationMinutes, 2);
+
+        IConfigUtilsInterface configUtils = mock(IConfigUtilsInterface.class, withSettings().stubOnly());
+        when(configUtils.getValue(any(), any())).thenAnswer(invocation -> values.get(invocation.getArgument(0)));
+        Config.setConfigUtils(configUtils);
+    }
+
+    /**
+     * Creates the stand-ins of the DAOs and services the policy units and the snapshot loader read from
+     */
+    private Object[] createDependencies() {
+        VmOverheadCalculator vmOverheadCalculator = mock(VmOverheadCalculator.class, withSettings().stubOnly());
+        when(vmOverheadCalculator.getStaticOverheadInMb(any())).thenReturn(VM_OVERHEAD_MB);
+        when(vmOverheadCalculator.getOverheadInMb(any())).thenReturn(VM_OVERHEAD_MB);
+        when(vmOverheadCalculator.getTotalRequiredMemMb(any())).thenAnswer(invocation ->
+                invocation.<VM> getArgument(0).getMemSizeMb() + VM_OVERHEAD_MB);
+        when(vmOverheadCalculator.getTotalRequiredMemWithoutHugePagesMb(any())).thenAnswer(invocation ->
+                HugePageUtils.getRequiredMemoryWithoutHugePages(invocation.<VM> getArgument(0).getStaticData())
+                        + VM_OVERHEAD_MB);
+        SlaValidator slaValidator = new SlaValidator();
+        slaValidator.setVmOverheadCalculator(vmOverheadCalculator);
+
+        AffinityGroupDao affinityGroupDao = mock(AffinityGroupDao.class, withSettings().stubOnly());
+        when(affinityGroupDao.getAllAffinityGroupsWithFlatLabelsByClusterId(any())).thenReturn(affinityGroups);
+        LabelDao labelDao = mock(LabelDao.class, withSettings().stubOnly());
+        when(labelDao.getAllByEntityIds(any())).thenReturn(Collections.emptyList());
+
+        // like the database, the dao returns new lists on every call
+        VmDao vmDao = mock(VmDao.class, withSettings().stubOnly());
+        when(vmDao.getAllRunningByCluster(any())).thenAnswer(invocation -> new ArrayList<>(runningVms));
+        when(vmDao.getAllRunningForMultipleVds(any())).thenAnswer(invocation ->
+                runningVmsByHost(invocation.getArgument(0)));
+        ClusterDao clusterDao = mock(ClusterDao.class, withSettings().stubOnly());
+        when(clusterDao.get(any())).thenReturn(cluster);
+
+        VmStatistics vmStatistics = new VmStatistics();
+        vmStatistics.setUsageCpuPercent(50);
+        VmManager vmManager = mock(VmManager.class, withSettings().stubOnly());
+        when(vmManager.getStatistics()).thenReturn(vmStatistics);
+        ResourceManager resourceManager = mock(ResourceManager.class, withSettings().stubOnly());
+        when(resourceManager.getVmManager(any(), anyBoolean())).thenReturn(vmManager);
+
+        return new Object[] { vmOverheadCalculator, slaValidator, affinityGroupDao, labelDao, vmDao, clusterDao,
+                resourceManager };
+    }
+
+    private Map<Guid, List<VM>> runningVmsByHost(Collection<Guid> hostIds) {
+        Map<Guid, List<VM>> vmsByHost = new HashMap<>();
+        hostIds.forEach(hostId -> vmsByHost.put(hostId, new ArrayList<>()));
+        runningVms.stream()
+                .filter(vm -> vmsByHost.containsKey(vm.getRunOnVds()))
+                .forEach(vm -> vmsByHost.get(vm.getRunOnVds()).add(vm));
+        return vmsByHost;
+    }
+
+    private void addUnit(Map<PolicyUnitImpl, Integer> units,
+            Class<? extends PolicyUnitImpl> unitType,
+            int factor,
+            Object[] dependencies) throws ReflectiveOperationException {
+        PolicyUnitImpl unit = createUnit(unitType, dependencies);
+        units.put(unit, factor);
+        unitNanos.put(unitType, 0L);
+    }
+
+    private PolicyUnitImpl createUnit(Class<? extends PolicyUnitImpl> unitType, Object[] dependencies)
+            throws ReflectiveOperationException {
+        return inject(InternalPolicyUnits.instantiate(unitType, pendingResourceManager), dependencies);
+    }
+
+    /**
+     * Sets the fields of the object, which the CDI container would inject, to the dependencies of their type
+     */
+    private static <T> T inject(T object, Object[] dependencies) throws IllegalAccessException {
+        for (Class<?> type = object.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+                    continue;
+                }
+                for (Object dependency : dependencies) {
+                    if (field.getType().isInstance(dependency)) {
+                        field.setAccessible(true);
+                        field.set(object, dependency);
+                    }
+                }
+            }
+        }
+        return object;
+    }
+
+    /**
+     * Replays the next request of the stream, every fifth request migrates a running VM and the others start a VM
+     *
+     * @return the host the VM was placed on
+     */
+    Optional<Guid> request() {
+        requests++;
+        while (startingVms.size() >= START_LAG) {
+            start(startingVms.poll());
+        }
+
+        if (requests % 5 == 0 && !runningVms.isEmpty()) {
+            VM vm = runningVms.get(random.nextInt(runningVms.size()));
+            Optional<Guid> hostId = schedule(vm, hosts.stream()
+                    .filter(host -> !host.getId().equals(vm.getRunOnVds()))
+                    .collect(Collectors.toList()));
+            hostId.ifPresent(id -> migrate(vm, hostsById.get(id)));
+            return hostId;
+        }
+
+        if (runningVms.size() + startingVms.size() >= density) {
+            stop(runningVms.get(random.nextInt(runningVms.size())));
+        }
+        VM vm = stoppedVms.remove(random.nextInt(stoppedVms.size()));
+        Optional<Guid> hostId = schedule(vm, hosts);
+        if (hostId.isPresent()) {
+            addPendingResources(vm, hostsById.get(hostId.get()));
+            startingVms.add(vm);
+        } else {
+            stoppedVms.add(vm);
+        }
+        return hostId;
+    }
+
+    /**
+     * Runs the filters, the weights and the selector for the VM as {@code SchedulingManager} does
+     */
+    private Optional<Guid> schedule(VM vm, List<VDS> candidateHosts) {
+        ClusterSnapshot snapshot = snapshotLoader.load(cluster, Collections.singletonList(vm));
+        SchedulingContext context = new SchedulingContext(snapshot, cluster.getClusterPolicyProperties());
+        PerHostMessages messages = new PerHostMessages();
+        List<VM> vmGroup = Collections.singletonList(vm);
+
+        List<VDS> hostList = candidateHosts;
+        for (PolicyUnitImpl filter : filters.keySet()) {
+            long start = System.nanoTime();
+            hostList = filter.filter(context, hostList, vmGroup, messages);
+            unitNanos.merge(filter.getClass(), System.nanoTime() - start, Long::sum);
+            if (hostList.isEmpty()) {
+                failures++;
+                return Optional.empty();
+            }
+        }
+
+        long start = System.nanoTime();
+        SelectorInstance selectorInstance = selector.selector(cluster.getClusterPolicyProperties());
+        selectorInstance.init(weights.entrySet().stream()
+                        .map(entry -> new Pair<>(entry.getKey().getPolicyUnit().getId(), entry.getValue()))
+                        .collect(Collectors.toList()),
+                hostList.stream().map(VDS::getId).collect(Collectors.toList()));
+        unitNanos.merge(selector.getClass(), System.nanoTime() - start, Long::sum);
+
+        for (PolicyUnitImpl weight : weights.keySet()) {
+            start = System.nanoTime();
+            for (Pair<Guid, Integer> score : weight.score(context, hostList, vmGroup)) {
+                selectorInstance.record(weight.getPolicyUnit().getId(), score.getFirst(), score.getSecond());
+            }
+            unitNanos.merge(weight.getClass(), System.nanoTime() - start, Long::sum);
+        }
+
+        start = System.nanoTime();
+        Optional<Guid> best = selectorInstance.best();
+        unitNanos.merge(selector.getClass(), System.nanoTime() - start, Long::sum);
+        if (best.isPresent()) {
+            placements++;
+        } else {
+            failures++;
+        }
+        return best;
+    }
+
+    /**
+     * Adds the pending resources of the VM to the host, as {@code SchedulingManager} does after placing it
+     */
+    private void addPendingResources(VM vm, VDS host) {
+        vm.setRunOnVds(host.getId());
+        vm.setStatus(VMStatus.WaitForLaunch);
+        pendingResourceManager.addPending(new PendingCpuCores(host.getId(), vm, vm.getNumOfCpus()));
+        pendingResourceManager.addPending(new PendingMemory(host.getId(), vm, VM_OVERHEAD_MB));
+        pendingResourceManager.addPending(new PendingOvercommitMemory(host.getId(),
+                vm,
+                HugePageUtils.getRequiredMemoryWithoutHugePages(vm.getStaticData()) + VM_OVERHEAD_MB));
+        pendingResourceManager.addPending(new PendingVM(host.getId(), vm));
+        pendingResourceManager.addPending(new PendingCpuLoad(host.getId(), vm, VCPU_LOAD_PERCENT * vm.getNumOfCpus()));
+        HugePageUtils.getHugePages(vm.getStaticData()).forEach((size, count) ->
+                pendingResourceManager.addPending(new PendingHugePages(host.getId(), vm, size, count)));
+        updatePendingData(host);
+    }
+
+    private void updatePendingData(VDS host) {
+        host.setPendingVcpusCount(PendingCpuCores.collectForHost(pendingResourceManager, host.getId()));
+        host.setPendingVmemSize(PendingOvercommitMemory.collectForHost(pendingResourceManager, host.getId())
+                + HugePageUtils.totalHugePageMemMb(PendingHugePages.collectForHost(pendingResourceManager,
+                        host.getId())));
+    }
+
+    private void start(VM vm) {
+        VDS host = hostsById.get(vm.getRunOnVds());
+        pendingResourceManager.clearVm(vm.getStaticData());
+        updatePendingData(host);
+        vm.setStatus(VMStatus.Up);
+        addToHost(vm, host);
+        runningVms.add(vm);
+    }
+
+    private void startAll() {
+        while (!startingVms.isEmpty()) {
+            start(startingVms.poll());
+        }
+    }
+
+    private void stop(VM vm) {
+        removeFromHost(vm, hostsById.get(vm.getRunOnVds()));
+        runningVms.remove(vm);
+        vm.setRunOnVds(null);
+        vm.setStatus(VMStatus.Down);
+        stoppedVms.add(vm);
+    }
+
+    private void migrate(VM vm, VDS destination) {
+        removeFromHost(vm, hostsById.get(vm.getRunOnVds()));
+        vm.setRunOnVds(destination.getId());
+        addToHost(vm, destination);
+    }
+
+    private void addToHost(VM vm, VDS host) {
+        updateHost(host, vm, 1);
+    }
+
+    private void removeFromHost(VM vm, VDS host) {
+        updateHost(host, vm, -1);
+    }
+
+    private void updateHost(VDS host, VM vm, int sign) {
+        int memory = HugePageUtils.getRequiredMemoryWithoutHugePages(vm.getStaticData()) + VM_OVERHEAD_MB;
+        host.setMemCommited(host.getMemCommited() + sign * memory);
+        host.setMemFree(host.getMemFree() - sign * memory);
+        host.setVmCount(host.getVmCount() + sign);
+        host.setVmActive(host.getVmCount());
+        host.setUsageCpuPercent(Math.max(0, host.getUsageCpuPercent()
+                + sign * VCPU_LOAD_PERCENT * vm.getNumOfCpus() / HOST_THREADS));
+        host.setCpuOverCommitTimestamp(host.getUsageCpuPercent() >= 80 ? new Date(0) : null);
+
+        List<HugePage> hugePages = new ArrayList<>();
+        Map<Integer, Integer> vmHugePages = HugePageUtils.getHugePages(vm.getStaticData());
+        for (HugePage hugePage : host.getHugePages()) {
+            int count = vmHugePages.getOrDefault(hugePage.getSizeKB(), 0);
+            hugePages.add(new HugePage(hugePage.getSizeKB(), hugePage.getAmount() - sign * count));
+        }
+        host.setHugePages(hugePages);
+
+        List<VmNumaNode> vmNodes = vm.getvNumaNodeList();
+        for (VmNumaNode vmNode : vmNodes) {
+            for (Integer index : vmNode.getVdsNumaNodeList()) {
+                NumaNodeStatistics statistics = host.getNumaNodeList().get(index).getNumaNodeStatistics();
+                statistics.setMemFree(statistics.getMemFree() - sign * vmNode.getMemTotal());
+            }
+        }
+    }
+
+    /**
+     * Balances the cluster with the even distribution balancer
+     */
+    List<BalanceResult> balance() {
+        return balancer.balance(cluster, hosts, cluster.getClusterPolicyProperties());
+    }
+
+    void resetStatistics() {
+        unitNanos.replaceAll((unit, nanos) -> 0L);
+        placements = 0;
+        failures = 0;
+        requests = 0;
+    }
+
+    long getPlacements() {
+        return placements;
+    }
+
+    long getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return the time the unit of the type took per VM scheduled since the statistics were reset, the selector
+     *         included
+     */
+    long getUnitNanosPerRequest(Class<? extends PolicyUnitImpl> unitType) {
+        return unitNanos.getOrDefault(unitType, 0L) / Math.max(1, placements + failures);
+    }
+
+    long getSelectorNanosPerRequest() {
+        return getUnitNanosPerRequest(selector.getClass());
+    }
+
+    double getCommittedMemoryMeanPercent() {
+        return Arrays.stream(getCommittedMemoryUsage()).average().orElse(0) * 100;
+    }
+
+    /**
+     * @return the standard deviation of the committed memory of the hosts, the lower the more even the spread
+     */
+    double getCommittedMemoryDeviationPercent() {
+        double[] memoryUsage = getCommittedMemoryUsage();
+        double mean = Arrays.stream(memoryUsage).average().orElse(0);
+        return Math.sqrt(Arrays.stream(memoryUsage).map(usage -> (usage - mean) * (usage - mean))
+                .average()
+                .orElse(0)) * 100;
+    }
+
+    long getIdleHostCount() {
+        return hosts.stream().filter(host -> host.getVmCount() == 0).count();
+    }
+
+    /**
+     * @return the number of enforcing negative affinity groups of which running VMs share a host
+     */
+    long getBrokenNegativeAffinityGroupCount() {
+        return countBrokenAffinityGroups(AffinityGroup::isVmNegative, (distinctHosts, vms) -> distinctHosts < vms);
+    }
+
+    /**
+     * @return the number of positive affinity groups of which running VMs are spread on several hosts
+     */
+    long getBrokenPositiveAffinityGroupCount() {
+        return countBrokenAffinityGroups(AffinityGroup::isVmPositive, (distinctHosts, vms) -> distinctHosts > 1);
+    }
+
+    private double[] getCommittedMemoryUsage() {
+        return hosts.stream()
+                .mapToDouble(host -> (double) host.getMemCommited() / host.getPhysicalMemMb())
+                .toArray();
+    }
+
+    private long countBrokenAffinityGroups(Predicate<AffinityGroup> kind, BiPredicate<Long, Long> broken) {
+        Map<Guid, Guid> hostByVm = new HashMap<>();
+        runningVms.forEach(vm -> hostByVm.put(vm.getId(), vm.getRunOnVds()));
+        return affinityGroups.stream()
+                .filter(kind)
+                .filter(group -> {
+                    List<Guid> groupHosts = group.getVmIds().stream()
+                            .map(hostByVm::get)
+                            .filter(hostId -> hostId != null)
+                            .collect(Collectors.toList());
+                    return broken.test(groupHosts.stream().distinct().count(), (long) groupHosts.size());
+                })
+                .count();
+    }
+}
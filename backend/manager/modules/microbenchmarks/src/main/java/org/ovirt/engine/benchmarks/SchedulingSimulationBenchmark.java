@@ -0,0 +1,137 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ovirt.engine.core.bll.scheduling.external.BalanceResult;
+import org.ovirt.engine.core.bll.scheduling.policyunits.ArrayRankSelectorPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.CPUPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.EvenDistributionCPUWeightPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.EvenDistributionMemoryWeightPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.HugePagesFilterPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.MemoryPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.NumaPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.RankSelectorPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.VmAffinityFilterPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.VmAffinityWeightPolicyUnit;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * <p> Benchmarks the internal policy units placing VMs in a synthetic cluster of {@code hosts} hosts, see
+ * {@link SchedulingSimulation} for the cluster and the stream of requests replayed. {@code schedule} places a VM by a
+ * request of the stream, {@code balance} runs the even distribution balancer on the cluster. The host is chosen by the
+ * {@link ArrayRankSelectorPolicyUnit} when {@code arraySelector} is set, by the {@link RankSelectorPolicyUnit}
+ * otherwise.</p>
+ * <p> The time of each unit per request and the quality of the placements of an iteration are reported as secondary
+ * results, see {@link SchedulingStatistics}, the allocations are measured by running the benchmark with
+ * {@code -prof gc}. Run the benchmark on the parent commit to compare a change to the units.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SchedulingSimulationBenchmark {
+
+    @Benchmark
+    public Optional<Guid> schedule(BenchmarkState state, SchedulingStatistics statistics) {
+        return state.simulation.request();
+    }
+
+    @Benchmark
+    public List<BalanceResult> balance(BenchmarkState state, SchedulingStatistics statistics) {
+        return state.simulation.balance();
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        @Param({ "50", "200", "1000" })
+        private int hosts;
+
+        @Param({ "20" })
+        private int vmsPerHost;
+
+        @Param({ "false", "true" })
+        private boolean arraySelector;
+
+        private SchedulingSimulation simulation;
+
+        @Setup
+        public void setup() throws ReflectiveOperationException {
+            simulation = new SchedulingSimulation(hosts,
+                    vmsPerHost,
+                    arraySelector ? ArrayRankSelectorPolicyUnit.class : RankSelectorPolicyUnit.class,
+                    42);
+        }
+
+        @Setup(Level.Iteration)
+        public void resetStatistics() {
+            simulation.resetStatistics();
+        }
+    }
+
+    /**
+     * The statistics of the simulation over an iteration, the times are in nanoseconds per VM scheduled and the
+     * committed memory in percents of the memory of the hosts
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SchedulingStatistics {
+
+        public long placements;
+        public long failures;
+
+        public long cpuFilterNanos;
+        public long memoryFilterNanos;
+        public long hugePagesFilterNanos;
+        public long numaFilterNanos;
+        public long affinityFilterNanos;
+        public long cpuWeightNanos;
+        public long memoryWeightNanos;
+        public long affinityWeightNanos;
+        public long selectorNanos;
+
+        public double committedMemoryMean;
+        public double committedMemoryDeviation;
+        public long idleHosts;
+        public long brokenNegativeAffinityGroups;
+        public long brokenPositiveAffinityGroups;
+
+        @TearDown(Level.Iteration)
+        public void collect(BenchmarkState state) {
+            SchedulingSimulation simulation = state.simulation;
+            placements = simulation.getPlacements();
+            failures = simulation.getFailures();
+
+            cpuFilterNanos = simulation.getUnitNanosPerRequest(CPUPolicyUnit.class);
+            memoryFilterNanos = simulation.getUnitNanosPerRequest(MemoryPolicyUnit.class);
+            hugePagesFilterNanos = simulation.getUnitNanosPerRequest(HugePagesFilterPolicyUnit.class);
+            numaFilterNanos = simulation.getUnitNanosPerRequest(NumaPolicyUnit.class);
+            affinityFilterNanos = simulation.getUnitNanosPerRequest(VmAffinityFilterPolicyUnit.class);
+            cpuWeightNanos = simulation.getUnitNanosPerRequest(EvenDistributionCPUWeightPolicyUnit.class);
+            memoryWeightNanos = simulation.getUnitNanosPerRequest(EvenDistributionMemoryWeightPolicyUnit.class);
+            affinityWeightNanos = simulation.getUnitNanosPerRequest(VmAffinityWeightPolicyUnit.class);
+            selectorNanos = simulation.getSelectorNanosPerRequest();
+
+            committedMemoryMean = simulation.getCommittedMemoryMeanPercent();
+            committedMemoryDeviation = simulation.getCommittedMemoryDeviationPercent();
+            idleHosts = simulation.getIdleHostCount();
+            brokenNegativeAffinityGroups = simulation.getBrokenNegativeAffinityGroupCount();
+            brokenPositiveAffinityGroups = simulation.getBrokenPositiveAffinityGroupCount();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.ovirt.engine.benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.Field;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.config.IConfigUtilsInterface;
+import org.ovirt.engine.core.dao.BaseDao;
+import org.ovirt.engine.core.dao.VmDaoImpl;
+import org.ovirt.engine.core.searchbackend.ISyntaxChecker;
+import org.ovirt.engine.core.searchbackend.ParameterizedQuery;
+import org.ovirt.engine.core.searchbackend.SyntaxCheckerFactory;
+import org.ovirt.engine.core.searchbackend.SyntaxContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * <p> Benchmarks a typical VM search, {@code Vms: status=up and cluster=X}, with a different cluster on each
+ * invocation.</p>
+ * <p> <b>literal</b> generates the query with the values as literals and checks it for sql injection, as the search
+ * did before its queries were parameterized, <b>parameterized</b> generates the query with the values as parameters.
+ * The search text is parsed and the query is generated on each invocation, as happens for the searches that are not in
+ * the search query cache.</p>
+ * <p> When the {@code jdbcUrl} parameter is given, e.g. {@code -p jdbcUrl=jdbc:postgresql://localhost/engine
+ * -p dbUser=engine -p dbPassword=...}, the query is also executed through {@code VmDaoImpl.getAllUsingQuery} on the
+ * given database, where the parameterized query can reuse the plan the server prepared for its previous
+ * executions.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchQueryBenchmark {
+
+    private static final int CLUSTERS = 100;
+
+    @Benchmark
+    public Object literal(BenchmarkState state) {
+        SyntaxContainer syntax = state.parse();
+        String query = state.syntaxChecker.generateQueryFromSyntaxContainer(syntax, false);
+        return state.vmDao == null ? query : state.vmDao.getAllUsingQuery(query);
+    }
+
+    @Benchmark
+    public Object parameterized(BenchmarkState state) {
+        SyntaxContainer syntax = state.parse();
+        ParameterizedQuery query = state.syntaxChecker.generateParameterizedQueryFromSyntaxContainer(syntax, false);
+        return state.vmDao == null
+                ? query
+                : state.vmDao.getAllUsingQuery(query.getQuery(), query.getParameters().toArray());
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        @Param({ "" })
+        private String jdbcUrl;
+
+        @Param({ "engine" })
+        private String dbUser;
+
+        @Param({ "" })
+        private String dbPassword;
+
+        private ISyntaxChecker syntaxChecker;
+        private SingleConnectionDataSource dataSource;
+        private VmDaoImpl vmDao;
+
+        @Setup
+        public void setup() throws Exception {
+            Map<ConfigValues, Object> configValues = new EnumMap<>(ConfigValues.class);
+            configValues.put(ConfigValues.DBEngine, "Postgres");
+            configValues.put(ConfigValues.DBI18NPrefix, "");
+            configValues.put(ConfigValues.DBPagingType, "Range");
+            configValues.put(ConfigValues.DBPagingSyntax, " WHERE RowNum BETWEEN %1$s AND %2$s");
+            configValues.put(ConfigValues.DBSearchTemplate,
+                    "SELECT * FROM (SELECT *, ROW_NUMBER() OVER(%1$s) as RowNum FROM (%2$s)) as T1 ) as T2 %3$s");
+            IConfigUtilsInterface configUtils = mock(IConfigUtilsInterface.class, withSettings().stubOnly());
+            when(configUtils.getValue(any(), any())).thenAnswer(invocation -> configValues.get(invocation.getArgument(0)));
+            Config.setConfigUtils(configUtils);
+
+            syntaxChecker = SyntaxCheckerFactory.createBackendSyntaxChecker("");
+
+            if (!jdbcUrl.isEmpty()) {
+                dataSource = new SingleConnectionDataSource(jdbcUrl, dbUser, dbPassword, true);
+                vmDao = new VmDaoImpl();
+                Field field = BaseDao.class.getDeclaredField("jdbcTemplate");
+                field.setAccessible(true);
+                field.set(vmDao, new JdbcTemplate(dataSource));
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            if (dataSource != null) {
+                dataSource.destroy();
+            }
+        }
+
+        SyntaxContainer parse() {
+            String searchText = "Vms: status=up and cluster=cluster" + ThreadLocalRandom.current().nextInt(CLUSTERS);
+            SyntaxContainer syntax = syntaxChecker.analyzeSyntaxState(searchText, true);
+            syntax.setMaxCount(100);
+            return syntax;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.ovirt.engine.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.businessentities.VMStatus;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.CustomMapSqlParameterSource;
+import org.ovirt.engine.core.dal.dbbroker.PostgresDbEngineDialect;
+import org.ovirt.engine.core.dal.dbbroker.SqlCallParameter;
+import org.ovirt.engine.core.dal.dbbroker.StoredProcedureParametersBinder;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+/**
+ * <p> Benchmark's binding a batch of 10k stored procedure calls, shaped like the VM statistics updates done by the
+ * monitoring, to a statement.</p>
+ * <p> <b>legacy</b> is the per row map iteration and reflection based conversion that was used by
+ * {@code BatchProcedureExecutionConnectionCallback} before the {@link StoredProcedureParametersBinder} was
+ * introduced, <b>compiled</b> is the binder. The statement is a no-op, so only the binding itself is measured.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StoredProcedureBindingBenchmark {
+
+    private static final int ROWS = 10000;
+
+    @Benchmark
+    public void legacy(BenchmarkState state) throws SQLException {
+        for (MapSqlParameterSource row : state.rows) {
+            state.legacyMapParams(row);
+        }
+    }
+
+    @Benchmark
+    public void compiled(BenchmarkState state) throws SQLException {
+        for (MapSqlParameterSource row : state.rows) {
+            state.binder.bind(state.stmt, row.getValues());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        private final PostgresDbEngineDialect dialect = new PostgresDbEngineDialect();
+        private List<MapSqlParameterSource> rows;
+        private Map<String, SqlCallParameter> paramOrder;
+        private StoredProcedureParametersBinder binder;
+        private PreparedStatement stmt;
+
+        @Setup
+        public void setup(Blackhole blackhole) {
+            String prefix = dialect.getParamNamePrefix();
+            String[] names = { "vm_guid", "status", "cpu_sys", "cpu_user", "elapsed_time", "usage_cpu_percent",
+                    "usage_mem_percent", "usage_network_percent", "disks_usage", "guest_mem_buffered",
+                    "guest_mem_cached", "last_watchdog_event", "run_on_vds", "is_run_once" };
+            int[] types = { Types.OTHER, Types.INTEGER, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC,
+                    Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.BIGINT,
+                    Types.BIGINT, Types.TIMESTAMP, Types.OTHER, Types.BOOLEAN };
+            paramOrder = new HashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                paramOrder.put(prefix + names[i], new SqlCallParameter(i + 1, prefix + names[i], types[i]));
+            }
+            binder = new StoredProcedureParametersBinder(paramOrder.values(), prefix);
+
+            rows = new ArrayList<>(ROWS);
+            Guid host = Guid.newGuid();
+            for (int i = 0; i < ROWS; i++) {
+                rows.add(new CustomMapSqlParameterSource(dialect)
+                        .addValue("vm_guid", Guid.newGuid())
+                        .addValue("status", VMStatus.Up)
+                        .addValue("cpu_sys", 1.5d)
+                        .addValue("cpu_user", 2.5d)
+                        .addValue("elapsed_time", 1000d + i)
+                        .addValue("usage_cpu_percent", i % 100)
+                        .addValue("usage_mem_percent", i % 100)
+                        .addValue("usage_network_percent", i % 100)
+                        .addValue("disks_usage", "[]")
+                        .addValue("guest_mem_buffered", 1024L)
+                        .addValue("guest_mem_cached", 2048L)
+                        .addValue("last_watchdog_event", new Date())
+                        .addValue("run_on_vds", host));
+            }
+
+            stmt = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    (proxy, method, args) -> {
+                        blackhole.consume(args);
+                        return null;
+                    });
+        }
+
+        /**
+         * The binding as it was done before the {@link StoredProcedureParametersBinder}
+         */
+        private void legacyMapParams(MapSqlParameterSource paramSource) throws SQLException {
+            Map<String, Object> values = paramSource.getValues();
+            for (Map.Entry<String, SqlCallParameter> paramOrderEntry : paramOrder.entrySet()) {
+                String paramName = paramOrderEntry.getKey();
+                Object value = values.get(paramName);
+                if (value == null && paramName.startsWith(dialect.getParamNamePrefix())) {
+                    value = values.get(paramName.substring(dialect.getParamNamePrefix().length()));
+                }
+
+                SqlCallParameter sqlParam = paramOrderEntry.getValue();
+
+                if (value != null) {
+                    if (value.getClass().isEnum()) {
+                        try {
+                            Method method = value.getClass().getMethod("getValue");
+                            value = method.invoke(value);
+                        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException ex) {
+                            // ignored, the enum is bound as is
+                        }
+                    }
+
+                    if (value instanceof Guid) {
+                        value = value.toString();
+                    }
+
+                    if (sqlParam.getDataType() == Types.TIMESTAMP) {
+                        value = new Timestamp(((Date) value).getTime());
+                    }
+                } else {
+                    if (sqlParam.getDataType() == Types.BOOLEAN || sqlParam.getDataType() == Types.BIT) {
+                        value = false;
+                    }
+                }
+
+                stmt.setObject(sqlParam.getOrdinal(), value);
+            }
+        }
+    }
+}
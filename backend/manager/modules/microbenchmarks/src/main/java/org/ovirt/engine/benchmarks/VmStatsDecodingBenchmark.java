@@ -0,0 +1,151 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsBrokerObjectsBuilder;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsProperties;
+
+/**
+ * <p> Benchmarks the conversion of a {@code Host.getAllVmStats} response into the engine's business entities, as
+ * done by {@code GetAllVmStatsVDSCommand} for every VM on every statistics poll of a host.</p>
+ * <p> The response is synthetic but has the shape and the value types of what the json-rpc client hands over for a
+ * running VM: nested maps whose numbers are mostly strings, with a NIC, two disks, the guest memory statistics and
+ * the balloon info of every VM.</p>
+ * <p> Run it with {@code -prof gc} to see the allocation rate per decoded response next to its duration, and on two
+ * revisions to compare them.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VmStatsDecodingBenchmark {
+
+    @Benchmark
+    public void decodeAllVmStats(BenchmarkState state, Blackhole blackhole) {
+        VdsBrokerObjectsBuilder builder = state.vdsBrokerObjectsBuilder;
+        for (Map<String, Object> struct : state.allVmStats) {
+            blackhole.consume(builder.buildVMDynamicData(struct, state.host));
+            blackhole.consume(builder.getVdsmCallTimestamp(struct));
+            blackhole.consume(builder.buildVMStatisticsData(struct));
+            blackhole.consume(builder.buildInterfaceStatisticsData(struct));
+            blackhole.consume(builder.buildVmBalloonInfo(struct));
+            blackhole.consume(builder.buildVmLunDisksData(struct));
+            blackhole.consume(builder.buildVmDiskStatistics(struct));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "300" })
+        private int vms;
+
+        private VdsBrokerObjectsBuilder vdsBrokerObjectsBuilder;
+        private VDS host;
+        private List<Map<String, Object>> allVmStats;
+
+        @Setup
+        public void setup() {
+            // the conversion of the VM statistics does not use the injected members of the builder
+            vdsBrokerObjectsBuilder = new VdsBrokerObjectsBuilder();
+            host = new VDS();
+            host.setHostName("host.example.com");
+
+            allVmStats = new ArrayList<>(vms);
+            for (int i = 0; i < vms; i++) {
+                allVmStats.add(createVmStats(i));
+            }
+        }
+
+        private static Map<String, Object> createVmStats(int index) {
+            Map<String, Object> vm = new HashMap<>();
+            vm.put(VdsProperties.vm_guid, Guid.newGuid().toString());
+            vm.put(VdsProperties.status, "Up");
+            vm.put(VdsProperties.statusTime, "4295678120");
+            vm.put(VdsProperties.hash, Integer.toString(index));
+            vm.put(VdsProperties.session, "Unknown");
+            vm.put(VdsProperties.acpiEnable, "true");
+            vm.put(VdsProperties.utc_diff, "0");
+            vm.put(VdsProperties.monitorResponse, "0");
+            vm.put(VdsProperties.clientIp, "");
+            vm.put(VdsProperties.guest_cur_user_name, "None");
+            vm.put(VdsProperties.VM_FQDN, "vm" + index + ".example.com");
+            vm.put(VdsProperties.GUEST_CPU_COUNT, 4);
+            vm.put(VdsProperties.elapsed_time, "86400.21");
+            vm.put(VdsProperties.cpu_sys, "0.87");
+            vm.put(VdsProperties.cpu_user, "12.40");
+            vm.put(VdsProperties.vm_usage_mem_percent, "41");
+            vm.put(VdsProperties.displayInfo, new Object[] {
+                    map(VdsProperties.type, "spice",
+                            VdsProperties.ipAddress, "0",
+                            VdsProperties.port, "5900",
+                            VdsProperties.tlsPort, "5901") });
+
+            vm.put(VdsProperties.vm_guest_mem_stats, map(
+                    VdsProperties.vm_guest_mem_buffered, "262144",
+                    VdsProperties.vm_guest_mem_cached, "1048576",
+                    VdsProperties.vm_guest_mem_free, "2097152",
+                    VdsProperties.vm_guest_mem_unused, "1572864"));
+            vm.put(VdsProperties.vm_balloonInfo, map(
+                    VdsProperties.vm_balloon_cur, "4194304",
+                    VdsProperties.vm_balloon_max, "4194304",
+                    VdsProperties.vm_balloon_min, "4194304",
+                    VdsProperties.vm_balloon_target, "4194304"));
+
+            Map<String, Object> network = new HashMap<>();
+            network.put("vnet" + index, map(
+                    VdsProperties.VM_INTERFACE_NAME, "vnet" + index,
+                    VdsProperties.MAC_ADDR, "56:6f:1a:2b:00:01",
+                    VdsProperties.rx_dropped, "0",
+                    VdsProperties.rx_total, "1234567890",
+                    VdsProperties.tx_dropped, "0",
+                    VdsProperties.tx_total, "987654321",
+                    VdsProperties.sample_time, "4295678.12",
+                    VdsProperties.INTERFACE_SPEED, "1000"));
+            vm.put(VdsProperties.VM_NETWORK, network);
+
+            Map<String, Object> disks = new HashMap<>();
+            disks.put("vda", createDiskStats());
+            disks.put("vdb", createDiskStats());
+            vm.put(VdsProperties.vm_disks, disks);
+            return vm;
+        }
+
+        private static Map<String, Object> createDiskStats() {
+            return map(VdsProperties.image_group_id, Guid.newGuid().toString(),
+                    VdsProperties.vm_disk_read_rate, "1536.00",
+                    VdsProperties.vm_disk_read_ops, "12345",
+                    VdsProperties.vm_disk_write_rate, "4096.00",
+                    VdsProperties.vm_disk_write_ops, "67890",
+                    VdsProperties.vm_disk_read_latency, "150000",
+                    VdsProperties.vm_disk_write_latency, "270000",
+                    VdsProperties.vm_disk_flush_latency, "90000",
+                    VdsProperties.disk_true_size, "10737418240");
+        }
+
+        private static Map<String, Object> map(String... keysAndValues) {
+            Map<String, Object> map = new HashMap<>();
+            for (int i = 0; i < keysAndValues.length; i += 2) {
+                map.put(keysAndValues[i], keysAndValues[i + 1]);
+            }
+            return map;
+        }
+    }
+}
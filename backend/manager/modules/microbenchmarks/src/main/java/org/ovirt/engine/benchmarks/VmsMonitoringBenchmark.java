@@ -0,0 +1,222 @@
+package org.ovirt.engine.benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.stubbing.Answer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.businessentities.IVdsEventListener;
+import org.ovirt.engine.core.common.businessentities.VMStatus;
+import org.ovirt.engine.core.common.businessentities.VmDynamic;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.DiskImageDynamicDao;
+import org.ovirt.engine.core.dao.VmDynamicDao;
+import org.ovirt.engine.core.dao.VmGuestAgentInterfaceDao;
+import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.ovirt.engine.core.vdsbroker.VmManager;
+import org.ovirt.engine.core.vdsbroker.monitoring.BalloonMonitoring;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoringStatistics;
+import org.ovirt.engine.core.vdsbroker.monitoring.LunDisksMonitoring;
+import org.ovirt.engine.core.vdsbroker.monitoring.StatisticsWriteBehindBuffer;
+import org.ovirt.engine.core.vdsbroker.monitoring.VdsmVm;
+import org.ovirt.engine.core.vdsbroker.monitoring.VmAnalyzer;
+import org.ovirt.engine.core.vdsbroker.monitoring.VmAnalyzerFactory;
+import org.ovirt.engine.core.vdsbroker.monitoring.VmJobsMonitoring;
+import org.ovirt.engine.core.vdsbroker.monitoring.VmsMonitoring;
+
+/**
+ * <p> Benchmark's the duration of a single VMs monitoring cycle of a host, as a function of the number of VMs it
+ * reports and of the parallelism of {@link VmsMonitoring}.</p>
+ * <p> The cycle is synthetic: the analysis of every VM burns a fixed amount of CPU and every database update sleeps
+ * for a fixed latency, so the numbers show the effect of fanning the analysis and the flush out rather than the
+ * cost of the real {@link VmAnalyzer}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VmsMonitoringBenchmark {
+
+    @Benchmark
+    public void monitoringCycle(BenchmarkState state) {
+        state.vmsMonitoring.perform(state.monitoredVms, System.currentTimeMillis(), state.vdsManager, true);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "50", "200", "500" })
+        private int vms;
+
+        @Param({ "1", "4", "8" })
+        private int parallelism;
+
+        /** CPU work units spent on analyzing a single VM */
+        @Param({ "20000" })
+        private int analyzeTokens;
+
+        /** Latency of a single database update */
+        @Param({ "5" })
+        private int dbLatencyMillis;
+
+        private SyntheticVmsMonitoring vmsMonitoring;
+        private VdsManager vdsManager;
+        private List<Pair<VmDynamic, VdsmVm>> monitoredVms;
+        private ExecutorService executor;
+
+        @Setup
+        public void setup() throws Exception {
+            executor = Executors.newFixedThreadPool(64);
+            ThreadPoolUtil.setExecutorService(executor);
+
+            Guid vdsId = Guid.newGuid();
+            vdsManager = stub(VdsManager.class);
+            when(vdsManager.getVdsId()).thenReturn(vdsId);
+            when(vdsManager.getVdsName()).thenReturn("host");
+            when(vdsManager.getMonitoringStatistics()).thenReturn(new HostMonitoringStatistics());
+
+            Map<Guid, VmManager> vmManagers = new HashMap<>();
+            monitoredVms = new ArrayList<>(vms);
+            for (int i = 0; i < vms; i++) {
+                VmDynamic vm = new VmDynamic();
+                vm.setId(Guid.newGuid());
+                vm.setStatus(VMStatus.Up);
+                vm.setRunOnVds(vdsId);
+                monitoredVms.add(new Pair<>(vm, new VdsmVm(0d).setVmDynamic(vm)));
+
+                VmManager vmManager = stub(VmManager.class);
+                when(vmManager.tryLockVm()).thenReturn(true);
+                when(vmManager.isLatestData(any(), any())).thenReturn(true);
+                vmManagers.put(vm.getId(), vmManager);
+            }
+
+            vmsMonitoring = new SyntheticVmsMonitoring(vmManagers, parallelism, analyzeTokens);
+            inject(vmsMonitoring, "resourceManager", stub(ResourceManager.class));
+            inject(vmsMonitoring, "balloonMonitoring", stub(BalloonMonitoring.class));
+            inject(vmsMonitoring, "lunDisksMonitoring", stub(LunDisksMonitoring.class));
+            inject(vmsMonitoring, "vmJobsMonitoring", stub(VmJobsMonitoring.class));
+            inject(vmsMonitoring, "diskImageDynamicDao", slowDao(DiskImageDynamicDao.class));
+            inject(vmsMonitoring, "vmDynamicDao", slowDao(VmDynamicDao.class));
+            inject(vmsMonitoring, "vmNetworkStatisticsDao", slowDao(VmNetworkStatisticsDao.class));
+            inject(vmsMonitoring, "statisticsBuffer", slowDao(StatisticsWriteBehindBuffer.class));
+            inject(vmsMonitoring, "vmGuestAgentInterfaceDao", slowDao(VmGuestAgentInterfaceDao.class));
+        }
+
+        @TearDown
+        public void tearDown() {
+            executor.shutdownNow();
+        }
+
+        private static <T> T stub(Class<T> type) {
+            // stubs don't record their invocations, which would otherwise pile up along the run
+            return mock(type, withSettings().stubOnly());
+        }
+
+        private <T> T slowDao(Class<T> type) {
+            Answer<Object> slowUpdate = invocation -> {
+                Thread.sleep(dbLatencyMillis);
+                return null;
+            };
+            return mock(type, withSettings().stubOnly().defaultAnswer(slowUpdate));
+        }
+
+        private static void inject(VmsMonitoring target, String fieldName, Object value) throws Exception {
+            Field field = VmsMonitoring.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        }
+    }
+
+    private static class SyntheticVmsMonitoring extends VmsMonitoring {
+
+        private final Map<Guid, VmManager> vmManagers;
+        private final int parallelism;
+        private final int analyzeTokens;
+        private final IVdsEventListener eventListener = BenchmarkState.stub(IVdsEventListener.class);
+
+        SyntheticVmsMonitoring(Map<Guid, VmManager> vmManagers, int parallelism, int analyzeTokens) {
+            this.vmManagers = vmManagers;
+            this.parallelism = parallelism;
+            this.analyzeTokens = analyzeTokens;
+        }
+
+        @Override
+        protected VmAnalyzerFactory getVmAnalyzerFactory(VdsManager vdsManager, boolean statistics) {
+            return new VmAnalyzerFactory(vdsManager, statistics, null, null, null, null, null) {
+                @Override
+                protected VmAnalyzer getVmAnalyzer(Pair<VmDynamic, VdsmVm> monitoredVm) {
+                    return new SyntheticVmAnalyzer(monitoredVm.getFirst(), monitoredVm.getSecond(), analyzeTokens);
+                }
+            };
+        }
+
+        @Override
+        protected IVdsEventListener getVdsEventListener() {
+            return eventListener;
+        }
+
+        @Override
+        protected VmManager getVmManager(Guid vmId) {
+            return vmManagers.get(vmId);
+        }
+
+        @Override
+        protected int getParallelism() {
+            return parallelism;
+        }
+    }
+
+    private static class SyntheticVmAnalyzer extends VmAnalyzer {
+
+        private final VmDynamic dbVm;
+        private final int analyzeTokens;
+
+        SyntheticVmAnalyzer(VmDynamic dbVm, VdsmVm vdsmVm, int analyzeTokens) {
+            super(dbVm, vdsmVm, true, null, null, null, null, null);
+            this.dbVm = dbVm;
+            this.analyzeTokens = analyzeTokens;
+        }
+
+        @Override
+        protected void analyze() {
+            Blackhole.consumeCPU(analyzeTokens);
+        }
+
+        @Override
+        public VmDynamic getVmDynamicToSave() {
+            return dbVm;
+        }
+
+        @Override
+        public VmStatistics getVmStatisticsToSave() {
+            return new VmStatistics(dbVm.getId());
+        }
+    }
+}
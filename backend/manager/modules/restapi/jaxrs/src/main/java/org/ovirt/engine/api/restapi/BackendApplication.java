@@ -11,6 +11,7 @@ import java.util.Set;
 import javax.ws.rs.ApplicationPath;
 import javax.ws.rs.core.Application;
 
+import org.ovirt.engine.api.restapi.invocation.NextPageLinkFilter;
 import org.ovirt.engine.api.restapi.resource.BackendApiResource;
 import org.ovirt.engine.api.restapi.resource.validation.IOExceptionMapper;
 import org.ovirt.engine.api.restapi.resource.validation.JsonExceptionMapper;
@@ -33,6 +34,9 @@ public class BackendApplication extends Application {
         singletons.add(new MappingExceptionMapper());
         singletons.add(new IOExceptionMapper());
         singletons.add(new ValidationExceptionMapper());
+
+        // Add the filters:
+        singletons.add(new NextPageLinkFilter());
     }
 
     @Override
@@ -0,0 +1,44 @@
+/*
+ * Copyright oVirt Authors
+ * SPDX-License-Identifier: Apache-2.0
+*/
+
+package org.ovirt.engine.api.restapi.invocation;
+
+import java.net.URI;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Link;
+import javax.ws.rs.ext.Provider;
+
+import org.apache.commons.lang.StringUtils;
+import org.ovirt.engine.api.restapi.resource.AbstractBackendCollectionResource;
+
+/**
+ * This filter adds to the response of a full page of a keyset search a {@code Link} header pointing to the next page,
+ * which is the same request with the {@code after} parameter set to the position of the last entity of the page.
+ */
+@Provider
+public class NextPageLinkFilter implements ContainerResponseFilter {
+    private static final String NEXT_REL = "next";
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Current current = CurrentManager.get();
+        if (current == null) {
+            return;
+        }
+        String after = current.getParameters().get(AbstractBackendCollectionResource.NEXT_PAGE_AFTER_PARAMETER);
+        if (StringUtils.isNotEmpty(after)) {
+            URI next = requestContext.getUriInfo()
+                    .getRequestUriBuilder()
+                    // the position holds values of the entity, given as a template value to have them encoded
+                    .replaceQueryParam(AbstractBackendCollectionResource.AFTER_CONSTRAINT_PARAMETER, "{after}")
+                    .build(after);
+            responseContext.getHeaders().add(HttpHeaders.LINK, Link.fromUri(next).rel(NEXT_REL).build());
+        }
+    }
+}
@@ -21,6 +21,7 @@ import org.ovirt.engine.core.common.action.ActionReturnValue;
 import org.ovirt.engine.core.common.action.ActionType;
 import org.ovirt.engine.core.common.businessentities.Queryable;
 import org.ovirt.engine.core.common.interfaces.SearchType;
+import org.ovirt.engine.core.common.queries.KeysetSearchResult;
 import org.ovirt.engine.core.common.queries.QueryParametersBase;
 import org.ovirt.engine.core.common.queries.QueryType;
 import org.ovirt.engine.core.common.queries.SearchParameters;
@@ -34,6 +35,12 @@ public abstract class AbstractBackendCollectionResource<R extends BaseResource,
     private static final String CREATION_STATUS_REL = "creation_status";
     public static final String FROM_CONSTRAINT_PARAMETER = "from";
     public static final String CASE_SENSITIVE_CONSTRAINT_PARAMETER = "case_sensitive";
+    public static final String AFTER_CONSTRAINT_PARAMETER = "after";
+    /**
+     * The request parameter holding the value of the {@code after} parameter of the next page of a keyset search, set
+     * when the current page is full.
+     */
+    public static final String NEXT_PAGE_AFTER_PARAMETER = "next_page_after";
     private static final Logger log = LoggerFactory.getLogger(AbstractBackendCollectionResource.class);
 
     protected AbstractBackendCollectionResource(Class<R> modelType, Class<Q> entityType) {
@@ -45,9 +52,16 @@ public abstract class AbstractBackendCollectionResource<R extends BaseResource,
     }
 
     protected List<Q> getBackendCollection(SearchType searchType, String constraint) {
-        return getBackendCollection(entityType,
-                QueryType.Search,
-                getSearchParameters(searchType, constraint));
+        SearchParameters searchParams = getSearchParameters(searchType, constraint);
+        List<Q> entities = getBackendCollection(entityType, QueryType.Search, searchParams);
+        // a full keyset page may be followed by another, that starts after the position of its last entity
+        if (entities instanceof KeysetSearchResult) {
+            String nextPageCursor = ((KeysetSearchResult<Q>) entities).getNextPageCursor();
+            if (nextPageCursor != null) {
+                ParametersHelper.setParameter(NEXT_PAGE_AFTER_PARAMETER, nextPageCursor);
+            }
+        }
+        return entities;
     }
 
     private SearchParameters getSearchParameters(SearchType searchType, String constraint) {
@@ -55,11 +69,15 @@ public abstract class AbstractBackendCollectionResource<R extends BaseResource,
         boolean caseSensitive = ParametersHelper.getBooleanParameter(httpHeaders, uriInfo, CASE_SENSITIVE_CONSTRAINT_PARAMETER, true, false);
         int from = ParametersHelper.getIntegerParameter(httpHeaders, uriInfo, FROM_CONSTRAINT_PARAMETER, -1, -1);
         int max = ParametersHelper.getIntegerParameter(httpHeaders, uriInfo, MAX, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        String after = ParametersHelper.getParameter(httpHeaders, uriInfo, AFTER_CONSTRAINT_PARAMETER);
 
         searchParams.setCaseSensitive(caseSensitive);
         if (from != -1) {
             searchParams.setSearchFrom(from);
         }
+        if (after != null) {
+            searchParams.setSearchAfter(after);
+        }
         searchParams.setMaxCount(max);
         return searchParams;
     }
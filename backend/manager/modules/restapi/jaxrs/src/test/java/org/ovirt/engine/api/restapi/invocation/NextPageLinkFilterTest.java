@@ -0,0 +1,67 @@
+package org.ovirt.engine.api.restapi.invocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.core.UriInfo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.api.restapi.resource.AbstractBackendCollectionResource;
+
+public class NextPageLinkFilterTest {
+
+    private static final String REQUEST_URI = "http://localhost:8080/ovirt-engine/api/vms?search=status%3Dup&max=10&after=";
+
+    private Current current;
+    private ContainerRequestContext requestContext;
+    private ContainerResponseContext responseContext;
+    private MultivaluedMap<String, Object> responseHeaders;
+
+    @BeforeEach
+    public void init() {
+        current = new Current();
+        CurrentManager.put(current);
+
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getRequestUriBuilder()).thenAnswer(invocation -> UriBuilder.fromUri(REQUEST_URI));
+        requestContext = mock(ContainerRequestContext.class);
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+        responseHeaders = new MultivaluedHashMap<>();
+        responseContext = mock(ContainerResponseContext.class);
+        when(responseContext.getHeaders()).thenReturn(responseHeaders);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        CurrentManager.remove();
+    }
+
+    @Test
+    public void testLinkToNextPage() {
+        current.getParameters().put(AbstractBackendCollectionResource.NEXT_PAGE_AFTER_PARAMETER,
+                "00000001-0001-0001-0001-000000000011");
+
+        new NextPageLinkFilter().filter(requestContext, responseContext);
+
+        assertEquals("<http://localhost:8080/ovirt-engine/api/vms?search=status%3Dup&max=10"
+                        + "&after=00000001-0001-0001-0001-000000000011>; rel=\"next\"",
+                responseHeaders.getFirst(HttpHeaders.LINK).toString());
+    }
+
+    @Test
+    public void testNoLinkAfterLastPage() {
+        new NextPageLinkFilter().filter(requestContext, responseContext);
+
+        assertNull(responseHeaders.getFirst(HttpHeaders.LINK));
+    }
+}
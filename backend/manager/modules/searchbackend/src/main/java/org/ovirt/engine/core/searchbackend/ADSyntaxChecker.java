@@ -266,6 +266,14 @@ public class ADSyntaxChecker implements ISyntaxChecker {
         return retval;
     }
 
+    /**
+     * Directory queries have no parameters, the values are part of the query.
+     */
+    @Override
+    public ParameterizedQuery generateParameterizedQueryFromSyntaxContainer(SyntaxContainer syntax, boolean isSafe) {
+        return new ParameterizedQuery(generateQueryFromSyntaxContainer(syntax, isSafe));
+    }
+
     private static String generateAdQueryFromSyntaxContainer(SyntaxContainer syntax) {
         StringBuilder retval = new StringBuilder();
         if (syntax.getvalid()) {
@@ -6,4 +6,6 @@ public interface ISyntaxChecker {
     SyntaxContainer getCompletion(String searchText);
 
     String generateQueryFromSyntaxContainer(SyntaxContainer syntax, boolean isSafe);
+
+    ParameterizedQuery generateParameterizedQueryFromSyntaxContainer(SyntaxContainer syntax, boolean isSafe);
 }
@@ -0,0 +1,127 @@
+package org.ovirt.engine.core.searchbackend;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.ovirt.engine.core.common.errors.SqlInjectionException;
+
+/**
+ * A search query whose values are not part of its text: each value is marked by a {@code ?} placeholder in the query
+ * and is given, in the same order, in the parameters. Since the text of the query only depends on the structure of
+ * the search, the database can reuse the plan of the query for searches that differ only by their values.
+ */
+public class ParameterizedQuery {
+    private static final char QUOTE = '\'';
+    private static final char DOUBLE_QUOTE = '"';
+    private static final char BACKSLASH = '\\';
+    private static final char PLACEHOLDER = '?';
+
+    private final String query;
+    private final List<String> parameters;
+    private final String cursorQuery;
+
+    public ParameterizedQuery(String query, List<String> parameters, String cursorQuery) {
+        this.query = query;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.cursorQuery = cursorQuery;
+    }
+
+    public ParameterizedQuery(String query, List<String> parameters) {
+        this(query, parameters, null);
+    }
+
+    public ParameterizedQuery(String query) {
+        this(query, Collections.emptyList());
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return the query of the sort key of an entity of a search in keyset mode, with the id of the entity as its
+     *         only parameter, to be encoded by {@link SearchCursor} as the position the next page follows, or
+     *         {@code null} if the search is not in keyset mode
+     */
+    public String getCursorQuery() {
+        return cursorQuery;
+    }
+
+    /**
+     * Replaces the string literals of the given sql, as produced by
+     * {@link SqlInjectionChecker#enforceEscapeCharacters(String)}, with placeholders and adds their values to the
+     * given parameters.
+     * <p>
+     * A value is the text the database reads from the literal: a quote escaped as {@code \'} or {@code ''} stands
+     * for itself, while the other backslash sequences are kept since they escape the pattern characters of
+     * {@code LIKE} and {@code ILIKE}.
+     *
+     * @param sql
+     *            the sql fragment
+     * @param parameters
+     *            the list the values of the literals are added to
+     * @return the sql fragment with a placeholder instead of each literal
+     * @throws SqlInjectionException
+     *             if a literal is not terminated
+     */
+    static String bindStringLiterals(CharSequence sql, List<String> parameters) {
+        StringBuilder template = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == DOUBLE_QUOTE) {
+                // quoted identifier, copied as is
+                int end = indexOf(sql, DOUBLE_QUOTE, i + 1);
+                template.append(sql, i, end + 1);
+                i = end + 1;
+            } else if (c == QUOTE) {
+                StringBuilder value = new StringBuilder();
+                i++;
+                boolean terminated = false;
+                while (i < length && !terminated) {
+                    c = sql.charAt(i);
+                    if (c == BACKSLASH && i + 1 < length) {
+                        char next = sql.charAt(i + 1);
+                        if (next != QUOTE) {
+                            value.append(c);
+                        }
+                        value.append(next);
+                        i += 2;
+                    } else if (c == QUOTE && i + 1 < length && sql.charAt(i + 1) == QUOTE) {
+                        value.append(QUOTE);
+                        i += 2;
+                    } else if (c == QUOTE) {
+                        terminated = true;
+                        i++;
+                    } else {
+                        value.append(c);
+                        i++;
+                    }
+                }
+                if (!terminated) {
+                    throw new SqlInjectionException();
+                }
+                parameters.add(value.toString());
+                template.append(PLACEHOLDER);
+            } else {
+                template.append(c);
+                i++;
+            }
+        }
+        return template.toString();
+    }
+
+    private static int indexOf(CharSequence sql, char c, int fromIndex) {
+        for (int i = fromIndex; i < sql.length(); i++) {
+            if (sql.charAt(i) == c) {
+                return i;
+            }
+        }
+        throw new SqlInjectionException();
+    }
+}
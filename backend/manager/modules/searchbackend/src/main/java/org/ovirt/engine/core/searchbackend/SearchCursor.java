@@ -0,0 +1,70 @@
+package org.ovirt.engine.core.searchbackend;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The position of a search in keyset mode: the values of the sort key of the last entity of a page, which the entities
+ * of the next page follow. The values are encoded in a single string, each one as its length, a colon and its text, or
+ * as a dash when it is null, so that the cursor can be passed around as an opaque parameter.
+ */
+public final class SearchCursor {
+    private static final char LENGTH_SEPARATOR = ':';
+    private static final char NULL_VALUE = '-';
+
+    private SearchCursor() {
+    }
+
+    public static String encode(List<String> values) {
+        StringBuilder builder = new StringBuilder();
+        for (String value : values) {
+            if (value == null) {
+                builder.append(NULL_VALUE);
+            } else {
+                builder.append(value.length()).append(LENGTH_SEPARATOR).append(value);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException
+     *             if the cursor was not produced by {@link #encode(List)}
+     */
+    public static List<String> decode(String cursor) {
+        List<String> values = new ArrayList<>();
+        int i = 0;
+        while (i < cursor.length()) {
+            if (cursor.charAt(i) == NULL_VALUE) {
+                values.add(null);
+                i++;
+                continue;
+            }
+            int separator = cursor.indexOf(LENGTH_SEPARATOR, i);
+            if (separator <= i) {
+                throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+            }
+            int length = parseLength(cursor.substring(i, separator), cursor);
+            int end = separator + 1 + length;
+            if (end > cursor.length()) {
+                throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+            }
+            values.add(cursor.substring(separator + 1, end));
+            i = end;
+        }
+        return values;
+    }
+
+    private static int parseLength(String length, String cursor) {
+        for (int i = 0; i < length.length(); i++) {
+            if (!Character.isDigit(length.charAt(i))) {
+                throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+            }
+        }
+        try {
+            return Integer.parseInt(length);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+        }
+    }
+}
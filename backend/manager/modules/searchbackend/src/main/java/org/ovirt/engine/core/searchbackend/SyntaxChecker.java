@@ -690,11 +690,27 @@ public class SyntaxChecker implements ISyntaxChecker {
     public String generateQueryFromSyntaxContainer(SyntaxContainer syntax, boolean isSafe) {
         String retval = "";
         if (syntax.getvalid()) {
-            retval = generateSqlFromSyntaxContainer(syntax, isSafe);
+            retval = generateSqlFromSyntaxContainer(syntax, isSafe, null);
         }
         return retval;
     }
 
+    /**
+     * Generates the query like {@link #generateQueryFromSyntaxContainer(SyntaxContainer, boolean)} does, but with the
+     * quoted values of the conditions given as parameters instead of literals.
+     */
+    @Override
+    public ParameterizedQuery generateParameterizedQueryFromSyntaxContainer(SyntaxContainer syntax, boolean isSafe) {
+        String retval = "";
+        List<String> parameters = new ArrayList<>();
+        String cursorQuery = null;
+        if (syntax.getvalid()) {
+            retval = generateSqlFromSyntaxContainer(syntax, isSafe, parameters);
+            cursorQuery = generateCursorQuery(syntax);
+        }
+        return new ParameterizedQuery(retval, parameters, cursorQuery);
+    }
+
     private String generateFromStatement(SyntaxContainer syntax, boolean useTags) {
         LinkedList<String> innerJoins = new LinkedList<>();
         ArrayList<String> refObjList = syntax.getCrossRefObjList();
@@ -792,7 +808,12 @@ public class SyntaxChecker implements ISyntaxChecker {
 
     }
 
-    private String generateSqlFromSyntaxContainer(SyntaxContainer syntax, boolean isSafe) {
+    /**
+     * @param parameters
+     *            the list the values of the conditions are added to, or {@code null} to keep them as literals in the
+     *            query
+     */
+    private String generateSqlFromSyntaxContainer(SyntaxContainer syntax, boolean isSafe, List<String> parameters) {
         String retval = "";
         if (syntax.getvalid()) {
             ListIterator<SyntaxObject> objIter = syntax.listIterator(0);
@@ -901,10 +922,20 @@ public class SyntaxChecker implements ISyntaxChecker {
                 }
             }
 
+            // only the conditions hold values of the search text, the rest of the query comes from the dictionaries
+            if (parameters != null) {
+                wherePhrase = new StringBuilder(ParameterizedQuery.bindStringLiterals(wherePhrase, parameters));
+            }
+
             // adding the sorting part if required
             if ("".equals(sortByPhrase)) {
                 sortByPhrase = " ORDER BY " + searchObjectAC.getDefaultSort(searchObjStr);
             }
+            // in keyset mode the page is given by the entity it follows rather than by its number
+            boolean usingKeyset = syntax.getSearchAfter() != null;
+            if (usingKeyset) {
+                pageNumber = "";
+            }
             // adding the paging phrase
             String pagePhrase = getPagePhrase(syntax, pageNumber);
             String primeryKey = searchObjectAC.getPrimeryKeyName(searchObjStr);
@@ -918,6 +949,15 @@ public class SyntaxChecker implements ISyntaxChecker {
                 sortExpr.append(",");
                 sortExpr.append(searchObjectAC.getDefaultSort(searchObjStr));
             }
+            // the page following an entity is only well defined if the order is total, the primary key breaks the ties
+            List<KeysetElement> keysetElements = null;
+            if (usingKeyset) {
+                keysetElements = getKeysetElements(sortByElements,
+                        sortAscending,
+                        searchObjectAC.getDefaultSort(searchObjStr),
+                        primeryKey);
+                sortExpr = new StringBuilder(getKeysetSortPhrase(keysetElements));
+            }
 
             // TODO: The database configuration PostgresSearchTemplate has an extra closing braces. Hence our
             // queries in this code have an extra opening one. Fix it in a future patch.
@@ -939,12 +979,22 @@ public class SyntaxChecker implements ISyntaxChecker {
             if (inQuery.contains("LEFT OUTER JOIN") && ! inQuery.contains("distinct")) {
                 inQuery = inQuery.replaceFirst("SELECT ", "SELECT  distinct ");
             }
+            if (usingKeyset && !syntax.getSearchAfter().isEmpty()) {
+                // the predicate follows the conditions in the query, so do its values in the parameters
+                String keysetPredicate = getKeysetPredicate(keysetElements,
+                        SearchCursor.decode(syntax.getSearchAfter()),
+                        parameters);
+                inQuery = StringFormat.format("(SELECT keyset_rows.* FROM %1$s AS keyset_rows WHERE %2$s",
+                        useTags ? "(" + inQuery + "))" : inQuery + ")",
+                        keysetPredicate);
+            }
             retval =
                     StringFormat.format(Config.getValue(ConfigValues.DBSearchTemplate),
                             sortExpr.toString(),
                             inQuery,
                             pagePhrase);
-            // Check for sql injection if query is not safe
+            // Check for sql injection if query is not safe. A parameterized query is checked too, since only its
+            // quoted values are parameters, the values of the fields that are not strings are still part of it.
             if (!isSafe) {
                 if (sqlInjectionChecker.hasSqlInjection(retval)) {
                     throw new SqlInjectionException();
@@ -966,6 +1016,150 @@ public class SyntaxChecker implements ISyntaxChecker {
         }
     }
 
+    private static List<KeysetElement> getKeysetElements(List<SortByElement> sortByElements,
+            boolean sortAscending,
+            String defaultSort,
+            String primeryKey) {
+        List<KeysetElement> elements = new ArrayList<>();
+        if (sortByElements != null) {
+            for (SortByElement sortByElement : sortByElements) {
+                boolean ascending = sortAscending == sortByElement.isAscending();
+                elements.add(new KeysetElement(sortByElement.getExpression(), ascending, ascending));
+            }
+        }
+        for (String sortPart : defaultSort.split(",")) {
+            String expression = sortPart.trim();
+            boolean ascending = true;
+            if (expression.toUpperCase().endsWith(" DESC")) {
+                expression = expression.substring(0, expression.length() - " DESC".length()).trim();
+                ascending = false;
+            } else if (expression.toUpperCase().endsWith(" ASC")) {
+                expression = expression.substring(0, expression.length() - " ASC".length()).trim();
+            }
+            // nulls are greater than any other value unless told otherwise
+            addKeysetElement(elements, new KeysetElement(expression, ascending, !ascending));
+        }
+        addKeysetElement(elements, new KeysetElement(primeryKey, true, false));
+        return elements;
+    }
+
+    private static void addKeysetElement(List<KeysetElement> elements, KeysetElement element) {
+        for (KeysetElement existing : elements) {
+            if (existing.expression.equals(element.expression)) {
+                return;
+            }
+        }
+        elements.add(element);
+    }
+
+    private static String getKeysetSortPhrase(List<KeysetElement> elements) {
+        StringBuilder builder = new StringBuilder(" ORDER BY ");
+        for (KeysetElement element : elements) {
+            builder.append(element.expression)
+                    .append(element.ascending ? " ASC" : " DESC")
+                    .append(element.nullsFirst ? " NULLS FIRST" : " NULLS LAST")
+                    .append(",");
+        }
+        builder.deleteCharAt(builder.length() - 1);
+        return builder.toString();
+    }
+
+    /**
+     * Builds the condition of the rows that follow the given sort key in the order of the given elements, i.e. the
+     * rows equal to it in the first elements and following it in the next one. The values are bound as parameters
+     * when parameters are given, quoted otherwise.
+     *
+     * @throws IllegalArgumentException
+     *             if the values are not the sort key of an entity in the order of the elements
+     */
+    private static String getKeysetPredicate(List<KeysetElement> elements,
+            List<String> values,
+            List<String> parameters) {
+        // the primary key is the last element, it is never null
+        if (values.size() != elements.size() || values.get(values.size() - 1) == null) {
+            throw new IllegalArgumentException("The search cursor does not match the order of the search");
+        }
+        StringBuilder predicate = new StringBuilder();
+        for (int i = 0; i < elements.size(); i++) {
+            KeysetElement element = elements.get(i);
+            String value = values.get(i);
+            // nothing follows a null that is placed last
+            if (value == null && !element.nullsFirst) {
+                continue;
+            }
+            if (predicate.length() > 0) {
+                predicate.append(" OR ");
+            }
+            predicate.append("(");
+            for (int j = 0; j < i; j++) {
+                predicate.append(elements.get(j).expression);
+                if (values.get(j) == null) {
+                    predicate.append(" IS NULL AND ");
+                } else {
+                    predicate.append(" = ").append(getKeysetValue(values.get(j), parameters)).append(" AND ");
+                }
+            }
+            if (value == null) {
+                predicate.append(element.expression).append(" IS NOT NULL");
+            } else {
+                predicate.append("(")
+                        .append(element.expression)
+                        .append(element.ascending ? " > " : " < ")
+                        .append(getKeysetValue(value, parameters));
+                if (!element.nullsFirst) {
+                    predicate.append(" OR ").append(element.expression).append(" IS NULL");
+                }
+                predicate.append(")");
+            }
+            predicate.append(")");
+        }
+        return predicate.toString();
+    }
+
+    private static String getKeysetValue(String value, List<String> parameters) {
+        if (parameters == null) {
+            return "'" + value.replace("'", "''") + "'";
+        }
+        parameters.add(value);
+        return "?";
+    }
+
+    /**
+     * @return the query of the values of the sort key of an entity of the search in keyset mode, in the order of
+     *         the search, with the id of the entity as its only parameter, or {@code null} if the search is not in
+     *         keyset mode
+     */
+    private String generateCursorQuery(SyntaxContainer syntax) {
+        if (syntax.getSearchAfter() == null) {
+            return null;
+        }
+        String searchObjStr = syntax.getSearchObjectStr();
+        List<SortByElement> sortByElements = null;
+        boolean sortAscending = true;
+        for (SyntaxObject obj : syntax) {
+            if (obj.getType() == SyntaxObjectType.SORT_FIELD) {
+                sortByElements = searchObjectAC.getFieldAutoCompleter(searchObjStr).getSortByElements(obj.getBody());
+            } else if (obj.getType() == SyntaxObjectType.SORT_DIRECTION) {
+                sortAscending = !obj.getBody().equalsIgnoreCase("desc");
+            }
+        }
+        String primeryKey = searchObjectAC.getPrimeryKeyName(searchObjStr);
+        StringBuilder columns = new StringBuilder();
+        for (KeysetElement element : getKeysetElements(sortByElements,
+                sortAscending,
+                searchObjectAC.getDefaultSort(searchObjStr),
+                primeryKey)) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+            }
+            columns.append(element.expression);
+        }
+        return StringFormat.format("SELECT %1$s FROM %2$s WHERE %3$s = ?",
+                columns,
+                searchObjectAC.getRelatedTableName(searchObjStr, false),
+                primeryKey);
+    }
+
     protected String getPagePhrase(SyntaxContainer syntax, String pageNumber) {
         String result = "";
         Integer page = IntegerCompat.tryParse(pageNumber);
@@ -1043,6 +1237,22 @@ public class SyntaxChecker implements ISyntaxChecker {
         }
     }
 
+    /**
+     * An element of the order of a search in keyset mode, where the page is given by the sort key of the entity it
+     * follows
+     */
+    private static class KeysetElement {
+        private final String expression;
+        private final boolean ascending;
+        private final boolean nullsFirst;
+
+        KeysetElement(String expression, boolean ascending, boolean nullsFirst) {
+            this.expression = expression;
+            this.ascending = ascending;
+            this.nullsFirst = nullsFirst;
+        }
+    }
+
     private enum ConditionType {
         None,
         FreeText,
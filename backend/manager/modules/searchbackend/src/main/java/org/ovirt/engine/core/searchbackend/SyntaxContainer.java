@@ -18,6 +18,7 @@ public class SyntaxContainer implements Iterable<SyntaxObject> {
     private final int[] errorPos = new int[2];
     private int privateMaxCount;
     private long searchFrom = 0;
+    private String searchAfter;
     private boolean caseSensitive=true;
 
     /**
@@ -57,6 +58,18 @@ public class SyntaxContainer implements Iterable<SyntaxObject> {
         searchFrom = value;
     }
 
+    /**
+     * @return the position, encoded by {@link SearchCursor}, that the entities the search returns follow, an empty
+     *         string to page by the sort key from the first entity, or {@code null} to page by page number
+     */
+    public String getSearchAfter() {
+        return searchAfter;
+    }
+
+    public void setSearchAfter(String value) {
+        searchAfter = value;
+    }
+
     public boolean getvalid() {
         return valid;
     }
@@ -0,0 +1,34 @@
+package org.ovirt.engine.core.searchbackend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class SearchCursorTest {
+
+    @Test
+    public void testEncodeDecode() {
+        List<String> values = Arrays.asList("vm:1", null, "", "-5", "4a7ec5c3-e76d-4f3c-9a38-6bf4ecdb4d86");
+        String cursor = SearchCursor.encode(values);
+        assertEquals("4:vm:1-0:2:-536:4a7ec5c3-e76d-4f3c-9a38-6bf4ecdb4d86", cursor);
+        assertEquals(values, SearchCursor.decode(cursor));
+    }
+
+    @Test
+    public void testDecodeEmpty() {
+        assertEquals(Collections.emptyList(), SearchCursor.decode(""));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "4a7ec5c3-e76d-4f3c-9a38-6bf4ecdb4d86", "5:vm1", ":vm1", "x:vm1", "-1:vm1" })
+    public void testDecodeInvalid(String cursor) {
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(cursor));
+    }
+}
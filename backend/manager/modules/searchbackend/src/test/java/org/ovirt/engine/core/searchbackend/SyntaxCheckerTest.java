@@ -2,12 +2,15 @@ package org.ovirt.engine.core.searchbackend;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.ovirt.engine.core.common.businessentities.Tags;
 import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.errors.SqlInjectionException;
 import org.ovirt.engine.core.common.interfaces.ITagsHandler;
 import org.ovirt.engine.core.utils.MockConfigDescriptor;
 import org.ovirt.engine.core.utils.MockConfigExtension;
@@ -516,6 +520,115 @@ public class SyntaxCheckerTest {
                 "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN storage_domains_with_hosts_view ON vms_with_tags.storage_id=storage_domains_with_hosts_view.id    WHERE (  vms_with_tags.status = '1'  AND  (  storage_domains_with_hosts_view.storage_comment LIKE '%iscsi%' OR  storage_domains_with_hosts_view.storage_description LIKE '%iscsi%' OR  storage_domains_with_hosts_view.storage_name LIKE '%iscsi%' OR  storage_domains_with_hosts_view.storage_pool_name::text LIKE '%iscsi%' )  )))  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
+    @Test
+    public void testParameterizedSearch() {
+        ParameterizedQuery query = generateParameterizedQuery("Vms: status=up and storage=iscsi");
+        assertEquals(
+                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN storage_domains_with_hosts_view ON vms_with_tags.storage_id=storage_domains_with_hosts_view.id    WHERE (  vms_with_tags.status = ?  AND  (  storage_domains_with_hosts_view.storage_comment LIKE ? OR  storage_domains_with_hosts_view.storage_description LIKE ? OR  storage_domains_with_hosts_view.storage_name LIKE ? OR  storage_domains_with_hosts_view.storage_pool_name::text LIKE ? )  )))  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0",
+                query.getQuery());
+        assertEquals(Arrays.asList("1", "%iscsi%", "%iscsi%", "%iscsi%", "%iscsi%"), query.getParameters());
+    }
+
+    @Test
+    public void testParameterizedSearchesDifferingByValuesShareQuery() {
+        ParameterizedQuery query = generateParameterizedQuery("Vms: status=up and cluster=cluster_1");
+        ParameterizedQuery otherQuery = generateParameterizedQuery("Vms: status=down and cluster=other");
+        assertEquals(query.getQuery(), otherQuery.getQuery());
+        assertNotEquals(query.getParameters(), otherQuery.getParameters());
+        // the pattern characters of the value stay escaped
+        assertTrue(query.getParameters().stream().anyMatch(value -> value.contains("cluster\\_1")),
+                query.getParameters().toString());
+    }
+
+    @Test
+    public void testParameterizedSearchCheckedForSqlInjection() {
+        // the values of the fields that are not strings are not quoted, hence not bound
+        SyntaxContainer res = analyzeSyntax("Disks: size > \"1 or pg_sleep(10) is null\"");
+        assertThrows(SqlInjectionException.class,
+                () -> new SyntaxChecker().generateParameterizedQueryFromSyntaxContainer(res, false));
+    }
+
+    @Test
+    public void testBindStringLiterals() {
+        List<String> parameters = new ArrayList<>();
+        String sql = ParameterizedQuery.bindStringLiterals(
+                "name LIKE 'it\\'s' AND \"quoted'name\" = 'a''b' AND description LIKE '100\\%' AND comment = ''",
+                parameters);
+        assertEquals("name LIKE ? AND \"quoted'name\" = ? AND description LIKE ? AND comment = ?", sql);
+        assertEquals(Arrays.asList("it's", "a'b", "100\\%", ""), parameters);
+    }
+
+    @Test
+    public void testBindUnterminatedStringLiteral() {
+        assertThrows(SqlInjectionException.class,
+                () -> ParameterizedQuery.bindStringLiterals("name = 'foo", new ArrayList<>()));
+    }
+
+    @Test
+    public void testKeysetFirstPage() {
+        SyntaxContainer res = analyzeSyntax("Vms: status=up");
+        res.setSearchAfter("");
+        // the primary key breaks the ties of the sort
+        assertEquals(
+                "SELECT * FROM ((SELECT  vms.* FROM  vms   WHERE  vms.status = '1' )  ORDER BY vm_name ASC NULLS LAST,vm_guid ASC NULLS LAST) as T1 OFFSET (1 -1) LIMIT 0",
+                new SyntaxChecker().generateQueryFromSyntaxContainer(res, true));
+    }
+
+    @Test
+    public void testKeysetPageAfterEntity() {
+        SyntaxContainer res = analyzeSyntax("Vms: status=up sortby name desc page 3");
+        res.setSearchAfter(SearchCursor.encode(Arrays.asList("vm1", "4a7ec5c3-e76d-4f3c-9a38-6bf4ecdb4d86")));
+        ParameterizedQuery query = new SyntaxChecker().generateParameterizedQueryFromSyntaxContainer(res, false);
+        // the values of the sort key follow the values of the conditions
+        assertEquals(
+                "SELECT * FROM ((SELECT keyset_rows.* FROM (SELECT  vms.* FROM  vms   WHERE  vms.status = ? ) AS keyset_rows WHERE ((vm_name < ? OR vm_name IS NULL)) OR (vm_name = ? AND (vm_guid > ? OR vm_guid IS NULL)))  ORDER BY vm_name DESC NULLS LAST,vm_guid ASC NULLS LAST) as T1 OFFSET (1 -1) LIMIT 0",
+                query.getQuery());
+        assertEquals(Arrays.asList("1", "vm1", "vm1", "4a7ec5c3-e76d-4f3c-9a38-6bf4ecdb4d86"), query.getParameters());
+        assertEquals("SELECT vm_name, vm_guid FROM vms WHERE vm_guid = ?", query.getCursorQuery());
+    }
+
+    @Test
+    public void testKeysetPageAfterEntityWithQuotedName() {
+        SyntaxContainer res = analyzeSyntax("Vms: status=up");
+        res.setSearchAfter(SearchCursor.encode(Arrays.asList("o'vm1", "4a7ec5c3-e76d-4f3c-9a38-6bf4ecdb4d86")));
+        assertEquals(
+                "SELECT * FROM ((SELECT keyset_rows.* FROM (SELECT  vms.* FROM  vms   WHERE  vms.status = '1' ) AS keyset_rows WHERE ((vm_name > 'o''vm1' OR vm_name IS NULL)) OR (vm_name = 'o''vm1' AND (vm_guid > '4a7ec5c3-e76d-4f3c-9a38-6bf4ecdb4d86' OR vm_guid IS NULL)))  ORDER BY vm_name ASC NULLS LAST,vm_guid ASC NULLS LAST) as T1 OFFSET (1 -1) LIMIT 0",
+                new SyntaxChecker().generateQueryFromSyntaxContainer(res, false));
+    }
+
+    @Test
+    public void testKeysetPageAfterEntityWithTags() {
+        SyntaxContainer res = analyzeSyntax("Vms: storage=iscsi");
+        // nothing but the entities without a name follow an entity without a name, since they are placed last
+        res.setSearchAfter(SearchCursor.encode(Arrays.asList(null, "4a7ec5c3-e76d-4f3c-9a38-6bf4ecdb4d86")));
+        assertEquals(
+                "SELECT * FROM ((SELECT keyset_rows.* FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN storage_domains_with_hosts_view ON vms_with_tags.storage_id=storage_domains_with_hosts_view.id    WHERE  (  storage_domains_with_hosts_view.storage_comment LIKE '%iscsi%' OR  storage_domains_with_hosts_view.storage_description LIKE '%iscsi%' OR  storage_domains_with_hosts_view.storage_name LIKE '%iscsi%' OR  storage_domains_with_hosts_view.storage_pool_name::text LIKE '%iscsi%' ) ))) AS keyset_rows WHERE (vm_name IS NULL AND (vm_guid > '4a7ec5c3-e76d-4f3c-9a38-6bf4ecdb4d86' OR vm_guid IS NULL)))  ORDER BY vm_name ASC NULLS LAST,vm_guid ASC NULLS LAST) as T1 OFFSET (1 -1) LIMIT 0",
+                new SyntaxChecker().generateQueryFromSyntaxContainer(res, true));
+    }
+
+    @Test
+    public void testKeysetCursorNotMatchingTheOrder() {
+        SyntaxContainer res = analyzeSyntax("Vms: status=up");
+        // the id of the entity alone, as the previous pages were given
+        res.setSearchAfter("4a7ec5c3-e76d-4f3c-9a38-6bf4ecdb4d86");
+        assertThrows(IllegalArgumentException.class,
+                () -> new SyntaxChecker().generateParameterizedQueryFromSyntaxContainer(res, false));
+        res.setSearchAfter(SearchCursor.encode(Arrays.asList("vm1", null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SyntaxChecker().generateParameterizedQueryFromSyntaxContainer(res, false));
+    }
+
+    private SyntaxContainer analyzeSyntax(String dynamicQuery) {
+        ISyntaxChecker curSyntaxChecker = SyntaxCheckerFactory.createBackendSyntaxChecker("foo");
+        SyntaxContainer res = curSyntaxChecker.analyzeSyntaxState(dynamicQuery, true);
+        assertTrue(res.getvalid(), "Invalid syntax: " + dynamicQuery);
+        return res;
+    }
+
+    private ParameterizedQuery generateParameterizedQuery(String dynamicQuery) {
+        return new SyntaxChecker().generateParameterizedQueryFromSyntaxContainer(analyzeSyntax(dynamicQuery), false);
+    }
+
     private void testValidSql(String dynamicQuery, String exepctedSQLResult) {
         SyntaxChecker chkr = new SyntaxChecker();
         ISyntaxChecker curSyntaxChecker = SyntaxCheckerFactory.createBackendSyntaxChecker("foo");
@@ -0,0 +1,299 @@
+package org.ovirt.engine.core.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.commons.lang.StringUtils;
+import org.ovirt.engine.core.common.businessentities.ArchitectureType;
+import org.ovirt.engine.core.common.businessentities.ChipsetType;
+import org.ovirt.engine.core.common.businessentities.ConsoleTargetType;
+import org.ovirt.engine.core.common.businessentities.DisplayType;
+import org.ovirt.engine.core.common.businessentities.GraphicsType;
+import org.ovirt.engine.core.common.businessentities.UsbControllerModel;
+import org.ovirt.engine.core.common.businessentities.VmWatchdogType;
+import org.ovirt.engine.core.common.utils.Pair;
+
+/**
+ * The information of a single OS at a single compatibility version, or at the default one, as compiled by
+ * {@link OsRepositoryImpl} from the osinfo preferences once they are loaded. The values are resolved with their
+ * version and derivedFrom fallbacks and parsed here, so looking them up does not walk the preferences tree nor
+ * allocate. The collections are unmodifiable.
+ * <p>
+ * The values which fail to parse, e.g. an unknown display type, are left {@code null} and parsed again from their raw
+ * value by the lookups, so they fail the same lookups they failed before they were compiled.
+ */
+final class OsInfo {
+
+    /**
+     * The chipset prefixed values are kept per chipset ordinal, after the value of the {@code null} chipset
+     */
+    private static final ChipsetType[] CHIPSETS = ChipsetType.values();
+
+    final String name;
+    final String family;
+    final String vmInitType;
+    final String bus;
+    final String cpuArchitecture;
+    final ArchitectureType architecture;
+    final boolean windows;
+    final boolean linux;
+    final boolean legacyVirtio;
+    final boolean ovirtGuestAgentChannel;
+    final List<String> networkDevices;
+    final Set<String> diskHotpluggableInterfaces;
+    final List<String> watchDogModels;
+    final Set<VmWatchdogType> vmWatchdogTypes;
+    final int minimumRam;
+    final int maximumRam;
+    final String displayProtocols;
+    final List<Pair<GraphicsType, DisplayType>> graphicsAndDisplays;
+    final List<Pair<GraphicsType, DisplayType>> graphicsAndDisplaysWithoutBochs;
+    final int vramMultiplier;
+    final int vgamemMultiplier;
+    final boolean nicHotplugSupport;
+    final String sysprepPath;
+    final String sysprepFileName;
+    final String productKey;
+    final int maxPciDevices;
+    final boolean floppySupported;
+    final boolean timezoneValueInteger;
+    final boolean hypervEnabled;
+    final Set<String> unsupportedCpus;
+    final boolean cpuHotplugSupported;
+    final boolean cpuHotunplugSupported;
+    final boolean soundDeviceEnabled;
+    final String consoleTargetTypeName;
+    final ConsoleTargetType consoleTargetType;
+    final boolean tpmAllowed;
+    final String q35Support;
+    final boolean hotPlugSpecialBlock;
+
+    private final List<String>[] diskInterfaces;
+    private final String[] soundDevices;
+    private final String[] cdInterfaces;
+    private final String[] usbControllerNames;
+    private final UsbControllerModel[] usbControllerModels;
+
+    /**
+     * @param values
+     *            resolves the value of the given key of the OS, "" if it has none
+     */
+    @SuppressWarnings("unchecked")
+    OsInfo(Function<String, String> values) {
+        name = values.apply("name");
+        family = values.apply("family");
+        vmInitType = values.apply("vmInitType");
+        bus = values.apply("bus");
+        cpuArchitecture = values.apply("cpuArchitecture");
+        architecture = parse(cpuArchitecture, ArchitectureType::valueOf);
+        windows = family.equalsIgnoreCase("windows");
+        linux = family.equalsIgnoreCase("linux");
+        legacyVirtio = getBoolean(values.apply("devices.legacyVirtio"), false);
+        ovirtGuestAgentChannel = getBoolean(values.apply("devices.ovirtGuestAgentChannel"), true);
+        networkDevices = Collections.unmodifiableList(trimElements(values.apply("devices.network").split(",")));
+        diskHotpluggableInterfaces = Collections.unmodifiableSet(
+                new HashSet<>(trimElements(values.apply("devices.disk.hotpluggableInterfaces").split(","))));
+        watchDogModels = Collections.unmodifiableList(trimElements(values.apply("devices.watchdog.models").split(",")));
+        vmWatchdogTypes = parse(watchDogModels, OsInfo::parseWatchdogTypes);
+        minimumRam = getInt(values.apply("resources.minimum.ram"), -1);
+        maximumRam = getInt(values.apply("resources.maximum.ram"), -1);
+        displayProtocols = values.apply("devices.display.protocols");
+        graphicsAndDisplays = parse(displayProtocols, protocols -> parseDisplayProtocols(protocols, true));
+        graphicsAndDisplaysWithoutBochs =
+                parse(displayProtocols, protocols -> parseDisplayProtocols(protocols, false));
+        vramMultiplier = getInt(values.apply("devices.display.vramMultiplier"), 0);
+        vgamemMultiplier = getInt(values.apply("devices.display.vgamemMultiplier"), 1);
+        nicHotplugSupport = getBoolean(values.apply("devices.network.hotplugSupport"), false);
+        sysprepPath = values.apply("sysprepPath");
+        sysprepFileName = values.apply("sysprepFileName");
+        productKey = values.apply("productKey");
+        maxPciDevices = getInt(values.apply("devices.maxPciDevices"), -1);
+        floppySupported = getBoolean(values.apply("devices.floppy.support"), false);
+        timezoneValueInteger = getBoolean(values.apply("isTimezoneTypeInteger"), false);
+        hypervEnabled = getBoolean(values.apply("devices.hyperv.enabled"), false);
+        unsupportedCpus = Collections.unmodifiableSet(
+                new HashSet<>(trimElements(values.apply("cpu.unsupported").toLowerCase().split(","))));
+        cpuHotplugSupported = getBoolean(values.apply("cpu.hotplugSupport"), true);
+        cpuHotunplugSupported = getBoolean(values.apply("cpu.hotunplugSupport"), false);
+        soundDeviceEnabled = getBoolean(values.apply("devices.audio.enabled"), false);
+        consoleTargetTypeName = values.apply("devices.console.target.type");
+        consoleTargetType = parse(consoleTargetTypeName, OsInfo::parseConsoleTargetType);
+        tpmAllowed = getBoolean(values.apply("devices.tpmAllowed"), false);
+        q35Support = values.apply("q35Support");
+        hotPlugSpecialBlock = getBoolean(values.apply("devices.memoryHotplug.specialBlock"), true);
+
+        String diskInterfacesLine = values.apply("devices.diskInterfaces");
+        String soundDevicesLine = values.apply("devices.audio");
+        String cdInterfacesLine = values.apply("devices.cdInterface");
+        String usbControllersLine = values.apply("devices.usb.controller");
+        diskInterfaces = new List[CHIPSETS.length + 1];
+        soundDevices = new String[CHIPSETS.length + 1];
+        cdInterfaces = new String[CHIPSETS.length + 1];
+        usbControllerNames = new String[CHIPSETS.length + 1];
+        usbControllerModels = new UsbControllerModel[CHIPSETS.length + 1];
+        for (int i = 0; i <= CHIPSETS.length; i++) {
+            ChipsetType chipset = i == 0 ? null : CHIPSETS[i - 1];
+            diskInterfaces[i] =
+                    Collections.unmodifiableList(parseChipsetPrefixedList(diskInterfacesLine, chipset));
+            soundDevices[i] = parseChipsetPrefixedValue(soundDevicesLine, chipset);
+            cdInterfaces[i] = parseChipsetPrefixedValue(cdInterfacesLine, chipset);
+            usbControllerNames[i] = parseChipsetPrefixedValue(usbControllersLine, chipset);
+            usbControllerModels[i] = parse(usbControllerNames[i], OsInfo::parseUsbControllerModel);
+        }
+    }
+
+    List<String> getDiskInterfaces(ChipsetType chipset) {
+        return diskInterfaces[chipsetIndex(chipset)];
+    }
+
+    String getSoundDevice(ChipsetType chipset) {
+        return soundDevices[chipsetIndex(chipset)];
+    }
+
+    String getCdInterface(ChipsetType chipset) {
+        return cdInterfaces[chipsetIndex(chipset)];
+    }
+
+    UsbControllerModel getUsbControllerModel(ChipsetType chipset) {
+        int index = chipsetIndex(chipset);
+        UsbControllerModel model = usbControllerModels[index];
+        return model != null ? model : parseUsbControllerModel(usbControllerNames[index]);
+    }
+
+    private static int chipsetIndex(ChipsetType chipset) {
+        return chipset == null ? 0 : chipset.ordinal() + 1;
+    }
+
+    /**
+     * Parses the given value, leaving it {@code null} if it fails to
+     */
+    private static <S, T> T parse(S value, Function<S, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    static Set<VmWatchdogType> parseWatchdogTypes(List<String> watchDogModels) {
+        Set<VmWatchdogType> vmWatchdogTypes = new HashSet<>();
+        for (String watchDogModel : watchDogModels) {
+            vmWatchdogTypes.add(VmWatchdogType.getByName(watchDogModel));
+        }
+        return Collections.unmodifiableSet(vmWatchdogTypes);
+    }
+
+    static List<Pair<GraphicsType, DisplayType>> parseDisplayProtocols(String displayAndGraphicsLine,
+            boolean bochsEnabled) {
+        List<Pair<GraphicsType, DisplayType>> graphicsAndDisplays = new ArrayList<>();
+        for (String displayAndGraphics : displayAndGraphicsLine.split(",")) {
+            Pair<String, String> pair = parseSlashSeparatedPair(displayAndGraphics);
+            if (pair != null) {
+                GraphicsType graphics = GraphicsType.fromString(pair.getFirst());
+                DisplayType display = DisplayType.valueOf(pair.getSecond());
+
+                if (display != DisplayType.bochs || bochsEnabled) {
+                    graphicsAndDisplays.add(new Pair<>(graphics, display));
+                }
+            }
+        }
+        return Collections.unmodifiableList(graphicsAndDisplays);
+    }
+
+    static UsbControllerModel parseUsbControllerModel(String osInfoName) {
+        if (StringUtils.isEmpty(osInfoName)) {
+            return null;
+        }
+        return UsbControllerModel.fromLibvirtName(osInfoName);
+    }
+
+    static ConsoleTargetType parseConsoleTargetType(String osInfoName) {
+        if (StringUtils.isEmpty(osInfoName)) {
+            return null;
+        }
+        return ConsoleTargetType.fromLibvirtName(osInfoName);
+    }
+
+    private static List<String> parseChipsetPrefixedList(String line, ChipsetType chipset) {
+        if (StringUtils.isEmpty(line)) {
+            return Collections.emptyList();
+        }
+
+        List<String> values = new ArrayList<>();
+        for (String element : line.split(",")) {
+            Pair<String, String> pair = parseSlashSeparatedPair(element);
+            if (pair == null) {
+                String value = element.trim();
+                if (!value.isEmpty()) {
+                    values.add(value);
+                }
+            } else if (chipset != null && chipset.getChipsetName().equalsIgnoreCase(pair.getFirst())) {
+                values.add(pair.getSecond());
+            }
+        }
+        return values;
+    }
+
+    private static String parseChipsetPrefixedValue(String line, ChipsetType chipset) {
+        if (StringUtils.isEmpty(line)) {
+            return null;
+        }
+
+        String defaultValue = null;
+        for (String element : line.split(",")) {
+            Pair<String, String> pair = parseSlashSeparatedPair(element);
+            if (pair == null) {
+                defaultValue = element.trim().toLowerCase();
+            } else if (chipset != null && chipset.getChipsetName().equalsIgnoreCase(pair.getFirst())) {
+                return pair.getSecond().toLowerCase();
+            }
+        }
+        return defaultValue;
+    }
+
+    private static Pair<String, String> parseSlashSeparatedPair(String slashSeparatedString) {
+        List<String> splitted = trimElements(slashSeparatedString.split("/"));
+
+        return (splitted.size() == 2)
+            ? new Pair<>(splitted.get(0), splitted.get(1))
+            : null;
+    }
+
+    private static boolean getBoolean(String value, boolean defaultValue) {
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    private static int getInt(String value, int defaultValue) {
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * helper method to retrieve a list of trimmed elements<br>
+     * <p>
+     * <code><b> foo, bar ,   baz </b></code> results <code><b>foo,bar,baz</b></code>
+     * </p>
+     *
+     * @param elements
+     *            vararg of string elements.
+     * @return new list where each value its whitespaces trimmed, and
+     * is not added empty values.
+     */
+    private static List<String> trimElements(String... elements) {
+        List<String> list = new ArrayList<>(elements.length);
+        for (String e : elements) {
+            e = e.trim();
+            if (e.length() > 0) {
+                list.add(e);
+            }
+        }
+        return list;
+    }
+}
@@ -11,7 +11,6 @@ import java.util.Set;
 import java.util.prefs.BackingStoreException;
 import java.util.prefs.Preferences;
 
-import org.apache.commons.lang.StringUtils;
 import org.ovirt.engine.core.common.FeatureSupported;
 import org.ovirt.engine.core.common.businessentities.ArchitectureType;
 import org.ovirt.engine.core.common.businessentities.ChipsetType;
@@ -39,6 +38,11 @@ public enum OsRepositoryImpl implements OsRepository {
     private static final Logger log = LoggerFactory.getLogger(OsRepositoryImpl.class);
     private static final String OS_ROOT_NODE = "/os/";
     private static final String BACKWARD_COMPATIBILITY_ROOT_NODE = "/backwardCompatibility";
+    private static final int MAX_INDEXED_OS_ID = 1 << 16;
+    /**
+     * the versions the os information is compiled for, besides the default one
+     */
+    private static final Version[] COMPILED_VERSIONS = Version.ALL.toArray(new Version[0]);
     /**
      * the configuration tree holding all the os data.
      */
@@ -50,6 +54,17 @@ public enum OsRepositoryImpl implements OsRepository {
      */
     private Map<Integer, String> idToUnameLookup;
     private Map<String, Integer> backwardCompatibleNamesToIds;
+    /**
+     * the compiled information of each os by its os id and the index of the version, see {@link #getOsInfo}. os ids
+     * which are negative or too large to index are kept in a map.
+     */
+    private OsInfo[][] osInfos;
+    private Map<Integer, OsInfo[]> largeIdOsInfos;
+    private OsInfo unknownOsInfo;
+    private Map<String, Integer> uniqueNamesToIds;
+    private List<Integer> linuxOss;
+    private List<Integer> windowsOss;
+    private List<Integer> oss64bit;
     private static Map<ArchitectureType, Integer> defaultOsMap = new HashMap<>(3);
 
     static {
@@ -64,6 +79,7 @@ public enum OsRepositoryImpl implements OsRepository {
         buildIdToUnameLookup();
         buildBackCompatMapping();
         validateTree();
+        compileOsInfos();
         if (log.isDebugEnabled()) {
             log.debug("Osinfo Repository:\n{}", this);
         }
@@ -123,6 +139,91 @@ public enum OsRepositoryImpl implements OsRepository {
         }
     }
 
+    /**
+     * compiles the information of each os at the default version and at each of the compatibility versions, so the
+     * lookups do not walk the preferences tree. see {@link OsInfo}
+     */
+    private void compileOsInfos() {
+        int maxIndexedOsId = -1;
+        for (int osId : idToUnameLookup.keySet()) {
+            if (osId >= 0 && osId < MAX_INDEXED_OS_ID) {
+                maxIndexedOsId = Math.max(maxIndexedOsId, osId);
+            }
+        }
+
+        OsInfo[][] indexedOsInfos = new OsInfo[maxIndexedOsId + 1][];
+        Map<Integer, OsInfo[]> otherOsInfos = new HashMap<>();
+        List<Integer> linux = new ArrayList<>();
+        List<Integer> windows = new ArrayList<>();
+        List<Integer> bit64 = new ArrayList<>();
+        for (Map.Entry<Integer, String> entry : idToUnameLookup.entrySet()) {
+            int osId = entry.getKey();
+            OsInfo[] versionInfos = new OsInfo[COMPILED_VERSIONS.length + 1];
+            versionInfos[0] = compileOsInfo(entry.getValue(), null);
+            for (int i = 0; i < COMPILED_VERSIONS.length; i++) {
+                versionInfos[i + 1] = compileOsInfo(entry.getValue(), COMPILED_VERSIONS[i]);
+            }
+            if (osId >= 0 && osId < MAX_INDEXED_OS_ID) {
+                indexedOsInfos[osId] = versionInfos;
+            } else {
+                otherOsInfos.put(osId, versionInfos);
+            }
+
+            if (versionInfos[0].linux) {
+                linux.add(osId);
+            }
+            if (versionInfos[0].windows) {
+                windows.add(osId);
+            }
+            if ("64".equalsIgnoreCase(versionInfos[0].bus)) {
+                bit64.add(osId);
+            }
+        }
+
+        Map<String, Integer> namesToIds = new HashMap<>(backwardCompatibleNamesToIds);
+        for (Map.Entry<Integer, String> entry : idToUnameLookup.entrySet()) {
+            namesToIds.put(entry.getValue(), entry.getKey());
+        }
+
+        osInfos = indexedOsInfos;
+        largeIdOsInfos = otherOsInfos;
+        unknownOsInfo = compileOsInfo(null, null);
+        uniqueNamesToIds = namesToIds;
+        linuxOss = Collections.unmodifiableList(linux);
+        windowsOss = Collections.unmodifiableList(windows);
+        oss64bit = Collections.unmodifiableList(bit64);
+    }
+
+    private OsInfo compileOsInfo(String uniqueOsName, Version version) {
+        return new OsInfo(key -> getValueByVersion(uniqueOsName, key, version));
+    }
+
+    private OsInfo[] getOsInfos(int osId) {
+        return osId >= 0 && osId < osInfos.length ? osInfos[osId] : largeIdOsInfos.get(osId);
+    }
+
+    private OsInfo getOsInfo(int osId) {
+        OsInfo[] versionInfos = getOsInfos(osId);
+        return versionInfos == null ? unknownOsInfo : versionInfos[0];
+    }
+
+    private OsInfo getOsInfo(int osId, Version version) {
+        OsInfo[] versionInfos = getOsInfos(osId);
+        if (versionInfos == null) {
+            return unknownOsInfo;
+        }
+        if (version == null) {
+            return versionInfos[0];
+        }
+        for (int i = 0; i < COMPILED_VERSIONS.length; i++) {
+            if (COMPILED_VERSIONS[i].equals(version)) {
+                return versionInfos[i + 1];
+            }
+        }
+        // a version which is not compiled, e.g. one which is no longer supported
+        return compileOsInfo(idToUnameLookup.get(osId), version);
+    }
+
     @Override
     public List<Integer> getOsIds() {
         return new ArrayList<>(idToUnameLookup.keySet());
@@ -137,11 +238,8 @@ public enum OsRepositoryImpl implements OsRepository {
     @Override
     public Map<Integer, String> getOsNames() {
         Map<Integer, String> osNames = new HashMap<>();
-        for (int osId : getOsIds()) {
-            String name = getValueByVersion(idToUnameLookup.get(osId), "name", null);
-            if (name != null) {
-                osNames.put(osId, name);
-            }
+        for (int osId : idToUnameLookup.keySet()) {
+            osNames.put(osId, getOsInfo(osId).name);
         }
         return osNames;
     }
@@ -172,7 +270,7 @@ public enum OsRepositoryImpl implements OsRepository {
         for (Integer osId : getOsIds()) {
             for (Version version : versionsWithNull) {
                 diskHotpluggableInterfacesMap.put(
-                        new Pair<>(osId, version), getDiskHotpluggableInterfaces(osId, version));
+                        new Pair<>(osId, version), new HashSet<>(getDiskHotpluggableInterfaces(osId, version)));
             }
         }
 
@@ -181,147 +279,105 @@ public enum OsRepositoryImpl implements OsRepository {
 
     @Override
     public String getOsName(int osId) {
-        return getOsNames().get(osId);
+        OsInfo[] versionInfos = getOsInfos(osId);
+        return versionInfos == null ? null : versionInfos[0].name;
     }
 
     @Override
     public String getOsFamily(int osId) {
-        return getValueByVersion(idToUnameLookup.get(osId), "family", null);
+        return getOsInfo(osId).family;
     }
 
     @Override
     public String getVmInitType(int osId) {
-        return getValueByVersion(idToUnameLookup.get(osId), "vmInitType", null);
+        return getOsInfo(osId).vmInitType;
     }
 
     @Override
     public List<Integer> getLinuxOss() {
-        List<Integer> oss = new ArrayList<>();
-        for (int osId : getOsIds()) {
-            if (getOsFamily(osId).equalsIgnoreCase("linux")) {
-                oss.add(osId);
-            }
-        }
-        return oss;
+        return linuxOss;
     }
 
     @Override
     public Map<Integer, String> getVmInitMap() {
         Map<Integer, String> osNames = new HashMap<>();
-        for (int osId : getOsIds()) {
-            String vmInitType = getValueByVersion(idToUnameLookup.get(osId), "vmInitType", null);
-            if (vmInitType != null) {
-                osNames.put(osId, vmInitType);
-            }
+        for (int osId : idToUnameLookup.keySet()) {
+            osNames.put(osId, getOsInfo(osId).vmInitType);
         }
         return osNames;
     }
 
     @Override
     public List<Integer> get64bitOss() {
-        List<Integer> oss = new ArrayList<>();
-        for (int osId : getOsIds()) {
-            String bus = getValueByVersion(idToUnameLookup.get(osId), "bus", null);
-            if ("64".equalsIgnoreCase(bus)) {
-                oss.add(osId);
-            }
-        }
-        return oss;
+        return oss64bit;
     }
 
     @Override
     public List<Integer> getWindowsOss() {
-        List<Integer> oss = new ArrayList<>();
-        for (int osId : getOsIds()) {
-            if (isWindows(osId)) {
-                oss.add(osId);
-            }
-        }
-        return oss;
+        return windowsOss;
     }
 
     @Override
     public Map<Integer, ArchitectureType> getOsArchitectures() {
         Map<Integer, ArchitectureType> osArchitectures = new HashMap<>();
-        for (int osId : getOsIds()) {
-            String architecture = getValueByVersion(idToUnameLookup.get(osId), "cpuArchitecture", null);
-
-            if (architecture != null) {
-                osArchitectures.put(osId, ArchitectureType.valueOf(architecture));
-            }
+        for (int osId : idToUnameLookup.keySet()) {
+            osArchitectures.put(osId, getArchitectureFromOS(osId));
         }
         return osArchitectures;
     }
 
     @Override
     public ArchitectureType getArchitectureFromOS(int osId) {
-        String architecture = getValueByVersion(idToUnameLookup.get(osId), "cpuArchitecture", null);
-        return ArchitectureType.valueOf(architecture);
+        OsInfo osInfo = getOsInfo(osId);
+        return osInfo.architecture != null ? osInfo.architecture : ArchitectureType.valueOf(osInfo.cpuArchitecture);
     }
 
     @Override
     public boolean isWindows(int osId) {
-        return getOsFamily(osId).equalsIgnoreCase("windows");
+        return getOsInfo(osId).windows;
     }
 
     @Override
     public List<String> getDiskInterfaces(int osId, Version version, ChipsetType chipset) {
-        return parseChipsetPrefixedList(
-                getValueByVersion(idToUnameLookup.get(osId), "devices.diskInterfaces", version), chipset);
+        return getOsInfo(osId, version).getDiskInterfaces(chipset);
     }
 
     @Override
     public boolean requiresLegacyVirtio(int osId, ChipsetType chipset) {
-        return ChipsetType.Q35 == chipset &&
-                getBoolean(getValueByVersion(idToUnameLookup.get(osId),
-                "devices.legacyVirtio",
-                null), false);
+        return ChipsetType.Q35 == chipset && getOsInfo(osId).legacyVirtio;
     }
 
     @Override
     public boolean requiresOvirtGuestAgentChannel(int osId) {
-        return getBoolean(getValueByVersion(idToUnameLookup.get(osId),
-                        "devices.ovirtGuestAgentChannel",
-                        null), true);
+        return getOsInfo(osId).ovirtGuestAgentChannel;
     }
 
     @Override
     public List<String> getNetworkDevices(int osId, Version version) {
-        String devices =
-                getValueByVersion(idToUnameLookup.get(osId), "devices.network", version);
-        return trimElements(devices.split(","));
+        return getOsInfo(osId, version).networkDevices;
     }
 
     @Override
     public Set<String> getDiskHotpluggableInterfaces(int osId, Version version) {
-        String devices = getValueByVersion(idToUnameLookup.get(osId),
-                "devices.disk.hotpluggableInterfaces",
-                version);
-        return new HashSet<>(trimElements(devices.split(",")));
+        return getOsInfo(osId, version).diskHotpluggableInterfaces;
     }
 
     @Override
     public List<String> getWatchDogModels(int osId, Version version) {
-        String models = getValueByVersion(idToUnameLookup.get(osId),
-                "devices.watchdog.models",
-                version);
-        return trimElements(models.split(","));
+        return getOsInfo(osId, version).watchDogModels;
     }
 
     @Override
     public Set<VmWatchdogType> getVmWatchdogTypes(int osId, Version version) {
-        Set<VmWatchdogType> vmWatchdogTypes = new HashSet<>();
-
-        for (String watchDogModel : getWatchDogModels(osId, version)) {
-            vmWatchdogTypes.add(VmWatchdogType.getByName(watchDogModel));
-        }
-
-        return vmWatchdogTypes;
+        OsInfo osInfo = getOsInfo(osId, version);
+        return osInfo.vmWatchdogTypes != null
+                ? osInfo.vmWatchdogTypes
+                : OsInfo.parseWatchdogTypes(osInfo.watchDogModels);
     }
 
     @Override
     public boolean isLinux(int osId) {
-        return getOsFamily(osId).equalsIgnoreCase("linux");
+        return getOsInfo(osId).linux;
     }
 
     @Override
@@ -341,12 +397,12 @@ public enum OsRepositoryImpl implements OsRepository {
 
     @Override
     public int getMinimumRam(int osId, Version version) {
-        return getInt(getValueByVersion(idToUnameLookup.get(osId), "resources.minimum.ram", version), -1);
+        return getOsInfo(osId, version).minimumRam;
     }
 
     @Override
     public int getMaximumRam(int osId, Version version) {
-        return getInt(getValueByVersion(idToUnameLookup.get(osId), "resources.maximum.ram", version), -1);
+        return getOsInfo(osId, version).maximumRam;
     }
 
     @Override
@@ -360,7 +416,7 @@ public enum OsRepositoryImpl implements OsRepository {
             supportedGraphicsAndDisplaysMap.put(osId, new HashMap<>());
 
             for (Version ver : versionsWithNull) {
-                List<Pair<GraphicsType, DisplayType>> displayTypeList = getGraphicsAndDisplays(osId, ver);
+                List<Pair<GraphicsType, DisplayType>> displayTypeList = new ArrayList<>(getGraphicsAndDisplays(osId, ver));
                 supportedGraphicsAndDisplaysMap.get(osId).put(ver, displayTypeList);
             }
         }
@@ -369,134 +425,74 @@ public enum OsRepositoryImpl implements OsRepository {
     }
 
     public List<Pair<GraphicsType, DisplayType>> getGraphicsAndDisplays(int osId, Version version) {
-        return parseDisplayProtocols(osId, version);
-    }
-
-    private List<Pair<GraphicsType, DisplayType>> parseDisplayProtocols(int osId, Version version) {
-        List<Pair<GraphicsType, DisplayType>> graphicsAndDisplays = new ArrayList<>();
-
-        String displayAndGraphicsLine = getValueByVersion(idToUnameLookup.get(osId), "devices.display.protocols", version); // todo - use different key?
-        for (String displayAndGraphics : displayAndGraphicsLine.split(",")) {
-            Pair<String, String> pair = parseSlashSeparatedPair(displayAndGraphics);
-            if (pair != null) {
-                GraphicsType graphics = GraphicsType.fromString(pair.getFirst());
-                DisplayType display = DisplayType.valueOf(pair.getSecond());
-
-                if (display != DisplayType.bochs ||
-                        (version != null && !version.isNotValid() && FeatureSupported.isBochsDisplayEnabled(version))) {
-                    graphicsAndDisplays.add(new Pair<>(graphics, display));
-                }
-            }
-        }
-
-        return graphicsAndDisplays;
-    }
-
-    private List<String> parseChipsetPrefixedList(String line, ChipsetType chipset) {
-        if (StringUtils.isEmpty(line)) {
-            return Collections.emptyList();
-        }
-
-        List<String> values = new ArrayList<>();
-        for (String element : line.split(",")) {
-            Pair<String, String> pair = parseSlashSeparatedPair(element);
-            if (pair == null) {
-                String value = element.trim();
-                if (!value.isEmpty()) {
-                    values.add(value);
-                }
-            } else if (chipset != null && chipset.getChipsetName().equalsIgnoreCase(pair.getFirst())) {
-                values.add(pair.getSecond());
-            }
-        }
-        return values;
-    }
-
-    private String parseChipsetPrefixedValue(String line, ChipsetType chipset) {
-        if (StringUtils.isEmpty(line)) {
-            return null;
-        }
-
-        String defaultValue = null;
-        for (String element : line.split(",")) {
-            Pair<String, String> pair = parseSlashSeparatedPair(element);
-            if (pair == null) {
-                defaultValue = element.trim().toLowerCase();
-            } else if (chipset != null && chipset.getChipsetName().equalsIgnoreCase(pair.getFirst())) {
-                return pair.getSecond().toLowerCase();
-            }
-        }
-        return defaultValue;
-    }
-
-    private static Pair<String, String> parseSlashSeparatedPair(String slashSeparatedString) {
-        List<String> splitted = trimElements(slashSeparatedString.split("/"));
-
-        return (splitted.size() == 2)
-            ? new Pair<>(splitted.get(0), splitted.get(1))
-            : null;
+        OsInfo osInfo = getOsInfo(osId, version);
+        boolean bochsEnabled =
+                version != null && !version.isNotValid() && FeatureSupported.isBochsDisplayEnabled(version);
+        List<Pair<GraphicsType, DisplayType>> graphicsAndDisplays =
+                bochsEnabled ? osInfo.graphicsAndDisplays : osInfo.graphicsAndDisplaysWithoutBochs;
+        return graphicsAndDisplays != null
+                ? graphicsAndDisplays
+                : OsInfo.parseDisplayProtocols(osInfo.displayProtocols, bochsEnabled);
     }
 
     @Override
     public int getVramMultiplier(int osId) {
-        return getInt(getValueByVersion(idToUnameLookup.get(osId), "devices.display.vramMultiplier", null), 0);
+        return getOsInfo(osId).vramMultiplier;
     }
 
     @Override
     public int getVgamemMultiplier(int osId) {
-        return getInt(getValueByVersion(idToUnameLookup.get(osId), "devices.display.vgamemMultiplier", null), 1);
+        return getOsInfo(osId).vgamemMultiplier;
     }
 
     @Override
     public boolean hasNicHotplugSupport(int osId, Version version) {
-        return getBoolean(getValueByVersion(idToUnameLookup.get(osId), "devices.network.hotplugSupport", version), false);
+        return getOsInfo(osId, version).nicHotplugSupport;
     }
 
     @Override
     public String getSysprepPath(int osId, Version version) {
-        return EngineLocalConfig.getInstance().expandString(getValueByVersion(idToUnameLookup.get(osId), "sysprepPath", version));
+        return EngineLocalConfig.getInstance().expandString(getOsInfo(osId, version).sysprepPath);
     }
 
     @Override
     public String getSysprepFileName(int osId, Version version) {
-        return getValueByVersion(idToUnameLookup.get(osId), "sysprepFileName", version);
+        return getOsInfo(osId, version).sysprepFileName;
     }
 
     @Override
     public String getProductKey(int osId, Version version) {
-        return getValueByVersion(idToUnameLookup.get(osId), "productKey", version);
+        return getOsInfo(osId, version).productKey;
     }
 
     @Override
     public String getSoundDevice(int osId, Version version, ChipsetType chipset) {
-        return parseChipsetPrefixedValue(
-                getValueByVersion(idToUnameLookup.get(osId), "devices.audio", version), chipset);
+        return getOsInfo(osId, version).getSoundDevice(chipset);
     }
 
     @Override
     public int getMaxPciDevices(int osId, Version version) {
-        return getInt(getValueByVersion(idToUnameLookup.get(osId), "devices.maxPciDevices", version), -1);
+        return getOsInfo(osId, version).maxPciDevices;
     }
 
     @Override
     public String getCdInterface(int osId, Version version, ChipsetType chipset) {
-        return parseChipsetPrefixedValue(
-                getValueByVersion(idToUnameLookup.get(osId), "devices.cdInterface", version), chipset);
+        return getOsInfo(osId, version).getCdInterface(chipset);
     }
 
     @Override
     public boolean isFloppySupported(int osId, Version version) {
-        return getBoolean(getValueByVersion(idToUnameLookup.get(osId), "devices.floppy.support", version), false);
+        return getOsInfo(osId, version).floppySupported;
     }
 
     @Override
     public boolean isTimezoneValueInteger(int osId, Version version) {
-        return getBoolean(getValueByVersion(idToUnameLookup.get(osId), "isTimezoneTypeInteger", version), false);
+        return getOsInfo(osId, version).timezoneValueInteger;
     }
 
     @Override
     public boolean isHypervEnabled(int osId, Version version) {
-        return getBoolean(getValueByVersion(idToUnameLookup.get(osId), "devices.hyperv.enabled", version), false);
+        return getOsInfo(osId, version).hypervEnabled;
     }
 
     @Override
@@ -510,7 +506,7 @@ public enum OsRepositoryImpl implements OsRepository {
             for (Version version : versionsWithNull) {
                 unsupportedCpus.put(
                         new Pair<>(osId, version),
-                        getUnsupportedCpus(osId, version)
+                        new HashSet<>(getUnsupportedCpus(osId, version))
                 );
             }
         }
@@ -524,12 +520,12 @@ public enum OsRepositoryImpl implements OsRepository {
 
     @Override
     public boolean isCpuHotplugSupported(int osId) {
-        return getBoolean(getValueByVersion(idToUnameLookup.get(osId), "cpu.hotplugSupport", null), true);
+        return getOsInfo(osId).cpuHotplugSupported;
     }
 
     @Override
     public boolean isCpuHotunplugSupported(int osId) {
-        return getBoolean(getValueByVersion(idToUnameLookup.get(osId), "cpu.hotunplugSupport", null), false);
+        return getOsInfo(osId).cpuHotunplugSupported;
     }
 
     @Override
@@ -551,71 +547,48 @@ public enum OsRepositoryImpl implements OsRepository {
 
     @Override
     public boolean isSoundDeviceEnabled(int osId, Version version) {
-        return getBoolean(getValueByVersion(idToUnameLookup.get(osId), "devices.audio.enabled", version), false);
+        return getOsInfo(osId, version).soundDeviceEnabled;
     }
 
     @Override
     public UsbControllerModel getOsUsbControllerModel(int osId, Version version, ChipsetType chipset) {
-        final String osInfoName = parseChipsetPrefixedValue(
-                getValueByVersion(getUniqueOsNames().get(osId), "devices.usb.controller", version), chipset);
-        if (StringUtils.isEmpty(osInfoName)) {
-            return null;
-        }
-        return UsbControllerModel.fromLibvirtName(osInfoName);
+        return getOsInfo(osId, version).getUsbControllerModel(chipset);
     }
 
     @Override
     public ConsoleTargetType getOsConsoleTargetType(int osId, Version version) {
-        final String osInfoName =
-                getValueByVersion(getUniqueOsNames().get(osId), "devices.console.target.type", version);
-        if (StringUtils.isEmpty(osInfoName)) {
-            return null;
-        }
-        return ConsoleTargetType.fromLibvirtName(osInfoName);
+        OsInfo osInfo = getOsInfo(osId, version);
+        return osInfo.consoleTargetType != null
+                ? osInfo.consoleTargetType
+                : OsInfo.parseConsoleTargetType(osInfo.consoleTargetTypeName);
     }
 
     @Override
     public int getOsIdByUniqueName(String uniqueOsName) {
-        for (Map.Entry<Integer, String> entry : getUniqueOsNames().entrySet()) {
-            if (entry.getValue().equals(uniqueOsName)) {
-                return entry.getKey();
-            }
-        }
-
-        if (getBackwardCompatibleNamesToIds().containsKey(uniqueOsName)) {
-            return getBackwardCompatibleNamesToIds().get(uniqueOsName);
-        }
-
-        return 0;
+        Integer osId = uniqueNamesToIds.get(uniqueOsName);
+        return osId == null ? 0 : osId;
     }
 
     @Override
     public Set<String> getUnsupportedCpus(int osId, Version version) {
-        return new HashSet<>(trimElements(
-                getValueByVersion(
-                        idToUnameLookup.get(osId),
-                        "cpu.unsupported",
-                        version)
-                        .toLowerCase().split(",")));
+        return getOsInfo(osId, version).unsupportedCpus;
     }
 
     @Override
     public boolean isTpmAllowed(int osId) {
-        return getBoolean(getValueByVersion(idToUnameLookup.get(osId), "devices.tpmAllowed", null), false);
+        return getOsInfo(osId).tpmAllowed;
     }
 
     @Override
     public boolean isQ35Supported(int osId) {
-        String supported = getValueByVersion(idToUnameLookup.get(osId), "q35Support", null);
         // possible values: "false", "insecure", "true"
-        return !supported.equalsIgnoreCase("false");
+        return !getOsInfo(osId).q35Support.equalsIgnoreCase("false");
     }
 
     @Override
     public boolean isSecureBootSupported(int osId) {
-        String supported = getValueByVersion(idToUnameLookup.get(osId), "q35Support", null);
         // possible values: "false", "insecure", "true"
-        return supported.equalsIgnoreCase("true");
+        return getOsInfo(osId).q35Support.equalsIgnoreCase("true");
     }
 
     @Override
@@ -627,18 +600,6 @@ public enum OsRepositoryImpl implements OsRepository {
         return tpmAllowedMap;
     }
 
-    private boolean getBoolean(String value, boolean defaultValue) {
-        return value == null ? defaultValue : Boolean.parseBoolean(value);
-    }
-
-    private int getInt(String value, int defaultValue) {
-        try {
-            return value == null ? defaultValue : Integer.parseInt(value);
-        } catch (NumberFormatException ex) {
-            return defaultValue;
-        }
-    }
-
     /**
      * get the value of the key specified by its version or the default version if not exist. see
      * {@link OsRepositoryImpl#getKeyNode}
@@ -698,29 +659,6 @@ public enum OsRepositoryImpl implements OsRepository {
         return null;
     }
 
-    /**
-     * helper method to retrieve a list of trimmed elements<br>
-     * <p>
-     * <code><b> foo, bar ,   baz </b></code> results <code><b>foo,bar,baz</b></code>
-     * </p>
-     *
-     * @param elements
-     *            vararg of string elements.
-     * @return new list where each value its whitespaces trimmed, and
-     * is not added empty values.
-     */
-
-    private static List<String> trimElements(String... elements) {
-        List<String> list = new ArrayList<>(elements.length);
-        for (String e : elements) {
-            e = e.trim();
-            if (e.length() > 0) {
-                list.add(e);
-            }
-        }
-        return list;
-    }
-
     /**
      * a key can have several values per version. a null version represents the default while other are specific one:
      * key.value = someval // the default value. the path returned is "value" key.value.3.1 = otherval // the 3.1
@@ -743,8 +681,7 @@ public enum OsRepositoryImpl implements OsRepository {
 
     @Override
     public boolean requiresHotPlugSpecialBlock(int osId, Version version) {
-        return getBoolean(getValueByVersion(idToUnameLookup.get(osId),
-            "devices.memoryHotplug.specialBlock", version), true);
+        return getOsInfo(osId, version).hotPlugSpecialBlock;
     }
 
     @Override
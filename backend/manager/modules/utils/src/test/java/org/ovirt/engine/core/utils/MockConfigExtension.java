@@ -1,6 +1,7 @@
 package org.ovirt.engine.core.utils;
 
 import static org.junit.platform.commons.support.AnnotationSupport.findAnnotation;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
@@ -25,7 +26,7 @@ import org.ovirt.engine.core.common.config.IConfigUtilsInterface;
  * method's name using the {@link MockedConfig} annotation, either in the class or method level.
  */
 public class MockConfigExtension implements BeforeEachCallback, AfterEachCallback {
-    private IConfigUtilsInterface mockConfigUtils = mock(IConfigUtilsInterface.class);
+    private IConfigUtilsInterface mockConfigUtils = mock(IConfigUtilsInterface.class, CALLS_REAL_METHODS);
     private IConfigUtilsInterface origConfUtils;
 
     private <T> void mockConfigValue(ConfigValues value, String version, T returnValue) {
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
@@ -52,6 +53,7 @@ public class OsRepositoryImplTest {
         preferences.node("/os/rhel7/devices/maxPciDevices").put("value", MAX_PCI_DEVICES);
         preferences.node("/os/rhel7/resources/minimum/ram").put("value", "2048");
         preferences.node("/os/rhel7/resources/minimum/ram").put("value.4.2", "1024");
+        preferences.node("/os/rhel7/resources/minimum/ram").put("value.4.1", "512");
         preferences.node("/os/rhel7/resources/maximum/ram").put("value", "2048");
         preferences.node("/os/rhel7/devices/display/protocols").put("value", "VNC/vga,SPICE/qxl");
         preferences.node("/os/rhel7/devices/audio/enabled").put("value", "true");
@@ -274,6 +276,25 @@ public class OsRepositoryImplTest {
         assertEquals(2048, OsRepositoryImpl.INSTANCE.getMinimumRam(888, Version.v4_3));
     }
 
+    @Test
+    public void testVersionedValueOfNotCompiledVersion() {
+        assertEquals(512, OsRepositoryImpl.INSTANCE.getMinimumRam(777, new Version(4, 1)));
+        assertEquals(512, OsRepositoryImpl.INSTANCE.getMinimumRam(888, new Version(4, 1)));
+    }
+
+    @Test
+    public void testEqualVersionsShareValues() {
+        assertSame(OsRepositoryImpl.INSTANCE.getNetworkDevices(777, Version.v4_4),
+                OsRepositoryImpl.INSTANCE.getNetworkDevices(777, new Version("4.4")));
+    }
+
+    @Test
+    public void testNonExistingOs() {
+        assertNull(OsRepositoryImpl.INSTANCE.getOsName(12345));
+        assertEquals("", OsRepositoryImpl.INSTANCE.getOsFamily(12345));
+        assertTrue(OsRepositoryImpl.INSTANCE.getNetworkDevices(12345, Version.v4_4).isEmpty());
+    }
+
     @Test
     public void testBackwardCompatibility() {
         assertEquals(20, OsRepositoryImpl.INSTANCE.getOsIdByUniqueName("Windows8"));
@@ -6,11 +6,15 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Instance;
@@ -37,6 +41,7 @@ import org.ovirt.engine.core.common.di.interceptor.InvocationLogger;
 import org.ovirt.engine.core.common.interfaces.FutureVDSCall;
 import org.ovirt.engine.core.common.qualifiers.VmDeleted;
 import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.common.vdscommands.BrokerCommandCallback;
 import org.ovirt.engine.core.common.vdscommands.FutureVDSCommandType;
 import org.ovirt.engine.core.common.vdscommands.VDSAsyncReturnValue;
 import org.ovirt.engine.core.common.vdscommands.VDSCommandType;
@@ -44,6 +49,8 @@ import org.ovirt.engine.core.common.vdscommands.VDSParametersBase;
 import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.common.vdscommands.VdsIdVDSCommandParametersBase;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.BulkUpdateMonitor;
+import org.ovirt.engine.core.dal.dbbroker.SimpleJdbcCallsHandler;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogable;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
@@ -53,6 +60,9 @@ import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
 import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.ReflectionUtils;
 import org.ovirt.engine.core.utils.threadpool.ThreadPools;
+import org.ovirt.engine.core.utils.transaction.TransactionCompletionListener;
+import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoringStatisticsMonitor;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.FutureVDSCommand;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsCommandExecutor;
 import org.ovirt.vdsm.jsonrpc.client.events.EventSubscriber;
@@ -69,6 +79,8 @@ public class ResourceManager implements BackendService {
     private final Set<Guid> asyncRunningVms =
             Collections.newSetFromMap(new ConcurrentHashMap<>());
     private final ConcurrentHashMap<Guid, VmManager> vmManagers = new ConcurrentHashMap<>();
+    private final HostMonitoringStatisticsMonitor hostMonitoringStatisticsMonitor =
+            new HostMonitoringStatisticsMonitor(vdsManagersDict::values);
 
     private static final String VDSCommandPrefix = "VDSCommand";
 
@@ -97,6 +109,11 @@ public class ResourceManager implements BackendService {
     @Inject
     private VdsManagerFactory vdsManagerFactory;
 
+    @Inject
+    private SimpleJdbcCallsHandler callsHandler;
+
+    private BulkUpdateMonitor bulkUpdateMonitor;
+
     @PostConstruct
     private void init() {
         log.info("Start initializing {}", getClass().getSimpleName());
@@ -108,9 +125,18 @@ public class ResourceManager implements BackendService {
             addVds(curVds, true, false);
         }
 
+        hostMonitoringStatisticsMonitor.registerInJMX();
+        bulkUpdateMonitor = new BulkUpdateMonitor(callsHandler.getBulkUpdateStatistics());
+        bulkUpdateMonitor.registerInJMX();
         log.info("Finished initializing {}", getClass().getSimpleName());
     }
 
+    @PreDestroy
+    private void destroy() {
+        hostMonitoringStatisticsMonitor.unregisterFromJMX();
+        bulkUpdateMonitor.unregisterFromJMX();
+    }
+
     private void populateVdsAndVmsList() {
         final List<VmDynamic> vms = vmDynamicDao.getAll();
         vdsAndVmsList.putAll(vms.stream()
@@ -232,6 +258,61 @@ public class ResourceManager implements BackendService {
         return vdsManger;
     }
 
+    /**
+     * Marks the cached data of the given host as stale, to be called after the host was changed in the database
+     * not through its {@link VdsManager}.
+     */
+    public void invalidateCachedVds(Guid vdsId) {
+        VdsManager vdsManager = vdsId == null ? null : vdsManagersDict.get(vdsId);
+        if (vdsManager != null) {
+            vdsManager.invalidateCachedVds();
+        }
+    }
+
+    /**
+     * Marks the cached data of the given host as stale, and again once the current transaction completes, as only then
+     * are the changes made within it visible to the host monitoring.
+     */
+    public void invalidateCachedVdsOnTransactionCompletion(Guid vdsId) {
+        invalidateCachedVds(vdsId);
+        try {
+            if (TransactionSupport.current() != null) {
+                TransactionSupport.registerRollbackHandler(new TransactionCompletionListener() {
+                    @Override
+                    public void onSuccess() {
+                        invalidateCachedVds(vdsId);
+                    }
+
+                    @Override
+                    public void onRollback() {
+                        invalidateCachedVds(vdsId);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            // the monitoring reconciles the host periodically anyway
+            log.debug("Failed to register cached host invalidation on transaction completion", e);
+        }
+    }
+
+    /**
+     * Marks the cached data of all the hosts of the given cluster as stale.
+     */
+    public void invalidateCachedVdsOfCluster(Guid clusterId) {
+        vdsManagersDict.values().stream()
+                .filter(vdsManager -> clusterId.equals(vdsManager.getClusterId()))
+                .forEach(VdsManager::invalidateCachedVds);
+    }
+
+    /**
+     * Marks the cached data of all the hosts of the given storage pool as stale.
+     */
+    public void invalidateCachedVdsOfStoragePool(Guid storagePoolId) {
+        vdsManagersDict.values().stream()
+                .filter(vdsManager -> storagePoolId.equals(vdsManager.getStoragePoolId()))
+                .forEach(VdsManager::invalidateCachedVds);
+    }
+
     /**
      * Set vm status to Unknown and save to DB.
      */
@@ -418,6 +499,42 @@ public class ResourceManager implements BackendService {
         return null;
     }
 
+    /**
+     * Runs a command which sends its request without waiting for the response, like
+     * {@link VDSCommandType#GetStatsAsync}, and which reports its result to the callback of its parameters.
+     *
+     * @return a stage which is completed with the return value of the command when the response arrives, or
+     *         exceptionally when the request could not be sent, the response could not be processed or it did not
+     *         arrive within {@link ConfigValues#vdsTimeout}
+     */
+    public <P extends VDSParametersBase> CompletionStage<VDSReturnValue> runNonBlockingVdsCommand(
+            VDSCommandType commandType, P parameters) {
+        CompletableFuture<VDSReturnValue> result = new CompletableFuture<>();
+        parameters.withCallback(new BrokerCommandCallback() {
+            @Override
+            public void onResponse(Map<String, Object> response) {
+                result.complete((VDSReturnValue) response.get("result"));
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        VDSReturnValue returnValue = runVdsCommand(commandType, parameters);
+        if (returnValue == null) {
+            result.completeExceptionally(new IllegalStateException("Failed to create command " + commandType));
+        } else if (!returnValue.getSucceeded()) {
+            result.completeExceptionally(returnValue.getExceptionObject() != null
+                    ? returnValue.getExceptionObject()
+                    : new IllegalStateException(String.format("Command %s failed: %s",
+                            commandType,
+                            returnValue.getExceptionString())));
+        }
+        // a response which never arrives must not leave the caller waiting for good
+        return result.orTimeout(Config.<Integer> getValue(ConfigValues.vdsTimeout), TimeUnit.SECONDS);
+    }
+
     public <P extends VdsIdVDSCommandParametersBase> FutureVDSCall<VDSReturnValue> runFutureVdsCommand(final FutureVDSCommandType commandType,
             final P parameters) {
         FutureVDSCommand<P> command = createFutureCommand(commandType, parameters);
@@ -56,7 +56,6 @@ import org.ovirt.engine.core.dao.SupportedHostFeatureDao;
 import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VdsNumaNodeDao;
-import org.ovirt.engine.core.dao.VdsStatisticsDao;
 import org.ovirt.engine.core.dao.VmDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.network.InterfaceDao;
@@ -74,9 +73,12 @@ import org.ovirt.engine.core.vdsbroker.kubevirt.PrometheusUrlResolver;
 import org.ovirt.engine.core.vdsbroker.monitoring.HostConnectionRefresherInterface;
 import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoring;
 import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoringInterface;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoringStatistics;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostTopology;
 import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStrategy;
 import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStrategyFactory;
 import org.ovirt.engine.core.vdsbroker.monitoring.RefresherFactory;
+import org.ovirt.engine.core.vdsbroker.monitoring.StatisticsWriteBehindBuffer;
 import org.ovirt.engine.core.vdsbroker.monitoring.VmStatsRefresher;
 import org.ovirt.engine.core.vdsbroker.monitoring.kubevirt.KubevirtNodesMonitoring;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.HostNetworkTopologyPersister;
@@ -128,7 +130,7 @@ public class VdsManager {
     private VmDao vmDao;
 
     @Inject
-    private VdsStatisticsDao vdsStatisticsDao;
+    private StatisticsWriteBehindBuffer statisticsBuffer;
 
     @Inject
     private VdsNumaNodeDao vdsNumaNodeDao;
@@ -178,13 +180,32 @@ public class VdsManager {
     protected final int NUMBER_HOST_REFRESHES_BEFORE_SAVE;
     private HostConnectionRefresherInterface hostRefresher;
     private volatile boolean inServerRebootTimeout;
+    /**
+     * The cached host is kept up to date by the writes done through this manager, it is reloaded from the database
+     * only when it was invalidated by a change done elsewhere in the engine or when the reconciliation interval passed
+     */
+    private volatile boolean cachedVdsInvalidated;
+    private long lastCachedVdsReload;
+    private final long cachedVdsReconciliationInterval;
+    private final HostMonitoringStatistics monitoringStatistics = new HostMonitoringStatistics();
+    /**
+     * The topology of the host is loaded when the monitoring first needs it and is kept until the capabilities of the
+     * host are refreshed or the host is changed elsewhere in the engine, the generation tells whether it was
+     * invalidated while being loaded
+     */
+    private final Object hostTopologyLock = new Object();
+    private HostTopology hostTopology;
+    private long hostTopologyGeneration;
 
     VdsManager(VDS vds, ResourceManager resourceManager) {
         this.resourceManager = resourceManager;
         NUMBER_HOST_REFRESHES_BEFORE_SAVE = Config.<Integer> getValue(ConfigValues.NumberVmRefreshesBeforeSave);
         refreshIteration = new AtomicInteger(NUMBER_HOST_REFRESHES_BEFORE_SAVE - 1);
+        cachedVdsReconciliationInterval = TimeUnit.SECONDS.toMillis(
+                Config.<Integer> getValue(ConfigValues.HostMonitoringReconciliationIntervalInSeconds));
         log.info("Entered VdsManager constructor");
         cachedVds = vds;
+        lastCachedVdsReload = System.currentTimeMillis();
         vdsId = vds.getId();
         unrespondedAttempts = new AtomicInteger();
         autoStartVmsWithLeasesLock = new ReentrantLock();
@@ -283,6 +304,7 @@ public class VdsManager {
         if (lockManager.acquireLock(monitoringLock).isAcquired()) {
             try {
                 setIsSetNonOperationalExecuted(false);
+                monitoringStatistics.monitoringCycleStarted();
                 synchronized (this) {
                     refreshCachedVds();
                     setMonitoringNeeded();
@@ -302,16 +324,20 @@ public class VdsManager {
                         }
                     } catch (VDSNetworkException e) {
                         logNetworkException(e);
+                        invalidateCachedVds();
                         releaseLock = true;
                     } catch (VDSRecoveringException ex) {
                         handleVdsRecoveringException(ex);
+                        invalidateCachedVds();
                         releaseLock = true;
                     } catch (RuntimeException ex) {
                         logFailureMessage(ex);
+                        invalidateCachedVds();
                         releaseLock = true;
                     }
                 }
             } catch (Throwable t) {
+                invalidateCachedVds();
                 releaseLock = true;
                 throw t;
             } finally {
@@ -331,7 +357,6 @@ public class VdsManager {
                     cachedVds,
                     monitoringStrategy,
                     resourceManager,
-                    clusterDao,
                     vdsDynamicDao,
                     interfaceDao,
                     vdsNumaNodeDao,
@@ -343,6 +368,8 @@ public class VdsManager {
     public void afterRefreshTreatment(boolean succeeded) {
 
         if (!succeeded) {
+            // the cached host may hold changes of the failed cycle that were never saved
+            invalidateCachedVds();
             lockManager.releaseLock(monitoringLock);
             return;
         }
@@ -369,11 +396,13 @@ public class VdsManager {
                     hostMonitoring = null;
                 } catch (IRSErrorException ex) {
                     logAfterRefreshFailureMessage(ex);
+                    invalidateCachedVds();
                     if (log.isDebugEnabled()) {
                         logException(ex);
                     }
                 } catch (RuntimeException ex) {
                     logAfterRefreshFailureMessage(ex);
+                    invalidateCachedVds();
                     logException(ex);
                 }
             }
@@ -386,6 +415,7 @@ public class VdsManager {
         } catch (Exception e) {
             log.error("Timer update runtime info failed. Exception: {}", ExceptionUtils.getRootCauseMessage(e));
             log.debug("Exception:", e);
+            invalidateCachedVds();
         } finally {
             lockManager.releaseLock(monitoringLock);
         }
@@ -403,7 +433,63 @@ public class VdsManager {
     }
 
     private void refreshCachedVds() {
-        cachedVds = vdsDao.get(getVdsId());
+        long now = System.currentTimeMillis();
+        if (cachedVds == null
+                || cachedVdsInvalidated
+                || now - lastCachedVdsReload >= cachedVdsReconciliationInterval) {
+            // reset the flag before reading, so an invalidation that races with the read triggers another one
+            cachedVdsInvalidated = false;
+            lastCachedVdsReload = now;
+            monitoringStatistics.hostRead();
+            cachedVds = vdsDao.get(getVdsId());
+        }
+    }
+
+    /**
+     * Marks the cached host as stale, so it is reloaded from the database on the next monitoring cycle. Should be
+     * called by whoever changes the host in the database not through this manager.
+     */
+    public void invalidateCachedVds() {
+        cachedVdsInvalidated = true;
+        invalidateHostTopology();
+    }
+
+    /**
+     * @return the snapshot of the cluster thresholds, NUMA nodes and network interfaces of the host, loaded from the
+     *         database if it was invalidated since it was last taken
+     */
+    public HostTopology getHostTopology() {
+        long generation;
+        synchronized (hostTopologyLock) {
+            if (hostTopology != null) {
+                return hostTopology;
+            }
+            generation = hostTopologyGeneration;
+        }
+        HostTopology topology = new HostTopology(clusterDao.get(getClusterId()),
+                vdsNumaNodeDao.getAllVdsNumaNodeByVdsId(vdsId),
+                interfaceDao.getAllInterfacesForVds(vdsId));
+        monitoringStatistics.topologyRead(3);
+        synchronized (hostTopologyLock) {
+            if (generation == hostTopologyGeneration) {
+                hostTopology = topology;
+            }
+        }
+        return topology;
+    }
+
+    /**
+     * Drops the snapshot of the topology of the host, so it is loaded again when the monitoring next needs it
+     */
+    public void invalidateHostTopology() {
+        synchronized (hostTopologyLock) {
+            hostTopology = null;
+            hostTopologyGeneration++;
+        }
+    }
+
+    public HostMonitoringStatistics getMonitoringStatistics() {
+        return monitoringStatistics;
     }
 
     /**
@@ -425,6 +511,10 @@ public class VdsManager {
         return cachedVds.getClusterId();
     }
 
+    public Guid getStoragePoolId() {
+        return cachedVds.getStoragePoolId();
+    }
+
     public VDSType getVdsType() {
         return cachedVds.getVdsType();
     }
@@ -533,7 +623,15 @@ public class VdsManager {
      * Save statistics data to cache and DB.
      */
     public void updateStatisticsData(VdsStatistics statisticsData) {
-        vdsStatisticsDao.update(statisticsData);
+        statisticsBuffer.updateHostStatistics(statisticsData);
+        cachedVds.setStatisticsData(statisticsData);
+    }
+
+    /**
+     * Save statistics data collected by the monitoring to cache, they are written to DB behind the monitoring.
+     */
+    public void saveStatisticsData(VdsStatistics statisticsData) {
+        statisticsBuffer.saveHostStatistics(statisticsData);
         cachedVds.setStatisticsData(statisticsData);
     }
 
@@ -603,6 +701,8 @@ public class VdsManager {
                     }
                     return null;
                 });
+        // the nodes that were added got new ids
+        invalidateHostTopology();
     }
 
     public void refreshHostSync(VDS vds) {
@@ -785,6 +885,8 @@ public class VdsManager {
             VDS oldVDS,
             VDSReturnValue caps) {
         if (caps.getSucceeded()) {
+            // the reported capabilities may change the interfaces and the NUMA nodes of the host
+            invalidateHostTopology();
             // For gluster nodes, SELinux needs to be in enforcing mode,
             // hence warning in case of permissive as well.
             if (vds.getSELinuxEnforceMode() == null || vds.getSELinuxEnforceMode().equals(SELinuxMode.DISABLED)
@@ -30,8 +30,8 @@ import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.VmDeviceDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.VmStaticDao;
-import org.ovirt.engine.core.dao.VmStatisticsDao;
 import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
+import org.ovirt.engine.core.vdsbroker.monitoring.StatisticsWriteBehindBuffer;
 import org.ovirt.engine.core.vdsbroker.monitoring.VdsmVm;
 
 public class VmManager {
@@ -86,7 +86,7 @@ public class VmManager {
     @Inject
     private VmDynamicDao vmDynamicDao;
     @Inject
-    private VmStatisticsDao vmStatisticsDao;
+    private StatisticsWriteBehindBuffer statisticsBuffer;
     @Inject
     private VmNetworkStatisticsDao vmNetworkStatisticsDao;
     @Inject
@@ -167,7 +167,7 @@ public class VmManager {
     }
 
     public void update(VmStatistics statistics) {
-        vmStatisticsDao.update(statistics);
+        statisticsBuffer.updateVmStatistics(statistics);
         setStatistics(statistics);
     }
 
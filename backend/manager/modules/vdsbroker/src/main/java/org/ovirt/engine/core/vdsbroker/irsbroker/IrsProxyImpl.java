@@ -930,6 +930,7 @@ public class IrsProxyImpl implements IrsProxy {
                 storagePool.setStatus(StoragePoolStatus.Up);
             }
             storagePoolDao.update(storagePool);
+            resourceManager.invalidateCachedVdsOfStoragePool(storagePoolId);
             getEventListener().storagePoolStatusChanged(storagePool.getId(), storagePool.getStatus());
 
             setFencedIrs(null);
@@ -978,6 +979,7 @@ public class IrsProxyImpl implements IrsProxy {
 
         storagePool.setSpmVdsId(null);
         storagePoolDao.update(storagePool);
+        resourceManager.invalidateCachedVdsOfStoragePool(storagePoolId);
     }
 
     private boolean wasVdsManuallyFenced(int spmId) {
@@ -1123,6 +1125,7 @@ public class IrsProxyImpl implements IrsProxy {
             storagePoolDao.update(storagePool);
             return null;
         });
+        resourceManager.invalidateCachedVdsOfStoragePool(storagePoolId);
 
         log.info("starting spm on vds '{}', storage pool '{}', prevId '{}', LVER '{}'",
                 selectedVds.getName(), storagePool.getName(), prevId,
@@ -1151,6 +1154,7 @@ public class IrsProxyImpl implements IrsProxy {
                      storagePoolDao.update(pool);
                      return null;
                  });
+                 resourceManager.invalidateCachedVdsOfStoragePool(storagePoolId);
             }
             throw new IrsSpmStartFailedException();
         }
@@ -1170,6 +1174,7 @@ public class IrsProxyImpl implements IrsProxy {
         if (storagePool != null) {
             storagePool.setSpmVdsId(null);
             storagePoolDao.update(storagePool);
+            resourceManager.invalidateCachedVdsOfStoragePool(storagePoolId);
         }
     }
 
@@ -4,13 +4,17 @@ import java.security.cert.Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.impl.client.CloseableHttpClient;
@@ -103,7 +107,8 @@ import org.slf4j.LoggerFactory;
  * using {@link JsonRpcClient}.
  * Each method uses {@link RequestBuilder} to build request object and sends it
  * using client. The response is represented as {@link FutureMap} which is lazy
- * evaluated.
+ * evaluated, or for the asynchronous methods as a {@link CompletionStage} which
+ * is completed by the client when the response arrives.
  *
  */
 public class JsonRpcVdsServer implements IVdsServer {
@@ -111,6 +116,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     private static final Logger logger = LoggerFactory.getLogger(JsonRpcVdsServer.class);
     private final JsonRpcClient client;
     private final CloseableHttpClient httpClient;
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
 
     public JsonRpcVdsServer(JsonRpcClient client, CloseableHttpClient httpClient) {
         this.client = client;
@@ -309,13 +315,9 @@ public class JsonRpcVdsServer implements IVdsServer {
     }
 
     @Override
-    public void getCapabilities(BrokerCommandCallback callback) {
+    public CompletionStage<VDSInfoReturn> getCapabilitiesAsync() {
         JsonRpcRequest request = new RequestBuilder("Host.getCapabilities").build();
-        try {
-            client.call(request, callback);
-        } catch (ClientConnectionException e) {
-            throw new TransportRunTimeException("Connection issues during send request", e);
-        }
+        return callAsync(request).thenApply(VDSInfoReturn::new);
     }
 
     @Override
@@ -327,13 +329,9 @@ public class JsonRpcVdsServer implements IVdsServer {
     }
 
     @Override
-    public void getHardwareInfo(BrokerCommandCallback callback) {
+    public CompletionStage<VDSInfoReturn> getHardwareInfoAsync() {
         JsonRpcRequest request = new RequestBuilder("Host.getHardwareInfo").build();
-        try {
-            client.call(request, callback);
-        } catch (ClientConnectionException e) {
-            throw new TransportRunTimeException("Connection issues during send request", e);
-        }
+        return callAsync(request).thenApply(VDSInfoReturn::new);
     }
 
     @Override
@@ -345,13 +343,45 @@ public class JsonRpcVdsServer implements IVdsServer {
     }
 
     @Override
-    public void getVdsStats(BrokerCommandCallback callback) {
+    public CompletionStage<VDSInfoReturn> getVdsStatsAsync() {
         JsonRpcRequest request = new RequestBuilder("Host.getStats").build();
+        return callAsync(request).thenApply(VDSInfoReturn::new);
+    }
+
+    @Override
+    public int getInFlightRequests() {
+        return inFlightRequests.get();
+    }
+
+    /**
+     * Sends the request without waiting for its response. The returned stage is completed by the client thread which
+     * receives the response, with a map holding the result under the <code>info</code> key, or holding only the
+     * status that vdsm or the client reported when the request failed.
+     *
+     * @throws TransportRunTimeException when there are connection issues.
+     */
+    private CompletionStage<Map<String, Object>> callAsync(JsonRpcRequest request) {
+        CompletableFuture<Map<String, Object>> response = new CompletableFuture<>();
+        inFlightRequests.incrementAndGet();
         try {
-            client.call(request, callback);
+            client.call(request, new BrokerCommandCallback() {
+                @Override
+                public void onResponse(Map<String, Object> result) {
+                    inFlightRequests.decrementAndGet();
+                    response.complete(result);
+                }
+
+                @Override
+                public void onFailure(Map<String, Object> status) {
+                    inFlightRequests.decrementAndGet();
+                    response.complete(Collections.singletonMap("status", status));
+                }
+            });
         } catch (ClientConnectionException e) {
+            inFlightRequests.decrementAndGet();
             throw new TransportRunTimeException("Connection issues during send request", e);
         }
+        return response;
     }
 
     @Override
@@ -401,6 +431,19 @@ public class JsonRpcVdsServer implements IVdsServer {
         return new VMInfoListReturn(response);
     }
 
+    @Override
+    public CompletionStage<VMInfoListReturn> getAllVmStatsAsync() {
+        JsonRpcRequest request = new RequestBuilder("Host.getAllVmStats").build();
+        return callAsync(request).thenApply(response -> {
+            Map<String, Object> statsList = new HashMap<>(response);
+            Object info = statsList.remove("info");
+            if (info != null) {
+                statsList.put("statsList", info instanceof Collection ? ((Collection<?>) info).toArray() : info);
+            }
+            return new VMInfoListReturn(statsList);
+        });
+    }
+
     @Override
     public VmExternalDataReturn getVmExternalData(String vmId, VmExternalDataKind kind, boolean forceUpdate) {
         JsonRpcRequest request =
@@ -13,7 +13,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.ovirt.engine.core.common.AuditLogType;
-import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.Entities;
 import org.ovirt.engine.core.common.businessentities.IVdsEventListener;
 import org.ovirt.engine.core.common.businessentities.LogMaxMemoryUsedThresholdType;
@@ -41,7 +40,6 @@ import org.ovirt.engine.core.compat.TransactionScopeOption;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogable;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
-import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VdsNumaNodeDao;
 import org.ovirt.engine.core.dao.network.InterfaceDao;
@@ -69,7 +67,6 @@ public class HostMonitoring implements HostMonitoringInterface {
     private Map<String, InterfaceStatus> oldInterfaceStatus = new HashMap<>();
     private final ResourceManager resourceManager;
     private final AuditLogDirector auditLogDirector;
-    private final ClusterDao clusterDao;
     private final VdsDynamicDao vdsDynamicDao;
     private final InterfaceDao interfaceDao;
     private final VdsNumaNodeDao vdsNumaNodeDao;
@@ -80,7 +77,6 @@ public class HostMonitoring implements HostMonitoringInterface {
             VDS vds,
             MonitoringStrategy monitoringStrategy,
             ResourceManager resourceManager,
-            ClusterDao clusterDao,
             VdsDynamicDao vdsDynamicDao,
             InterfaceDao interfaceDao,
             VdsNumaNodeDao vdsNumaNodeDao,
@@ -91,7 +87,6 @@ public class HostMonitoring implements HostMonitoringInterface {
         firstStatus = vds.getStatus();
         this.monitoringStrategy = monitoringStrategy;
         this.resourceManager = resourceManager;
-        this.clusterDao = clusterDao;
         this.vdsDynamicDao = vdsDynamicDao;
         this.interfaceDao = interfaceDao;
         this.vdsNumaNodeDao = vdsNumaNodeDao;
@@ -261,8 +256,8 @@ public class HostMonitoring implements HostMonitoringInterface {
 
         if (saveVdsStatistics) {
             VdsStatistics stat = vds.getStatisticsData();
-            vdsManager.updateStatisticsData(stat);
-            checkVdsMemoryThreshold(clusterDao.get(vds.getClusterId()), stat);
+            vdsManager.saveStatisticsData(stat);
+            checkVdsMemoryThreshold(vdsManager.getHostTopology(), stat);
             checkVdsCpuThreshold(stat);
             checkVdsNetworkThreshold(stat);
             checkVdsSwapThreshold(stat);
@@ -286,18 +281,16 @@ public class HostMonitoring implements HostMonitoringInterface {
         final List<VdsNumaNode> vdsNumaNodesToSave = new ArrayList<>();
         List<VdsNumaNode> updateNumaNodes = vds.getNumaNodeList();
         if (!updateNumaNodes.isEmpty()) {
-            List<VdsNumaNode> dbVdsNumaNodes = vdsNumaNodeDao.getAllVdsNumaNodeByVdsId(vds.getId());
-            Map<Integer, VdsNumaNode> nodesMap = new HashMap<>();
-            for (VdsNumaNode node : dbVdsNumaNodes) {
-                nodesMap.put(node.getIndex(), node);
-            }
+            HostTopology hostTopology = vdsManager.getHostTopology();
             for (VdsNumaNode node : updateNumaNodes) {
-                VdsNumaNode dbNode = nodesMap.get(node.getIndex());
-                if (dbNode != null) {
-                    if (node.getNumaNodeStatistics() != null) {
-                        dbNode.setNumaNodeStatistics(node.getNumaNodeStatistics());
-                        vdsNumaNodesToSave.add(dbNode);
-                    }
+                Guid dbNodeId = hostTopology.getNumaNodeId(node.getIndex());
+                if (dbNodeId != null && node.getNumaNodeStatistics() != null) {
+                    // only the statistics of the node are saved
+                    VdsNumaNode dbNode = new VdsNumaNode();
+                    dbNode.setId(dbNodeId);
+                    dbNode.setIndex(node.getIndex());
+                    dbNode.setNumaNodeStatistics(node.getNumaNodeStatistics());
+                    vdsNumaNodesToSave.add(dbNode);
                 }
             }
         }
@@ -309,44 +302,44 @@ public class HostMonitoring implements HostMonitoringInterface {
     /**
      * check if value is less than configurable threshold , if yes , generated event list message
      */
-    private void checkVdsMemoryThreshold(Cluster cluster, VdsStatistics stat) {
+    private void checkVdsMemoryThreshold(HostTopology hostTopology, VdsStatistics stat) {
 
         if (stat.getMemFree() == null || stat.getUsageMemPercent() == null) {
             return;
         }
 
-        if (LogMaxMemoryUsedThresholdType.PERCENTAGE == cluster.getLogMaxMemoryUsedThresholdType()) {
-            checkVdsMemoryThresholdPercentage(cluster, stat);
+        if (LogMaxMemoryUsedThresholdType.PERCENTAGE == hostTopology.getLogMaxMemoryUsedThresholdType()) {
+            checkVdsMemoryThresholdPercentage(hostTopology, stat);
         }  else {
-            checkVdsMemoryThresholdAbsoluteValue(cluster, stat);
+            checkVdsMemoryThresholdAbsoluteValue(hostTopology, stat);
         }
     }
 
-    private void checkVdsMemoryThresholdPercentage(Cluster cluster, VdsStatistics stat) {
-        Integer maxUsedPercentageThreshold = cluster.getLogMaxMemoryUsedThreshold();
+    private void checkVdsMemoryThresholdPercentage(HostTopology hostTopology, VdsStatistics stat) {
+        Integer maxUsedPercentageThreshold = hostTopology.getLogMaxMemoryUsedThreshold();
 
         if (stat.getUsageMemPercent() > maxUsedPercentageThreshold) {
-            logMemoryAuditLog(vds, cluster, stat, AuditLogType.VDS_HIGH_MEM_USE, maxUsedPercentageThreshold);
+            logMemoryAuditLog(vds, hostTopology, stat, AuditLogType.VDS_HIGH_MEM_USE, maxUsedPercentageThreshold);
         }
     }
 
-    private void checkVdsMemoryThresholdAbsoluteValue(Cluster cluster, VdsStatistics stat) {
+    private void checkVdsMemoryThresholdAbsoluteValue(HostTopology hostTopology, VdsStatistics stat) {
         Integer maxUsedAbsoluteThreshold =
-                cluster.getLogMaxMemoryUsedThreshold();
+                hostTopology.getLogMaxMemoryUsedThreshold();
 
         if (stat.getMemFree() < maxUsedAbsoluteThreshold) {
-            logMemoryAuditLog(vds, cluster, stat, AuditLogType.VDS_LOW_MEM, maxUsedAbsoluteThreshold);
+            logMemoryAuditLog(vds, hostTopology, stat, AuditLogType.VDS_LOW_MEM, maxUsedAbsoluteThreshold);
         }
     }
 
     private void logMemoryAuditLog(VDS vds,
-            Cluster cluster,
+            HostTopology hostTopology,
             VdsStatistics stat,
             AuditLogType valueToLog,
             Integer threshold) {
         AuditLogable logable = createAuditLogableForHost();
         logable.addCustomValue("HostName", vds.getName());
-        logable.addCustomValue("Cluster", cluster.getName());
+        logable.addCustomValue("Cluster", hostTopology.getClusterName());
         logable.addCustomValue("AvailableMemory", stat.getMemFree().toString());
         logable.addCustomValue("UsedMemory", stat.getUsageMemPercent().toString());
         logable.addCustomValue("Threshold", threshold.toString());
@@ -494,43 +487,39 @@ public class HostMonitoring implements HostMonitoringInterface {
     }
 
     public void refreshVdsStats(boolean isVdsUpOrGoingToMaintenance) {
-        if (Config.<Boolean>getValue(ConfigValues.DebugTimerLogging)) {
+        if (Config.getBooleanValue(ConfigValues.DebugTimerLogging)) {
             log.debug("vdsManager::refreshVdsStats entered, host='{}'({})",
                     vds.getName(), vds.getId());
         }
         // get statistics data, images checks and vm_count data (dynamic)
         fetchHostInterfaces();
-        resourceManager.runVdsCommand(VDSCommandType.GetStatsAsync,
-                new VdsIdAndVdsVDSCommandParametersBase(vds).withCallback(new GetStatsAsyncCallback(isVdsUpOrGoingToMaintenance)));
+        resourceManager.runNonBlockingVdsCommand(VDSCommandType.GetStatsAsync,
+                new VdsIdAndVdsVDSCommandParametersBase(vds))
+                .whenComplete((statsReturnValue, failure) -> {
+                    if (failure == null) {
+                        onVdsStatsResponse(statsReturnValue, isVdsUpOrGoingToMaintenance);
+                    } else {
+                        onVdsStatsFailure(failure);
+                    }
+                });
     }
 
-    class GetStatsAsyncCallback implements BrokerCommandCallback {
-
-        private boolean vdsUpOrGoingToMaintenance;
-
-        GetStatsAsyncCallback(boolean vdsUpOrGoingToMaintenance) {
-            this.vdsUpOrGoingToMaintenance = vdsUpOrGoingToMaintenance;
-        }
-
-        @Override
-        public void onResponse(Map<String, Object> response) {
-            try {
-                processRefreshVdsStatsResponse((VDSReturnValue) response.get("result"));
-                if (!vdsUpOrGoingToMaintenance) {
-                    vdsManager.setStatus(VDSStatus.Up, vds);
-                }
-                refreshVdsRunTimeInfo(vdsUpOrGoingToMaintenance);
-            } catch(Throwable t) {
-                onFailure(t);
+    private void onVdsStatsResponse(VDSReturnValue statsReturnValue, boolean vdsUpOrGoingToMaintenance) {
+        try {
+            processRefreshVdsStatsResponse(statsReturnValue);
+            if (!vdsUpOrGoingToMaintenance) {
+                vdsManager.setStatus(VDSStatus.Up, vds);
             }
+            refreshVdsRunTimeInfo(vdsUpOrGoingToMaintenance);
+        } catch(Throwable t) {
+            onVdsStatsFailure(t);
         }
+    }
 
-        @Override
-        public void onFailure(Throwable t) {
-            log.error("Unable to GetStats: {}", ExceptionUtils.getRootCauseMessage(t));
-            log.debug("Exception", t);
-            postProcessRefresh(false);
-        }
+    private void onVdsStatsFailure(Throwable t) {
+        log.error("Unable to GetStats: {}", ExceptionUtils.getRootCauseMessage(t));
+        log.debug("Exception", t);
+        postProcessRefresh(false);
     }
 
     private void processRefreshVdsStatsResponse(VDSReturnValue statsReturnValue) {
@@ -551,7 +540,7 @@ public class HostMonitoring implements HostMonitoringInterface {
         alertIfLowDiskSpaceOnHost();
         checkVdsInterfaces();
 
-        if (Config.<Boolean> getValue(ConfigValues.DebugTimerLogging)) {
+        if (Config.getBooleanValue(ConfigValues.DebugTimerLogging)) {
             log.debug("vds::refreshVdsStats\n{}", this);
         }
     }
@@ -566,7 +555,7 @@ public class HostMonitoring implements HostMonitoringInterface {
     private void fetchHostInterfaces() {
         List<VdsNetworkInterface> nics;
         if (vds.getInterfaces().isEmpty()) {
-             nics = interfaceDao.getAllInterfacesForVds(vds.getId());
+            nics = vdsManager.getHostTopology().getInterfaces();
             vds.getInterfaces().addAll(nics);
         } else {
             nics = vds.getInterfaces();
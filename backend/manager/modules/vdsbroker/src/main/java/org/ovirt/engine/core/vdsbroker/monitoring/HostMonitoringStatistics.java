@@ -0,0 +1,105 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The following class keeps the monitoring counters of a single host, it is exposed via
+ * {@link HostMonitoringStatisticsMonitorMXBean}
+ */
+public class HostMonitoringStatistics {
+
+    /** Number of monitoring cycles the host went through **/
+    private final LongAdder monitoringCycles = new LongAdder();
+    /** Number of times the host was read from the database in order to refresh the cached host **/
+    private final LongAdder hostReads = new LongAdder();
+    /** Number of database reads done in order to refresh the snapshot of the topology of the host **/
+    private final LongAdder topologyReads = new LongAdder();
+    /** Number of VMs monitoring cycles, and the time spent in each of their stages **/
+    private final LongAdder vmsMonitoringCycles = new LongAdder();
+    private final LongAdder vmsAnalyzeNanos = new LongAdder();
+    private final LongAdder vmsFlushNanos = new LongAdder();
+    private final LongAdder vmsPostFlushNanos = new LongAdder();
+    /** Number of VMs whose dynamic data was written, whose status alone was written and which were left as is **/
+    private final LongAdder vmDynamicWritten = new LongAdder();
+    private final LongAdder vmDynamicStatusWritten = new LongAdder();
+    private final LongAdder vmDynamicSkipped = new LongAdder();
+
+    public void monitoringCycleStarted() {
+        monitoringCycles.increment();
+    }
+
+    public void hostRead() {
+        hostReads.increment();
+    }
+
+    public void topologyRead(int reads) {
+        topologyReads.add(reads);
+    }
+
+    public void vmsMonitored(long analyzeNanos, long flushNanos, long postFlushNanos) {
+        vmsMonitoringCycles.increment();
+        vmsAnalyzeNanos.add(analyzeNanos);
+        vmsFlushNanos.add(flushNanos);
+        vmsPostFlushNanos.add(postFlushNanos);
+    }
+
+    public void vmDynamicSaved(int written, int statusWritten, int skipped) {
+        vmDynamicWritten.add(written);
+        vmDynamicStatusWritten.add(statusWritten);
+        vmDynamicSkipped.add(skipped);
+    }
+
+    public long getMonitoringCycles() {
+        return monitoringCycles.sum();
+    }
+
+    public long getHostReads() {
+        return hostReads.sum();
+    }
+
+    public long getTopologyReads() {
+        return topologyReads.sum();
+    }
+
+    public long getVmsMonitoringCycles() {
+        return vmsMonitoringCycles.sum();
+    }
+
+    public long getVmsAnalyzeTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(vmsAnalyzeNanos.sum());
+    }
+
+    public long getVmsFlushTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(vmsFlushNanos.sum());
+    }
+
+    public long getVmsPostFlushTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(vmsPostFlushNanos.sum());
+    }
+
+    public long getVmDynamicWritten() {
+        return vmDynamicWritten.sum();
+    }
+
+    public long getVmDynamicStatusWritten() {
+        return vmDynamicStatusWritten.sum();
+    }
+
+    public long getVmDynamicSkipped() {
+        return vmDynamicSkipped.sum();
+    }
+
+    public void reset() {
+        monitoringCycles.reset();
+        hostReads.reset();
+        topologyReads.reset();
+        vmsMonitoringCycles.reset();
+        vmsAnalyzeNanos.reset();
+        vmsFlushNanos.reset();
+        vmsPostFlushNanos.reset();
+        vmDynamicWritten.reset();
+        vmDynamicStatusWritten.reset();
+        vmDynamicSkipped.reset();
+    }
+}
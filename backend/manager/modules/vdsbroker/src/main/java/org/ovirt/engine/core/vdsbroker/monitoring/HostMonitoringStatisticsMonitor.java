@@ -0,0 +1,175 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.IVdsServer;
+
+/**
+ * Aggregates the {@link HostMonitoringStatistics} of all the hosts known to the engine and exposes them via JMX.
+ */
+public class HostMonitoringStatisticsMonitor implements HostMonitoringStatisticsMonitorMXBean {
+
+    private final Supplier<Collection<VdsManager>> vdsManagers;
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    public HostMonitoringStatisticsMonitor(Supplier<Collection<VdsManager>> vdsManagers) {
+        this.vdsManagers = vdsManagers;
+    }
+
+    public void registerInJMX() {
+        try {
+            objectName = new ObjectName("HostMonitoringStatistics:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    public void unregisterFromJMX() {
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during unregistration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @Override
+    public long getMonitoringCycles() {
+        return sum(HostMonitoringStatistics::getMonitoringCycles);
+    }
+
+    @Override
+    public long getHostReads() {
+        return sum(HostMonitoringStatistics::getHostReads);
+    }
+
+    @Override
+    public double getHostReadsPerCycle() {
+        long cycles = getMonitoringCycles();
+        return cycles == 0 ? 0 : (double) getHostReads() / cycles;
+    }
+
+    @Override
+    public Map<String, Long> getHostReadsByHost() {
+        Map<String, Long> result = new TreeMap<>();
+        for (VdsManager vdsManager : vdsManagers.get()) {
+            result.put(vdsManager.getVdsName(), vdsManager.getMonitoringStatistics().getHostReads());
+        }
+        return result;
+    }
+
+    @Override
+    public long getTopologyReads() {
+        return sum(HostMonitoringStatistics::getTopologyReads);
+    }
+
+    @Override
+    public Map<String, Double> getDatabaseReadsPerCycleByHost() {
+        Map<String, Double> result = new TreeMap<>();
+        for (VdsManager vdsManager : vdsManagers.get()) {
+            HostMonitoringStatistics statistics = vdsManager.getMonitoringStatistics();
+            long cycles = statistics.getMonitoringCycles();
+            long reads = statistics.getHostReads() + statistics.getTopologyReads();
+            result.put(vdsManager.getVdsName(), cycles == 0 ? 0 : (double) reads / cycles);
+        }
+        return result;
+    }
+
+    @Override
+    public long getVmsMonitoringCycles() {
+        return sum(HostMonitoringStatistics::getVmsMonitoringCycles);
+    }
+
+    @Override
+    public long getVmsAnalyzeTimeMillis() {
+        return sum(HostMonitoringStatistics::getVmsAnalyzeTimeMillis);
+    }
+
+    @Override
+    public long getVmsFlushTimeMillis() {
+        return sum(HostMonitoringStatistics::getVmsFlushTimeMillis);
+    }
+
+    @Override
+    public long getVmsPostFlushTimeMillis() {
+        return sum(HostMonitoringStatistics::getVmsPostFlushTimeMillis);
+    }
+
+    @Override
+    public Map<String, Long> getVmsMonitoringTimeMillisByHost() {
+        Map<String, Long> result = new TreeMap<>();
+        for (VdsManager vdsManager : vdsManagers.get()) {
+            HostMonitoringStatistics statistics = vdsManager.getMonitoringStatistics();
+            long cycles = statistics.getVmsMonitoringCycles();
+            long total = statistics.getVmsAnalyzeTimeMillis()
+                    + statistics.getVmsFlushTimeMillis()
+                    + statistics.getVmsPostFlushTimeMillis();
+            result.put(vdsManager.getVdsName(), cycles == 0 ? 0 : total / cycles);
+        }
+        return result;
+    }
+
+    @Override
+    public long getVmDynamicWritten() {
+        return sum(HostMonitoringStatistics::getVmDynamicWritten);
+    }
+
+    @Override
+    public long getVmDynamicStatusWritten() {
+        return sum(HostMonitoringStatistics::getVmDynamicStatusWritten);
+    }
+
+    @Override
+    public long getVmDynamicSkipped() {
+        return sum(HostMonitoringStatistics::getVmDynamicSkipped);
+    }
+
+    @Override
+    public Map<String, Long> getVmDynamicSkippedPerCycleByHost() {
+        Map<String, Long> result = new TreeMap<>();
+        for (VdsManager vdsManager : vdsManagers.get()) {
+            HostMonitoringStatistics statistics = vdsManager.getMonitoringStatistics();
+            long cycles = statistics.getVmsMonitoringCycles();
+            result.put(vdsManager.getVdsName(), cycles == 0 ? 0 : statistics.getVmDynamicSkipped() / cycles);
+        }
+        return result;
+    }
+
+    @Override
+    public int getInFlightRequests() {
+        return getInFlightRequestsByHost().values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public Map<String, Integer> getInFlightRequestsByHost() {
+        Map<String, Integer> result = new TreeMap<>();
+        for (VdsManager vdsManager : vdsManagers.get()) {
+            IVdsServer vdsProxy = vdsManager.getVdsProxy();
+            result.put(vdsManager.getVdsName(), vdsProxy == null ? 0 : vdsProxy.getInFlightRequests());
+        }
+        return result;
+    }
+
+    @Override
+    public void resetStatistics() {
+        vdsManagers.get().forEach(vdsManager -> vdsManager.getMonitoringStatistics().reset());
+    }
+
+    private long sum(ToLongFunction<HostMonitoringStatistics> counter) {
+        return vdsManagers.get().stream()
+                .map(VdsManager::getMonitoringStatistics)
+                .mapToLong(counter)
+                .sum();
+    }
+}
@@ -0,0 +1,106 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.Map;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface HostMonitoringStatisticsMonitorMXBean {
+
+    /**
+     * The following method will return the number of monitoring cycles of all hosts
+     */
+    long getMonitoringCycles();
+
+    /**
+     * The following method will return the number of times hosts were read from the database by the monitoring
+     */
+    long getHostReads();
+
+    /**
+     * The following method will return the average number of host reads per monitoring cycle
+     */
+    double getHostReadsPerCycle();
+
+    /**
+     * The following method will return the number of host reads of each host, keyed by host name
+     */
+    Map<String, Long> getHostReadsByHost();
+
+    /**
+     * The following method will return the number of database reads done by the monitoring of all hosts in order to
+     * refresh their cluster thresholds, NUMA nodes and network interfaces
+     */
+    long getTopologyReads();
+
+    /**
+     * The following method will return the average number of database reads per monitoring cycle of each host, of
+     * the host itself and of its topology, keyed by host name
+     */
+    Map<String, Double> getDatabaseReadsPerCycleByHost();
+
+    /**
+     * The following method will return the number of VMs monitoring cycles of all hosts
+     */
+    long getVmsMonitoringCycles();
+
+    /**
+     * The following method will return the accumulated time spent analyzing the VMs reported by hosts
+     */
+    long getVmsAnalyzeTimeMillis();
+
+    /**
+     * The following method will return the accumulated time spent saving the analyzed VMs to the database
+     */
+    long getVmsFlushTimeMillis();
+
+    /**
+     * The following method will return the accumulated time spent acting upon the analyzed VMs after saving them
+     */
+    long getVmsPostFlushTimeMillis();
+
+    /**
+     * The following method will return the average duration of a VMs monitoring cycle of each host, keyed by host name
+     */
+    Map<String, Long> getVmsMonitoringTimeMillisByHost();
+
+    /**
+     * The following method will return the number of VMs whose dynamic data was written by the monitoring
+     */
+    long getVmDynamicWritten();
+
+    /**
+     * The following method will return the number of VMs whose status was the only dynamic data written by the
+     * monitoring
+     */
+    long getVmDynamicStatusWritten();
+
+    /**
+     * The following method will return the number of VMs whose dynamic data was not written by the monitoring since
+     * it did not change
+     */
+    long getVmDynamicSkipped();
+
+    /**
+     * The following method will return the average number of VMs whose dynamic data was not written per VMs
+     * monitoring cycle, keyed by host name
+     */
+    Map<String, Long> getVmDynamicSkippedPerCycleByHost();
+
+    /**
+     * The following method will return the number of requests sent to the hosts without waiting for their response,
+     * whose response did not arrive yet
+     */
+    int getInFlightRequests();
+
+    /**
+     * The following method will return the number of requests sent without waiting for their response, whose response
+     * did not arrive yet, keyed by host name
+     */
+    Map<String, Integer> getInFlightRequestsByHost();
+
+    /**
+     * The following method will reset the counters of all hosts
+     */
+    void resetStatistics();
+}
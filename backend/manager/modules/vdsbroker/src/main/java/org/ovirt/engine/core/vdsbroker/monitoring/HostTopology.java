@@ -0,0 +1,64 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.LogMaxMemoryUsedThresholdType;
+import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * A snapshot of the data the host monitoring reads on every statistics cycle but that only changes when the
+ * capabilities of the host are refreshed, or when the host or its cluster are changed by the engine. It is kept by
+ * the {@link org.ovirt.engine.core.vdsbroker.VdsManager} of the host.
+ */
+public class HostTopology {
+
+    private final String clusterName;
+    private final LogMaxMemoryUsedThresholdType logMaxMemoryUsedThresholdType;
+    private final Integer logMaxMemoryUsedThreshold;
+    private final Map<Integer, Guid> numaNodeIdsByIndex;
+    private final List<VdsNetworkInterface> interfaces;
+
+    public HostTopology(Cluster cluster, List<VdsNumaNode> numaNodes, List<VdsNetworkInterface> interfaces) {
+        clusterName = cluster.getName();
+        logMaxMemoryUsedThresholdType = cluster.getLogMaxMemoryUsedThresholdType();
+        logMaxMemoryUsedThreshold = cluster.getLogMaxMemoryUsedThreshold();
+        Map<Integer, Guid> numaNodeIds = new HashMap<>();
+        for (VdsNumaNode numaNode : numaNodes) {
+            numaNodeIds.put(numaNode.getIndex(), numaNode.getId());
+        }
+        numaNodeIdsByIndex = Collections.unmodifiableMap(numaNodeIds);
+        this.interfaces = Collections.unmodifiableList(interfaces);
+    }
+
+    public String getClusterName() {
+        return clusterName;
+    }
+
+    public LogMaxMemoryUsedThresholdType getLogMaxMemoryUsedThresholdType() {
+        return logMaxMemoryUsedThresholdType;
+    }
+
+    public Integer getLogMaxMemoryUsedThreshold() {
+        return logMaxMemoryUsedThreshold;
+    }
+
+    /**
+     * @return the id of the NUMA node of the given index in the database, or {@code null} if there is no such node
+     */
+    public Guid getNumaNodeId(int index) {
+        return numaNodeIdsByIndex.get(index);
+    }
+
+    /**
+     * @return the network interfaces of the host, as they were when the snapshot was taken
+     */
+    public List<VdsNetworkInterface> getInterfaces() {
+        return interfaces;
+    }
+}
@@ -4,8 +4,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -45,6 +47,7 @@ public class PollVmStatsRefresher extends VmStatsRefresher {
     @Inject
     protected VmDynamicDao vmDynamicDao;
     private ScheduledFuture vmsMonitoringJob;
+    private final AtomicBoolean pollInProgress = new AtomicBoolean();
 
     public PollVmStatsRefresher(VdsManager vdsManager) {
         super(vdsManager);
@@ -52,27 +55,57 @@ public class PollVmStatsRefresher extends VmStatsRefresher {
 
     public void poll() {
         try {
-            if (isMonitoringNeeded(vdsManager.getStatus())) {
-                long fetchTime = System.nanoTime();
-                List<Pair<VmDynamic, VdsmVm>> fetchedVms = fetchVms();
-                if (fetchedVms == null) {
-                    log.info("Failed to fetch vms info for host '{}'({}) - skipping VMs monitoring.", vdsManager.getVdsName(), vdsManager.getVdsId());
-                    return;
+            if (!isMonitoringNeeded(vdsManager.getStatus())) {
+                return;
+            }
+            if (!pollInProgress.compareAndSet(false, true)) {
+                log.debug("The previous VMs monitoring on host '{}'({}) did not end yet - skipping VMs monitoring.",
+                        vdsManager.getVdsName(), vdsManager.getVdsId());
+                return;
+            }
+            long fetchTime = System.nanoTime();
+            // the response is processed by a pool thread, no thread waits for it to arrive
+            getAllVmStats().whenCompleteAsync((returnValue, failure) -> {
+                try {
+                    if (failure != null) {
+                        onFailure(failure);
+                    } else {
+                        onResponse(returnValue, fetchTime);
+                    }
+                } finally {
+                    pollInProgress.set(false);
                 }
+            }, schedulerService);
+        } catch (Throwable t) {
+            pollInProgress.set(false);
+            onFailure(t);
+        }
+    }
 
-                getVmsMonitoring().perform(fetchedVms, fetchTime, vdsManager, isStatistics());
-                processDevices(filterVmsToDevicesMonitoring(fetchedVms), fetchTime);
-                processExternalData(filterVmsToDevicesMonitoring(fetchedVms));
+    private void onResponse(VDSReturnValue returnValue, long fetchTime) {
+        try {
+            List<Pair<VmDynamic, VdsmVm>> fetchedVms = fetchVms(returnValue);
+            if (fetchedVms == null) {
+                log.info("Failed to fetch vms info for host '{}'({}) - skipping VMs monitoring.", vdsManager.getVdsName(), vdsManager.getVdsId());
+                return;
             }
+
+            getVmsMonitoring().perform(fetchedVms, fetchTime, vdsManager, isStatistics());
+            processDevices(filterVmsToDevicesMonitoring(fetchedVms), fetchTime);
+            processExternalData(filterVmsToDevicesMonitoring(fetchedVms));
         } catch (Throwable t) {
-            log.error("Failed during vms monitoring on host '{}'({}) error is: {}",
-                    vdsManager.getVdsName(),
-                    vdsManager.getVdsId(),
-                    ExceptionUtils.getRootCauseMessage(t));
-            log.debug("Exception:", t);
+            onFailure(t);
         }
     }
 
+    private void onFailure(Throwable t) {
+        log.error("Failed during vms monitoring on host '{}'({}) error is: {}",
+                vdsManager.getVdsName(),
+                vdsManager.getVdsId(),
+                ExceptionUtils.getRootCauseMessage(t));
+        log.debug("Exception:", t);
+    }
+
     protected boolean isStatistics() {
         return true;
     }
@@ -118,8 +151,7 @@ public class PollVmStatsRefresher extends VmStatsRefresher {
         }
     }
 
-    private List<Pair<VmDynamic, VdsmVm>> fetchVms() {
-        VDSReturnValue returnValue = getAllVmStats();
+    private List<Pair<VmDynamic, VdsmVm>> fetchVms(VDSReturnValue returnValue) {
         if (!returnValue.getSucceeded()) {
             return null;
         }
@@ -176,9 +208,9 @@ public class PollVmStatsRefresher extends VmStatsRefresher {
         return pairs;
     }
 
-    protected VDSReturnValue getAllVmStats() {
-        return resourceManager.runVdsCommand(
-                VDSCommandType.GetAllVmStats,
+    protected CompletionStage<VDSReturnValue> getAllVmStats() {
+        return resourceManager.runNonBlockingVdsCommand(
+                VDSCommandType.GetAllVmStatsAsync,
                 new VdsIdVDSCommandParametersBase(vdsManager.getVdsId()));
     }
 
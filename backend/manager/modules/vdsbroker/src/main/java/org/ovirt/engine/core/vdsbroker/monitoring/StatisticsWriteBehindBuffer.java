@@ -0,0 +1,292 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VdsStatisticsDao;
+import org.ovirt.engine.core.dao.VmStatisticsDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the VM and host statistics collected by the monitoring behind it. The latest statistics of each VM and host
+ * are kept until they are flushed, so statistics reported again before a flush replace the previous ones instead of
+ * being written twice. The statistics are flushed every {@link ConfigValues#StatisticsWriteBehindIntervalInSeconds},
+ * or as soon as {@link ConfigValues#StatisticsWriteBehindFlushThreshold} VMs and hosts are waiting; if twice as many
+ * are waiting the flushes do not keep up, and the monitoring thread writes them itself.
+ * <p>
+ * Only the statistics go through the buffer, the dynamic data which the status of VMs and hosts is determined by is
+ * still written by the monitoring right away. Statistics written on other flows, e.g. when the status of a VM or a
+ * host is changed, are written right away as well and replace the statistics waiting to be written.
+ */
+@Singleton
+public class StatisticsWriteBehindBuffer implements StatisticsWriteBehindBufferMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsWriteBehindBuffer.class);
+
+    @Inject
+    private VmStatisticsDao vmStatisticsDao;
+    @Inject
+    private VdsStatisticsDao vdsStatisticsDao;
+    @Inject
+    @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
+    private ManagedScheduledExecutorService schedulerService;
+
+    private final ConcurrentMap<Guid, VmStatistics> pendingVmStatistics = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Guid, VdsStatistics> pendingHostStatistics = new ConcurrentHashMap<>();
+    /**
+     * Held by the flushes, and by the direct writes only to wait for a running flush and to drop the pending
+     * statistics, so older statistics never override newer ones
+     **/
+    private final Lock writeLock = new ReentrantLock();
+    private final AtomicBoolean flushSubmitted = new AtomicBoolean();
+
+    private final LongAdder buffered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder backPressureFlushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    private long flushIntervalMillis;
+    private int flushThreshold;
+    private ScheduledFuture<?> flushJob;
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    @PostConstruct
+    void init() {
+        flushIntervalMillis = TimeUnit.SECONDS.toMillis(
+                Config.<Integer> getValue(ConfigValues.StatisticsWriteBehindIntervalInSeconds));
+        flushThreshold = Config.<Integer> getValue(ConfigValues.StatisticsWriteBehindFlushThreshold);
+        if (isEnabled()) {
+            flushJob = schedulerService.scheduleWithFixedDelay(this::flush,
+                    flushIntervalMillis,
+                    flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+            log.info("Writing the statistics every {} ms", flushIntervalMillis);
+        }
+
+        try {
+            objectName = new ObjectName("StatisticsWriteBehindBuffer:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (flushJob != null) {
+            flushJob.cancel(false);
+        }
+        flush();
+
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during unregistration of Monitoring into JMX:" + e);
+        }
+    }
+
+    private boolean isEnabled() {
+        return flushIntervalMillis > 0;
+    }
+
+    /**
+     * Saves the statistics collected by the monitoring of VMs, they are written behind unless the buffer is disabled
+     */
+    public void saveVmStatistics(Collection<VmStatistics> statistics) {
+        if (!isEnabled()) {
+            vmStatisticsDao.updateAllInBatch(statistics);
+            return;
+        }
+
+        statistics.forEach(stats -> buffer(pendingVmStatistics, stats.getId(), stats));
+        afterBuffering();
+    }
+
+    /**
+     * Saves the statistics collected by the monitoring of a host, they are written behind unless the buffer is
+     * disabled
+     */
+    public void saveHostStatistics(VdsStatistics statistics) {
+        if (!isEnabled()) {
+            vdsStatisticsDao.update(statistics);
+            return;
+        }
+
+        buffer(pendingHostStatistics, statistics.getId(), statistics);
+        afterBuffering();
+    }
+
+    /**
+     * Writes the statistics of a VM right away, replacing its statistics waiting to be written
+     */
+    public void updateVmStatistics(VmStatistics statistics) {
+        if (isEnabled()) {
+            writeLock.lock();
+            try {
+                pendingVmStatistics.remove(statistics.getId());
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        vmStatisticsDao.update(statistics);
+    }
+
+    /**
+     * Writes the statistics of a host right away, replacing its statistics waiting to be written
+     */
+    public void updateHostStatistics(VdsStatistics statistics) {
+        if (isEnabled()) {
+            writeLock.lock();
+            try {
+                pendingHostStatistics.remove(statistics.getId());
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        vdsStatisticsDao.update(statistics);
+    }
+
+    private <T> void buffer(ConcurrentMap<Guid, T> pending, Guid id, T statistics) {
+        buffered.increment();
+        if (pending.put(id, statistics) != null) {
+            coalesced.increment();
+        }
+    }
+
+    private void afterBuffering() {
+        int pendingCount = pendingVmStatistics.size() + pendingHostStatistics.size();
+        if (pendingCount >= 2 * flushThreshold) {
+            backPressureFlushes.increment();
+            flush();
+        } else if (pendingCount >= flushThreshold && flushSubmitted.compareAndSet(false, true)) {
+            schedulerService.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushSubmitted.set(false);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void flush() {
+        writeLock.lock();
+        try {
+            boolean succeeded = flushVmStatistics();
+            succeeded &= flushHostStatistics();
+            flushes.increment();
+            if (!succeeded) {
+                failedFlushes.increment();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private boolean flushVmStatistics() {
+        if (pendingVmStatistics.isEmpty()) {
+            return true;
+        }
+
+        List<VmStatistics> statistics = new ArrayList<>(pendingVmStatistics.values());
+        statistics.forEach(stats -> pendingVmStatistics.remove(stats.getId(), stats));
+        try {
+            vmStatisticsDao.updateAllInBatch(statistics);
+            written.add(statistics.size());
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to write the statistics of {} VMs: {}", statistics.size(), e.getMessage());
+            log.debug("Exception", e);
+            // they are written by the next flush, unless newer statistics were reported in the meantime
+            statistics.forEach(stats -> pendingVmStatistics.putIfAbsent(stats.getId(), stats));
+            return false;
+        }
+    }
+
+    private boolean flushHostStatistics() {
+        boolean succeeded = true;
+        for (VdsStatistics statistics : new ArrayList<>(pendingHostStatistics.values())) {
+            pendingHostStatistics.remove(statistics.getId(), statistics);
+            try {
+                vdsStatisticsDao.update(statistics);
+                written.increment();
+            } catch (RuntimeException e) {
+                log.error("Failed to write the statistics of host '{}': {}", statistics.getId(), e.getMessage());
+                log.debug("Exception", e);
+                pendingHostStatistics.putIfAbsent(statistics.getId(), statistics);
+                succeeded = false;
+            }
+        }
+        return succeeded;
+    }
+
+    @Override
+    public int getPendingVmStatisticsCount() {
+        return pendingVmStatistics.size();
+    }
+
+    @Override
+    public int getPendingHostStatisticsCount() {
+        return pendingHostStatistics.size();
+    }
+
+    @Override
+    public long getBufferedCount() {
+        return buffered.sum();
+    }
+
+    @Override
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    @Override
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    @Override
+    public long getBackPressureFlushCount() {
+        return backPressureFlushes.sum();
+    }
+
+    @Override
+    public long getFailedFlushCount() {
+        return failedFlushes.sum();
+    }
+}
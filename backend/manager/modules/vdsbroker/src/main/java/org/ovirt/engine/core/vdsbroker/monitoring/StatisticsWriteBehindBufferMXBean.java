@@ -0,0 +1,52 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface StatisticsWriteBehindBufferMXBean {
+
+    /**
+     * The following method will return the number of VMs whose statistics are waiting to be written
+     */
+    int getPendingVmStatisticsCount();
+
+    /**
+     * The following method will return the number of hosts whose statistics are waiting to be written
+     */
+    int getPendingHostStatisticsCount();
+
+    /**
+     * The following method will return the number of statistics handed to the buffer
+     */
+    long getBufferedCount();
+
+    /**
+     * The following method will return the number of statistics which replaced statistics still waiting to be written
+     */
+    long getCoalescedCount();
+
+    /**
+     * The following method will return the number of statistics written to the database
+     */
+    long getWrittenCount();
+
+    /**
+     * The following method will return the number of flushes
+     */
+    long getFlushCount();
+
+    /**
+     * The following method will return the number of flushes done by the monitoring since the buffer was full
+     */
+    long getBackPressureFlushCount();
+
+    /**
+     * The following method will return the number of flushes which failed to write some of the statistics
+     */
+    long getFailedFlushCount();
+
+    /**
+     * The following method will write all the statistics waiting to be written
+     */
+    void flush();
+}
@@ -53,6 +53,7 @@ import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
 import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.NetworkUtils;
+import org.ovirt.engine.core.utils.ObjectIdentityChecker;
 import org.ovirt.engine.core.vdsbroker.NetworkStatisticsBuilder;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
@@ -67,6 +68,8 @@ import org.slf4j.LoggerFactory;
 public class VmAnalyzer {
 
     private final VmDynamic dbVm;
+    /** the VM as it was read from the database, before it was changed by the analysis **/
+    private final VmDynamic originalDbVm;
     private final VdsmVm vdsmVm;
 
     private VmDynamic vmDynamicToSave;
@@ -100,6 +103,8 @@ public class VmAnalyzer {
                 .collect(Collectors.toSet());
         CHANGEABLE_FIELDS_BY_VDSM = Collections.unmodifiableSet(tmpList);
     }
+    /** names of fields in {@link VmDynamic} that are not written when the VM dynamic data is saved **/
+    private static final Set<String> UNSAVED_FIELDS = Collections.singleton("leaseInfo");
 
     private AuditLogDirector auditLogDirector;
     private VdsManager vdsManager;
@@ -120,6 +125,7 @@ public class VmAnalyzer {
             VdsDynamicDao vdsDynamicDao,
             VmNetworkInterfaceDao vmNetworkInterfaceDao) {
         this.dbVm = dbVm;
+        this.originalDbVm = dbVm != null ? new VmDynamic(dbVm) : null;
         this.vdsmVm = vdsmVm;
         this.updateStatistics = updateStatistics;
         this.vdsManager = vdsManager;
@@ -454,6 +460,23 @@ public class VmAnalyzer {
         return vmDynamicToSave;
     }
 
+    /**
+     * Returns the names of the fields of {@link #getVmDynamicToSave()} that differ from the VM as it was read from the
+     * database, or {@code null} if the VM is not known to be in the database in that form, e.g. an external VM, in
+     * which case it should be saved as a whole
+     */
+    public Set<String> getChangedVmDynamicFields() {
+        if (vmDynamicToSave == null) {
+            return Collections.emptySet();
+        }
+        if (vmDynamicToSave != dbVm) {
+            return null;
+        }
+        return ObjectIdentityChecker.getChangedFields(originalDbVm, vmDynamicToSave).stream()
+                .filter(field -> !UNSAVED_FIELDS.contains(field))
+                .collect(Collectors.toSet());
+    }
+
     public List<VmNetworkStatistics> getVmNetworkStatistics() {
         return ifaces != null ?
                 ifaces.stream().map(VmNetworkInterface::getStatistics).collect(Collectors.toList())
@@ -1,11 +1,16 @@
 package org.ovirt.engine.core.vdsbroker.monitoring;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -14,6 +19,8 @@ import javax.inject.Singleton;
 import org.ovirt.engine.core.common.businessentities.IVdsEventListener;
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.compat.TransactionScopeOption;
@@ -22,9 +29,9 @@ import org.ovirt.engine.core.dao.DiskImageDynamicDao;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.VmGuestAgentInterfaceDao;
-import org.ovirt.engine.core.dao.VmStatisticsDao;
 import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
 import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
@@ -58,7 +65,7 @@ public class VmsMonitoring {
     @Inject
     private VmNetworkStatisticsDao vmNetworkStatisticsDao;
     @Inject
-    private VmStatisticsDao vmStatisticsDao;
+    private StatisticsWriteBehindBuffer statisticsBuffer;
     @Inject
     private VmGuestAgentInterfaceDao vmGuestAgentInterfaceDao;
     @Inject
@@ -67,6 +74,7 @@ public class VmsMonitoring {
     private VdsDynamicDao vdsDynamicDao;
 
     private static final Logger log = LoggerFactory.getLogger(VmsMonitoring.class);
+    private static final Set<String> STATUS_FIELD = Collections.singleton("status");
 
     /**
      * analyze and react upon changes on the monitoredVms. relevant changes would
@@ -89,13 +97,19 @@ public class VmsMonitoring {
             return;
         }
 
+        int parallelism = getParallelism();
         List<VmAnalyzer> vmAnalyzers = Collections.emptyList();
         try {
-            vmAnalyzers = analyzeVms(monitoredVms, fetchTime, vdsManager, updateStatistics);
+            long start = System.nanoTime();
+            vmAnalyzers = analyzeVms(monitoredVms, fetchTime, vdsManager, updateStatistics, parallelism);
             // It is important to add the unmanaged VMs before flushing the dynamic data into the database
             addUnmanagedVms(vmAnalyzers, vdsManager.getVdsId());
-            flush(vmAnalyzers);
+            long analyzed = System.nanoTime();
+            flush(vmAnalyzers, vdsManager, parallelism);
+            long flushed = System.nanoTime();
             postFlush(vmAnalyzers, vdsManager, fetchTime);
+            vdsManager.getMonitoringStatistics()
+                    .vmsMonitored(analyzed - start, flushed - analyzed, System.nanoTime() - flushed);
             vdsManager.vmsMonitoringInitFinished();
         } catch (RuntimeException ex) {
             log.error("Failed during vms monitoring on host {} error is: {}", vdsManager.getVdsName(), ex);
@@ -119,15 +133,50 @@ public class VmsMonitoring {
      * Skip analysis on VMs which cannot be locked
      * note: metrics calculation like memCommited and vmsCoresCount should be calculated *before*
      *   this filtering.
+     * The VMs are split between up to {@code parallelism} engine threads, this is safe since each
+     * VM is analyzed only after it was locked by its VmManager.
      * @return The analyzers which hold all the data per VM
      */
     private List<VmAnalyzer> analyzeVms(
             List<Pair<VmDynamic, VdsmVm>> monitoredVms,
             long fetchTime,
             VdsManager vdsManager,
-            boolean updateStatistics) {
+            boolean updateStatistics,
+            int parallelism) {
         VmAnalyzerFactory vmAnalyzerFactory = getVmAnalyzerFactory(vdsManager, updateStatistics);
-        List<VmAnalyzer> vmAnalyzers = new ArrayList<>(monitoredVms.size());
+        Queue<VmAnalyzer> analyzed = new ConcurrentLinkedQueue<>();
+        if (parallelism <= 1 || monitoredVms.size() == 1) {
+            analyzeVms(monitoredVms, fetchTime, vdsManager, vmAnalyzerFactory, analyzed);
+        } else {
+            int chunkSize = (monitoredVms.size() + parallelism - 1) / parallelism;
+            List<Callable<Void>> tasks = new ArrayList<>(parallelism);
+            for (int from = 0; from < monitoredVms.size(); from += chunkSize) {
+                List<Pair<VmDynamic, VdsmVm>> chunk =
+                        monitoredVms.subList(from, Math.min(from + chunkSize, monitoredVms.size()));
+                tasks.add(() -> {
+                    analyzeVms(chunk, fetchTime, vdsManager, vmAnalyzerFactory, analyzed);
+                    return null;
+                });
+            }
+            try {
+                ThreadPoolUtil.invokeAll(tasks);
+            } catch (RuntimeException ex) {
+                // the VMs analyzed by the tasks that did complete are locked and won't be unlocked by the caller
+                unlockVms(new ArrayList<>(analyzed));
+                throw ex;
+            }
+        }
+        List<VmAnalyzer> vmAnalyzers = new ArrayList<>(analyzed);
+        vmAnalyzers.sort(Comparator.comparing(VmAnalyzer::getVmId));
+        return vmAnalyzers;
+    }
+
+    private void analyzeVms(
+            List<Pair<VmDynamic, VdsmVm>> monitoredVms,
+            long fetchTime,
+            VdsManager vdsManager,
+            VmAnalyzerFactory vmAnalyzerFactory,
+            Queue<VmAnalyzer> vmAnalyzers) {
         monitoredVms.forEach(vm -> {
             // TODO filter out migratingTo VMs if no action is taken on them
             if (shouldAnalyzeVm(vm, fetchTime, vdsManager.getVdsId())) {
@@ -145,8 +194,6 @@ public class VmsMonitoring {
                 }
             }
         });
-        vmAnalyzers.sort(Comparator.comparing(VmAnalyzer::getVmId));
-        return vmAnalyzers;
     }
 
     protected VmAnalyzerFactory getVmAnalyzerFactory(VdsManager vdsManager, boolean statistics) {
@@ -280,12 +327,29 @@ public class VmsMonitoring {
                 vmIdsWithGuestAgentDownAndBalloonInfalted);
     }
 
-    private void flush(List<VmAnalyzer> vmAnalyzers) {
-        saveVmGuestAgentNetworkDevices(vmAnalyzers);
-        saveVmDynamic(vmAnalyzers);
-        saveVmStatistics(vmAnalyzers);
-        saveVmInterfaceStatistics(vmAnalyzers);
-        saveVmDiskImageStatistics(vmAnalyzers);
+    private void flush(List<VmAnalyzer> vmAnalyzers, VdsManager vdsManager, int parallelism) {
+        if (parallelism <= 1) {
+            saveVmGuestAgentNetworkDevices(vmAnalyzers);
+            saveVmDynamic(vmAnalyzers, vdsManager);
+            saveVmStatistics(vmAnalyzers);
+            saveVmInterfaceStatistics(vmAnalyzers);
+            saveVmDiskImageStatistics(vmAnalyzers);
+            return;
+        }
+
+        // the saves update unrelated tables, so they are done concurrently, each on a connection of its own
+        List<Runnable> saves = Arrays.asList(
+                () -> saveVmGuestAgentNetworkDevices(vmAnalyzers),
+                () -> saveVmDynamic(vmAnalyzers, vdsManager),
+                () -> saveVmStatistics(vmAnalyzers),
+                () -> saveVmInterfaceStatistics(vmAnalyzers),
+                () -> saveVmDiskImageStatistics(vmAnalyzers));
+        ThreadPoolUtil.invokeAll(saves.stream()
+                .map(save -> (Callable<Void>) () -> {
+                    save.run();
+                    return null;
+                })
+                .collect(Collectors.toList()));
     }
 
     private void saveVmDiskImageStatistics(List<VmAnalyzer> vmAnalyzers) {
@@ -295,11 +359,36 @@ public class VmsMonitoring {
                 .collect(Collectors.toList()));
     }
 
-    private void saveVmDynamic(List<VmAnalyzer> vmAnalyzers) {
-        vmDynamicDao.updateAllInBatch(vmAnalyzers.stream()
-                .map(VmAnalyzer::getVmDynamicToSave)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList()));
+    /**
+     * Saves the dynamic data of the analyzed VMs, skipping the VMs whose data did not change since it was read from the
+     * database and updating only the status of those whose status is the only thing that changed
+     */
+    private void saveVmDynamic(List<VmAnalyzer> vmAnalyzers, VdsManager vdsManager) {
+        List<VmDynamic> changedVms = new ArrayList<>();
+        List<VmDynamic> vmsWithChangedStatus = new ArrayList<>();
+        int unchanged = 0;
+        for (VmAnalyzer vmAnalyzer : vmAnalyzers) {
+            VmDynamic vmDynamic = vmAnalyzer.getVmDynamicToSave();
+            if (vmDynamic == null) {
+                continue;
+            }
+
+            Set<String> changedFields = vmAnalyzer.getChangedVmDynamicFields();
+            if (changedFields == null) {
+                changedVms.add(vmDynamic);
+            } else if (changedFields.isEmpty()) {
+                unchanged++;
+            } else if (changedFields.equals(STATUS_FIELD)) {
+                vmsWithChangedStatus.add(vmDynamic);
+            } else {
+                changedVms.add(vmDynamic);
+            }
+        }
+
+        vmDynamicDao.updateAllInBatch(changedVms);
+        vmDynamicDao.updateStatusesInBatch(vmsWithChangedStatus);
+        vdsManager.getMonitoringStatistics()
+                .vmDynamicSaved(changedVms.size(), vmsWithChangedStatus.size(), unchanged);
     }
 
     private void saveVmInterfaceStatistics(List<VmAnalyzer> vmAnalyzers) {
@@ -314,7 +403,7 @@ public class VmsMonitoring {
                 .map(VmAnalyzer::getVmStatisticsToSave)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
-        vmStatisticsDao.updateAllInBatch(statistics);
+        statisticsBuffer.saveVmStatistics(statistics);
         statistics.forEach(stats -> getVmManager(stats.getId()).setStatistics(stats));
     }
 
@@ -364,4 +453,8 @@ public class VmsMonitoring {
         return resourceManager.getVmManager(vmId);
     }
 
+    protected int getParallelism() {
+        return Config.<Integer> getValue(ConfigValues.VmsMonitoringParallelism);
+    }
+
 }
@@ -6,6 +6,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -98,7 +100,7 @@ public class KubevirtVmStatsRefresher extends PollVmStatsRefresher {
     }
 
     @Override
-    protected VDSReturnValue getAllVmStats() {
+    protected CompletionStage<VDSReturnValue> getAllVmStats() {
         VDSReturnValue returnValue = new VDSReturnValue();
         try {
             V1VirtualMachineInstanceList result = listVMIs(vdsManager.getVdsName());
@@ -120,7 +122,7 @@ public class KubevirtVmStatsRefresher extends PollVmStatsRefresher {
                     ExceptionUtils.getRootCauseMessage(e));
             log.debug("Exception", e);
         }
-        return returnValue;
+        return CompletableFuture.completedFuture(returnValue);
     }
 
     private VdsmVm toVdsmVm(V1VirtualMachineInstance vmi) {
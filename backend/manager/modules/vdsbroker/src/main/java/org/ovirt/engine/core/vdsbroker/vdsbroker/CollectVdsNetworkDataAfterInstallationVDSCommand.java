@@ -23,5 +23,6 @@ public class CollectVdsNetworkDataAfterInstallationVDSCommand extends CollectVds
         VdsDynamic hostFromDb = vdsDynamicDao.get(getVds().getId());
         hostFromDb.setSupportedClusterLevels(getVds().getDynamicData().getSupportedClusterLevels());
         vdsDynamicDao.update(hostFromDb);
+        resourceManager.invalidateCachedVdsOnTransactionCompletion(getVds().getId());
     }
 }
@@ -49,12 +49,14 @@ public class CollectVdsNetworkDataVDSCommand extends GetCapabilitiesVDSCommand<C
      * DB.<br>
      * The update is done in a new transaction since we don't care if afterwards something goes wrong, but we would like
      * to minimize races with other command that update the
-     * {@link org.ovirt.engine.core.common.businessentities.VdsDynamic} entity in the DB.
+     * {@link org.ovirt.engine.core.common.businessentities.VdsDynamic} entity in the DB. The host monitoring is then
+     * made to reload the host, so it doesn't write its cached flag back.
      */
     private void updateNetConfigDirtyFlag() {
         TransactionSupport.executeInNewTransaction(() -> {
             vdsDynamicDao.updateNetConfigDirty(getVds().getId(), getVds().getNetConfigDirty());
             return null;
         });
+        resourceManager.invalidateCachedVds(getVds().getId());
     }
 }
@@ -0,0 +1,52 @@
+package org.ovirt.engine.core.vdsbroker.vdsbroker;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.ovirt.engine.core.common.vdscommands.VdsIdVDSCommandParametersBase;
+import org.ovirt.engine.core.utils.log.Logged;
+import org.ovirt.engine.core.utils.log.Logged.LogLevel;
+import org.ovirt.engine.core.vdsbroker.monitoring.VdsmVm;
+
+@Logged(executionLevel = LogLevel.DEBUG)
+public class GetAllVmStatsAsyncVDSCommand<P extends VdsIdVDSCommandParametersBase> extends VmStatsVdsBrokerCommand<P> {
+
+    public GetAllVmStatsAsyncVDSCommand(P parameters) {
+        super(parameters);
+    }
+
+    @Override
+    protected void executeVdsBrokerCommand() {
+        try {
+            getBroker().getAllVmStatsAsync().whenComplete(this::onResponse);
+        } catch (Throwable t) {
+            getParameters().getCallback().onFailure(t);
+            throw t;
+        }
+    }
+
+    private void onResponse(VMInfoListReturn response, Throwable failure) {
+        if (failure != null) {
+            onAsyncFailure(failure);
+            return;
+        }
+        try {
+            vmListReturn = response;
+            proceedProxyReturnValue();
+            List<VdsmVm> returnVMs = Arrays.stream(vmListReturn.infoList)
+                    .map(this::createVdsmVm)
+                    .collect(Collectors.toList());
+            setReturnValue(returnVMs);
+            getParameters().getCallback().onResponse(Collections.singletonMap("result", getVDSReturnValue()));
+        } catch (Exception ex) {
+            onAsyncFailure(ex);
+        }
+    }
+
+    @Override
+    protected boolean getIsPrintReturnValue() {
+        return false;
+    }
+}
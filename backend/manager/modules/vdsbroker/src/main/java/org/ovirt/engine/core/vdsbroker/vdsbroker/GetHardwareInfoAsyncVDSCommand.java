@@ -1,12 +1,10 @@
 package org.ovirt.engine.core.vdsbroker.vdsbroker;
 
 import java.util.Collections;
-import java.util.Map;
 
 import javax.inject.Inject;
 
 import org.ovirt.engine.core.common.vdscommands.VdsIdAndVdsVDSCommandParametersBase;
-import org.ovirt.vdsm.jsonrpc.client.BrokerCommandCallback;
 
 public class GetHardwareInfoAsyncVDSCommand<P extends VdsIdAndVdsVDSCommandParametersBase> extends InfoVdsBrokerCommand<P> {
     @Inject
@@ -19,37 +17,27 @@ public class GetHardwareInfoAsyncVDSCommand<P extends VdsIdAndVdsVDSCommandParam
     @Override
     protected void executeVdsBrokerCommand() {
         try {
-            getBroker().getHardwareInfo(new GetHardwareInfoVDSCommandCallback());
+            getBroker().getHardwareInfoAsync().whenComplete(this::onResponse);
         } catch (Throwable t) {
             getParameters().getCallback().onFailure(t);
             throw t;
         }
     }
 
-    private class GetHardwareInfoVDSCommandCallback implements BrokerCommandCallback {
-
-        @Override
-        public void onResponse(Map<String, Object> response) {
-            try {
-                infoReturn = new VDSInfoReturn(response);
-                proceedProxyReturnValue();
-                vdsBrokerObjectsBuilder.updateHardwareSystemInformation(infoReturn.info, getVds());
-                if (getParameters().getCallback() != null) {
-                    getParameters().getCallback().onResponse(Collections.singletonMap("result", getVDSReturnValue()));
-                }
-            } catch (Exception ex) {
-                getParameters().getCallback().onFailure(ex);
-            }
+    private void onResponse(VDSInfoReturn response, Throwable failure) {
+        if (failure != null) {
+            onAsyncFailure(failure);
+            return;
         }
-
-        @Override
-        public void onFailure(Map<String, Object> response) {
-            try {
-                infoReturn = new VDSInfoReturn().withStatus(response);
-                proceedProxyReturnValue();
-            } catch (Exception ex) {
-                getParameters().getCallback().onFailure(ex);
+        try {
+            infoReturn = response;
+            proceedProxyReturnValue();
+            vdsBrokerObjectsBuilder.updateHardwareSystemInformation(infoReturn.info, getVds());
+            if (getParameters().getCallback() != null) {
+                getParameters().getCallback().onResponse(Collections.singletonMap("result", getVDSReturnValue()));
             }
+        } catch (Exception ex) {
+            onAsyncFailure(ex);
         }
     }
 
@@ -93,16 +93,20 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
     public NonOperationalReason persistAndEnforceNetworkCompliance(VDS host,
                                                                    boolean skipManagementNetwork,
                                                                    UserConfiguredNetworkData userConfiguredData) {
-        return TransactionSupport.executeInScope(TransactionScopeOption.Required, () -> {
-            List<VdsNetworkInterface> dbIfaces = interfaceDao.getAllInterfacesForVds(host.getId());
-            List<Network> clusterNetworks = networkDao.getAllForCluster(host.getClusterId());
-
-            persistTopology(host, dbIfaces, clusterNetworks, userConfiguredData);
-            NonOperationalReason nonOperationalReason =
-                    enforceNetworkCompliance(host, skipManagementNetwork, clusterNetworks);
-            auditNetworkCompliance(host, dbIfaces, clusterNetworks);
-            return nonOperationalReason;
-        });
+        NonOperationalReason nonOperationalReason =
+                TransactionSupport.executeInScope(TransactionScopeOption.Required, () -> {
+                    List<VdsNetworkInterface> dbIfaces = interfaceDao.getAllInterfacesForVds(host.getId());
+                    List<Network> clusterNetworks = networkDao.getAllForCluster(host.getClusterId());
+
+                    persistTopology(host, dbIfaces, clusterNetworks, userConfiguredData);
+                    NonOperationalReason reason =
+                            enforceNetworkCompliance(host, skipManagementNetwork, clusterNetworks);
+                    auditNetworkCompliance(host, dbIfaces, clusterNetworks);
+                    return reason;
+                });
+        // the DNS resolver configuration of the host was written directly
+        resourceManager.get().invalidateCachedVdsOnTransactionCompletion(host.getId());
+        return nonOperationalReason;
     }
 
     private NonOperationalReason enforceNetworkCompliance(VDS host,
@@ -4,6 +4,7 @@ import java.security.cert.Certificate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
@@ -43,7 +44,6 @@ import org.ovirt.engine.core.vdsbroker.irsbroker.StoragePoolInfo;
 import org.ovirt.engine.core.vdsbroker.irsbroker.UUIDListReturn;
 import org.ovirt.engine.core.vdsbroker.irsbroker.VmBackupInfo;
 import org.ovirt.engine.core.vdsbroker.irsbroker.VmCheckpointIds;
-import org.ovirt.vdsm.jsonrpc.client.BrokerCommandCallback;
 
 @SuppressWarnings("rawtypes")
 public interface IVdsServer {
@@ -85,15 +85,20 @@ public interface IVdsServer {
 
     VDSInfoReturn getCapabilities();
 
-    void getCapabilities(BrokerCommandCallback callback);
+    CompletionStage<VDSInfoReturn> getCapabilitiesAsync();
 
     VDSInfoReturn getHardwareInfo();
 
-    void getHardwareInfo(BrokerCommandCallback callback);
+    CompletionStage<VDSInfoReturn> getHardwareInfoAsync();
 
     VDSInfoReturn getVdsStats();
 
-    void getVdsStats(BrokerCommandCallback callback);
+    CompletionStage<VDSInfoReturn> getVdsStatsAsync();
+
+    /**
+     * @return the number of asynchronous requests which were sent to the host and whose response did not arrive yet
+     */
+    int getInFlightRequests();
 
     StatusOnlyReturn setMOMPolicyParameters(Map<String, Object> key_value_store);
 
@@ -115,6 +120,8 @@ public interface IVdsServer {
 
     VMInfoListReturn getAllVmStats();
 
+    CompletionStage<VMInfoListReturn> getAllVmStatsAsync();
+
     VmExternalDataReturn getVmExternalData(String vmId, VmExternalDataKind kind, boolean forceUpdate);
 
     HostDevListReturn hostDevListByCaps();
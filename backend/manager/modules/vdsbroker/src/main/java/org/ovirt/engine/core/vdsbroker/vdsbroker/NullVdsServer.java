@@ -4,6 +4,8 @@ import java.security.cert.Certificate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
@@ -43,7 +45,6 @@ import org.ovirt.engine.core.vdsbroker.irsbroker.StoragePoolInfo;
 import org.ovirt.engine.core.vdsbroker.irsbroker.UUIDListReturn;
 import org.ovirt.engine.core.vdsbroker.irsbroker.VmBackupInfo;
 import org.ovirt.engine.core.vdsbroker.irsbroker.VmCheckpointIds;
-import org.ovirt.vdsm.jsonrpc.client.BrokerCommandCallback;
 
 public class NullVdsServer implements IVdsServer {
     @Override public void close() {
@@ -123,24 +124,24 @@ public class NullVdsServer implements IVdsServer {
         return null;
     }
 
-    @Override public void getCapabilities(BrokerCommandCallback callback) {
-
+    @Override public CompletionStage<VDSInfoReturn> getCapabilitiesAsync() {
+        return new CompletableFuture<>();
     }
 
     @Override public VDSInfoReturn getHardwareInfo() {
         return null;
     }
 
-    @Override public void getHardwareInfo(BrokerCommandCallback callback) {
-
+    @Override public CompletionStage<VDSInfoReturn> getHardwareInfoAsync() {
+        return new CompletableFuture<>();
     }
 
     @Override public VDSInfoReturn getVdsStats() {
         return null;
     }
 
-    @Override public void getVdsStats(BrokerCommandCallback callback) {
-
+    @Override public CompletionStage<VDSInfoReturn> getVdsStatsAsync() {
+        return new CompletableFuture<>();
     }
 
     @Override public StatusOnlyReturn setMOMPolicyParameters(Map<String, Object> key_value_store) {
@@ -183,6 +184,14 @@ public class NullVdsServer implements IVdsServer {
         return null;
     }
 
+    @Override public CompletionStage<VMInfoListReturn> getAllVmStatsAsync() {
+        return new CompletableFuture<>();
+    }
+
+    @Override public int getInFlightRequests() {
+        return 0;
+    }
+
     @Override public VmExternalDataReturn getVmExternalData(String vmId, VmExternalDataKind kind, boolean forceUpdate) {
         return null;
     }
@@ -1,5 +1,7 @@
 package org.ovirt.engine.core.vdsbroker.vdsbroker;
 
+import java.util.concurrent.CompletionException;
+
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
@@ -121,37 +123,68 @@ public abstract class VdsBrokerCommand<P extends VdsIdVDSCommandParametersBase>
     protected void executeVdsCommandWithNetworkEvent(boolean sendNetworkErrorEvent) {
         try {
             executeVdsBrokerCommand();
-        } catch (VDSNetworkException ex) {
+        } catch (RuntimeException ex) {
+            throw handleVdsCommandException(ex, sendNetworkErrorEvent);
+        }
+    }
+
+    /**
+     * Reports the failure of a request sent without waiting for its response to the callback of the parameters,
+     * after handling it the way {@link #executeVdsCommandWithNetworkEvent(boolean)} handles the failures of the
+     * requests the command waits for.
+     */
+    protected void onAsyncFailure(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof RuntimeException) {
+            RuntimeException ex = handleVdsCommandException((RuntimeException) cause, true);
+            setVdsRuntimeErrorAndReport(ex);
+            cause = ex;
+        }
+        getParameters().getCallback().onFailure(cause);
+    }
+
+    /**
+     * Handles an exception the command failed with
+     *
+     * @param sendNetworkErrorEvent
+     *            whether to send an event when a network error occurs
+     * @return the exception the command fails with
+     */
+    private RuntimeException handleVdsCommandException(RuntimeException ex, boolean sendNetworkErrorEvent) {
+        if (ex instanceof VDSNetworkException) {
+            VDSNetworkException networkException = (VDSNetworkException) ex;
             printReturnValue();
-            updateNetworkException(ex, ex.getMessage());
+            updateNetworkException(networkException, networkException.getMessage());
             if (sendNetworkErrorEvent) {
-                networkError.fire(ex);
+                networkError.fire(networkException);
             }
-            throw ex;
-        } catch (VDSExceptionBase ex) {
+            return networkException;
+        }
+        if (ex instanceof VDSExceptionBase) {
             printReturnValue();
-            throw ex;
-        } catch (TransportRunTimeException ex) {
+            return ex;
+        }
+        if (ex instanceof TransportRunTimeException) {
             VDSNetworkException networkException = createNetworkException(ex);
             printReturnValue();
             if (sendNetworkErrorEvent) {
                 networkError.fire(networkException);
             }
-            throw networkException;
-        } catch (RuntimeException e) {
-            // TODO: look for invalid certificates error handling
-            printReturnValue();
-            if (getAndSetVdsStatic() == null) {
-                log.error("Failed in '{}' method, for vds id: '{}': {}",
-                        getCommandName(), getParameters().getVdsId(), e.getMessage());
-            } else {
-                log.error("Failed in '{}' method, for vds: '{}'; host: '{}': {}",
-                        getCommandName(), getAndSetVdsStatic().getName(), getAndSetVdsStatic().getHostName(),
-                        e.getMessage());
-            }
-            throw e;
+            return networkException;
         }
-
+        // TODO: look for invalid certificates error handling
+        printReturnValue();
+        if (getAndSetVdsStatic() == null) {
+            log.error("Failed in '{}' method, for vds id: '{}': {}",
+                    getCommandName(), getParameters().getVdsId(), ex.getMessage());
+        } else {
+            log.error("Failed in '{}' method, for vds: '{}'; host: '{}': {}",
+                    getCommandName(), getAndSetVdsStatic().getName(), getAndSetVdsStatic().getHostName(),
+                    ex.getMessage());
+        }
+        return ex;
     }
 
     private void updateNetworkException(VDSNetworkException ex, String message) {
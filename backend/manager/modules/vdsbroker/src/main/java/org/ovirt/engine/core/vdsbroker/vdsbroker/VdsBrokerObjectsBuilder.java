@@ -596,7 +596,7 @@ public class VdsBrokerObjectsBuilder {
 
         // negative monitorResponse means it is erroneous
         if (struct.containsKey(VdsProperties.monitorResponse)) {
-            int response = Integer.parseInt(struct.get(VdsProperties.monitorResponse).toString());
+            int response = parseIntVdsProperty(struct.get(VdsProperties.monitorResponse));
             if (response < 0 && vm.getStatus().isGuestCpuRunning()) {
                 vm.setStatus(VMStatus.NotResponding);
             }
@@ -870,19 +870,23 @@ public class VdsBrokerObjectsBuilder {
         // ------------- vm memory statistics -----------------------
         vm.setUsageMemPercent(assignIntValue(struct, VdsProperties.vm_usage_mem_percent));
 
-        if (struct.containsKey(VdsProperties.vm_guest_mem_stats)) {
-            Map<String, Object> sub = (Map<String, Object>)struct.get(VdsProperties.vm_guest_mem_stats);
-            if (sub.containsKey(VdsProperties.vm_guest_mem_buffered)) {
-                vm.setGuestMemoryBuffered(Long.parseLong(sub.get(VdsProperties.vm_guest_mem_buffered).toString()));
+        Map<String, Object> sub = (Map<String, Object>) struct.get(VdsProperties.vm_guest_mem_stats);
+        if (sub != null) {
+            Long guestMemory = assignLongValue(sub, VdsProperties.vm_guest_mem_buffered);
+            if (guestMemory != null) {
+                vm.setGuestMemoryBuffered(guestMemory);
             }
-            if (sub.containsKey(VdsProperties.vm_guest_mem_cached)) {
-                vm.setGuestMemoryCached(Long.parseLong(sub.get(VdsProperties.vm_guest_mem_cached).toString()));
+            guestMemory = assignLongValue(sub, VdsProperties.vm_guest_mem_cached);
+            if (guestMemory != null) {
+                vm.setGuestMemoryCached(guestMemory);
             }
-            if (sub.containsKey(VdsProperties.vm_guest_mem_free)) {
-                vm.setGuestMemoryFree(Long.parseLong(sub.get(VdsProperties.vm_guest_mem_free).toString()));
+            guestMemory = assignLongValue(sub, VdsProperties.vm_guest_mem_free);
+            if (guestMemory != null) {
+                vm.setGuestMemoryFree(guestMemory);
             }
-            if (sub.containsKey(VdsProperties.vm_guest_mem_unused)) {
-                vm.setGuestMemoryUnused(Long.parseLong(sub.get(VdsProperties.vm_guest_mem_unused).toString()));
+            guestMemory = assignLongValue(sub, VdsProperties.vm_guest_mem_unused);
+            if (guestMemory != null) {
+                vm.setGuestMemoryUnused(guestMemory);
             }
         }
 
@@ -1608,14 +1612,12 @@ public class VdsBrokerObjectsBuilder {
 
     private static InterfaceStatus assignInterfaceStatusValue(Map<String, Object> input, String name) {
         InterfaceStatus ifaceStatus = InterfaceStatus.NONE;
-        if (input.containsKey(name)) {
-            String stringValue = (String) ((input.get(name) instanceof String) ? input.get(name) : null);
-            if (!StringUtils.isEmpty(stringValue)) {
-                if (stringValue.toLowerCase().trim().equals("up")) {
-                    ifaceStatus = InterfaceStatus.UP;
-                } else {
-                    ifaceStatus = InterfaceStatus.DOWN;
-                }
+        String stringValue = assignStringValue(input, name);
+        if (!StringUtils.isEmpty(stringValue)) {
+            if (stringValue.trim().equalsIgnoreCase("up")) {
+                ifaceStatus = InterfaceStatus.UP;
+            } else {
+                ifaceStatus = InterfaceStatus.DOWN;
             }
         }
         return ifaceStatus;
@@ -1643,66 +1645,68 @@ public class VdsBrokerObjectsBuilder {
     }
 
     private static Integer assignIntValue(Map input, String name) {
-        if (input.containsKey(name)) {
-            if (input.get(name) instanceof Integer) {
-                return (Integer) input.get(name);
-            }
-            String stringValue = (String) input.get(name);
-            if (StringUtils.isNotEmpty(stringValue)) { // in case the input
-                                                       // is decimal and we
-                                                       // need int.
-                stringValue = stringValue.split("[.]", -1)[0];
+        Object value = input.get(name);
+        if (value instanceof Integer) {
+            return (Integer) value;
+        }
+        String stringValue = (String) value;
+        if (StringUtils.isNotEmpty(stringValue)) {
+            // in case the input is decimal and we need int.
+            stringValue = truncateFraction(stringValue);
 
-                try {
-                    return Integer.parseInt(stringValue);
-                } catch (NumberFormatException nfe) {
-                    log.error("Failed to parse '{}' value '{}' to integer: {}", name, stringValue, nfe.getMessage());
-                }
+            try {
+                return Integer.parseInt(stringValue);
+            } catch (NumberFormatException nfe) {
+                log.error("Failed to parse '{}' value '{}' to integer: {}", name, stringValue, nfe.getMessage());
             }
         }
         return null;
     }
 
     private static Long assignLongValue(Map<String, Object> input, String name) {
-        if (input.containsKey(name)) {
-            if (input.get(name) instanceof Long || input.get(name) instanceof Integer) {
-                return Long.parseLong(input.get(name).toString());
-            }
-            String stringValue = (String) ((input.get(name) instanceof String) ? input.get(name) : null);
-            if (!StringUtils.isEmpty(stringValue)) { // in case the input
-                                                     // is decimal and we
-                                                     // need int.
-                stringValue = stringValue.split("[.]", -1)[0];
+        Object value = input.get(name);
+        if (value instanceof Long || value instanceof Integer) {
+            return ((Number) value).longValue();
+        }
+        String stringValue = value instanceof String ? (String) value : null;
+        if (!StringUtils.isEmpty(stringValue)) {
+            // in case the input is decimal and we need long.
+            stringValue = truncateFraction(stringValue);
 
-                try {
-                    return Long.parseLong(stringValue);
-                } catch (NumberFormatException e) {
-                    log.error("Failed to parse '{}' value '{}' to long: {}", name, stringValue, e.getMessage());
-                }
+            try {
+                return Long.parseLong(stringValue);
+            } catch (NumberFormatException e) {
+                log.error("Failed to parse '{}' value '{}' to long: {}", name, stringValue, e.getMessage());
             }
         }
         return null;
     }
 
+    /**
+     * Drops the fraction of a decimal number, this runs for most of the numbers reported by vdsm for every VM on
+     * every statistics poll, so it avoids the regex of {@link String#split(String)}.
+     */
+    private static String truncateFraction(String number) {
+        int point = number.indexOf('.');
+        return point < 0 ? number : number.substring(0, point);
+    }
+
     private static String assignStringValue(Map<String, Object> input, String name) {
-        if (input.containsKey(name)) {
-            return (String) ((input.get(name) instanceof String) ? input.get(name) : null);
-        }
-        return null;
+        Object value = input.get(name);
+        return value instanceof String ? (String) value : null;
     }
 
     private static String[] assignStringArrayValue(Map<String, Object> input, String name) {
+        Object value = input.get(name);
+        if (value instanceof String[]) {
+            return (String[]) value;
+        }
         String[] array = null;
-        if (input.containsKey(name)) {
-            array = (String[]) ((input.get(name) instanceof String[]) ? input.get(name) : null);
-            if (array == null) {
-                Object[] arr2 = (Object[]) ((input.get(name) instanceof Object[]) ? input.get(name) : null);
-                if (arr2 != null) {
-                    array = new String[arr2.length];
-                    for (int i = 0; i < arr2.length; i++) {
-                        array[i] = arr2[i].toString();
-                    }
-                }
+        if (value instanceof Object[]) {
+            Object[] arr2 = (Object[]) value;
+            array = new String[arr2.length];
+            for (int i = 0; i < arr2.length; i++) {
+                array[i] = arr2[i].toString();
             }
         }
         return array;
@@ -1733,13 +1737,11 @@ public class VdsBrokerObjectsBuilder {
     }
 
     private static Boolean assignBoolValue(Map<String, Object> input, String name) {
-        if (input.containsKey(name)) {
-            if (input.get(name) instanceof Boolean) {
-                return (Boolean) input.get(name);
-            }
-            return Boolean.parseBoolean(input.get(name).toString());
+        Object value = input.get(name);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
         }
-        return Boolean.FALSE;
+        return value == null ? Boolean.FALSE : Boolean.valueOf(value.toString());
     }
 
     public List<DiskImageDynamic> buildVmDiskStatistics(Map<String, Object> vmStruct) {
@@ -0,0 +1,106 @@
+package org.ovirt.engine.core.vdsbroker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.vdscommands.VDSCommandType;
+import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
+import org.ovirt.engine.core.common.vdscommands.VdsIdVDSCommandParametersBase;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VDSNetworkException;
+
+@ExtendWith({ MockitoExtension.class, MockConfigExtension.class })
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ResourceManagerTest {
+
+    @Spy
+    private ResourceManager resourceManager;
+
+    private final VdsIdVDSCommandParametersBase parameters = new VdsIdVDSCommandParametersBase(Guid.newGuid());
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.vdsTimeout, 1));
+    }
+
+    @Test
+    public void testNonBlockingCommandCompletesWithResponse() throws Exception {
+        VDSReturnValue response = createReturnValue(true);
+        doAnswer(invocation -> {
+            parameters.getCallback().onResponse(Collections.singletonMap("result", response));
+            return createReturnValue(true);
+        }).when(resourceManager).runVdsCommand(eq(VDSCommandType.GetAllVmStatsAsync), any());
+
+        CompletableFuture<VDSReturnValue> result =
+                resourceManager.runNonBlockingVdsCommand(VDSCommandType.GetAllVmStatsAsync, parameters)
+                        .toCompletableFuture();
+
+        assertSame(response, result.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNonBlockingCommandFailsWithExceptionOfFailedCommand() {
+        VDSReturnValue returnValue = createReturnValue(false);
+        returnValue.setExceptionObject(new VDSNetworkException("unreachable"));
+        doReturn(returnValue).when(resourceManager).runVdsCommand(eq(VDSCommandType.GetAllVmStatsAsync), any());
+
+        CompletableFuture<VDSReturnValue> result =
+                resourceManager.runNonBlockingVdsCommand(VDSCommandType.GetAllVmStatsAsync, parameters)
+                        .toCompletableFuture();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertSame(returnValue.getExceptionObject(), failure.getCause());
+    }
+
+    @Test
+    public void testNonBlockingCommandFailsWhenFailedCommandHasNoException() {
+        doReturn(createReturnValue(false)).when(resourceManager)
+                .runVdsCommand(eq(VDSCommandType.GetAllVmStatsAsync), any());
+
+        CompletableFuture<VDSReturnValue> result =
+                resourceManager.runNonBlockingVdsCommand(VDSCommandType.GetAllVmStatsAsync, parameters)
+                        .toCompletableFuture();
+
+        assertTrue(result.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testNonBlockingCommandTimesOutWithoutResponse() {
+        doReturn(createReturnValue(true)).when(resourceManager)
+                .runVdsCommand(eq(VDSCommandType.GetAllVmStatsAsync), any());
+
+        CompletableFuture<VDSReturnValue> result =
+                resourceManager.runNonBlockingVdsCommand(VDSCommandType.GetAllVmStatsAsync, parameters)
+                        .toCompletableFuture();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(TimeoutException.class, failure.getCause().getClass());
+    }
+
+    private static VDSReturnValue createReturnValue(boolean succeeded) {
+        VDSReturnValue returnValue = new VDSReturnValue();
+        returnValue.setSucceeded(succeeded);
+        return returnValue;
+    }
+}
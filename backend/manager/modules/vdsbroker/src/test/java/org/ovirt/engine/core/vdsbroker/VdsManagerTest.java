@@ -0,0 +1,109 @@
+package org.ovirt.engine.core.vdsbroker;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.internal.configuration.plugins.Plugins;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.plugins.MemberAccessor;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VdsDao;
+import org.ovirt.engine.core.dao.VdsDynamicDao;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.utils.lock.LockManager;
+import org.ovirt.engine.core.utils.lock.LockingResult;
+import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStrategy;
+
+@ExtendWith({ MockitoExtension.class, MockConfigExtension.class })
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class VdsManagerTest {
+
+    private static final Guid VDS_ID = Guid.newGuid();
+
+    private final MemberAccessor accessor = Plugins.getMemberAccessor();
+
+    @Mock
+    private ResourceManager resourceManager;
+
+    @Mock
+    private LockManager lockManager;
+
+    @Mock
+    private VdsDao vdsDao;
+
+    @Mock
+    private VdsDynamicDao vdsDynamicDao;
+
+    @Mock
+    private MonitoringStrategy monitoringStrategy;
+
+    private VdsManager vdsManager;
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.NumberVmRefreshesBeforeSave, 5),
+                MockConfigDescriptor.of(ConfigValues.HostMonitoringReconciliationIntervalInSeconds, 600)
+        );
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        vdsManager = new VdsManager(createVds(true), resourceManager);
+        inject("lockManager", lockManager);
+        inject("vdsDao", vdsDao);
+        inject("vdsDynamicDao", vdsDynamicDao);
+        inject("monitoringStrategy", monitoringStrategy);
+
+        when(lockManager.acquireLock(any())).thenReturn(LockingResult.success());
+        when(monitoringStrategy.isMonitoringNeeded(any())).thenReturn(false);
+        // the flag was cleared in the database by a command, not through the manager
+        when(vdsDao.get(VDS_ID)).thenReturn(createVds(false));
+    }
+
+    @Test
+    public void testInvalidatedHostIsNotWrittenBackStale() {
+        vdsManager.invalidateCachedVds();
+        vdsManager.refreshImpl();
+        vdsManager.updateDynamicData(vdsManager.getCopyVds().getDynamicData());
+
+        verify(vdsDynamicDao).updateIfNeeded(argThat(dynamicData -> !dynamicData.getNetConfigDirty()));
+        assertFalse(vdsManager.getCopyVds().getNetConfigDirty());
+    }
+
+    @Test
+    public void testHostIsNotReloadedUntilInvalidated() {
+        vdsManager.refreshImpl();
+
+        verify(vdsDao, never()).get(any());
+        assertTrue(vdsManager.getCopyVds().getNetConfigDirty());
+    }
+
+    private void inject(String fieldName, Object value) throws Exception {
+        accessor.set(VdsManager.class.getDeclaredField(fieldName), vdsManager, value);
+    }
+
+    private static VDS createVds(boolean netConfigDirty) {
+        VDS vds = new VDS();
+        vds.setId(VDS_ID);
+        vds.setStatus(VDSStatus.Up);
+        vds.setNetConfigDirty(netConfigDirty);
+        return vds;
+    }
+}
@@ -0,0 +1,87 @@
+package org.ovirt.engine.core.vdsbroker.jsonrpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VDSInfoReturn;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VMInfoListReturn;
+import org.ovirt.vdsm.jsonrpc.client.BrokerCommandCallback;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcClient;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcRequest;
+
+public class JsonRpcVdsServerTest {
+
+    private static final Map<String, Object> STATUS_DONE = createStatus(0, "Done");
+
+    private JsonRpcVdsServer server;
+    private BrokerCommandCallback callback;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        JsonRpcClient client = mock(JsonRpcClient.class);
+        doAnswer(invocation -> {
+            callback = invocation.getArgument(1);
+            return null;
+        }).when(client).call(any(JsonRpcRequest.class), any(BrokerCommandCallback.class));
+        server = new JsonRpcVdsServer(client, null);
+    }
+
+    @Test
+    public void testAsyncRequestIsCompletedByResponse() {
+        CompletableFuture<VDSInfoReturn> stats = server.getVdsStatsAsync().toCompletableFuture();
+
+        assertFalse(stats.isDone());
+        assertEquals(1, server.getInFlightRequests());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", STATUS_DONE);
+        response.put("info", Collections.singletonMap("cpuIdle", "99.5"));
+        callback.onResponse(response);
+
+        assertEquals(0, server.getInFlightRequests());
+        assertEquals(0, stats.join().status.code);
+        assertEquals("99.5", stats.join().info.get("cpuIdle"));
+    }
+
+    @Test
+    public void testAsyncRequestIsCompletedByFailure() {
+        CompletableFuture<VDSInfoReturn> capabilities = server.getCapabilitiesAsync().toCompletableFuture();
+
+        callback.onFailure(createStatus(5022, "Message timeout which can be caused by communication issues"));
+
+        assertEquals(0, server.getInFlightRequests());
+        assertEquals(5022, capabilities.join().status.code);
+    }
+
+    @Test
+    public void testAllVmStatsAsync() {
+        CompletableFuture<VMInfoListReturn> vmStats = server.getAllVmStatsAsync().toCompletableFuture();
+
+        Map<String, Object> vm = new HashMap<>();
+        vm.put("vmId", "vm1");
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", STATUS_DONE);
+        response.put("info", new Object[] { vm });
+        callback.onResponse(response);
+
+        assertEquals(1, vmStats.join().infoList.length);
+        assertEquals("vm1", vmStats.join().infoList[0].get("vmId"));
+    }
+
+    private static Map<String, Object> createStatus(int code, String message) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("code", code);
+        status.put("message", message);
+        return status;
+    }
+}
@@ -0,0 +1,121 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.IVdsServer;
+
+@ExtendWith(MockitoExtension.class)
+public class HostMonitoringStatisticsMonitorTest {
+
+    @Mock
+    private VdsManager host1;
+
+    @Mock
+    private VdsManager host2;
+
+    @Mock
+    private IVdsServer vdsProxy;
+
+    private HostMonitoringStatistics host1Statistics = new HostMonitoringStatistics();
+    private HostMonitoringStatistics host2Statistics = new HostMonitoringStatistics();
+    private HostMonitoringStatisticsMonitor monitor;
+
+    @BeforeEach
+    public void setUp() {
+        when(host1.getMonitoringStatistics()).thenReturn(host1Statistics);
+        when(host2.getMonitoringStatistics()).thenReturn(host2Statistics);
+        monitor = new HostMonitoringStatisticsMonitor(() -> Arrays.asList(host1, host2));
+
+        for (int i = 0; i < 10; i++) {
+            host1Statistics.monitoringCycleStarted();
+            host2Statistics.monitoringCycleStarted();
+        }
+        host1Statistics.hostRead();
+        host2Statistics.hostRead();
+        host2Statistics.hostRead();
+    }
+
+    @Test
+    public void testCountersAreSummedOverHosts() {
+        assertEquals(20, monitor.getMonitoringCycles());
+        assertEquals(3, monitor.getHostReads());
+        assertEquals(0.15, monitor.getHostReadsPerCycle(), 0.0001);
+    }
+
+    @Test
+    public void testHostReadsByHost() {
+        when(host1.getVdsName()).thenReturn("host1");
+        when(host2.getVdsName()).thenReturn("host2");
+
+        Map<String, Long> reads = monitor.getHostReadsByHost();
+
+        assertEquals(2, reads.size());
+        assertEquals(1L, (long) reads.get("host1"));
+        assertEquals(2L, (long) reads.get("host2"));
+    }
+
+    @Test
+    public void testVmDynamicSaves() {
+        when(host1.getVdsName()).thenReturn("host1");
+        when(host2.getVdsName()).thenReturn("host2");
+        host1Statistics.vmsMonitored(0, 0, 0);
+        host1Statistics.vmDynamicSaved(1, 2, 30);
+        host1Statistics.vmsMonitored(0, 0, 0);
+        host1Statistics.vmDynamicSaved(0, 0, 34);
+        host2Statistics.vmDynamicSaved(4, 0, 0);
+
+        assertEquals(5, monitor.getVmDynamicWritten());
+        assertEquals(2, monitor.getVmDynamicStatusWritten());
+        assertEquals(64, monitor.getVmDynamicSkipped());
+        Map<String, Long> skipped = monitor.getVmDynamicSkippedPerCycleByHost();
+        assertEquals(32L, (long) skipped.get("host1"));
+        assertEquals(0L, (long) skipped.get("host2"));
+    }
+
+    @Test
+    public void testDatabaseReadsPerCycleByHost() {
+        when(host1.getVdsName()).thenReturn("host1");
+        when(host2.getVdsName()).thenReturn("host2");
+        host1Statistics.topologyRead(3);
+
+        assertEquals(3, monitor.getTopologyReads());
+        Map<String, Double> reads = monitor.getDatabaseReadsPerCycleByHost();
+        assertEquals(0.4, reads.get("host1"), 0.0001);
+        assertEquals(0.2, reads.get("host2"), 0.0001);
+    }
+
+    @Test
+    public void testInFlightRequestsByHost() {
+        when(host1.getVdsName()).thenReturn("host1");
+        when(host2.getVdsName()).thenReturn("host2");
+        when(host1.getVdsProxy()).thenReturn(vdsProxy);
+        when(vdsProxy.getInFlightRequests()).thenReturn(2);
+
+        Map<String, Integer> inFlightRequests = monitor.getInFlightRequestsByHost();
+
+        assertEquals(2, (int) inFlightRequests.get("host1"));
+        assertEquals(0, (int) inFlightRequests.get("host2"));
+        assertEquals(2, monitor.getInFlightRequests());
+    }
+
+    @Test
+    public void testResetStatistics() {
+        host1Statistics.topologyRead(3);
+        monitor.resetStatistics();
+
+        assertEquals(0, monitor.getMonitoringCycles());
+        assertEquals(0, monitor.getHostReads());
+        assertEquals(0, monitor.getHostReadsPerCycle(), 0);
+        assertEquals(0, monitor.getTopologyReads());
+    }
+}
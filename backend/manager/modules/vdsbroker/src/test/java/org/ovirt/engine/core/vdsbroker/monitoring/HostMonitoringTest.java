@@ -1,8 +1,15 @@
 package org.ovirt.engine.core.vdsbroker.monitoring;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -13,11 +20,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
 import org.ovirt.engine.core.common.config.ConfigValues;
-import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
-import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VdsNumaNodeDao;
 import org.ovirt.engine.core.dao.network.InterfaceDao;
@@ -53,8 +59,6 @@ public class HostMonitoringTest {
     @Mock
     private MonitoringStrategy monitoringStrategy;
     @Mock
-    private ClusterDao clusterDao;
-    @Mock
     private VdsDynamicDao vdsDynamicDao;
     @Mock
     private VdsNumaNodeDao vdsNumaNodeDao;
@@ -63,9 +67,15 @@ public class HostMonitoringTest {
     @InjectMocks
     private HostMonitoring updater;
 
+    private List<VdsNetworkInterface> interfaces = new ArrayList<>();
+
     @BeforeEach
     public void initVds() {
         when(vds.getId()).thenReturn(new Guid("00000000-0000-0000-0000-000000000012"));
+        when(vds.getInterfaces()).thenReturn(interfaces);
+        when(vdsManager.getHostTopology()).thenReturn(new HostTopology(cluster,
+                Collections.emptyList(),
+                Collections.singletonList(new VdsNetworkInterface())));
     }
 
     /**
@@ -73,11 +83,21 @@ public class HostMonitoringTest {
      */
     @Test
     public void testErrorHandling() {
-        VDSReturnValue value = new VDSReturnValue();
-        value.setSucceeded(false);
-        value.setExceptionObject(new VDSNetworkException("unknown host"));
-        when(resourceManager.runVdsCommand(any(), any())).thenReturn(value);
+        when(resourceManager.runNonBlockingVdsCommand(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new VDSNetworkException("unknown host")));
 
         updater.refreshVdsStats(true);
+
+        verify(vdsManager).afterRefreshTreatment(false);
+    }
+
+    @Test
+    public void testInterfacesAreTakenFromHostTopology() {
+        when(resourceManager.runNonBlockingVdsCommand(any(), any())).thenReturn(new CompletableFuture<>());
+
+        updater.refreshVdsStats(true);
+
+        assertEquals(1, interfaces.size());
+        verify(interfaceDao, never()).getAllInterfacesForVds(any());
     }
 }
@@ -0,0 +1,206 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VdsStatisticsDao;
+import org.ovirt.engine.core.dao.VmStatisticsDao;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.utils.MockedConfig;
+
+@ExtendWith({ MockitoExtension.class, MockConfigExtension.class })
+public class StatisticsWriteBehindBufferTest {
+
+    private static final Guid VM1 = Guid.newGuid();
+    private static final Guid VM2 = Guid.newGuid();
+    private static final Guid HOST = Guid.newGuid();
+
+    @Mock
+    private VmStatisticsDao vmStatisticsDao;
+    @Mock
+    private VdsStatisticsDao vdsStatisticsDao;
+    @Mock
+    private ManagedScheduledExecutorService schedulerService;
+    @Captor
+    private ArgumentCaptor<Collection<VmStatistics>> vmStatisticsCaptor;
+    @Captor
+    private ArgumentCaptor<Runnable> flushCaptor;
+
+    @InjectMocks
+    private StatisticsWriteBehindBuffer buffer;
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.StatisticsWriteBehindIntervalInSeconds, 10),
+                MockConfigDescriptor.of(ConfigValues.StatisticsWriteBehindFlushThreshold, 3));
+    }
+
+    public static Stream<MockConfigDescriptor<?>> mockDisabledConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.StatisticsWriteBehindIntervalInSeconds, 0),
+                MockConfigDescriptor.of(ConfigValues.StatisticsWriteBehindFlushThreshold, 3));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        buffer.destroy();
+    }
+
+    @Test
+    @MockedConfig("mockDisabledConfiguration")
+    public void testStatisticsAreWrittenRightAwayWhenDisabled() {
+        buffer.init();
+        VmStatistics statistics = createVmStatistics(VM1, 1);
+        VdsStatistics hostStatistics = createHostStatistics();
+
+        buffer.saveVmStatistics(Collections.singletonList(statistics));
+        buffer.saveHostStatistics(hostStatistics);
+
+        verify(vmStatisticsDao).updateAllInBatch(Collections.singletonList(statistics));
+        verify(vdsStatisticsDao).update(hostStatistics);
+        assertEquals(0, buffer.getPendingVmStatisticsCount());
+        assertEquals(0, buffer.getPendingHostStatisticsCount());
+    }
+
+    @Test
+    public void testStatisticsOfTheSameVmAreCoalesced() {
+        buffer.init();
+        VmStatistics latest = createVmStatistics(VM1, 2);
+
+        buffer.saveVmStatistics(Collections.singletonList(createVmStatistics(VM1, 1)));
+        buffer.saveVmStatistics(Collections.singletonList(latest));
+
+        verifyZeroInteractions(vmStatisticsDao);
+        assertEquals(1, buffer.getPendingVmStatisticsCount());
+        assertEquals(2, buffer.getBufferedCount());
+        assertEquals(1, buffer.getCoalescedCount());
+
+        buffer.flush();
+
+        verify(vmStatisticsDao).updateAllInBatch(vmStatisticsCaptor.capture());
+        assertEquals(Collections.singletonList(latest), vmStatisticsCaptor.getValue());
+        assertEquals(0, buffer.getPendingVmStatisticsCount());
+        assertEquals(1, buffer.getWrittenCount());
+    }
+
+    @Test
+    public void testReachingTheThresholdSubmitsFlush() {
+        buffer.init();
+
+        buffer.saveVmStatistics(Arrays.asList(createVmStatistics(VM1, 1), createVmStatistics(VM2, 1)));
+        buffer.saveHostStatistics(createHostStatistics());
+
+        verify(schedulerService).execute(flushCaptor.capture());
+        verifyZeroInteractions(vmStatisticsDao);
+
+        flushCaptor.getValue().run();
+
+        verify(vmStatisticsDao).updateAllInBatch(anyCollection());
+        verify(vdsStatisticsDao).update(any());
+        assertEquals(3, buffer.getWrittenCount());
+        assertEquals(0, buffer.getBackPressureFlushCount());
+    }
+
+    @Test
+    public void testMonitoringFlushesWhenFlushesDoNotKeepUp() {
+        buffer.init();
+
+        buffer.saveVmStatistics(Arrays.asList(createVmStatistics(VM1, 1), createVmStatistics(VM2, 1)));
+        buffer.saveHostStatistics(createHostStatistics());
+        buffer.saveVmStatistics(Arrays.asList(createVmStatistics(Guid.newGuid(), 1),
+                createVmStatistics(Guid.newGuid(), 1),
+                createVmStatistics(Guid.newGuid(), 1)));
+
+        verify(vmStatisticsDao).updateAllInBatch(vmStatisticsCaptor.capture());
+        assertEquals(5, vmStatisticsCaptor.getValue().size());
+        assertEquals(1, buffer.getBackPressureFlushCount());
+        assertEquals(0, buffer.getPendingVmStatisticsCount());
+    }
+
+    @Test
+    public void testDirectWriteReplacesPendingStatistics() {
+        buffer.init();
+        VmStatistics statistics = createVmStatistics(VM1, 2);
+
+        buffer.saveVmStatistics(Collections.singletonList(createVmStatistics(VM1, 1)));
+        buffer.updateVmStatistics(statistics);
+        buffer.flush();
+
+        verify(vmStatisticsDao).update(statistics);
+        verify(vmStatisticsDao, never()).updateAllInBatch(anyCollection());
+    }
+
+    @Test
+    public void testDirectWriteDoesNotHoldBackFlushes() {
+        buffer.init();
+        VmStatistics statistics = createVmStatistics(VM1, 2);
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(buffer::flush).get(1, TimeUnit.SECONDS);
+            return null;
+        }).when(vmStatisticsDao).update(statistics);
+
+        buffer.saveVmStatistics(Collections.singletonList(createVmStatistics(VM2, 1)));
+        buffer.updateVmStatistics(statistics);
+
+        verify(vmStatisticsDao).updateAllInBatch(anyCollection());
+        assertEquals(1, buffer.getFlushCount());
+    }
+
+    @Test
+    public void testFailedFlushIsRetried() {
+        buffer.init();
+        VmStatistics statistics = createVmStatistics(VM1, 1);
+        doThrow(new RuntimeException()).doNothing().when(vmStatisticsDao).updateAllInBatch(anyCollection());
+
+        buffer.saveVmStatistics(Collections.singletonList(statistics));
+        buffer.flush();
+
+        assertEquals(1, buffer.getFailedFlushCount());
+        assertEquals(1, buffer.getPendingVmStatisticsCount());
+
+        buffer.flush();
+
+        assertEquals(0, buffer.getPendingVmStatisticsCount());
+        assertEquals(1, buffer.getWrittenCount());
+    }
+
+    private static VmStatistics createVmStatistics(Guid vmId, int cpuUsage) {
+        VmStatistics statistics = new VmStatistics(vmId);
+        statistics.setUsageCpuPercent(cpuUsage);
+        return statistics;
+    }
+
+    private static VdsStatistics createHostStatistics() {
+        VdsStatistics statistics = new VdsStatistics();
+        statistics.setId(HOST);
+        return statistics;
+    }
+}
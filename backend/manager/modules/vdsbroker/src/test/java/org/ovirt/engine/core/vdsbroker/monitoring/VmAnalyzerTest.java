@@ -18,6 +18,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
 import java.util.Objects;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +38,7 @@ import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VDSStatus;
 import org.ovirt.engine.core.common.businessentities.VMStatus;
 import org.ovirt.engine.core.common.businessentities.VdsDynamic;
+import org.ovirt.engine.core.common.businessentities.VmDynamic;
 import org.ovirt.engine.core.common.businessentities.VmExitReason;
 import org.ovirt.engine.core.common.businessentities.VmExitStatus;
 import org.ovirt.engine.core.common.businessentities.VmPauseStatus;
@@ -312,6 +314,41 @@ public class VmAnalyzerTest {
         assertNull(vmAnalyzer.getVmDynamicToSave());
     }
 
+    @Test
+    public void externalVmIsSavedAsAWhole() {
+        initMocks(VmTestPairs.EXTERNAL_VM, true);
+        assertNotNull(vmAnalyzer.getVmDynamicToSave());
+        assertNull(vmAnalyzer.getChangedVmDynamicFields());
+    }
+
+    @Test
+    public void unchangedRuntimeDataIsNotSaved() {
+        VmTestPairs data = VmTestPairs.STATUS_CHANGED_TO_UP;
+        reportUnchangedVm(data, VMStatus.Up);
+        // reported but not kept in the database, so the analyzer considers the runtime data changed
+        data.vdsmVm().getVmDynamic().setGuestRequestedMemory(1024);
+        initMocks(data, true);
+        assertNotNull(vmAnalyzer.getVmDynamicToSave());
+        assertTrue(vmAnalyzer.getChangedVmDynamicFields().isEmpty());
+    }
+
+    @Test
+    public void onlyStatusChanged() {
+        VmTestPairs data = VmTestPairs.STATUS_CHANGED_TO_UP;
+        reportUnchangedVm(data, VMStatus.PoweringUp);
+        initMocks(data, true);
+        assertNotNull(vmAnalyzer.getVmDynamicToSave());
+        assertEquals(Collections.singleton("status"), vmAnalyzer.getChangedVmDynamicFields());
+    }
+
+    private void reportUnchangedVm(VmTestPairs data, VMStatus dbStatus) {
+        VmDynamic vdsmVm = data.vdsmVm().getVmDynamic();
+        data.dbVm().setStatus(dbStatus);
+        vdsmVm.setStatus(VMStatus.Up);
+        vdsmVm.setLastWatchdogEvent(data.dbVm().getDynamicData().getLastWatchdogEvent());
+        vdsmVm.setClientIp(data.dbVm().getClientIp());
+    }
+
     @Test
     public void prepareGuestAgentNetworkDevicesForUpdate() {
         // TODO add tests
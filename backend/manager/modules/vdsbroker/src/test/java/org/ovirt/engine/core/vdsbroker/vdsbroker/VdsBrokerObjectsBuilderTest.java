@@ -164,6 +164,44 @@ public class VdsBrokerObjectsBuilderTest {
         assertEquals(disks.get(0).getFlushLatency(), new Double(DEFAULT_VALUE));
     }
 
+    @Test
+    public void testVmStatisticsNumbers() {
+        Map<String, Object> guestMemStats = new HashMap<>();
+        guestMemStats.put(VdsProperties.vm_guest_mem_buffered, 1024);
+        guestMemStats.put(VdsProperties.vm_guest_mem_cached, "2048");
+        guestMemStats.put(VdsProperties.vm_guest_mem_free, 4096L);
+        Map<String, Object> struct = new HashMap<>();
+        struct.put(VdsProperties.vm_usage_mem_percent, "42.75");
+        struct.put(VdsProperties.vm_migration_progress_percent, 13);
+        struct.put(VdsProperties.cpu_user, "1.5");
+        struct.put(VdsProperties.vm_guest_mem_stats, guestMemStats);
+
+        VmStatistics vmStatistics = vdsBrokerObjectsBuilder.buildVMStatisticsData(struct);
+
+        assertEquals(42, (int) vmStatistics.getUsageMemPercent());
+        assertEquals(13, (int) vmStatistics.getMigrationProgressPercent());
+        assertEquals(1.5, vmStatistics.getCpuUser(), 0);
+        assertEquals(1024L, (long) vmStatistics.getGuestMemoryBuffered());
+        assertEquals(2048L, (long) vmStatistics.getGuestMemoryCached());
+        assertEquals(4096L, (long) vmStatistics.getGuestMemoryFree());
+        assertNull(vmStatistics.getGuestMemoryUnused());
+    }
+
+    @Test
+    public void testDecimalDiskStatistics() {
+        Map<String, Object> diskData = setDiskData();
+        diskData.put(VdsProperties.vm_disk_read_rate, "1536.6");
+        diskData.put(VdsProperties.vm_disk_read_ops, "12.0");
+        diskData.put(VdsProperties.disk_true_size, 7);
+        Map<String, Object> xml = setMockForTesting(diskData);
+
+        DiskImageDynamic disk = vdsBrokerObjectsBuilder.buildVmDiskStatistics(xml).get(0);
+
+        assertEquals(1536, (int) disk.getReadRate());
+        assertEquals(12L, (long) disk.getReadOps());
+        assertEquals(7L, disk.getActualSize());
+    }
+
     @Test
     public void testDiskStats() {
         Map<String, Object> disksStats = new HashMap<>();
@@ -231,6 +231,35 @@ END;$PROCEDURE$
 
 LANGUAGE plpgsql;
 
+-- Returns the commands of the command trees that have at least one command which did not end yet,
+-- a tree is made of a root command and the commands which reference it as their root
+CREATE OR REPLACE FUNCTION GetAllFromCommandEntitiesOfActiveTrees ()
+RETURNS SETOF command_entities STABLE AS $PROCEDURE$
+
+BEGIN
+    RETURN QUERY
+
+    SELECT command_entities.*
+    FROM command_entities
+    WHERE COALESCE(NULLIF(root_command_id, '00000000-0000-0000-0000-000000000000'), command_id) IN (
+            SELECT COALESCE(NULLIF(active_commands.root_command_id, '00000000-0000-0000-0000-000000000000'),
+                    active_commands.command_id)
+            FROM command_entities active_commands
+            WHERE active_commands.status IN (
+                    'ACTIVE',
+                    'FAILED',
+                    'EXECUTION_FAILED',
+                    'SUCCEEDED'
+                    )
+                OR (
+                    active_commands.callback_enabled
+                    AND NOT active_commands.callback_notified
+                    )
+            );
+END;$PROCEDURE$
+
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION GetCommandEntitiesByParentCmdId (v_root_command_id uuid)
 RETURNS SETOF command_entities STABLE AS $PROCEDURE$
 
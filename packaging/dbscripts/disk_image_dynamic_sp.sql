@@ -112,6 +112,66 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+-- Applies the statistics copied into disk_image_dynamic_staging under the given batch and removes them from there,
+-- the rows are matched the same way Updatedisk_image_dynamic_by_disk_id_and_vm_id matches them
+CREATE OR REPLACE FUNCTION Applydisk_image_dynamic_staging (v_batch_id UUID)
+RETURNS VOID AS $PROCEDURE$
+BEGIN
+    -- Lock the rows in a consistent order, as the update of a batch of rows does
+    PERFORM 1
+    FROM disk_image_dynamic
+    WHERE image_id IN (
+            SELECT i.image_guid
+            FROM disk_image_dynamic_staging s
+            INNER JOIN images i
+                ON i.image_group_id = s.image_group_id
+                    AND i.active = true
+            WHERE s.batch_id = v_batch_id
+            )
+    ORDER BY image_id
+    FOR UPDATE;
+
+    UPDATE disk_image_dynamic
+    SET read_rate = u.read_rate,
+        read_ops = u.read_ops,
+        write_rate = u.write_rate,
+        write_ops = u.write_ops,
+        actual_size = u.actual_size,
+        read_latency_seconds = u.read_latency_seconds,
+        write_latency_seconds = u.write_latency_seconds,
+        flush_latency_seconds = u.flush_latency_seconds,
+        _update_date = LOCALTIMESTAMP
+    FROM (
+        SELECT DISTINCT ON (i.image_guid) i.image_guid,
+            s.read_rate,
+            s.read_ops,
+            s.write_rate,
+            s.write_ops,
+            s.actual_size,
+            s.read_latency_seconds,
+            s.write_latency_seconds,
+            s.flush_latency_seconds
+        FROM disk_image_dynamic_staging s
+        INNER JOIN images i
+            ON i.image_group_id = s.image_group_id
+                AND i.active = true
+        WHERE s.batch_id = v_batch_id
+            AND EXISTS (
+                SELECT 1
+                FROM vm_device vmd
+                WHERE vmd.vm_id = s.vm_id
+                    AND vmd.device_id = s.image_group_id
+                    AND vmd.snapshot_id IS NULL
+                )
+        ) u
+    WHERE disk_image_dynamic.image_id = u.image_guid;
+
+    DELETE
+    FROM disk_image_dynamic_staging
+    WHERE batch_id = v_batch_id;
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION Deletedisk_image_dynamic (v_image_id UUID)
 RETURNS VOID AS $PROCEDURE$
 BEGIN
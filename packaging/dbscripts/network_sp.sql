@@ -1410,6 +1410,44 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+-- Applies the statistics copied into vm_interface_statistics_staging under the given batch and removes them from there
+CREATE OR REPLACE FUNCTION Applyvm_interface_statistics_staging (v_batch_id UUID)
+RETURNS VOID AS $PROCEDURE$
+BEGIN
+    -- Lock the rows in a consistent order, as the update of a batch of rows does
+    PERFORM 1
+    FROM vm_interface_statistics
+    WHERE id IN (
+            SELECT id
+            FROM vm_interface_statistics_staging
+            WHERE batch_id = v_batch_id
+            )
+    ORDER BY id
+    FOR UPDATE;
+
+    UPDATE vm_interface_statistics
+    SET rx_drop = s.rx_drop,
+        rx_rate = s.rx_rate,
+        rx_total = s.rx_total,
+        rx_offset = s.rx_offset,
+        tx_drop = s.tx_drop,
+        tx_rate = s.tx_rate,
+        tx_total = s.tx_total,
+        tx_offset = s.tx_offset,
+        vm_id = s.vm_id,
+        iface_status = s.iface_status,
+        sample_time = s.sample_time,
+        _update_date = LOCALTIMESTAMP
+    FROM vm_interface_statistics_staging s
+    WHERE s.batch_id = v_batch_id
+        AND vm_interface_statistics.id = s.id;
+
+    DELETE
+    FROM vm_interface_statistics_staging
+    WHERE batch_id = v_batch_id;
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION Deletevm_interface_statistics (v_id UUID)
 RETURNS VOID AS $PROCEDURE$
 DECLARE v_val UUID;
@@ -0,0 +1,52 @@
+-- Staging tables the statistics are copied into before they are applied to their tables by a single UPDATE.
+-- Rows of concurrent writers are told apart by batch_id, and the tables are unlogged since their content
+-- is deleted as soon as it is applied.
+CREATE UNLOGGED TABLE vm_statistics_staging (
+    batch_id UUID NOT NULL,
+    vm_guid UUID NOT NULL,
+    cpu_sys DECIMAL(18, 0),
+    cpu_user DECIMAL(18, 0),
+    elapsed_time DECIMAL(18, 0),
+    usage_cpu_percent INT,
+    usage_mem_percent INT,
+    usage_network_percent INT,
+    disks_usage TEXT,
+    guest_mem_buffered BIGINT,
+    guest_mem_cached BIGINT
+);
+
+CREATE INDEX idx_vm_statistics_staging_batch_id ON vm_statistics_staging (batch_id);
+
+CREATE UNLOGGED TABLE vm_interface_statistics_staging (
+    batch_id UUID NOT NULL,
+    id UUID NOT NULL,
+    rx_drop DECIMAL(18, 4),
+    rx_rate DECIMAL(18, 4),
+    rx_total BIGINT,
+    rx_offset BIGINT,
+    tx_drop DECIMAL(18, 4),
+    tx_rate DECIMAL(18, 4),
+    tx_total BIGINT,
+    tx_offset BIGINT,
+    iface_status INT,
+    sample_time FLOAT,
+    vm_id UUID
+);
+
+CREATE INDEX idx_vm_interface_statistics_staging_batch_id ON vm_interface_statistics_staging (batch_id);
+
+CREATE UNLOGGED TABLE disk_image_dynamic_staging (
+    batch_id UUID NOT NULL,
+    vm_id UUID NOT NULL,
+    image_group_id UUID NOT NULL,
+    read_rate INT,
+    read_ops BIGINT,
+    write_rate INT,
+    write_ops BIGINT,
+    actual_size BIGINT,
+    read_latency_seconds NUMERIC(18, 9),
+    write_latency_seconds NUMERIC(18, 9),
+    flush_latency_seconds NUMERIC(18, 9)
+);
+
+CREATE INDEX idx_disk_image_dynamic_staging_batch_id ON disk_image_dynamic_staging (batch_id);
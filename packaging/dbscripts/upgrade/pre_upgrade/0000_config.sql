@@ -901,6 +901,20 @@ select fn_db_add_config_value_for_versions_up_to('SkuToAVLevel', '', '4.6');
 
 -- UUID of this oVirt instance
 select fn_db_add_config_value('InstanceId', uuid_generate_v1()::varchar, 'general');
+select fn_db_add_config_value('SearchQueryCacheMaxSize', '10000', 'general');
+select fn_db_add_config_value('SearchQueryCacheTimeToLiveInMinutes', '1440', 'general');
+select fn_db_add_config_value('HostMonitoringReconciliationIntervalInSeconds', '60', 'general');
+select fn_db_add_config_value('VmsMonitoringParallelism', '1', 'general');
+select fn_db_add_config_value('CopyBasedStatisticsUpdateTables', '', 'general');
+select fn_db_add_config_value('StatisticsWriteBehindIntervalInSeconds', '0', 'general');
+select fn_db_add_config_value('StatisticsWriteBehindFlushThreshold', '5000', 'general');
+select fn_db_add_config_value('CommandCallbacksPollingParallelism', '1', 'general');
+select fn_db_add_config_value('EndedCommandsCacheTimeToLiveInMinutes', '10', 'general');
+select fn_db_add_config_value('AuditLogWriteBehindIntervalInMilliseconds', '1000', 'general');
+select fn_db_add_config_value('AuditLogWriteBehindQueueSize', '10000', 'general');
+select fn_db_add_config_value('AuditLogWriteBehindBatchSize', '500', 'general');
+select fn_db_add_config_value('LoadBalancingParallelism', '4', 'general');
+select fn_db_add_config_value('LoadBalancingTimeBudgetInSeconds', '60', 'general');
 ------------------------------------------------------------------------------------
 --                  Update with override section
 ------------------------------------------------------------------------------------
@@ -225,6 +225,42 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+-- Applies the statistics copied into vm_statistics_staging under the given batch and removes them from there
+CREATE OR REPLACE FUNCTION ApplyVmStatisticsStaging (v_batch_id UUID)
+RETURNS VOID AS $PROCEDURE$
+BEGIN
+    -- Lock the rows in a consistent order, as the update of a batch of rows does
+    PERFORM 1
+    FROM vm_statistics
+    WHERE vm_guid IN (
+            SELECT vm_guid
+            FROM vm_statistics_staging
+            WHERE batch_id = v_batch_id
+            )
+    ORDER BY vm_guid
+    FOR UPDATE;
+
+    UPDATE vm_statistics
+    SET cpu_sys = s.cpu_sys,
+        cpu_user = s.cpu_user,
+        elapsed_time = s.elapsed_time,
+        usage_cpu_percent = s.usage_cpu_percent,
+        usage_mem_percent = s.usage_mem_percent,
+        usage_network_percent = s.usage_network_percent,
+        disks_usage = s.disks_usage,
+        guest_mem_buffered = s.guest_mem_buffered,
+        guest_mem_cached = s.guest_mem_cached,
+        _update_date = LOCALTIMESTAMP
+    FROM vm_statistics_staging s
+    WHERE s.batch_id = v_batch_id
+        AND vm_statistics.vm_guid = s.vm_guid;
+
+    DELETE
+    FROM vm_statistics_staging
+    WHERE batch_id = v_batch_id;
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION DeleteVmStatistics (v_vm_guid UUID)
 RETURNS VOID AS $PROCEDURE$
 BEGIN